@@ -101,6 +101,36 @@ public interface CliConfig {
      */
     boolean isValidateOperationRequests();
 
+    /**
+     * Whether the operation and resource descriptions read from the controller
+     * to validate operation requests and tab-complete them should be cached.
+     *
+     * @return  true if the descriptions should be cached, false - otherwise.
+     */
+    boolean isOperationDescriptionCacheEnabled();
+
+    /**
+     * Whether the cached operation and resource descriptions should be persisted
+     * between CLI sessions.
+     *
+     * @return  true if the description cache should be persisted, false - otherwise.
+     */
+    boolean isOperationDescriptionCachePersistent();
+
+    /**
+     * The name of the file the operation and resource descriptions are persisted to.
+     *
+     * @return  name of the description cache file
+     */
+    String getOperationDescriptionCacheFileName();
+
+    /**
+     * The directory which contains the file the operation and resource descriptions are persisted to.
+     *
+     * @return  directory which contains the description cache file
+     */
+    String getOperationDescriptionCacheFileDir();
+
     /**
      * Whether to resolve system properties specified as command argument
      * (or operation parameter) values before sending the operation request
@@ -37,6 +37,7 @@ import org.jboss.as.cli.OperationCommand;
 import org.jboss.as.cli.Util;
 import org.jboss.as.cli.impl.ArgumentWithValue;
 import org.jboss.as.cli.impl.HeadersArgumentValueConverter;
+import org.jboss.as.cli.impl.OperationDescriptionCache;
 import org.jboss.as.cli.impl.RequestParameterArgument;
 import org.jboss.as.cli.operation.OperationRequestAddress;
 import org.jboss.as.cli.operation.CommandLineParser;
@@ -210,6 +211,7 @@ public abstract class BaseOperationCommand extends CommandHandlerWithHelp implem
         if (!Util.isSuccess(response)) {
             throw new CommandFormatException(Util.getFailureDescription(response));
         }
+        OperationDescriptionCache.requestExecuted(ctx, request);
         handleResponse(ctx, response, Util.COMPOSITE.equals(request.get(Util.OPERATION).asString()));
     }
 
@@ -35,6 +35,7 @@ import org.jboss.as.cli.CommandHandler;
 import org.jboss.as.cli.CommandLineException;
 import org.jboss.as.cli.OperationCommand;
 import org.jboss.as.cli.Util;
+import org.jboss.as.cli.impl.OperationDescriptionCache;
 import org.jboss.as.cli.operation.impl.DefaultCallbackHandler;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.dmr.ModelNode;
@@ -76,7 +77,7 @@ public class OperationRequestHandler implements CommandHandler, OperationCommand
         try {
             final ModelNode result = client.execute(request);
             if(Util.isSuccess(result)) {
-                ctx.printLine(result.toString());
+                printResponse(ctx, request, result);
             } else {
                 throw new CommandLineException(result.toString());
             }
@@ -92,6 +93,18 @@ public class OperationRequestHandler implements CommandHandler, OperationCommand
         }
     }
 
+    /**
+     * Prints the response to a successfully executed request.
+     *
+     * @param ctx  the command context
+     * @param request  the executed request
+     * @param response  the response to the request
+     */
+    public static void printResponse(CommandContext ctx, ModelNode request, ModelNode response) {
+        OperationDescriptionCache.requestExecuted(ctx, request);
+        ctx.printLine(response.toString());
+    }
+
     @Override
     public boolean isAvailable(CommandContext ctx) {
         return true;
@@ -122,7 +135,7 @@ public class OperationRequestHandler implements CommandHandler, OperationCommand
         return Collections.emptyList();
     }
 
-    private void validateRequest(CommandContext ctx, ModelNode request) throws CommandFormatException {
+    public void validateRequest(CommandContext ctx, ModelNode request) throws CommandFormatException {
 
         final ModelControllerClient client = ctx.getModelControllerClient();
         if(client == null) {
@@ -145,17 +158,26 @@ public class OperationRequestHandler implements CommandHandler, OperationCommand
             return;
         }
 
-        final ModelNode opDescrReq = new ModelNode();
-        opDescrReq.get(Util.ADDRESS).set(address);
-        opDescrReq.get(Util.OPERATION).set(Util.READ_OPERATION_DESCRIPTION);
-        opDescrReq.get(Util.NAME).set(operationName);
+        try {
+            validateProperties(operationName, keys, readOperationDescription(ctx, address, operationName));
+        } catch(CommandFormatException e) {
+            if(!OperationDescriptionCache.evictOperationDescription(ctx, address, operationName)) {
+                throw e;
+            }
+            // the cached description might be out of date
+            validateProperties(operationName, keys, readOperationDescription(ctx, address, operationName));
+        }
+    }
 
-        final ModelNode outcome;
+    private ModelNode readOperationDescription(CommandContext ctx, ModelNode address, String operationName) throws CommandFormatException {
         try {
-            outcome = client.execute(opDescrReq);
+            return OperationDescriptionCache.readOperationDescription(ctx, address, operationName);
         } catch(Exception e) {
             throw new CommandFormatException("Failed to perform " + Util.READ_OPERATION_DESCRIPTION + " to validate the request: " + e.getLocalizedMessage());
         }
+    }
+
+    private void validateProperties(String operationName, Set<String> keys, ModelNode outcome) throws CommandFormatException {
         if (!Util.isSuccess(outcome)) {
             throw new CommandFormatException("Failed to get the list of the operation properties: \"" + Util.getFailureDescription(outcome) + '\"');
         }
@@ -62,6 +62,8 @@ class CliConfigImpl implements CliConfig {
     private static final String HISTORY = "history";
     private static final String HOST = "host";
     private static final String MAX_SIZE = "max-size";
+    private static final String OPERATION_DESCRIPTION_CACHE = "operation-description-cache";
+    private static final String PERSISTENT = "persistent";
     private static final String PORT = "port";
     private static final String PROTOCOL = "protocol";
     private static final String CONNECTION_TIMEOUT = "connection-timeout";
@@ -177,6 +179,11 @@ class CliConfigImpl implements CliConfig {
         historyFileDir = WildFlySecurityManager.getPropertyPrivileged("user.home", null);
         historyMaxSize = 500;
 
+        descriptionCacheEnabled = true;
+        descriptionCachePersistent = false;
+        descriptionCacheFileName = ".jboss-cli-descriptions";
+        descriptionCacheFileDir = WildFlySecurityManager.getPropertyPrivileged("user.home", null);
+
         connectionTimeout = 5000;
     }
 
@@ -189,6 +196,11 @@ class CliConfigImpl implements CliConfig {
     private String historyFileDir;
     private int historyMaxSize;
 
+    private boolean descriptionCacheEnabled;
+    private boolean descriptionCachePersistent;
+    private String descriptionCacheFileName;
+    private String descriptionCacheFileDir;
+
     private int connectionTimeout;
 
     private boolean validateOperationRequests = true;
@@ -233,6 +245,26 @@ class CliConfigImpl implements CliConfig {
         return historyMaxSize;
     }
 
+    @Override
+    public boolean isOperationDescriptionCacheEnabled() {
+        return descriptionCacheEnabled;
+    }
+
+    @Override
+    public boolean isOperationDescriptionCachePersistent() {
+        return descriptionCachePersistent;
+    }
+
+    @Override
+    public String getOperationDescriptionCacheFileName() {
+        return descriptionCacheFileName;
+    }
+
+    @Override
+    public String getOperationDescriptionCacheFileDir() {
+        return descriptionCacheFileDir;
+    }
+
     @Override
     public int getConnectionTimeout() {
         return connectionTimeout;
@@ -357,6 +389,8 @@ class CliConfigImpl implements CliConfig {
                         readDefaultController(reader, expectedNs, config);
                     } else if(localName.equals(HISTORY)) {
                         readHistory(reader, expectedNs, config);
+                    } else if(localName.equals(OPERATION_DESCRIPTION_CACHE)) {
+                        readOperationDescriptionCache(reader, expectedNs, config);
                     } else if (localName.equals("ssl")) {
                         SslConfig sslConfig = new SslConfig();
                         switch (expectedNs) {
@@ -436,6 +470,25 @@ class CliConfigImpl implements CliConfig {
             }
         }
 
+        private void readOperationDescriptionCache(XMLExtendedStreamReader reader, Namespace expectedNs, CliConfigImpl config) throws XMLStreamException {
+            while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+                assertExpectedNamespace(reader, expectedNs);
+                final String localName = reader.getLocalName();
+                final String resolved = resolveString(reader.getElementText());
+                if (ENABLED.equals(localName)) {
+                    config.descriptionCacheEnabled = Boolean.parseBoolean(resolved);
+                } else if (PERSISTENT.equals(localName)) {
+                    config.descriptionCachePersistent = Boolean.parseBoolean(resolved);
+                } else if (FILE_NAME.equals(localName)) {
+                    config.descriptionCacheFileName = resolved;
+                } else if (FILE_DIR.equals(localName)) {
+                    config.descriptionCacheFileDir = resolved;
+                } else {
+                    throw new XMLStreamException("Unexpected child of " + OPERATION_DESCRIPTION_CACHE + ": " + localName);
+                }
+            }
+        }
+
         public void readSSLElement_1_0(XMLExtendedStreamReader reader, Namespace expectedNs, SslConfig config) throws XMLStreamException {
             while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
                 assertExpectedNamespace(reader, expectedNs);
@@ -62,6 +62,7 @@ public class CliLauncher {
             String username = null;
             char[] password = null;
             int connectionTimeout = -1;
+            int pipeline = 0;
 
             for(String arg : args) {
                 if(arg.startsWith("--controller=") || arg.startsWith("controller=")) {
@@ -150,6 +151,25 @@ public class CliLauncher {
                         argError = "Argument '--file' is missing value.";
                         break;
                     }
+                } else if(arg.equals("--pipeline") || arg.startsWith("--pipeline=")) {
+                    if(pipeline > 0) {
+                        argError = "Duplicate argument '--pipeline'.";
+                        break;
+                    }
+                    if(arg.length() == 10) {
+                        pipeline = OperationPipeline.DEFAULT_WINDOW;
+                    } else {
+                        final String value = arg.substring(11);
+                        try {
+                            pipeline = Integer.parseInt(value);
+                        } catch (final NumberFormatException e) {
+                            //
+                        }
+                        if(pipeline <= 0) {
+                            argError = "The pipeline window must be a valid positive integer: '" + value + "'";
+                            break;
+                        }
+                    }
                 } else if(arg.startsWith("--commands=") || arg.startsWith("commands=")) {
                     if(file != null) {
                         argError = "Only one of '--file', '--commands' or '--command' can appear as the argument at a time.";
@@ -235,6 +255,10 @@ public class CliLauncher {
                 }
             }
 
+            if(argError == null && pipeline > 0 && file == null) {
+                argError = "Argument '--pipeline' can only be used with '--file'.";
+            }
+
             if(argError != null) {
                 System.err.println(argError);
                 exitCode = 1;
@@ -249,7 +273,7 @@ public class CliLauncher {
 
             if(file != null) {
                 cmdCtx = initCommandContext(defaultControllerProtocol, defaultControllerHost, defaultControllerPort, username, password, false, connect, connectionTimeout);
-                processFile(file, cmdCtx);
+                processFile(file, cmdCtx, pipeline);
                 return;
             }
 
@@ -314,11 +338,15 @@ public class CliLauncher {
         }
     }
 
-    private static void processFile(File file, final CommandContext cmdCtx) {
+    private static void processFile(File file, final CommandContext cmdCtx, int pipeline) {
 
         BufferedReader reader = null;
         try {
             reader = new BufferedReader(new FileReader(file));
+            if(pipeline > 0 && cmdCtx instanceof CommandContextImpl) {
+                new OperationPipeline((CommandContextImpl) cmdCtx, file.getName(), pipeline).process(reader);
+                return;
+            }
             String line = reader.readLine();
             while (cmdCtx.getExitCode() == 0 && !cmdCtx.isTerminated() && line != null) {
                 cmdCtx.handleSafe(line.trim());
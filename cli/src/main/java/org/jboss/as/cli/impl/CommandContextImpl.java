@@ -209,6 +209,8 @@ class CommandContextImpl implements CommandContext, ModelControllerClientFactory
     private BatchManager batchManager = new DefaultBatchManager();
     /** the default command completer */
     private final CommandCompleter cmdCompleter;
+    /** cache of the operation and resource descriptions */
+    private OperationDescriptionCache descriptionCache;
 
     /** output target */
     private BufferedWriter outputTarget;
@@ -284,6 +286,7 @@ class CommandContextImpl implements CommandContext, ModelControllerClientFactory
         resolveParameterValues = config.isResolveParameterValues();
         silent = config.isSilent();
         initCommands();
+        initDescriptionCache();
 
         initSSLContext();
 
@@ -327,6 +330,7 @@ class CommandContextImpl implements CommandContext, ModelControllerClientFactory
         resolveParameterValues = config.isResolveParameterValues();
         silent = config.isSilent();
         initCommands();
+        initDescriptionCache();
 
         initSSLContext();
 
@@ -519,6 +523,18 @@ class CommandContextImpl implements CommandContext, ModelControllerClientFactory
         }
     }
 
+    private void initDescriptionCache() {
+        if(!config.isOperationDescriptionCacheEnabled()) {
+            return;
+        }
+        File cacheFile = null;
+        if(config.isOperationDescriptionCachePersistent()) {
+            cacheFile = new File(config.getOperationDescriptionCacheFileDir(), config.getOperationDescriptionCacheFileName());
+        }
+        descriptionCache = new OperationDescriptionCache(cacheFile);
+        set(OperationDescriptionCache.CONTEXT_KEY, descriptionCache);
+    }
+
     @Override
     public boolean isTerminated() {
         return terminate;
@@ -528,27 +544,9 @@ class CommandContextImpl implements CommandContext, ModelControllerClientFactory
 
     @Override
     public void handle(String line) throws CommandLineException {
-        if (line.isEmpty() || line.charAt(0) == '#') {
-            return; // ignore comments
-        }
-
-        int i = line.length() - 1;
-        while(i > 0 && line.charAt(i) <= ' ') {
-            if(line.charAt(--i) == '\\') {
-                break;
-            }
-        }
-        if(line.charAt(i) == '\\') {
-            if(lineBuffer == null) {
-                lineBuffer = new StringBuilder();
-            }
-            lineBuffer.append(line, 0, i);
-            lineBuffer.append(' ');
+        line = joinLine(line);
+        if(line == null) {
             return;
-        } else if(lineBuffer != null) {
-            lineBuffer.append(line);
-            line = lineBuffer.toString();
-            lineBuffer = null;
         }
 
         resetArgs(line);
@@ -604,12 +602,62 @@ class CommandContextImpl implements CommandContext, ModelControllerClientFactory
         }
     }
 
+    /**
+     * Joins the line with the preceding ones ending with a backslash.
+     *
+     * @param line  the line to handle
+     * @return  the complete line or null if the line is empty, a comment or continued on the next line
+     */
+    String joinLine(String line) {
+        if (line.isEmpty() || line.charAt(0) == '#') {
+            return null; // ignore comments
+        }
+
+        int i = line.length() - 1;
+        while(i > 0 && line.charAt(i) <= ' ') {
+            if(line.charAt(--i) == '\\') {
+                break;
+            }
+        }
+        if(line.charAt(i) == '\\') {
+            if(lineBuffer == null) {
+                lineBuffer = new StringBuilder();
+            }
+            lineBuffer.append(line, 0, i);
+            lineBuffer.append(' ');
+            return null;
+        } else if(lineBuffer != null) {
+            lineBuffer.append(line);
+            line = lineBuffer.toString();
+            lineBuffer = null;
+        }
+        return line;
+    }
+
+    /**
+     * Whether the previous line ended with a backslash and is continued by the next one.
+     */
+    boolean isLineContinued() {
+        return lineBuffer != null;
+    }
+
     public void handleSafe(String line) {
+        handleSafe(line, null);
+    }
+
+    /**
+     * Same as {@link #handleSafe(String)} but prefixes the error message
+     * with the location of the line, e.g. in a script file.
+     */
+    void handleSafe(String line, String location) {
         exitCode = 0;
         try {
             handle(line);
         } catch (CommandLineException e) {
             final StringBuilder buf = new StringBuilder();
+            if(location != null) {
+                buf.append(location).append(": ");
+            }
             buf.append(e.getLocalizedMessage());
             Throwable t = e.getCause();
             while(t != null) {
@@ -831,6 +879,10 @@ class CommandContextImpl implements CommandContext, ModelControllerClientFactory
 
             List<String> nodeTypes = Util.getNodeTypes(newClient, new DefaultOperationRequestAddress());
             domainMode = nodeTypes.contains(Util.SERVER_GROUP);
+
+            if(descriptionCache != null) {
+                descriptionCache.connected(newClient);
+            }
         }
     }
 
@@ -974,6 +1026,9 @@ class CommandContextImpl implements CommandContext, ModelControllerClientFactory
     @Override
     public void disconnectController() {
         if (this.client != null) {
+            if(descriptionCache != null) {
+                descriptionCache.disconnected();
+            }
             StreamUtils.safeClose(client);
             // if(loggingEnabled) {
             // printLine("Closed connection to " + this.controllerHost + ':' +
@@ -1081,6 +1136,27 @@ class CommandContextImpl implements CommandContext, ModelControllerClientFactory
         return batchManager.isBatchActive();
     }
 
+    /**
+     * Parses and validates the line if it is a plain operation request
+     * which would be executed as it is by the operation request handler.
+     *
+     * @param line  the complete command line
+     * @return  the operation request or null if the line is not a plain operation request
+     * @throws CommandFormatException  if the line could not be parsed or the request is not valid
+     */
+    ModelNode parseOperationRequest(String line) throws CommandFormatException {
+        final DefaultCallbackHandler parsed = new DefaultCallbackHandler();
+        parsed.parse(prefix, line);
+        if(parsed.getFormat() != OperationFormat.INSTANCE || parsed.getOutputTarget() != null) {
+            return null;
+        }
+        final ModelNode request = parsed.toOperationRequest(this);
+        if(config.isValidateOperationRequests()) {
+            operationHandler.validateRequest(this, request);
+        }
+        return request;
+    }
+
     @Override
     public BatchManager getBatchManager() {
         return batchManager;
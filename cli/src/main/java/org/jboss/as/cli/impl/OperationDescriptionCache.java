@@ -0,0 +1,381 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cli.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.cli.CommandContext;
+import org.jboss.as.cli.Util;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.logging.Logger;
+import org.jboss.sasl.util.HexConverter;
+
+/**
+ * Client side cache of the operation and resource descriptions read from the controller.
+ * <p>
+ * Descriptions are cached per resource registration rather than per resource, i.e. by the address pattern
+ * in which the names of wildcard registered resources are replaced with {@code *}, so validating the
+ * {@code add} of a hundred data sources reads the description once. The registration pattern of an address
+ * is resolved from the, also cached, descriptions of its parent resources.
+ * <p>
+ * The entries are bound to a fingerprint of the controller made of its management version, release and
+ * installed extensions, which is read when the CLI connects. Adding or removing an extension from the CLI
+ * clears the cache. If the cache is persistent, the entries are stored per fingerprint between CLI sessions.
+ */
+public final class OperationDescriptionCache {
+
+    /** the key the cache is bound to in the command context */
+    static final String CONTEXT_KEY = "OP_DESCR_CACHE";
+
+    private static final Logger log = Logger.getLogger(OperationDescriptionCache.class);
+
+    private static final String EXTENSION = "extension";
+    private static final String MODEL_DESCRIPTION = "model-description";
+    private static final String WILDCARD = "*";
+    private static final String[] FINGERPRINT_ATTRIBUTES = {"management-major-version", "management-minor-version",
+            "management-micro-version", Util.RELEASE_VERSION, Util.PRODUCT_NAME, Util.PRODUCT_VERSION, "process-type"};
+    /** the max number of controllers the persistent cache keeps the descriptions of */
+    private static final int MAX_PERSISTED_CONTROLLERS = 4;
+
+    private final ConcurrentMap<String, ModelNode> descriptions = new ConcurrentHashMap<String, ModelNode>();
+    private final File file;
+    private volatile String fingerprint;
+    private volatile boolean modified;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param file  the file to persist the descriptions to, or {@code null} if they should not be persisted
+     */
+    OperationDescriptionCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the description of an operation, using the cache of the context if there is one.
+     *
+     * @param ctx  the command context
+     * @param address  the address of the resource
+     * @param operationName  the name of the operation
+     * @return  the outcome of the read-operation-description request
+     * @throws IOException  if the controller could not be reached
+     */
+    public static ModelNode readOperationDescription(CommandContext ctx, ModelNode address, String operationName) throws IOException {
+        return read(ctx, address, Util.READ_OPERATION_DESCRIPTION, operationName);
+    }
+
+    /**
+     * Reads the non-recursive description of a resource, using the cache of the context if there is one.
+     *
+     * @param ctx  the command context
+     * @param address  the address of the resource
+     * @return  the outcome of the read-resource-description request
+     * @throws IOException  if the controller could not be reached
+     */
+    public static ModelNode readResourceDescription(CommandContext ctx, ModelNode address) throws IOException {
+        return read(ctx, address, Util.READ_RESOURCE_DESCRIPTION, null);
+    }
+
+    /**
+     * Removes the cached description of an operation, e.g. because the request being validated
+     * does not match it and the description might be out of date.
+     *
+     * @param ctx  the command context
+     * @param address  the address of the resource
+     * @param operationName  the name of the operation
+     * @return  true if a cached description was removed
+     */
+    public static boolean evictOperationDescription(CommandContext ctx, ModelNode address, String operationName) {
+        final OperationDescriptionCache cache = (OperationDescriptionCache) ctx.get(CONTEXT_KEY);
+        final ModelControllerClient client = ctx.getModelControllerClient();
+        if(cache == null || client == null) {
+            return false;
+        }
+        try {
+            final String pattern = cache.getRegistrationPattern(client, address);
+            return pattern != null && cache.descriptions.remove(key(pattern, Util.READ_OPERATION_DESCRIPTION, operationName)) != null;
+        } catch(IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Notifies the cache of a successfully executed request, so that the cache can be cleared
+     * if the request changed the installed extensions.
+     *
+     * @param ctx  the command context
+     * @param request  the executed request
+     */
+    public static void requestExecuted(CommandContext ctx, ModelNode request) {
+        final OperationDescriptionCache cache = (OperationDescriptionCache) ctx.get(CONTEXT_KEY);
+        if(cache != null && changesExtensions(request)) {
+            log.debug("Clearing the operation description cache as the installed extensions changed");
+            cache.descriptions.clear();
+            cache.modified = true;
+        }
+    }
+
+    private static ModelNode read(CommandContext ctx, ModelNode address, String operation, String name) throws IOException {
+        final ModelControllerClient client = ctx.getModelControllerClient();
+        if(client == null) {
+            throw new IOException("No connection to the controller.");
+        }
+        final OperationDescriptionCache cache = (OperationDescriptionCache) ctx.get(CONTEXT_KEY);
+        if(cache == null) {
+            return client.execute(buildRequest(address, operation, name));
+        }
+        final String pattern = cache.getRegistrationPattern(client, address);
+        if(pattern == null) {
+            return client.execute(buildRequest(address, operation, name));
+        }
+        return cache.read(client, address, pattern, operation, name).clone();
+    }
+
+    /**
+     * Binds the cache to the controller the client is connected to, clearing the entries
+     * if it is a different one than before.
+     *
+     * @param client  the new controller client
+     */
+    void connected(ModelControllerClient client) {
+        String newFingerprint = null;
+        try {
+            newFingerprint = readFingerprint(client);
+        } catch(Exception e) {
+            log.debug("Failed to read the controller fingerprint", e);
+        }
+        if(newFingerprint != null && newFingerprint.equals(fingerprint)) {
+            return;
+        }
+        descriptions.clear();
+        modified = false;
+        fingerprint = newFingerprint;
+        if(newFingerprint != null && file != null) {
+            final ModelNode persisted = load();
+            if(persisted.hasDefined(newFingerprint)) {
+                for(Property entry : persisted.get(newFingerprint).asPropertyList()) {
+                    descriptions.put(entry.getName(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Persists the cached descriptions if the cache is persistent and they changed.
+     */
+    void disconnected() {
+        final String fingerprint = this.fingerprint;
+        if(file == null || fingerprint == null || !modified) {
+            return;
+        }
+        final ModelNode persisted = load();
+        persisted.remove(fingerprint);
+        final ModelNode entries = persisted.get(fingerprint).setEmptyObject();
+        for(String key : new TreeSet<String>(descriptions.keySet())) {
+            entries.get(key).set(descriptions.get(key));
+        }
+        // the entries of the least recently stored controllers are dropped first
+        final List<String> controllers = new ArrayList<String>(persisted.keys());
+        for(int i = 0; i < controllers.size() - MAX_PERSISTED_CONTROLLERS; ++i) {
+            persisted.remove(controllers.get(i));
+        }
+        OutputStream out = null;
+        try {
+            final File dir = file.getParentFile();
+            if(dir != null && !dir.exists() && !dir.mkdirs()) {
+                throw new IOException("Failed to create " + dir.getAbsolutePath());
+            }
+            out = new BufferedOutputStream(new FileOutputStream(file));
+            persisted.writeExternal(out);
+            modified = false;
+        } catch(IOException e) {
+            log.debug("Failed to persist the operation description cache to " + file.getAbsolutePath(), e);
+        } finally {
+            StreamUtils.safeClose(out);
+        }
+    }
+
+    private ModelNode load() {
+        final ModelNode persisted = new ModelNode();
+        if(!file.exists()) {
+            return persisted.setEmptyObject();
+        }
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(file));
+            persisted.readExternal(in);
+        } catch(Exception e) {
+            log.debug("Failed to load the operation description cache from " + file.getAbsolutePath(), e);
+            persisted.setEmptyObject();
+        } finally {
+            StreamUtils.safeClose(in);
+        }
+        return persisted.isDefined() ? persisted : persisted.setEmptyObject();
+    }
+
+    private ModelNode read(ModelControllerClient client, ModelNode address, String pattern, String operation, String name) throws IOException {
+        final String key = key(pattern, operation, name);
+        ModelNode outcome = descriptions.get(key);
+        if(outcome == null) {
+            outcome = client.execute(buildRequest(address, operation, name));
+            if(Util.isSuccess(outcome)) {
+                // response headers are specific to the request
+                final ModelNode cached = new ModelNode();
+                cached.get(Util.OUTCOME).set(outcome.get(Util.OUTCOME));
+                cached.get(Util.RESULT).set(outcome.get(Util.RESULT));
+                descriptions.put(key, cached);
+                modified = true;
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Resolves the address pattern of the resource registration of an address, or returns null if the address
+     * can't be resolved to a single registration, in which case its descriptions are not cached.
+     */
+    private String getRegistrationPattern(ModelControllerClient client, ModelNode address) throws IOException {
+        if(!address.isDefined()) {
+            return "";
+        }
+        final StringBuilder pattern = new StringBuilder();
+        final ModelNode parent = new ModelNode().setEmptyList();
+        for(Property element : address.asPropertyList()) {
+            final String type = element.getName();
+            final String name = element.getValue().asString();
+            if(WILDCARD.equals(name)) {
+                // a wildcard address describes all the matching registrations
+                return null;
+            }
+            final ModelNode outcome = read(client, parent, pattern.toString(), Util.READ_RESOURCE_DESCRIPTION, null);
+            if(!Util.isSuccess(outcome)) {
+                return null;
+            }
+            final ModelNode registrations = outcome.get(Util.RESULT, Util.CHILDREN, type, MODEL_DESCRIPTION);
+            if(!registrations.isDefined()) {
+                return null;
+            }
+            final Set<String> names = registrations.keys();
+            final String registration;
+            if(names.contains(name)) {
+                registration = name;
+            } else if(names.contains(WILDCARD)) {
+                registration = WILDCARD;
+            } else {
+                return null;
+            }
+            pattern.append('/').append(type).append('=').append(registration);
+            parent.add(type, name);
+        }
+        return pattern.toString();
+    }
+
+    private static String key(String pattern, String operation, String name) {
+        final StringBuilder key = new StringBuilder(pattern).append(':').append(operation);
+        if(name != null) {
+            key.append('(').append(name).append(')');
+        }
+        return key.toString();
+    }
+
+    private static ModelNode buildRequest(ModelNode address, String operation, String name) {
+        final ModelNode request = new ModelNode();
+        if(address.isDefined()) {
+            request.get(Util.ADDRESS).set(address);
+        } else {
+            request.get(Util.ADDRESS).setEmptyList();
+        }
+        request.get(Util.OPERATION).set(operation);
+        if(name != null) {
+            request.get(Util.NAME).set(name);
+        }
+        return request;
+    }
+
+    private static String readFingerprint(ModelControllerClient client) throws IOException, GeneralSecurityException {
+        final ModelNode request = new ModelNode();
+        request.get(Util.ADDRESS).setEmptyList();
+        request.get(Util.OPERATION).set(Util.READ_RESOURCE);
+        request.get(Util.INCLUDE_RUNTIME).set(true);
+        final ModelNode outcome = client.execute(request);
+        if(!Util.isSuccess(outcome)) {
+            return null;
+        }
+        final ModelNode result = outcome.get(Util.RESULT);
+        final StringBuilder buf = new StringBuilder();
+        for(String attribute : FINGERPRINT_ATTRIBUTES) {
+            if(result.hasDefined(attribute)) {
+                buf.append(result.get(attribute).asString());
+            }
+            buf.append('/');
+        }
+        if(result.hasDefined(EXTENSION)) {
+            for(String extension : new TreeSet<String>(result.get(EXTENSION).keys())) {
+                buf.append(extension).append(',');
+            }
+        }
+        final MessageDigest md = MessageDigest.getInstance("SHA1");
+        return HexConverter.convertToHexString(md.digest(buf.toString().getBytes(Charset.forName("UTF-8"))));
+    }
+
+    static boolean changesExtensions(ModelNode request) {
+        final String operation = request.get(Util.OPERATION).asString();
+        if(Util.COMPOSITE.equals(operation)) {
+            if(request.hasDefined(Util.STEPS)) {
+                for(ModelNode step : request.get(Util.STEPS).asList()) {
+                    if(changesExtensions(step)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        if(!Util.ADD.equals(operation) && !Util.REMOVE.equals(operation) || !request.hasDefined(Util.ADDRESS)) {
+            return false;
+        }
+        for(Property element : request.get(Util.ADDRESS).asPropertyList()) {
+            if(EXTENSION.equals(element.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
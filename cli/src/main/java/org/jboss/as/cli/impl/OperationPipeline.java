@@ -0,0 +1,248 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cli.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.jboss.as.cli.CommandFormatException;
+import org.jboss.as.cli.Util;
+import org.jboss.as.cli.handlers.OperationRequestHandler;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Executes the commands and operations of a script with fewer round trips to the controller.
+ * <p>
+ * Consecutive plain operation requests are grouped into composite requests of up to the window size.
+ * While a composite is being executed, the next one is parsed and validated. Composites are executed
+ * one after the other, as the controller does not guarantee the order in which concurrent requests are
+ * executed, and the operations of a script usually depend on the previous ones.
+ * <p>
+ * Commands, operations on the root resource, operations with headers or an output target, operations
+ * changing the installed extensions and everything in a batch are barriers: the pending composites are
+ * executed first and then the line is handled as in the non-pipelined mode.
+ * <p>
+ * If a composite fails, it has been rolled back, so its lines are handled again one by one. This
+ * executes the lines preceding the failed one and reports the failure against the right line, as
+ * in the non-pipelined mode. Nothing after the failed line is executed.
+ * <p>
+ * If no response is received for a composite, e.g. because the connection was lost, it is unknown
+ * whether it was applied. Its lines are not executed again, the failure is reported against all of
+ * them and the script stops.
+ */
+class OperationPipeline {
+
+    /** the default max number of operations in a composite request */
+    static final int DEFAULT_WINDOW = 50;
+
+    private final CommandContextImpl ctx;
+    private final String source;
+    private final int window;
+
+    private final List<Line> pending = new ArrayList<Line>();
+    private List<Line> executing;
+    private Future<ModelNode> result;
+
+    /**
+     * @param ctx  the command context
+     * @param source  the name of the script used to report the location of errors
+     * @param window  the max number of operations in a composite request
+     */
+    OperationPipeline(CommandContextImpl ctx, String source, int window) {
+        if(window < 1) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        this.ctx = ctx;
+        this.source = source;
+        this.window = window;
+    }
+
+    /**
+     * Processes the script until its end, the first failure or the termination of the session.
+     *
+     * @param reader  the script
+     * @throws IOException  if the script could not be read
+     */
+    void process(BufferedReader reader) throws IOException {
+        int lineNumber = 0;
+        int firstLine = 0;
+        String line = reader.readLine();
+        while(line != null && ctx.getExitCode() == 0 && !ctx.isTerminated()) {
+            ++lineNumber;
+            if(!ctx.isLineContinued()) {
+                firstLine = lineNumber;
+            }
+            // comments and continued lines are handled as in the non-pipelined mode
+            line = ctx.joinLine(line.trim());
+            if(line != null) {
+                handle(new Line(line, firstLine));
+            }
+            line = reader.readLine();
+        }
+        flush();
+    }
+
+    private void handle(Line line) {
+        final ModelNode request = parse(line);
+        if(request == null) {
+            flush();
+            if(ctx.getExitCode() == 0) {
+                ctx.handleSafe(line.text, location(line));
+            }
+            return;
+        }
+        line.request = request;
+        pending.add(line);
+        if(pending.size() == window) {
+            submit();
+        }
+    }
+
+    /**
+     * Returns the request of the line if it can be executed as a step of a composite,
+     * or null if the line must be handled as a barrier.
+     */
+    private ModelNode parse(Line line) {
+        if(ctx.isBatchMode() || ctx.getModelControllerClient() == null) {
+            return null;
+        }
+        final ModelNode request;
+        try {
+            request = ctx.parseOperationRequest(line.text);
+        } catch(CommandFormatException e) {
+            // handled as a barrier, which reports the error once the previous lines were executed
+            return null;
+        }
+        if(request == null
+                || !request.hasDefined(Util.ADDRESS) || request.get(Util.ADDRESS).asList().isEmpty()
+                || request.has(Util.OPERATION_HEADERS)
+                || OperationDescriptionCache.changesExtensions(request)) {
+            return null;
+        }
+        return request;
+    }
+
+    /**
+     * Waits for the executing composite and executes the pending operations.
+     */
+    private void flush() {
+        if(!pending.isEmpty()) {
+            submit();
+        }
+        complete();
+    }
+
+    /**
+     * Sends the pending operations as a composite once the previous composite completed.
+     */
+    private void submit() {
+        complete();
+        if(ctx.getExitCode() != 0 || ctx.isTerminated()) {
+            pending.clear();
+            return;
+        }
+        final ModelControllerClient client = ctx.getModelControllerClient();
+        executing = new ArrayList<Line>(pending);
+        pending.clear();
+        if(client == null) {
+            result = null;
+            return;
+        }
+        final ModelNode composite = new ModelNode();
+        composite.get(Util.OPERATION).set(Util.COMPOSITE);
+        composite.get(Util.ADDRESS).setEmptyList();
+        final ModelNode steps = composite.get(Util.STEPS);
+        for(Line line : executing) {
+            steps.add(line.request);
+        }
+        result = client.executeAsync(composite, OperationMessageHandler.DISCARD);
+    }
+
+    /**
+     * Waits for the executing composite and prints the step responses as in the non-pipelined mode, or handles its lines again one by one if it failed.
+     * If no response was received, the failure is reported and the lines are not handled again.
+     */
+    private void complete() {
+        final List<Line> lines = executing;
+        if(lines == null) {
+            return;
+        }
+        executing = null;
+        ModelNode response = null;
+        if(result != null) {
+            try {
+                response = result.get();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                ctx.error(location(lines) + ": Interrupted while waiting for the response to the operations");
+                return;
+            } catch(ExecutionException e) {
+                final Throwable cause = e.getCause() == null ? e : e.getCause();
+                ctx.error(location(lines) + ": Failed to execute the operations: " + cause.getLocalizedMessage());
+                return;
+            } finally {
+                result = null;
+            }
+        }
+        if(response != null && Util.isSuccess(response)) {
+            final ModelNode stepResults = response.get(Util.RESULT);
+            for(int i = 0; i < lines.size(); ++i) {
+                final Line line = lines.get(i);
+                OperationRequestHandler.printResponse(ctx, line.request, stepResults.get("step-" + (i + 1)));
+            }
+            return;
+        }
+        for(Line line : lines) {
+            if(ctx.getExitCode() != 0 || ctx.isTerminated()) {
+                break;
+            }
+            ctx.handleSafe(line.text, location(line));
+        }
+    }
+
+    private String location(Line line) {
+        return source + ':' + line.number;
+    }
+
+    private String location(List<Line> lines) {
+        final int first = lines.get(0).number;
+        final int last = lines.get(lines.size() - 1).number;
+        return first == last ? source + ':' + first : source + ':' + first + '-' + last;
+    }
+
+    private static class Line {
+        final String text;
+        final int number;
+        ModelNode request;
+
+        Line(String text, int number) {
+            this.text = text;
+            this.number = number;
+        }
+    }
+}
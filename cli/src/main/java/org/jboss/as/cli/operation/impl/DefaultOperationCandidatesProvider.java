@@ -33,6 +33,7 @@ import org.jboss.as.cli.CommandFormatException;
 import org.jboss.as.cli.CommandLineCompleter;
 import org.jboss.as.cli.Util;
 import org.jboss.as.cli.handlers.SimpleTabCompleter;
+import org.jboss.as.cli.impl.OperationDescriptionCache;
 import org.jboss.as.cli.impl.ValueTypeCompleter;
 import org.jboss.as.cli.operation.OperationCandidatesProvider;
 import org.jboss.as.cli.operation.OperationFormatException;
@@ -216,7 +217,7 @@ public class DefaultOperationCandidatesProvider implements OperationCandidatesPr
 
         List<CommandArgument> result;
         try {
-            ModelNode outcome = client.execute(request);
+            ModelNode outcome = OperationDescriptionCache.readOperationDescription(ctx, request.get(Util.ADDRESS), operationName);
             if (!Util.isSuccess(outcome)) {
                 result = Collections.emptyList();
             } else {
@@ -29,6 +29,7 @@ import java.util.List;
 import org.jboss.as.cli.CommandContext;
 import org.jboss.as.cli.Util;
 import org.jboss.as.cli.impl.DefaultCompleter;
+import org.jboss.as.cli.impl.OperationDescriptionCache;
 import org.jboss.as.cli.operation.OperationRequestAddress;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -44,15 +45,13 @@ public class PropertyNameCompleter extends DefaultCompleter {
         super(new CandidatesProvider(){
             @Override
             public Collection<String> getAllCandidates(CommandContext ctx) {
-                final ModelNode req = new ModelNode();
-                final ModelNode addrNode = req.get(Util.ADDRESS);
+                final ModelNode addrNode = new ModelNode();
                 for(OperationRequestAddress.Node node : address) {
                     addrNode.add(node.getType(), node.getName());
                 }
-                req.get(Util.OPERATION).set(Util.READ_RESOURCE_DESCRIPTION);
                 final ModelNode response;
                 try {
-                    response = ctx.getModelControllerClient().execute(req);
+                    response = OperationDescriptionCache.readResourceDescription(ctx, addrNode);
                 } catch (Exception e) {
                     return Collections.emptyList();
                 }
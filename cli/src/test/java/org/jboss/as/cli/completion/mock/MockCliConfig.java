@@ -71,6 +71,26 @@ public class MockCliConfig implements CliConfig {
         return 500;
     }
 
+    @Override
+    public boolean isOperationDescriptionCacheEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isOperationDescriptionCachePersistent() {
+        return false;
+    }
+
+    @Override
+    public String getOperationDescriptionCacheFileName() {
+        return ".jboss-cli-descriptions";
+    }
+
+    @Override
+    public String getOperationDescriptionCacheFileDir() {
+        return null;
+    }
+
     @Override
     public int getConnectionTimeout() {
         return 5000;
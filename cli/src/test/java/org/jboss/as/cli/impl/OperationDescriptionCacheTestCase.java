@@ -0,0 +1,222 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cli.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.cli.Util;
+import org.jboss.as.cli.completion.mock.MockCommandContext;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Test;
+
+/**
+ * Tests the registration pattern resolution, invalidation and persistence of the {@link OperationDescriptionCache}.
+ */
+public class OperationDescriptionCacheTestCase {
+
+    @Test
+    public void testDescriptionsAreCachedPerRegistration() throws Exception {
+        final DescribingClient client = new DescribingClient();
+        final CacheContext ctx = new CacheContext(client, new OperationDescriptionCache(null));
+
+        ModelNode outcome = OperationDescriptionCache.readOperationDescription(ctx, dataSource("ds1"), Util.ADD);
+        assertTrue(Util.isSuccess(outcome));
+        assertTrue(outcome.get(Util.RESULT, Util.REQUEST_PROPERTIES).has("jndi-name"));
+        // the descriptions of the root and the subsystem resolve the registration, plus the operation description
+        assertEquals(3, client.requests.size());
+
+        outcome = OperationDescriptionCache.readOperationDescription(ctx, dataSource("ds2"), Util.ADD);
+        assertTrue(outcome.get(Util.RESULT, Util.REQUEST_PROPERTIES).has("jndi-name"));
+        assertEquals(3, client.requests.size());
+
+        // wildcard addresses are never cached
+        OperationDescriptionCache.readOperationDescription(ctx, dataSource("*"), Util.ADD);
+        OperationDescriptionCache.readOperationDescription(ctx, dataSource("*"), Util.ADD);
+        assertEquals(5, client.requests.size());
+    }
+
+    @Test
+    public void testExtensionChangeClearsCache() throws Exception {
+        final DescribingClient client = new DescribingClient();
+        final CacheContext ctx = new CacheContext(client, new OperationDescriptionCache(null));
+
+        OperationDescriptionCache.readOperationDescription(ctx, dataSource("ds1"), Util.ADD);
+        assertEquals(3, client.requests.size());
+
+        final ModelNode addDataSource = new ModelNode();
+        addDataSource.get(Util.ADDRESS).set(dataSource("ds1"));
+        addDataSource.get(Util.OPERATION).set(Util.ADD);
+        OperationDescriptionCache.requestExecuted(ctx, addDataSource);
+        OperationDescriptionCache.readOperationDescription(ctx, dataSource("ds1"), Util.ADD);
+        assertEquals(3, client.requests.size());
+
+        final ModelNode addExtension = new ModelNode();
+        addExtension.get(Util.OPERATION).set(Util.COMPOSITE);
+        final ModelNode step = addExtension.get(Util.STEPS).add();
+        step.get(Util.ADDRESS).add("extension", "org.acme");
+        step.get(Util.OPERATION).set(Util.ADD);
+        OperationDescriptionCache.requestExecuted(ctx, addExtension);
+        OperationDescriptionCache.readOperationDescription(ctx, dataSource("ds1"), Util.ADD);
+        assertEquals(6, client.requests.size());
+    }
+
+    @Test
+    public void testPersistence() throws Exception {
+        final File file = File.createTempFile("jboss-cli-descriptions", null);
+        try {
+            DescribingClient client = new DescribingClient();
+            OperationDescriptionCache cache = new OperationDescriptionCache(file);
+            cache.connected(client);
+            CacheContext ctx = new CacheContext(client, cache);
+            OperationDescriptionCache.readOperationDescription(ctx, dataSource("ds1"), Util.ADD);
+            assertEquals(4, client.requests.size());
+            cache.disconnected();
+
+            client = new DescribingClient();
+            cache = new OperationDescriptionCache(file);
+            cache.connected(client);
+            ctx = new CacheContext(client, cache);
+            final ModelNode outcome = OperationDescriptionCache.readOperationDescription(ctx, dataSource("ds2"), Util.ADD);
+            assertTrue(outcome.get(Util.RESULT, Util.REQUEST_PROPERTIES).has("jndi-name"));
+            // only the fingerprint was read
+            assertEquals(1, client.requests.size());
+
+            // a different controller does not see the descriptions
+            client = new DescribingClient();
+            client.releaseVersion = "9.0.0.Final";
+            cache = new OperationDescriptionCache(file);
+            cache.connected(client);
+            ctx = new CacheContext(client, cache);
+            OperationDescriptionCache.readOperationDescription(ctx, dataSource("ds2"), Util.ADD);
+            assertEquals(4, client.requests.size());
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static ModelNode dataSource(String name) {
+        final ModelNode address = new ModelNode();
+        address.add("subsystem", "datasources");
+        address.add("data-source", name);
+        return address;
+    }
+
+    private static class CacheContext extends MockCommandContext {
+
+        private final Map<String, Object> map = new HashMap<String, Object>();
+        private final ModelControllerClient client;
+
+        CacheContext(ModelControllerClient client, OperationDescriptionCache cache) {
+            this.client = client;
+            map.put(OperationDescriptionCache.CONTEXT_KEY, cache);
+        }
+
+        @Override
+        public void set(String key, Object value) {
+            map.put(key, value);
+        }
+
+        @Override
+        public Object get(String key) {
+            return map.get(key);
+        }
+
+        @Override
+        public ModelControllerClient getModelControllerClient() {
+            return client;
+        }
+    }
+
+    /**
+     * Describes a root with the datasources subsystem and wildcard registered data sources.
+     */
+    private static class DescribingClient implements ModelControllerClient {
+
+        private final List<ModelNode> requests = new ArrayList<ModelNode>();
+        private String releaseVersion = "8.0.0.Alpha3";
+
+        @Override
+        public ModelNode execute(ModelNode operation) throws IOException {
+            requests.add(operation);
+            final ModelNode response = new ModelNode();
+            response.get(Util.OUTCOME).set(Util.SUCCESS);
+            final ModelNode result = response.get(Util.RESULT);
+            final String name = operation.get(Util.OPERATION).asString();
+            final int depth = operation.get(Util.ADDRESS).asList().size();
+            if(Util.READ_RESOURCE.equals(name)) {
+                result.get(Util.RELEASE_VERSION).set(releaseVersion);
+                result.get("extension", "org.jboss.as.connector");
+            } else if(Util.READ_RESOURCE_DESCRIPTION.equals(name) && depth == 0) {
+                result.get(Util.CHILDREN, "subsystem", "model-description", "datasources");
+            } else if(Util.READ_RESOURCE_DESCRIPTION.equals(name) && depth == 1) {
+                result.get(Util.CHILDREN, "data-source", "model-description", "*");
+            } else if(Util.READ_OPERATION_DESCRIPTION.equals(name)) {
+                result.get(Util.REQUEST_PROPERTIES, "jndi-name", Util.TYPE).set("STRING");
+            } else {
+                response.get(Util.OUTCOME).set("failed");
+            }
+            response.get(Util.RESPONSE_HEADERS, "process-state").set("running");
+            return response;
+        }
+
+        @Override
+        public ModelNode execute(Operation operation) throws IOException {
+            return execute(operation.getOperation());
+        }
+
+        @Override
+        public ModelNode execute(ModelNode operation, OperationMessageHandler messageHandler) throws IOException {
+            return execute(operation);
+        }
+
+        @Override
+        public ModelNode execute(Operation operation, OperationMessageHandler messageHandler) throws IOException {
+            return execute(operation.getOperation());
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationMessageHandler messageHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(Operation operation, OperationMessageHandler messageHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cli.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.cli.Util;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.jboss.threads.AsyncFutureTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the grouping, barriers and failure handling of the {@link OperationPipeline}.
+ */
+public class OperationPipelineTestCase {
+
+    private RecordingClient client;
+    private CommandContextImpl ctx;
+
+    @Before
+    public void setup() throws Exception {
+        client = new RecordingClient();
+        ctx = new CommandContextImpl(null, -1, null, null, null, null);
+        ctx.bindClient(client);
+        client.executed.clear();
+    }
+
+    @After
+    public void cleanup() {
+        ctx.terminateSession();
+    }
+
+    @Test
+    public void testOperationsAreGroupedIntoComposites() throws Exception {
+        process(2, "/subsystem=a:op1",
+                "# comment",
+                "/subsystem=b:op2",
+                "/subsystem=c:\\",
+                "op3");
+        assertEquals(0, ctx.getExitCode());
+        assertEquals(2, client.executed.size());
+        assertEquals("composite[op1, op2]", describe(client.executed.get(0)));
+        assertEquals("composite[op3]", describe(client.executed.get(1)));
+    }
+
+    @Test
+    public void testRootOperationIsBarrier() throws Exception {
+        process(10, "/subsystem=a:op1", ":op2", "/subsystem=c:op3");
+        assertEquals(0, ctx.getExitCode());
+        assertEquals(3, client.executed.size());
+        assertEquals("composite[op1]", describe(client.executed.get(0)));
+        assertEquals("op2", describe(client.executed.get(1)));
+        assertEquals("composite[op3]", describe(client.executed.get(2)));
+    }
+
+    @Test
+    public void testFailedCompositeIsExecutedSequentially() throws Exception {
+        process(10, "/subsystem=a:op1", "/subsystem=b:fail", "/subsystem=c:op3", "/subsystem=d:op4");
+        assertEquals(1, ctx.getExitCode());
+        // the composite is rolled back, the lines preceding the failed one are executed again
+        assertEquals(3, client.executed.size());
+        assertEquals("composite[op1, fail, op3, op4]", describe(client.executed.get(0)));
+        assertEquals("op1", describe(client.executed.get(1)));
+        assertEquals("fail", describe(client.executed.get(2)));
+    }
+
+    @Test
+    public void testNothingIsSentAfterFailure() throws Exception {
+        process(1, "/subsystem=a:fail", "/subsystem=b:op2", "/subsystem=c:op3");
+        assertEquals(1, ctx.getExitCode());
+        assertEquals(2, client.executed.size());
+        assertEquals("composite[fail]", describe(client.executed.get(0)));
+        assertEquals("fail", describe(client.executed.get(1)));
+    }
+
+    @Test
+    public void testCompositeWithoutResponseIsNotExecutedAgain() throws Exception {
+        client.noResponse = true;
+        process(10, "/subsystem=a:op1", "/subsystem=b:op2", "/subsystem=c:op3");
+        assertEquals(1, ctx.getExitCode());
+        // the composite may have been applied, none of its lines is executed again
+        assertEquals(1, client.executed.size());
+        assertEquals("composite[op1, op2, op3]", describe(client.executed.get(0)));
+    }
+
+    private void process(int window, String... lines) throws IOException {
+        final StringBuilder script = new StringBuilder();
+        for(String line : lines) {
+            script.append(line).append('\n');
+        }
+        new OperationPipeline(ctx, "test.cli", window).process(new BufferedReader(new StringReader(script.toString())));
+    }
+
+    private static String describe(ModelNode request) {
+        final String name = request.get(Util.OPERATION).asString();
+        if(!Util.COMPOSITE.equals(name)) {
+            return name;
+        }
+        final List<String> steps = new ArrayList<String>();
+        for(ModelNode step : request.get(Util.STEPS).asList()) {
+            steps.add(step.get(Util.OPERATION).asString());
+        }
+        return name + steps;
+    }
+
+    /**
+     * Records the executed operations, description and connection related reads aside.
+     * Operations named 'fail' fail, and so do the composites containing them.
+     * If noResponse is set, asynchronous executions fail without a response.
+     */
+    private static class RecordingClient implements ModelControllerClient {
+
+        private final List<ModelNode> executed = new ArrayList<ModelNode>();
+        private boolean noResponse;
+
+        @Override
+        public ModelNode execute(ModelNode operation) throws IOException {
+            final String name = operation.get(Util.OPERATION).asString();
+            final ModelNode response = new ModelNode();
+            response.get(Util.OUTCOME).set(Util.SUCCESS);
+            if(name.startsWith("read-")) {
+                response.get(Util.RESULT).setEmptyList();
+                return response;
+            }
+            synchronized(executed) {
+                executed.add(operation);
+            }
+            if(Util.COMPOSITE.equals(name)) {
+                final List<ModelNode> steps = operation.get(Util.STEPS).asList();
+                for(int i = 0; i < steps.size(); ++i) {
+                    final ModelNode stepResponse = execute0(steps.get(i));
+                    if(!Util.isSuccess(stepResponse)) {
+                        return stepResponse;
+                    }
+                    response.get(Util.RESULT, "step-" + (i + 1)).set(stepResponse);
+                }
+                return response;
+            }
+            return execute0(operation);
+        }
+
+        private ModelNode execute0(ModelNode operation) {
+            final ModelNode response = new ModelNode();
+            if("fail".equals(operation.get(Util.OPERATION).asString())) {
+                response.get(Util.OUTCOME).set("failed");
+                response.get(Util.FAILURE_DESCRIPTION).set("failed as requested");
+            } else {
+                response.get(Util.OUTCOME).set(Util.SUCCESS);
+            }
+            return response;
+        }
+
+        @Override
+        public ModelNode execute(Operation operation) throws IOException {
+            return execute(operation.getOperation());
+        }
+
+        @Override
+        public ModelNode execute(ModelNode operation, OperationMessageHandler messageHandler) throws IOException {
+            return execute(operation);
+        }
+
+        @Override
+        public ModelNode execute(Operation operation, OperationMessageHandler messageHandler) throws IOException {
+            return execute(operation.getOperation());
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationMessageHandler messageHandler) {
+            if(noResponse) {
+                synchronized(executed) {
+                    executed.add(operation);
+                }
+                return new CompletedFuture(new IOException("connection lost"));
+            }
+            try {
+                return new CompletedFuture(execute(operation));
+            } catch(IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(Operation operation, OperationMessageHandler messageHandler) {
+            return executeAsync(operation.getOperation(), messageHandler);
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    private static class CompletedFuture extends AsyncFutureTask<ModelNode> {
+
+        CompletedFuture(ModelNode result) {
+            super(null);
+            setResult(result);
+        }
+
+        CompletedFuture(Exception failure) {
+            super(null);
+            setFailed(failure);
+        }
+    }
+}
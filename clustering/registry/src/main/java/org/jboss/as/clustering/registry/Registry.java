@@ -44,14 +44,65 @@ public interface Registry<K, V> {
         V getValue();
     }
 
+    /**
+     * An immutable, versioned view of the registry entries.
+     * Values derived from the entries can be attached to a snapshot, so that they are computed once per version,
+     * and are discarded along with the snapshot.
+     */
+    interface Snapshot<K, V> {
+        /**
+         * Returns the version of this snapshot, which is incremented whenever the entries change.
+         * @return the snapshot version
+         */
+        long getVersion();
+
+        /**
+         * Returns the entries of this snapshot.
+         * @return an unmodifiable map of registry entries
+         */
+        Map<K, V> getEntries();
+
+        /**
+         * Returns the value attached to this snapshot under the specified key.
+         * @param key an attachment key
+         * @return the attached value, or null if there is none
+         */
+        Object getAttachment(Object key);
+
+        /**
+         * Attaches a value to this snapshot under the specified key, unless a value is already attached.
+         * @param key an attachment key
+         * @param value a value derived from the entries of this snapshot
+         * @return the value already attached, or null if the specified value was attached
+         */
+        Object putAttachmentIfAbsent(Object key, Object value);
+    }
+
     String getName();
 
     void addListener(Listener<K, V> listener);
 
     void removeListener(Listener<K, V> listener);
 
+    /**
+     * Returns an immutable snapshot of the entries of this registry.
+     * The same instance is returned until the entries change.
+     * @return a map of registry entries
+     */
     Map<K, V> getEntries();
 
+    /**
+     * Returns the version of the snapshot returned by {@link #getEntries()}, which is incremented whenever the entries change.
+     * @return the snapshot version
+     */
+    long getVersion();
+
+    /**
+     * Returns the current snapshot of this registry, from which the entries and their version can be read consistently.
+     * @return a registry snapshot
+     */
+    Snapshot<K, V> getSnapshot();
+
     Map.Entry<K, V> getLocalEntry();
 
     Map.Entry<K, V> getRemoteEntry(Object address);
@@ -30,14 +30,18 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.infinispan.Cache;
 import org.infinispan.context.Flag;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.annotation.TopologyChanged;
 import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
 import org.infinispan.notifications.cachemanagerlistener.annotation.ViewChanged;
 import org.infinispan.notifications.cachemanagerlistener.event.ViewChangedEvent;
 import org.infinispan.remoting.transport.Address;
@@ -49,6 +53,11 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.Value;
 
 /**
+ * Registry backed by a replicated cache, keyed by cluster member.
+ * <p>
+ * The entries are kept in an immutable snapshot that is maintained from cache events and rebuilt from the cache on topology
+ * changes, so reading the entries does not need to copy the cache contents. Cache events only identify the member whose
+ * entry changed; the entry itself is always read back from the cache.
  * @author Paul Ferraro
  */
 @org.infinispan.notifications.Listener(sync = false)
@@ -69,6 +78,8 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
     private final Value<Cache<Address, Map.Entry<K, V>>> cache;
     private final Value<RegistryEntryProvider<K, V>> provider;
     private final Set<Listener<K, V>> listeners = new CopyOnWriteArraySet<Listener<K, V>>();
+    private final Object snapshotLock = new Object();
+    private volatile Snapshot<K, V> snapshot = new Snapshot<K, V>(0, Collections.<Address, Map.Entry<K, V>>emptyMap());
 
     public RegistryService(Value<Cache<Address, Map.Entry<K, V>>> cache, Value<RegistryEntryProvider<K, V>> provider) {
         this.cache = cache;
@@ -105,11 +116,17 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
      */
     @Override
     public Map<K, V> getEntries() {
-        Map<K, V> map = new HashMap<K, V>();
-        for (Map.Entry<K, V> entry: this.cache.getValue().values()) {
-            map.put(entry.getKey(), entry.getValue());
-        }
-        return Collections.unmodifiableMap(map);
+        return this.snapshot.entries;
+    }
+
+    @Override
+    public long getVersion() {
+        return this.snapshot.version;
+    }
+
+    @Override
+    public Registry.Snapshot<K, V> getSnapshot() {
+        return this.snapshot;
     }
 
     @Override
@@ -129,6 +146,8 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
         Cache<Address, Map.Entry<K, V>> cache = this.cache.getValue();
         cache.getCacheManager().addListener(this);
         cache.addListener(this);
+        // Build the snapshot after registering, so that no event is missed
+        this.rebuildSnapshot();
     }
 
     @Override
@@ -206,6 +225,7 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
         };
 
         Set<K> removed = this.invoker.invoke(this.cache.getValue(), operation);
+        this.rebuildSnapshot();
         if (!removed.isEmpty()) {
             for (Listener<K, V> listener: this.listeners) {
                 listener.removedEntries(removed);
@@ -213,50 +233,122 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
         }
     }
 
-    // Yes, this could be static - but it references instance types
-    private ThreadLocal<Map.Entry<K, V>> entry = new ThreadLocal<Map.Entry<K, V>>();
+    @TopologyChanged
+    public void topologyChanged(TopologyChangedEvent<Address, Map.Entry<K, V>> event) {
+        // Entries received via state transfer do not necessarily raise entry events
+        if (!event.isPre()) {
+            this.rebuildSnapshot();
+        }
+    }
 
     @CacheEntryModified
     public void modified(CacheEntryModifiedEvent<Address, Map.Entry<K, V>> event) {
-        if (event.isOriginLocal()) return;
-        if (event.isPre()) {
-            this.entry.set(event.getValue());
-        } else {
-            Map.Entry<K, V> old = this.entry.get();
-            this.entry.remove();
-            if (!this.listeners.isEmpty()) {
-                Map.Entry<K, V> entry = event.getValue();
-                if (entry != null) {
-                    Map<K, V> entries = Collections.singletonMap(entry.getKey(), entry.getValue());
-                    for (Listener<K, V> listener: this.listeners) {
-                        if (old == null) {
-                            listener.addedEntries(entries);
-                        } else {
-                            listener.updatedEntries(entries);
-                        }
-                    }
-                }
-            }
+        if (!event.isPre()) {
+            this.memberChanged(event.getKey(), event.isOriginLocal());
         }
     }
 
     @CacheEntryRemoved
     public void removed(CacheEntryRemovedEvent<Address, Map.Entry<K, V>> event) {
-        if (event.isOriginLocal()) return;
-        if (event.isPre()) {
-            this.entry.set(event.getValue());
-        } else {
-            Map.Entry<K, V> entry = this.entry.get();
-            this.entry.remove();
+        if (!event.isPre()) {
+            this.memberChanged(event.getKey(), event.isOriginLocal());
+        }
+    }
+
+    /**
+     * Applies the current cache entry of a member to the snapshot, and notifies listeners of remote changes.
+     * This listener is asynchronous, so the pre and post events of a change are not necessarily delivered by the same
+     * thread, and events of different changes are not necessarily delivered in order. Reading the entry from the cache,
+     * instead of pairing events, lets the snapshot converge to the cache contents regardless.
+     * @param member a cluster member
+     * @param local indicates whether the change originated locally
+     */
+    private void memberChanged(Address member, boolean local) {
+        Map.Entry<K, V> entry = this.cache.getValue().getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_REMOTE_LOOKUP).get(member);
+        Map.Entry<K, V> old;
+        synchronized (this.snapshotLock) {
+            Snapshot<K, V> current = this.snapshot;
+            old = current.members.get(member);
+            if ((entry != null) ? entry.equals(old) : (old == null)) return;
+            Map<Address, Map.Entry<K, V>> members = new HashMap<Address, Map.Entry<K, V>>(current.members);
             if (entry != null) {
-                Set<K> keys = Collections.singleton(entry.getKey());
-                for (Listener<K, V> listener: this.listeners) {
-                    listener.removedEntries(keys);
+                members.put(member, entry);
+            } else {
+                members.remove(member);
+            }
+            this.snapshot = new Snapshot<K, V>(current.version + 1, members);
+        }
+        if (local || this.listeners.isEmpty()) return;
+        if ((old != null) && ((entry == null) || !old.getKey().equals(entry.getKey()))) {
+            Set<K> keys = Collections.singleton(old.getKey());
+            for (Listener<K, V> listener: this.listeners) {
+                listener.removedEntries(keys);
+            }
+        }
+        if (entry != null) {
+            Map<K, V> entries = Collections.singletonMap(entry.getKey(), entry.getValue());
+            boolean updated = (old != null) && old.getKey().equals(entry.getKey());
+            for (Listener<K, V> listener: this.listeners) {
+                if (updated) {
+                    listener.updatedEntries(entries);
+                } else {
+                    listener.addedEntries(entries);
                 }
             }
         }
     }
 
+    private void rebuildSnapshot() {
+        synchronized (this.snapshotLock) {
+            Map<Address, Map.Entry<K, V>> members = new HashMap<Address, Map.Entry<K, V>>();
+            for (Map.Entry<Address, Map.Entry<K, V>> entry: this.cache.getValue().entrySet()) {
+                members.put(entry.getKey(), entry.getValue());
+            }
+            Snapshot<K, V> current = this.snapshot;
+            if (!members.equals(current.members)) {
+                this.snapshot = new Snapshot<K, V>(current.version + 1, members);
+            }
+        }
+    }
+
+    private static class Snapshot<K, V> implements Registry.Snapshot<K, V> {
+        final long version;
+        // keyed by cluster member, so that removals can be applied without the removed value
+        final Map<Address, Map.Entry<K, V>> members;
+        final Map<K, V> entries;
+        private final ConcurrentMap<Object, Object> attachments = new ConcurrentHashMap<Object, Object>();
+
+        Snapshot(long version, Map<Address, Map.Entry<K, V>> members) {
+            this.version = version;
+            this.members = members;
+            Map<K, V> entries = new HashMap<K, V>();
+            for (Map.Entry<K, V> entry: members.values()) {
+                entries.put(entry.getKey(), entry.getValue());
+            }
+            this.entries = Collections.unmodifiableMap(entries);
+        }
+
+        @Override
+        public long getVersion() {
+            return this.version;
+        }
+
+        @Override
+        public Map<K, V> getEntries() {
+            return this.entries;
+        }
+
+        @Override
+        public Object getAttachment(Object key) {
+            return this.attachments.get(key);
+        }
+
+        @Override
+        public Object putAttachmentIfAbsent(Object key, Object value) {
+            return this.attachments.putIfAbsent(key, value);
+        }
+    }
+
     abstract class Operation<R> implements CacheInvoker.Operation<Address, Map.Entry<K, V>, R> {
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.registry;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
+import org.infinispan.remoting.transport.Address;
+import org.jboss.msc.value.ImmediateValue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RegistryServiceTestCase {
+    private final Cache<Address, Map.Entry<String, String>> cache = mock(Cache.class);
+    private final AdvancedCache<Address, Map.Entry<String, String>> advancedCache = mock(AdvancedCache.class);
+    private final Registry.RegistryEntryProvider<String, String> provider = mock(Registry.RegistryEntryProvider.class);
+    private final Registry.Listener<String, String> listener = mock(Registry.Listener.class);
+    private final Address member = mock(Address.class);
+    private final RegistryService<String, String> registry = new RegistryService<String, String>(
+            new ImmediateValue<Cache<Address, Map.Entry<String, String>>>(this.cache),
+            new ImmediateValue<Registry.RegistryEntryProvider<String, String>>(this.provider));
+
+    @Before
+    public void init() {
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_REMOTE_LOOKUP)).thenReturn(this.advancedCache);
+        this.registry.addListener(this.listener);
+    }
+
+    @Test
+    public void addUpdateRemove() {
+        Map<String, String> initial = this.registry.getEntries();
+        assertTrue(initial.isEmpty());
+        assertEquals(0L, this.registry.getVersion());
+
+        this.cacheEntry("node1", "a");
+        this.registry.modified(this.modifiedEvent(false));
+
+        assertEquals(1L, this.registry.getVersion());
+        assertEquals(Collections.singletonMap("node1", "a"), this.registry.getEntries());
+        verify(this.listener).addedEntries(Collections.singletonMap("node1", "a"));
+
+        this.cacheEntry("node1", "b");
+        this.registry.modified(this.modifiedEvent(false));
+
+        assertEquals(2L, this.registry.getVersion());
+        assertEquals(Collections.singletonMap("node1", "b"), this.registry.getEntries());
+        verify(this.listener).updatedEntries(Collections.singletonMap("node1", "b"));
+
+        when(this.advancedCache.get(this.member)).thenReturn(null);
+        this.registry.removed(this.removedEvent(false));
+
+        assertEquals(3L, this.registry.getVersion());
+        assertTrue(this.registry.getEntries().isEmpty());
+        verify(this.listener).removedEntries(Collections.singleton("node1"));
+    }
+
+    @Test
+    public void unchangedSnapshot() {
+        this.cacheEntry("node1", "a");
+        this.registry.modified(this.modifiedEvent(false));
+        Map<String, String> entries = this.registry.getEntries();
+
+        // Pre events and repeated deliveries of the same state do not change the snapshot
+        CacheEntryModifiedEvent<Address, Map.Entry<String, String>> pre = this.modifiedEvent(false);
+        when(pre.isPre()).thenReturn(true);
+        this.registry.modified(pre);
+        this.registry.modified(this.modifiedEvent(false));
+
+        assertEquals(1L, this.registry.getVersion());
+        assertSame(entries, this.registry.getEntries());
+        verify(this.listener, times(1)).addedEntries(anyMapOf(String.class, String.class));
+        verifyNoMoreInteractions(this.listener);
+    }
+
+    @Test
+    public void outOfOrderEvents() {
+        this.cacheEntry("node1", "a");
+        this.registry.modified(this.modifiedEvent(false));
+
+        // The entry was removed, but the modification of a later put is delivered before the removal
+        this.cacheEntry("node1", "c");
+        this.registry.modified(this.modifiedEvent(false));
+        this.registry.removed(this.removedEvent(false));
+
+        assertEquals(2L, this.registry.getVersion());
+        assertEquals(Collections.singletonMap("node1", "c"), this.registry.getEntries());
+
+        // A removal delivered after the entry is gone from the cache, without a preceding pre event on this thread
+        when(this.advancedCache.get(this.member)).thenReturn(null);
+        this.registry.removed(this.removedEvent(false));
+
+        assertEquals(3L, this.registry.getVersion());
+        assertTrue(this.registry.getEntries().isEmpty());
+        verify(this.listener).removedEntries(Collections.singleton("node1"));
+    }
+
+    @Test
+    public void localChanges() {
+        this.cacheEntry("node1", "a");
+        this.registry.modified(this.modifiedEvent(true));
+
+        assertEquals(1L, this.registry.getVersion());
+        assertEquals(Collections.singletonMap("node1", "a"), this.registry.getEntries());
+
+        when(this.advancedCache.get(this.member)).thenReturn(null);
+        this.registry.removed(this.removedEvent(true));
+
+        assertEquals(2L, this.registry.getVersion());
+        assertTrue(this.registry.getEntries().isEmpty());
+        verifyZeroInteractions(this.listener);
+    }
+
+    @Test
+    public void snapshotAttachments() {
+        this.cacheEntry("node1", "a");
+        this.registry.modified(this.modifiedEvent(false));
+
+        Registry.Snapshot<String, String> snapshot = this.registry.getSnapshot();
+        assertEquals(1L, snapshot.getVersion());
+        assertEquals(Collections.singletonMap("node1", "a"), snapshot.getEntries());
+
+        Object key = new Object();
+        assertNull(snapshot.putAttachmentIfAbsent(key, "encoded"));
+        assertEquals("encoded", snapshot.putAttachmentIfAbsent(key, "other"));
+        assertSame(snapshot, this.registry.getSnapshot());
+        assertEquals("encoded", this.registry.getSnapshot().getAttachment(key));
+
+        // A new snapshot starts without attachments
+        this.cacheEntry("node1", "b");
+        this.registry.modified(this.modifiedEvent(false));
+
+        Registry.Snapshot<String, String> next = this.registry.getSnapshot();
+        assertEquals(2L, next.getVersion());
+        assertEquals(Collections.singletonMap("node1", "b"), next.getEntries());
+        assertNull(next.getAttachment(key));
+        // The old snapshot is unchanged
+        assertEquals(Collections.singletonMap("node1", "a"), snapshot.getEntries());
+    }
+
+    private void cacheEntry(String key, String value) {
+        Map.Entry<String, String> entry = new AbstractMap.SimpleImmutableEntry<String, String>(key, value);
+        when(this.advancedCache.get(this.member)).thenReturn(entry);
+    }
+
+    private CacheEntryModifiedEvent<Address, Map.Entry<String, String>> modifiedEvent(boolean local) {
+        CacheEntryModifiedEvent<Address, Map.Entry<String, String>> event = mock(CacheEntryModifiedEvent.class);
+        when(event.isPre()).thenReturn(false);
+        when(event.getKey()).thenReturn(this.member);
+        when(event.isOriginLocal()).thenReturn(local);
+        return event;
+    }
+
+    private CacheEntryRemovedEvent<Address, Map.Entry<String, String>> removedEvent(boolean local) {
+        CacheEntryRemovedEvent<Address, Map.Entry<String, String>> event = mock(CacheEntryRemovedEvent.class);
+        when(event.isPre()).thenReturn(false);
+        when(event.getKey()).thenReturn(this.member);
+        when(event.isOriginLocal()).thenReturn(local);
+        return event;
+    }
+}
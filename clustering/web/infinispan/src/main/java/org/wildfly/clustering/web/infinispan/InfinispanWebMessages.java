@@ -52,4 +52,7 @@ public interface InfinispanWebMessages {
 
     @Message(id = 10337, value = "Session %s is not valid")
     IllegalStateException invalidSession(String sessionId);
+
+    @Message(id = 10338, value = "Invalid value of system property %s: %s")
+    IllegalArgumentException invalidOffHeapIdleTimeout(String property, String value);
 }
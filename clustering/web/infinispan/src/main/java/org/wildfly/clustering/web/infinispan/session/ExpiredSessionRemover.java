@@ -21,8 +21,11 @@
  */
 package org.wildfly.clustering.web.infinispan.session;
 
+import java.util.concurrent.TimeUnit;
+
 import org.wildfly.clustering.web.infinispan.InfinispanWebLogger;
 import org.wildfly.clustering.web.infinispan.Remover;
+import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
 import org.wildfly.clustering.web.session.Session;
 
 /**
@@ -32,9 +35,31 @@ import org.wildfly.clustering.web.session.Session;
 public class ExpiredSessionRemover<V, L> implements Remover<String> {
 
     private final SessionFactory<V, L> factory;
+    private final long maxUnreplicatedInterval;
 
     public ExpiredSessionRemover(SessionFactory<V, L> factory) {
+        this(factory, 0);
+    }
+
+    /**
+     * @param factory a session factory
+     * @param maxUnreplicatedInterval the max interval, in milliseconds, by which the replicated last accessed time of a session may lag behind
+     */
+    public ExpiredSessionRemover(SessionFactory<V, L> factory, long maxUnreplicatedInterval) {
         this.factory = factory;
+        this.maxUnreplicatedInterval = maxUnreplicatedInterval;
+    }
+
+    /**
+     * Indicates whether session meta data is expired, allowing for a last accessed time that may lag behind by up to the specified interval.
+     * @param metaData session meta data
+     * @param maxUnreplicatedInterval the max unreplicated interval in milliseconds
+     * @return true, if the session is expired, false otherwise
+     */
+    static boolean isExpired(ImmutableSessionMetaData metaData, long maxUnreplicatedInterval) {
+        if (maxUnreplicatedInterval <= 0) return metaData.isExpired();
+        long maxInactiveInterval = metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS);
+        return (maxInactiveInterval > 0) ? (System.currentTimeMillis() - metaData.getLastAccessedTime().getTime()) > (maxInactiveInterval + maxUnreplicatedInterval) : false;
     }
 
     @Override
@@ -42,7 +67,7 @@ public class ExpiredSessionRemover<V, L> implements Remover<String> {
         V value = this.factory.findValue(id);
         if (value != null) {
             Session<L> session = this.factory.createSession(id, value);
-            if (session.isValid() && session.getMetaData().isExpired()) {
+            if (session.isValid() && isExpired(session.getMetaData(), this.maxUnreplicatedInterval)) {
                 InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s has expired.", id);
                 session.invalidate();
             }
@@ -56,6 +56,7 @@ import org.wildfly.clustering.web.infinispan.Scheduler;
 import org.wildfly.clustering.web.session.ImmutableHttpSessionAdapter;
 import org.wildfly.clustering.web.session.ImmutableSession;
 import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+import org.wildfly.clustering.web.session.OffHeapStatistics;
 import org.wildfly.clustering.web.session.Session;
 import org.wildfly.clustering.web.session.SessionAttributes;
 import org.wildfly.clustering.web.session.SessionContext;
@@ -79,8 +80,19 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L>, KeyGen
     private volatile Time defaultMaxInactiveInterval = new Time(30, TimeUnit.MINUTES);
     private final Set<String> activeSessions = new ConcurrentHashSet<String>();
     private final int maxActiveSessions;
+    private final long maxUnreplicatedInterval;
+    private final long offHeapIdleTimeout;
+    private final OffHeapMemory offHeapMemory;
 
     public InfinispanSessionManager(SessionContext context, SessionIdentifierFactory idFactory, Cache<String, V> cache, SessionFactory<V, L> factory, KeyAffinityServiceFactory affinityFactory, Registry<String, Void> registry, JBossWebMetaData metaData) {
+        this(context, idFactory, cache, factory, affinityFactory, registry, metaData, 0, null);
+    }
+
+    /**
+     * @param offHeapIdleTimeout the time, in milliseconds, a session needs to be idle before its attributes are moved off the heap, or 0 to keep them on the heap
+     * @param offHeapMemory the direct memory holding the attributes moved off the heap, or null to keep them on the heap
+     */
+    public InfinispanSessionManager(SessionContext context, SessionIdentifierFactory idFactory, Cache<String, V> cache, SessionFactory<V, L> factory, KeyAffinityServiceFactory affinityFactory, Registry<String, Void> registry, JBossWebMetaData metaData, long offHeapIdleTimeout, OffHeapMemory offHeapMemory) {
         this.context = context;
         this.factory = factory;
         this.idFactory = idFactory;
@@ -88,16 +100,27 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L>, KeyGen
         this.affinity = affinityFactory.createService(this.cache, this);
         this.registry = registry;
         this.maxActiveSessions = metaData.getMaxActiveSessions().intValue();
+        this.maxUnreplicatedInterval = LastAccessedTimeMutator.getMaxUnreplicatedInterval(metaData.getReplicationConfig());
+        this.offHeapIdleTimeout = (offHeapMemory != null) ? offHeapIdleTimeout : 0;
+        this.offHeapMemory = offHeapMemory;
+    }
+
+    @Override
+    public OffHeapStatistics getOffHeapStatistics() {
+        return this.offHeapMemory;
     }
 
     @Override
     public void start() {
         this.cache.addListener(this);
         this.affinity.start();
-        this.schedulers.add(new SessionExpirationScheduler<L>(this, new ExpiredSessionRemover<>(this.factory)));
+        this.schedulers.add(new SessionExpirationScheduler<L>(this, new ExpiredSessionRemover<>(this.factory, this.maxUnreplicatedInterval), this.maxUnreplicatedInterval));
         if (this.maxActiveSessions > 0) {
             this.schedulers.add(new SessionEvictionScheduler<L>(this, this.factory, this.maxActiveSessions));
         }
+        if (this.offHeapIdleTimeout > 0) {
+            this.schedulers.add(new SessionOffloadScheduler<L>(this, this.factory, this.offHeapIdleTimeout));
+        }
     }
 
     @Override
@@ -106,6 +129,9 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L>, KeyGen
             scheduler.close();
         }
         this.schedulers.clear();
+        if (this.offHeapMemory != null) {
+            InfinispanWebLogger.ROOT_LOGGER.debugf("%s: %s", this.cache.getName(), this.offHeapMemory);
+        }
         this.affinity.stop();
         this.cache.removeListener(this);
     }
@@ -181,7 +207,8 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L>, KeyGen
             return null;
         }
         Session<L> session = this.factory.createSession(id, value);
-        if (session.getMetaData().isExpired()) {
+        // The last accessed time of a session last accessed by another node may lag behind by up to the max unreplicated interval
+        if (ExpiredSessionRemover.isExpired(session.getMetaData(), this.maxUnreplicatedInterval)) {
             InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s was found, but has expired", id);
             session.invalidate();
             return null;
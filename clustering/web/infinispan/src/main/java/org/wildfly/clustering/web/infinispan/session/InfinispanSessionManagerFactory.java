@@ -22,6 +22,7 @@
 package org.wildfly.clustering.web.infinispan.session;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.Cache;
 import org.jboss.as.clustering.MarshalledValue;
@@ -48,6 +49,7 @@ import org.wildfly.clustering.web.session.SessionContext;
 import org.wildfly.clustering.web.session.SessionIdentifierFactory;
 import org.wildfly.clustering.web.session.SessionManager;
 import org.wildfly.clustering.web.session.SessionManagerFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Factory for creating session managers.
@@ -55,12 +57,19 @@ import org.wildfly.clustering.web.session.SessionManagerFactory;
  */
 @SuppressWarnings("rawtypes")
 public class InfinispanSessionManagerFactory extends AbstractService<SessionManagerFactory> implements SessionManagerFactory {
+    /**
+     * System property specifying the time, in seconds, a session needs to be idle before its serialized attributes are moved off the heap.
+     * Attributes are kept on the heap if undefined or not positive.
+     */
+    public static final String OFF_HEAP_IDLE_TIMEOUT_PROPERTY = "jboss.web.session.off-heap-idle-timeout";
+
     private final SessionAttributeMarshallingContext context;
     private final JBossWebMetaData metaData;
     private final CacheInvoker invoker = new RetryingCacheInvoker(10, 100);
     private final Value<Cache> cache;
     private final Value<KeyAffinityServiceFactory> affinityFactory;
     private final Value<Registry> registry;
+    private final long offHeapIdleTimeout;
 
     public InfinispanSessionManagerFactory(Module module, JBossWebMetaData metaData, Value<Cache> cache, Value<KeyAffinityServiceFactory> affinityFactory, Value<Registry> registry) {
         this.context = new SessionAttributeMarshallingContext(module);
@@ -68,6 +77,17 @@ public class InfinispanSessionManagerFactory extends AbstractService<SessionMana
         this.affinityFactory = affinityFactory;
         this.registry = registry;
         this.metaData = metaData;
+        this.offHeapIdleTimeout = getOffHeapIdleTimeout();
+    }
+
+    private static long getOffHeapIdleTimeout() {
+        String value = WildFlySecurityManager.getPropertyPrivileged(OFF_HEAP_IDLE_TIMEOUT_PROPERTY, null);
+        if (value == null) return 0;
+        try {
+            return Math.max(TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim())), 0);
+        } catch (NumberFormatException e) {
+            throw InfinispanWebMessages.MESSAGES.invalidOffHeapIdleTimeout(OFF_HEAP_IDLE_TIMEOUT_PROPERTY, value);
+        }
     }
 
     @Override
@@ -79,12 +99,14 @@ public class InfinispanSessionManagerFactory extends AbstractService<SessionMana
     @Override
     public <L> SessionManager<L> createSessionManager(SessionContext context, SessionIdentifierFactory identifierFactory, LocalContextFactory<L> localContextFactory) {
         Cache cache = this.cache.getValue();
-        return new InfinispanSessionManager<>(context, identifierFactory, cache, this.<L>getSessionFactory(context, localContextFactory, cache), this.affinityFactory.getValue(), this.registry.getValue(), this.metaData);
+        OffHeapMemory memory = (this.offHeapIdleTimeout > 0) ? new OffHeapMemory() : null;
+        return new InfinispanSessionManager<>(context, identifierFactory, cache, this.<L>getSessionFactory(context, localContextFactory, cache, memory), this.affinityFactory.getValue(), this.registry.getValue(), this.metaData, this.offHeapIdleTimeout, memory);
     }
 
-    private <L> SessionFactory<?, L> getSessionFactory(SessionContext context, LocalContextFactory<L> localContextFactory, Cache<?, ?> cache) {
+    private <L> SessionFactory<?, L> getSessionFactory(SessionContext context, LocalContextFactory<L> localContextFactory, Cache<?, ?> cache, OffHeapMemory memory) {
         MarshallingContext marshallingContext = new MarshallingContext(this.context);
-        MarshalledValueFactory<MarshallingContext> factory = new SimpleMarshalledValueFactory(marshallingContext);
+        MarshalledValueFactory<MarshallingContext> factory = (memory != null) ? new OffHeapMarshalledValueFactory(marshallingContext, memory) : new SimpleMarshalledValueFactory(marshallingContext);
+        long maxUnreplicatedInterval = LastAccessedTimeMutator.getMaxUnreplicatedInterval(this.metaData.getReplicationConfig());
 
         switch (this.metaData.getReplicationConfig().getReplicationGranularity()) {
             case ATTRIBUTE: {
@@ -93,7 +115,7 @@ public class InfinispanSessionManagerFactory extends AbstractService<SessionMana
                 @SuppressWarnings("unchecked")
                 Cache<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>> attributeCache = (Cache<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>>) cache;
                 SessionAttributeMarshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller = new MarshalledValueSessionAttributeMarshaller<>(factory, marshallingContext);
-                return new FineSessionFactory<L>(sessionCache, attributeCache, this.invoker, context, marshaller, localContextFactory);
+                return new FineSessionFactory<L>(sessionCache, attributeCache, this.invoker, context, marshaller, localContextFactory, maxUnreplicatedInterval);
             }
             case SESSION: {
                 @SuppressWarnings("unchecked")
@@ -101,7 +123,7 @@ public class InfinispanSessionManagerFactory extends AbstractService<SessionMana
                 @SuppressWarnings("unchecked")
                 Cache<SessionAttributesCacheKey, MarshalledValue<Map<String, Object>, MarshallingContext>> attributesCache = (Cache<SessionAttributesCacheKey, MarshalledValue<Map<String, Object>, MarshallingContext>>) cache;
                 SessionAttributeMarshaller<Map<String, Object>, MarshalledValue<Map<String, Object>, MarshallingContext>> marshaller = new MarshalledValueSessionAttributeMarshaller<>(factory, marshallingContext);
-                return new CoarseSessionFactory<L>(sessionCache, attributesCache, this.invoker, context, marshaller, localContextFactory);
+                return new CoarseSessionFactory<L>(sessionCache, attributesCache, this.invoker, context, marshaller, localContextFactory, maxUnreplicatedInterval);
             }
             default: {
                 throw InfinispanWebMessages.MESSAGES.unknownReplicationGranularity(this.metaData.getReplicationConfig().getReplicationGranularity());
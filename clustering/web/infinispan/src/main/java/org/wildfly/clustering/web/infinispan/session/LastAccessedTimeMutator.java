@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.metadata.web.jboss.ReplicationConfig;
+import org.wildfly.clustering.web.infinispan.Mutator;
+import org.wildfly.clustering.web.session.SessionMetaData;
+
+/**
+ * {@link Mutator} for the cache entry containing the session meta data that coalesces replication of the last accessed time.
+ * The entry only replicates if the session meta data changed otherwise, or if its last accessed time advanced
+ * by at least the configured max unreplicated interval since it last replicated.
+ */
+public class LastAccessedTimeMutator implements Mutator {
+
+    /**
+     * Returns the max unreplicated interval, in milliseconds, of the specified replication configuration.
+     * @param config a replication configuration
+     * @return an interval in milliseconds, or 0, if the last accessed time should replicate on every request
+     */
+    public static long getMaxUnreplicatedInterval(ReplicationConfig config) {
+        Integer interval = (config != null) ? config.getMaxUnreplicatedInterval() : null;
+        return ((interval != null) && (interval.intValue() > 0)) ? TimeUnit.SECONDS.toMillis(interval.longValue()) : 0;
+    }
+
+    /**
+     * Decorates the specified mutator with coalescing semantics, if applicable.
+     * @param mutator the mutator of the session meta data cache entry
+     * @param metaData the session meta data
+     * @param maxUnreplicatedInterval the max unreplicated interval in milliseconds
+     * @return a mutator
+     */
+    public static Mutator create(Mutator mutator, SessionMetaData metaData, long maxUnreplicatedInterval) {
+        if ((maxUnreplicatedInterval <= 0) || (mutator == Mutator.PASSIVE) || !(metaData instanceof SimpleSessionMetaData)) {
+            return mutator;
+        }
+        return new LastAccessedTimeMutator(mutator, (SimpleSessionMetaData) metaData, maxUnreplicatedInterval);
+    }
+
+    private final Mutator mutator;
+    private final SimpleSessionMetaData metaData;
+    private final long maxUnreplicatedInterval;
+
+    private LastAccessedTimeMutator(Mutator mutator, SimpleSessionMetaData metaData, long maxUnreplicatedInterval) {
+        this.mutator = mutator;
+        this.metaData = metaData;
+        this.maxUnreplicatedInterval = maxUnreplicatedInterval;
+    }
+
+    @Override
+    public void mutate() {
+        if (this.metaData.isReplicationRequired(this.maxUnreplicatedInterval, TimeUnit.MILLISECONDS)) {
+            this.mutator.mutate();
+            this.metaData.setReplicated();
+        }
+    }
+}
@@ -25,6 +25,7 @@ import java.io.IOException;
 
 import org.jboss.as.clustering.MarshalledValue;
 import org.jboss.as.clustering.MarshalledValueFactory;
+import org.wildfly.clustering.web.infinispan.InfinispanWebLogger;
 
 /**
  * Session attribute marshaller that stores attribute values using marshalled values.
@@ -54,4 +55,23 @@ public class MarshalledValueSessionAttributeMarshaller<V, C> implements SessionA
         if (object == null) return null;
         return this.factory.createMarshalledValue(object);
     }
+
+    @Override
+    public void offload(MarshalledValue<V, C> value, long lastAccessedTime) {
+        if ((value instanceof OffHeapMarshalledValue) && (this.factory instanceof OffHeapMarshalledValueFactory)) {
+            try {
+                ((OffHeapMarshalledValue<?>) value).offload(lastAccessedTime, ((OffHeapMarshalledValueFactory) this.factory).getOffHeapMemory());
+            } catch (IOException e) {
+                // Value simply remains on the heap
+                InfinispanWebLogger.ROOT_LOGGER.debugf(e, "Failed to move session attribute off the heap");
+            }
+        }
+    }
+
+    @Override
+    public void release(MarshalledValue<V, C> value) {
+        if (value instanceof OffHeapMarshalledValue) {
+            ((OffHeapMarshalledValue<?>) value).discard();
+        }
+    }
 }
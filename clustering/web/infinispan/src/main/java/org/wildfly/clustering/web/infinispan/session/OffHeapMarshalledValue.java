@@ -0,0 +1,176 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+import org.jboss.as.clustering.MarshalledValue;
+import org.jboss.as.clustering.MarshallingContext;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.SimpleDataInput;
+import org.jboss.marshalling.SimpleDataOutput;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * A marshalled value whose serialized form can be moved off the heap, into direct memory, while it is not in use.
+ * The value is rehydrated to the heap on demand.
+ * Values read from a remote node or from a cache store keep their serialized form on the heap until first accessed,
+ * or until moved off the heap by {@link #offload(long, OffHeapMemory)}.
+ * Uses the same serialized form as {@link org.jboss.as.clustering.SimpleMarshalledValue}.
+ */
+public class OffHeapMarshalledValue<T> implements MarshalledValue<T, MarshallingContext>, Externalizable {
+    private static final long serialVersionUID = 6350806591950932580L;
+
+    private transient volatile MarshallingContext context;
+    private transient volatile T object;
+    private transient volatile byte[] bytes;
+    private transient volatile OffHeapMemory.Block block;
+    private transient volatile long accessedTime = System.currentTimeMillis();
+
+    public OffHeapMarshalledValue(T object, MarshallingContext context) {
+        this.context = context;
+        this.object = object;
+    }
+
+    public OffHeapMarshalledValue() {
+        // Required for externalization
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public synchronized T get(MarshallingContext context) throws IOException, ClassNotFoundException {
+        this.accessedTime = System.currentTimeMillis();
+        if (this.object == null) {
+            this.context = context;
+            OffHeapMemory.Block block = this.block;
+            byte[] bytes = (block != null) ? block.read() : this.bytes;
+            if (bytes != null) {
+                ByteArrayInputStream input = new ByteArrayInputStream(bytes);
+                SimpleDataInput data = new SimpleDataInput(Marshalling.createByteInput(input));
+                int version = data.readInt();
+                Unmarshaller unmarshaller = context.createUnmarshaller(version);
+                try {
+                    unmarshaller.start(data);
+                    this.object = (T) unmarshaller.readObject();
+                    unmarshaller.finish();
+                    // Free up memory
+                    this.bytes = null;
+                    if (block != null) {
+                        this.block = null;
+                        block.memory.rehydrated(block);
+                    }
+                } finally {
+                    unmarshaller.close();
+                }
+            }
+        }
+        return this.object;
+    }
+
+    /**
+     * Moves the serialized form of this value off the heap, unless this value was accessed after the specified time.
+     * The latter guards against dropping an object that a concurrent request may still modify.
+     * The value stays on the heap if the specified memory rejects it.
+     * @param time a time in milliseconds since the epoch, typically the last accessed time of the session
+     * @param memory the direct memory of the session manager
+     * @return true, if this value was moved off the heap, false otherwise
+     * @throws IOException if the value could not be serialized
+     */
+    public synchronized boolean offload(long time, OffHeapMemory memory) throws IOException {
+        if ((this.block != null) || (this.accessedTime > time)) return false;
+        byte[] bytes = this.getBytes();
+        if (bytes == null) return false;
+        OffHeapMemory.Block block = memory.allocate(bytes, this);
+        if (block == null) return false;
+        this.block = block;
+        this.object = null;
+        this.bytes = null;
+        return true;
+    }
+
+    /**
+     * Releases the direct memory held by this value, if any, once this value is removed from its session.
+     * This value can no longer be read afterwards, unless it still holds its object.
+     */
+    public synchronized void discard() {
+        OffHeapMemory.Block block = this.block;
+        if (block != null) {
+            this.block = null;
+            block.memory.release(block);
+        }
+    }
+
+    private synchronized byte[] getBytes() throws IOException {
+        byte[] bytes = this.bytes;
+        if (bytes != null) return bytes;
+        OffHeapMemory.Block block = this.block;
+        if (block != null) return block.read();
+        if (this.object == null) return null;
+        int version = this.context.getCurrentVersion();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output));
+        data.writeInt(version);
+        Marshaller marshaller = this.context.createMarshaller(version);
+        try {
+            marshaller.start(data);
+            marshaller.writeObject(this.object);
+            marshaller.finish();
+            return output.toByteArray();
+        } finally {
+            marshaller.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        T object = this.object;
+        return (object != null) ? object.toString() : super.toString();
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        byte[] bytes = this.getBytes();
+        if (bytes != null) {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else {
+            out.writeInt(0);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        int size = in.readInt();
+        if (size > 0) {
+            byte[] bytes = new byte[size];
+            in.readFully(bytes);
+            // Moving every replicated or loaded value off the heap would churn direct memory, so leave that to the offload scheduler
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import org.jboss.as.clustering.MarshalledValueFactory;
+import org.jboss.as.clustering.MarshallingContext;
+
+/**
+ * Factory for marshalled values whose serialized form can be moved off the heap.
+ */
+public class OffHeapMarshalledValueFactory implements MarshalledValueFactory<MarshallingContext> {
+    private final MarshallingContext context;
+    private final OffHeapMemory memory;
+
+    public OffHeapMarshalledValueFactory(MarshallingContext context, OffHeapMemory memory) {
+        this.context = context;
+        this.memory = memory;
+    }
+
+    /**
+     * Returns the direct memory into which values created by this factory are moved.
+     * @return direct memory
+     */
+    public OffHeapMemory getOffHeapMemory() {
+        return this.memory;
+    }
+
+    @Override
+    public <T> OffHeapMarshalledValue<T> createMarshalledValue(T object) {
+        return new OffHeapMarshalledValue<>(object, this.context);
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.wildfly.clustering.web.infinispan.InfinispanWebLogger;
+import org.wildfly.clustering.web.session.OffHeapStatistics;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Direct memory holding the serialized session attributes of a session manager, along with its statistics.
+ * Direct memory is allocated in slabs, shared by all session managers, which are split into blocks of a power of two size.
+ * A block is returned to its slab as soon as its value is rehydrated or removed, or else once its value is garbage collected,
+ * so direct memory is reused rather than released by the garbage collector.
+ * The number of slabs is bounded, so that allocations never reach the JVM limit, where every allocation would trigger a full garbage collection.
+ * An offload is rejected, and the value kept on the heap, if the value is larger than a slab, if no block is free and the bound is reached,
+ * or if direct memory is exhausted.
+ */
+public class OffHeapMemory implements OffHeapStatistics {
+    /**
+     * System property specifying the maximum number of bytes of direct memory held by serialized session attributes of all session managers.
+     * Should be lower than -XX:MaxDirectMemorySize. Defaults to a quarter of the maximum heap size, which is also the default direct memory limit.
+     */
+    public static final String MAX_SIZE_PROPERTY = "jboss.web.session.off-heap-max-size";
+
+    static final int SLAB_SIZE = 1 << 20;
+    static final int MIN_BLOCK_SIZE = 1 << 6;
+
+    private static final long MAX_SIZE = getMaxSize();
+    private static final AtomicLong reserved = new AtomicLong();
+    // Free blocks, by size class, i.e. by the binary logarithm of the block size relative to the minimum block size
+    private static final Queue<ByteBuffer>[] freeBlocks = createFreeBlocks();
+    // Tracks the allocated blocks until released, or until the value holding them is garbage collected
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private static final Set<Block> blocks = Collections.newSetFromMap(new ConcurrentHashMap<Block, Boolean>());
+
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong offloadCount = new AtomicLong();
+    private final AtomicLong rejectedOffloadCount = new AtomicLong();
+    private final AtomicLong rehydrationCount = new AtomicLong();
+
+    private static long getMaxSize() {
+        long defaultSize = Runtime.getRuntime().maxMemory() / 4;
+        String value = WildFlySecurityManager.getPropertyPrivileged(MAX_SIZE_PROPERTY, null);
+        if (value == null) return defaultSize;
+        try {
+            return Math.max(Long.parseLong(value.trim()), 0);
+        } catch (NumberFormatException e) {
+            InfinispanWebLogger.ROOT_LOGGER.debugf(e, "Invalid value of system property %s: %s", MAX_SIZE_PROPERTY, value);
+            return defaultSize;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Queue<ByteBuffer>[] createFreeBlocks() {
+        Queue<ByteBuffer>[] result = new Queue[Integer.numberOfTrailingZeros(SLAB_SIZE / MIN_BLOCK_SIZE) + 1];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = new ConcurrentLinkedQueue<>();
+        }
+        return result;
+    }
+
+    /**
+     * Copies the specified bytes into a block of direct memory.
+     * @param bytes serialized session attributes
+     * @param owner the value holding the block, the block is released once the owner is garbage collected
+     * @return a block of direct memory, or null if the bytes need to stay on the heap
+     */
+    Block allocate(byte[] bytes, Object owner) {
+        purge();
+        ByteBuffer buffer = (bytes.length <= SLAB_SIZE) ? takeBlock(sizeClass(bytes.length)) : null;
+        if (buffer == null) {
+            this.rejectedOffloadCount.incrementAndGet();
+            return null;
+        }
+        buffer.clear();
+        buffer.put(bytes).flip();
+        Block block = new Block(owner, buffer, this, queue);
+        blocks.add(block);
+        this.bytes.addAndGet(buffer.capacity());
+        this.offloadCount.incrementAndGet();
+        return block;
+    }
+
+    /**
+     * Returns the specified block to its slab, after its value was rehydrated to the heap.
+     * @param block a block allocated by this memory
+     */
+    void rehydrated(Block block) {
+        this.rehydrationCount.incrementAndGet();
+        release(block);
+    }
+
+    /**
+     * Returns the specified block to its slab.
+     * @param block a block allocated by this memory
+     */
+    void release(Block block) {
+        if (blocks.remove(block)) {
+            block.clear();
+            this.free(block.buffer);
+        }
+    }
+
+    private void free(ByteBuffer buffer) {
+        this.bytes.addAndGet(-buffer.capacity());
+        freeBlocks[sizeClass(buffer.capacity())].offer(buffer);
+    }
+
+    static int sizeClass(int size) {
+        return (size <= MIN_BLOCK_SIZE) ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(size - 1) - Integer.numberOfTrailingZeros(MIN_BLOCK_SIZE);
+    }
+
+    private static ByteBuffer takeBlock(int sizeClass) {
+        Queue<ByteBuffer> free = freeBlocks[sizeClass];
+        ByteBuffer block = free.poll();
+        if (block != null) return block;
+        if (!reserve(SLAB_SIZE)) return null;
+        ByteBuffer slab;
+        try {
+            slab = ByteBuffer.allocateDirect(SLAB_SIZE);
+        } catch (OutOfMemoryError e) {
+            reserved.addAndGet(-SLAB_SIZE);
+            InfinispanWebLogger.ROOT_LOGGER.debugf(e, "Failed to allocate %d bytes of direct memory", SLAB_SIZE);
+            return null;
+        }
+        int blockSize = MIN_BLOCK_SIZE << sizeClass;
+        for (int position = blockSize; position < SLAB_SIZE; position += blockSize) {
+            slab.limit(position + blockSize).position(position);
+            free.offer(slab.slice());
+        }
+        slab.limit(blockSize).position(0);
+        return slab.slice();
+    }
+
+    private static boolean reserve(int size) {
+        long current = reserved.get();
+        while (current + size <= MAX_SIZE) {
+            if (reserved.compareAndSet(current, current + size)) {
+                return true;
+            }
+            current = reserved.get();
+        }
+        return false;
+    }
+
+    private static void purge() {
+        Reference<?> reference = queue.poll();
+        while (reference != null) {
+            Block block = (Block) reference;
+            if (blocks.remove(block)) {
+                block.memory.free(block.buffer);
+            }
+            reference = queue.poll();
+        }
+    }
+
+    /**
+     * Returns the number of bytes of direct memory currently held by serialized session attributes of this session manager.
+     * @return a number of bytes
+     */
+    @Override
+    public long getOffHeapBytes() {
+        purge();
+        return this.bytes.get();
+    }
+
+    /**
+     * Returns the number of times a serialized session attribute was moved off the heap.
+     * @return a count
+     */
+    @Override
+    public long getOffloadCount() {
+        return this.offloadCount.get();
+    }
+
+    /**
+     * Returns the number of times a serialized session attribute stayed on the heap, because direct memory was exhausted.
+     * @return a count
+     */
+    @Override
+    public long getRejectedOffloadCount() {
+        return this.rejectedOffloadCount.get();
+    }
+
+    /**
+     * Returns the number of times a session attribute was rehydrated from off heap memory.
+     * @return a count
+     */
+    @Override
+    public long getRehydrationCount() {
+        return this.rehydrationCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d bytes of session attributes held off the heap, %d offloaded, %d rejected, %d rehydrated", this.getOffHeapBytes(), this.getOffloadCount(), this.getRejectedOffloadCount(), this.getRehydrationCount());
+    }
+
+    /**
+     * A block of direct memory holding the serialized form of a value.
+     */
+    static class Block extends WeakReference<Object> {
+        final ByteBuffer buffer;
+        final OffHeapMemory memory;
+
+        Block(Object owner, ByteBuffer buffer, OffHeapMemory memory, ReferenceQueue<Object> queue) {
+            super(owner, queue);
+            this.buffer = buffer;
+            this.memory = memory;
+        }
+
+        /**
+         * Copies the contents of this block to the heap.
+         * @return the serialized form of the value
+         */
+        byte[] read() {
+            byte[] bytes = new byte[this.buffer.remaining()];
+            this.buffer.duplicate().get(bytes);
+            return bytes;
+        }
+    }
+}
@@ -31,4 +31,17 @@ public interface SessionAttributeMarshaller<A, V> {
     A read(V value);
 
     V write(A attribute);
+
+    /**
+     * Releases the heap held by the specified marshalled form of an attribute, if supported.
+     * @param value the marshalled form of an attribute
+     * @param lastAccessedTime the time, in milliseconds since the epoch, after which the attribute must not have been read
+     */
+    void offload(V value, long lastAccessedTime);
+
+    /**
+     * Releases the off heap memory held by the specified marshalled form of an attribute, once the attribute is removed.
+     * @param value the marshalled form of an attribute
+     */
+    void release(V value);
 }
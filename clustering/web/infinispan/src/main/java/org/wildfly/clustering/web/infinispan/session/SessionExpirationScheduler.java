@@ -49,9 +49,19 @@ public class SessionExpirationScheduler<L> implements Scheduler<Session<L>> {
     final Batcher batcher;
     final Remover<String> remover;
     private final ScheduledExecutorService executor;
+    private final long delay;
 
     public SessionExpirationScheduler(Batcher batcher, Remover<String> remover) {
-        this(batcher, remover, Executors.newSingleThreadScheduledExecutor(createThreadFactory()));
+        this(batcher, remover, 0);
+    }
+
+    /**
+     * @param batcher a batcher
+     * @param remover a session remover
+     * @param delay the time, in milliseconds, by which to defer expiration beyond the max inactive interval of a session
+     */
+    public SessionExpirationScheduler(Batcher batcher, Remover<String> remover, long delay) {
+        this(batcher, remover, Executors.newSingleThreadScheduledExecutor(createThreadFactory()), delay);
     }
 
     private static ThreadFactory createThreadFactory() {
@@ -59,9 +69,14 @@ public class SessionExpirationScheduler<L> implements Scheduler<Session<L>> {
     }
 
     public SessionExpirationScheduler(Batcher batcher, Remover<String> remover, ScheduledExecutorService executor) {
+        this(batcher, remover, executor, 0);
+    }
+
+    public SessionExpirationScheduler(Batcher batcher, Remover<String> remover, ScheduledExecutorService executor, long delay) {
         this.batcher = batcher;
         this.remover = remover;
         this.executor = executor;
+        this.delay = delay;
     }
 
     @Override
@@ -76,6 +91,7 @@ public class SessionExpirationScheduler<L> implements Scheduler<Session<L>> {
     public void schedule(Session<L> session) {
         long timeout = session.getMetaData().getMaxInactiveInterval(TimeUnit.MILLISECONDS);
         if (timeout > 0) {
+            timeout += this.delay;
             String id = session.getId();
             InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s will expire in %d ms", id, timeout);
             this.expirationFutures.put(id, this.executor.schedule(new ExpirationTask(id), timeout, TimeUnit.MILLISECONDS));
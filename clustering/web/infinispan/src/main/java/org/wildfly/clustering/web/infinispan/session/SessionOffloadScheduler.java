@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.security.AccessController;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.clustering.web.Batcher;
+import org.wildfly.clustering.web.infinispan.InfinispanWebLogger;
+import org.wildfly.clustering.web.infinispan.Offloader;
+import org.wildfly.clustering.web.infinispan.Scheduler;
+import org.wildfly.clustering.web.session.Session;
+import org.wildfly.security.manager.GetAccessControlContextAction;
+
+/**
+ * Session scheduler that moves the attributes of a session off the heap once the session was idle for a given time.
+ */
+public class SessionOffloadScheduler<L> implements Scheduler<Session<L>> {
+
+    final Map<String, Future<?>> offloadFutures = new ConcurrentHashMap<>();
+    final Batcher batcher;
+    final Offloader<String> offloader;
+    private final long idleTimeout;
+    private final ScheduledExecutorService executor;
+
+    public SessionOffloadScheduler(Batcher batcher, Offloader<String> offloader, long idleTimeout) {
+        this(batcher, offloader, idleTimeout, Executors.newSingleThreadScheduledExecutor(createThreadFactory()));
+    }
+
+    private static ThreadFactory createThreadFactory() {
+        return new JBossThreadFactory(new ThreadGroup(SessionOffloadScheduler.class.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null, AccessController.doPrivileged(GetAccessControlContextAction.getInstance()));
+    }
+
+    /**
+     * @param batcher a batcher
+     * @param offloader a session offloader
+     * @param idleTimeout the time, in milliseconds, a session needs to be idle before its attributes are moved off the heap
+     * @param executor a scheduled executor
+     */
+    public SessionOffloadScheduler(Batcher batcher, Offloader<String> offloader, long idleTimeout, ScheduledExecutorService executor) {
+        this.batcher = batcher;
+        this.offloader = offloader;
+        this.idleTimeout = idleTimeout;
+        this.executor = executor;
+    }
+
+    @Override
+    public void cancel(Session<L> session) {
+        Future<?> future = this.offloadFutures.remove(session.getId());
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    @Override
+    public void schedule(Session<L> session) {
+        String id = session.getId();
+        this.offloadFutures.put(id, this.executor.schedule(new OffloadTask(id), this.idleTimeout, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdown();
+    }
+
+    private class OffloadTask implements Runnable {
+        private final String id;
+
+        OffloadTask(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public void run() {
+            SessionOffloadScheduler.this.offloadFutures.remove(this.id);
+            InfinispanWebLogger.ROOT_LOGGER.tracef("Moving attributes of idle session %s off the heap", this.id);
+            boolean started = SessionOffloadScheduler.this.batcher.startBatch();
+            boolean successful = false;
+            try {
+                SessionOffloadScheduler.this.offloader.offload(this.id);
+                successful = true;
+            } finally {
+                if (started) {
+                    SessionOffloadScheduler.this.batcher.endBatch(successful);
+                }
+            }
+        }
+    }
+}
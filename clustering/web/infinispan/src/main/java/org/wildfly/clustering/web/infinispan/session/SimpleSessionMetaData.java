@@ -35,18 +35,23 @@ public class SimpleSessionMetaData implements SessionMetaData {
     private final Date creationTime;
     private volatile Date lastAccessedTime;
     private volatile Time maxInactiveInterval;
+    // Local state describing the meta data as of its last replication - not externalized
+    private volatile long replicatedLastAccessedTime;
+    private volatile Time replicatedMaxInactiveInterval;
 
     public SimpleSessionMetaData() {
         Date now = new Date();
         this.creationTime = now;
         this.lastAccessedTime = now;
         this.maxInactiveInterval = new Time(0, TimeUnit.MILLISECONDS);
+        this.setReplicated();
     }
 
     public SimpleSessionMetaData(Date creationTime, Date lastAccessedTime, Time maxInactiveInterval) {
         this.creationTime = creationTime;
         this.lastAccessedTime = lastAccessedTime;
         this.maxInactiveInterval = maxInactiveInterval;
+        this.setReplicated();
     }
 
     @Override
@@ -85,4 +90,24 @@ public class SimpleSessionMetaData implements SessionMetaData {
     public void setMaxInactiveInterval(long interval, TimeUnit unit) {
         this.maxInactiveInterval = new Time(interval, unit);
     }
+
+    /**
+     * Indicates whether this meta data needs to replicate, i.e. whether its max inactive interval changed,
+     * or its last accessed time advanced by at least the specified interval, since it last replicated.
+     * @param maxUnreplicatedInterval the maximum interval by which the replicated last accessed time may lag behind
+     * @param unit the unit of the interval
+     * @return true, if this meta data needs to replicate, false otherwise
+     */
+    public boolean isReplicationRequired(long maxUnreplicatedInterval, TimeUnit unit) {
+        if (!this.maxInactiveInterval.equals(this.replicatedMaxInactiveInterval)) return true;
+        return (this.lastAccessedTime.getTime() - this.replicatedLastAccessedTime) >= unit.toMillis(maxUnreplicatedInterval);
+    }
+
+    /**
+     * Records the current state of this meta data as replicated.
+     */
+    public void setReplicated() {
+        this.replicatedLastAccessedTime = this.lastAccessedTime.getTime();
+        this.replicatedMaxInactiveInterval = this.maxInactiveInterval;
+    }
 }
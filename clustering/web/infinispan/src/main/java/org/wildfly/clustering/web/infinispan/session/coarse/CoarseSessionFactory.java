@@ -34,6 +34,7 @@ import org.wildfly.clustering.web.infinispan.CacheMutator;
 import org.wildfly.clustering.web.infinispan.Mutator;
 import org.wildfly.clustering.web.infinispan.session.InfinispanImmutableSession;
 import org.wildfly.clustering.web.infinispan.session.InfinispanSession;
+import org.wildfly.clustering.web.infinispan.session.LastAccessedTimeMutator;
 import org.wildfly.clustering.web.infinispan.session.SessionAttributeMarshaller;
 import org.wildfly.clustering.web.infinispan.session.SessionFactory;
 import org.wildfly.clustering.web.infinispan.session.SimpleSessionMetaData;
@@ -59,14 +60,20 @@ public class CoarseSessionFactory<L> implements SessionFactory<CoarseSessionEntr
     private final CacheInvoker invoker;
     private final SessionAttributeMarshaller<Map<String, Object>, MarshalledValue<Map<String, Object>, MarshallingContext>> marshaller;
     private final LocalContextFactory<L> localContextFactory;
+    private final long maxUnreplicatedInterval;
 
     public CoarseSessionFactory(Cache<String, CoarseSessionCacheEntry<L>> sessionCache, Cache<SessionAttributesCacheKey, MarshalledValue<Map<String, Object>, MarshallingContext>> attributesCache, CacheInvoker invoker, SessionContext context, SessionAttributeMarshaller<Map<String, Object>, MarshalledValue<Map<String, Object>, MarshallingContext>> marshaller, LocalContextFactory<L> localContextFactory) {
+        this(sessionCache, attributesCache, invoker, context, marshaller, localContextFactory, 0);
+    }
+
+    public CoarseSessionFactory(Cache<String, CoarseSessionCacheEntry<L>> sessionCache, Cache<SessionAttributesCacheKey, MarshalledValue<Map<String, Object>, MarshallingContext>> attributesCache, CacheInvoker invoker, SessionContext context, SessionAttributeMarshaller<Map<String, Object>, MarshalledValue<Map<String, Object>, MarshallingContext>> marshaller, LocalContextFactory<L> localContextFactory, long maxUnreplicatedInterval) {
         this.sessionCache = sessionCache;
         this.attributesCache = attributesCache;
         this.invoker = invoker;
         this.context = context;
         this.marshaller = marshaller;
         this.localContextFactory = localContextFactory;
+        this.maxUnreplicatedInterval = maxUnreplicatedInterval;
     }
 
     @Override
@@ -77,7 +84,7 @@ public class CoarseSessionFactory<L> implements SessionFactory<CoarseSessionEntr
         Map<String, Object> map = this.marshaller.read(value);
         Mutator attributesMutator = metaData.isNew() ? Mutator.PASSIVE : new CacheMutator<>(this.attributesCache, this.invoker, new SessionAttributesCacheKey(id), value, Flag.SKIP_LOCKING);
         SessionAttributes attributes = new CoarseSessionAttributes(map, attributesMutator);
-        Mutator sessionMutator = metaData.isNew() ? Mutator.PASSIVE : new CacheMutator<>(this.sessionCache, this.invoker, id, cacheEntry);
+        Mutator sessionMutator = metaData.isNew() ? Mutator.PASSIVE : LastAccessedTimeMutator.create(new CacheMutator<>(this.sessionCache, this.invoker, id, cacheEntry), metaData, this.maxUnreplicatedInterval);
         return new InfinispanSession<>(id, metaData, attributes, cacheEntry.getLocalContext(), this.localContextFactory, this.context, sessionMutator, this);
     }
 
@@ -116,7 +123,13 @@ public class CoarseSessionFactory<L> implements SessionFactory<CoarseSessionEntr
     @Override
     public void remove(String id) {
         this.invoker.invoke(this.sessionCache, new RemoveOperation<String, CoarseSessionCacheEntry<L>>(id), Flag.IGNORE_RETURN_VALUES);
-        this.invoker.invoke(this.attributesCache, new RemoveOperation<SessionAttributesCacheKey, MarshalledValue<Map<String, Object>, MarshallingContext>>(new SessionAttributesCacheKey(id)), Flag.IGNORE_RETURN_VALUES, Flag.SKIP_LOCKING);
+        SessionAttributesCacheKey key = new SessionAttributesCacheKey(id);
+        // Keep hold of the local value, so that any off heap memory it holds can be released once removed
+        MarshalledValue<Map<String, Object>, MarshallingContext> value = this.invoker.invoke(this.attributesCache, new FindOperation<SessionAttributesCacheKey, MarshalledValue<Map<String, Object>, MarshallingContext>>(key), Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD, Flag.SKIP_LOCKING);
+        this.invoker.invoke(this.attributesCache, new RemoveOperation<SessionAttributesCacheKey, MarshalledValue<Map<String, Object>, MarshallingContext>>(key), Flag.IGNORE_RETURN_VALUES, Flag.SKIP_LOCKING);
+        if (value != null) {
+            this.marshaller.release(value);
+        }
     }
 
     @Override
@@ -125,4 +138,15 @@ public class CoarseSessionFactory<L> implements SessionFactory<CoarseSessionEntr
             this.invoker.invoke(this.attributesCache, new EvictOperation<SessionAttributesCacheKey, MarshalledValue<Map<String, Object>, MarshallingContext>>(new SessionAttributesCacheKey(id)), Flag.FAIL_SILENTLY);
         }
     }
+
+    @Override
+    public void offload(String id) {
+        CoarseSessionCacheEntry<L> entry = this.invoker.invoke(this.sessionCache, new FindOperation<String, CoarseSessionCacheEntry<L>>(id), Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD);
+        if (entry != null) {
+            MarshalledValue<Map<String, Object>, MarshallingContext> value = this.invoker.invoke(this.attributesCache, new FindOperation<SessionAttributesCacheKey, MarshalledValue<Map<String, Object>, MarshallingContext>>(new SessionAttributesCacheKey(id)), Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD, Flag.SKIP_LOCKING);
+            if (value != null) {
+                this.marshaller.offload(value, entry.getMetaData().getLastAccessedTime().getTime());
+            }
+        }
+    }
 }
@@ -28,6 +28,7 @@ import org.infinispan.context.Flag;
 import org.jboss.as.clustering.infinispan.invoker.CacheInvoker;
 import org.jboss.as.clustering.infinispan.invoker.CacheInvoker.Operation;
 import org.wildfly.clustering.web.infinispan.CacheMutator;
+import org.wildfly.clustering.web.infinispan.Mutator;
 import org.wildfly.clustering.web.infinispan.Remover;
 import org.wildfly.clustering.web.infinispan.session.SessionAttributeMarshaller;
 import org.wildfly.clustering.web.session.SessionAttributes;
@@ -41,18 +42,29 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
     private final Cache<SessionAttributeCacheKey, V> cache;
     private final CacheInvoker invoker;
     private final SessionAttributeMarshaller<Object, V> marshaller;
+    private final Mutator attributesMutator;
 
     public FineSessionAttributes(String id, Set<String> attributes, Cache<SessionAttributeCacheKey, V> attributeCache, CacheInvoker invoker, SessionAttributeMarshaller<Object, V> marshaller) {
+        this(id, attributes, attributeCache, invoker, marshaller, Mutator.PASSIVE);
+    }
+
+    /**
+     * @param attributesMutator mutator of the cache entry containing the set of attribute names, triggered whenever the set changes
+     */
+    public FineSessionAttributes(String id, Set<String> attributes, Cache<SessionAttributeCacheKey, V> attributeCache, CacheInvoker invoker, SessionAttributeMarshaller<Object, V> marshaller, Mutator attributesMutator) {
         super(id, attributes, attributeCache, invoker, marshaller);
         this.attributes = attributes;
         this.cache = attributeCache;
         this.invoker = invoker;
         this.marshaller = marshaller;
+        this.attributesMutator = attributesMutator;
     }
 
     @Override
     public Object removeAttribute(String name) {
-        return this.attributes.remove(name) ? this.marshaller.read(this.invoker.invoke(this.cache, new Remover.RemoveOperation<SessionAttributeCacheKey, V>(this.createKey(name)), Flag.SKIP_LOCKING)) : null;
+        if (!this.attributes.remove(name)) return null;
+        this.attributesMutator.mutate();
+        return this.marshaller.read(this.invoker.invoke(this.cache, new Remover.RemoveOperation<SessionAttributeCacheKey, V>(this.createKey(name)), Flag.SKIP_LOCKING));
     }
 
     @Override
@@ -68,7 +80,11 @@ public class FineSessionAttributes<V> extends FineImmutableSessionAttributes<V>
                 return cache.put(key, value);
             }
         };
-        return this.marshaller.read(this.invoker.invoke(this.cache, operation, this.attributes.add(name) ? new Flag[] { Flag.IGNORE_RETURN_VALUES, Flag.SKIP_LOCKING } : new Flag[] { Flag.SKIP_LOCKING }));
+        boolean added = this.attributes.add(name);
+        if (added) {
+            this.attributesMutator.mutate();
+        }
+        return this.marshaller.read(this.invoker.invoke(this.cache, operation, added ? new Flag[] { Flag.IGNORE_RETURN_VALUES, Flag.SKIP_LOCKING } : new Flag[] { Flag.SKIP_LOCKING }));
     }
 
     @Override
@@ -21,6 +21,9 @@
  */
 package org.wildfly.clustering.web.infinispan.session.fine;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.infinispan.Cache;
 import org.infinispan.context.Flag;
 import org.jboss.as.clustering.MarshalledValue;
@@ -32,6 +35,7 @@ import org.wildfly.clustering.web.infinispan.CacheMutator;
 import org.wildfly.clustering.web.infinispan.Mutator;
 import org.wildfly.clustering.web.infinispan.session.InfinispanImmutableSession;
 import org.wildfly.clustering.web.infinispan.session.InfinispanSession;
+import org.wildfly.clustering.web.infinispan.session.LastAccessedTimeMutator;
 import org.wildfly.clustering.web.infinispan.session.SessionAttributeMarshaller;
 import org.wildfly.clustering.web.infinispan.session.SessionFactory;
 import org.wildfly.clustering.web.infinispan.session.SimpleSessionMetaData;
@@ -57,22 +61,29 @@ public class FineSessionFactory<L> implements SessionFactory<FineSessionCacheEnt
     private final SessionContext context;
     private final SessionAttributeMarshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller;
     private final LocalContextFactory<L> localContextFactory;
+    private final long maxUnreplicatedInterval;
 
     public FineSessionFactory(Cache<String, FineSessionCacheEntry<L>> sessionCache, Cache<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>> attributeCache, CacheInvoker invoker, SessionContext context, SessionAttributeMarshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller, LocalContextFactory<L> localContextFactory) {
+        this(sessionCache, attributeCache, invoker, context, marshaller, localContextFactory, 0);
+    }
+
+    public FineSessionFactory(Cache<String, FineSessionCacheEntry<L>> sessionCache, Cache<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>> attributeCache, CacheInvoker invoker, SessionContext context, SessionAttributeMarshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller, LocalContextFactory<L> localContextFactory, long maxUnreplicatedInterval) {
         this.sessionCache = sessionCache;
         this.attributeCache = attributeCache;
         this.invoker = invoker;
         this.context = context;
         this.marshaller = marshaller;
         this.localContextFactory = localContextFactory;
+        this.maxUnreplicatedInterval = maxUnreplicatedInterval;
     }
 
     @Override
     public Session<L> createSession(String id, FineSessionCacheEntry<L> entry) {
         SessionMetaData metaData = entry.getMetaData();
         Mutator mutator = metaData.isNew() ? Mutator.PASSIVE : new CacheMutator<>(this.sessionCache, this.invoker, id, entry);
-        SessionAttributes attributes = new FineSessionAttributes<>(id, entry.getAttributes(), this.attributeCache, this.invoker, this.marshaller);
-        return new InfinispanSession<>(id, entry.getMetaData(), attributes, entry.getLocalContext(), this.localContextFactory, this.context, mutator, this);
+        // The session cache entry also contains the set of attribute names, so any change to it must replicate
+        SessionAttributes attributes = new FineSessionAttributes<>(id, entry.getAttributes(), this.attributeCache, this.invoker, this.marshaller, mutator);
+        return new InfinispanSession<>(id, entry.getMetaData(), attributes, entry.getLocalContext(), this.localContextFactory, this.context, LastAccessedTimeMutator.create(mutator, metaData, this.maxUnreplicatedInterval), this);
     }
 
     @Override
@@ -96,6 +107,21 @@ public class FineSessionFactory<L> implements SessionFactory<FineSessionCacheEnt
     @Override
     public void remove(final String id) {
         final FineSessionCacheEntry<L> entry = this.invoker.invoke(this.sessionCache, new RemoveOperation<String, FineSessionCacheEntry<L>>(id));
+        // Collect the local values of the attributes, so that any off heap memory they hold can be released once removed
+        Operation<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>, List<MarshalledValue<Object, MarshallingContext>>> findOperation = new Operation<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>, List<MarshalledValue<Object, MarshallingContext>>>() {
+            @Override
+            public List<MarshalledValue<Object, MarshallingContext>> invoke(Cache<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>> cache) {
+                List<MarshalledValue<Object, MarshallingContext>> values = new ArrayList<>(entry.getAttributes().size());
+                for (String attribute: entry.getAttributes()) {
+                    MarshalledValue<Object, MarshallingContext> value = cache.get(new SessionAttributeCacheKey(id, attribute));
+                    if (value != null) {
+                        values.add(value);
+                    }
+                }
+                return values;
+            }
+        };
+        List<MarshalledValue<Object, MarshallingContext>> values = this.invoker.invoke(this.attributeCache, findOperation, Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD, Flag.SKIP_LOCKING);
         Operation<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>, Void> attributeOperation = new Operation<SessionAttributeCacheKey, MarshalledValue<Object,MarshallingContext>, Void>() {
             @Override
             public Void invoke(Cache<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>> cache) {
@@ -106,6 +132,9 @@ public class FineSessionFactory<L> implements SessionFactory<FineSessionCacheEnt
             }
         };
         this.invoker.invoke(this.attributeCache, attributeOperation, Flag.IGNORE_RETURN_VALUES, Flag.SKIP_LOCKING);
+        for (MarshalledValue<Object, MarshallingContext> value: values) {
+            this.marshaller.release(value);
+        }
     }
 
     @Override
@@ -125,4 +154,25 @@ public class FineSessionFactory<L> implements SessionFactory<FineSessionCacheEnt
             this.invoker.invoke(this.sessionCache, new EvictOperation<String, FineSessionCacheEntry<L>>(id), Flag.FAIL_SILENTLY);
         }
     }
+
+    @Override
+    public void offload(final String id) {
+        final FineSessionCacheEntry<L> entry = this.invoker.invoke(this.sessionCache, new FindOperation<String, FineSessionCacheEntry<L>>(id), Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD);
+        if (entry != null) {
+            final long lastAccessedTime = entry.getMetaData().getLastAccessedTime().getTime();
+            Operation<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>, Void> offloadOperation = new Operation<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>, Void>() {
+                @Override
+                public Void invoke(Cache<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>> cache) {
+                    for (String attribute: entry.getAttributes()) {
+                        MarshalledValue<Object, MarshallingContext> value = cache.get(new SessionAttributeCacheKey(id, attribute));
+                        if (value != null) {
+                            FineSessionFactory.this.marshaller.offload(value, lastAccessedTime);
+                        }
+                    }
+                    return null;
+                }
+            };
+            this.invoker.invoke(this.attributeCache, offloadOperation, Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD, Flag.SKIP_LOCKING);
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.wildfly.clustering.web.infinispan.Mutator;
+import org.wildfly.clustering.web.session.SessionMetaData;
+
+public class LastAccessedTimeMutatorTestCase {
+
+    @Test
+    public void disabled() {
+        Mutator mutator = mock(Mutator.class);
+        assertSame(mutator, LastAccessedTimeMutator.create(mutator, new SimpleSessionMetaData(), 0));
+        assertSame(mutator, LastAccessedTimeMutator.create(mutator, mock(SessionMetaData.class), 1000));
+        assertSame(Mutator.PASSIVE, LastAccessedTimeMutator.create(Mutator.PASSIVE, new SimpleSessionMetaData(), 1000));
+    }
+
+    @Test
+    public void mutate() {
+        Mutator mutator = mock(Mutator.class);
+        long now = System.currentTimeMillis();
+        SimpleSessionMetaData metaData = new SimpleSessionMetaData(new Date(now - 60000), new Date(now - 10000), new Time(30, TimeUnit.MINUTES));
+        Mutator subject = LastAccessedTimeMutator.create(mutator, metaData, 5000);
+
+        // Last accessed time advanced by less than the max unreplicated interval
+        metaData.setLastAccessedTime(new Date(now - 6000));
+        subject.mutate();
+        verify(mutator, never()).mutate();
+
+        // Last accessed time advanced by the max unreplicated interval since the last replication
+        metaData.setLastAccessedTime(new Date(now - 5000));
+        subject.mutate();
+        verify(mutator, times(1)).mutate();
+
+        metaData.setLastAccessedTime(new Date(now - 1000));
+        subject.mutate();
+        verify(mutator, times(1)).mutate();
+
+        // Any change of the max inactive interval replicates immediately
+        metaData.setMaxInactiveInterval(10, TimeUnit.MINUTES);
+        subject.mutate();
+        verify(mutator, times(2)).mutate();
+    }
+
+    @Test
+    public void isExpired() {
+        long now = System.currentTimeMillis();
+        SimpleSessionMetaData metaData = new SimpleSessionMetaData(new Date(now - 120000), new Date(now - 61000), new Time(1, TimeUnit.MINUTES));
+
+        assertTrue(ExpiredSessionRemover.isExpired(metaData, 0));
+        assertFalse(ExpiredSessionRemover.isExpired(metaData, 5000));
+
+        metaData.setLastAccessedTime(new Date(now - 66000));
+        assertTrue(ExpiredSessionRemover.isExpired(metaData, 5000));
+    }
+}
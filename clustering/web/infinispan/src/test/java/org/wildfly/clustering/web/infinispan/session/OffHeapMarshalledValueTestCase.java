@@ -0,0 +1,137 @@
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.UUID;
+
+import org.jboss.as.clustering.MarshallingContext;
+import org.jboss.as.clustering.VersionedMarshallingConfiguration;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.Test;
+
+public class OffHeapMarshalledValueTestCase {
+    private final MarshallingContext context;
+    private final OffHeapMemory memory = new OffHeapMemory();
+    private final OffHeapMarshalledValueFactory factory;
+
+    public OffHeapMarshalledValueTestCase() {
+        VersionedMarshallingConfiguration configuration = new VersionedMarshallingConfiguration() {
+            @Override
+            public int getCurrentMarshallingVersion() {
+                return 0;
+            }
+
+            @Override
+            public MarshallingConfiguration getMarshallingConfiguration(int version) {
+                assertEquals(0, version);
+                return new MarshallingConfiguration();
+            }
+        };
+        this.context = new MarshallingContext(Marshalling.getMarshallerFactory("river", Marshalling.class.getClassLoader()), configuration);
+        this.factory = new OffHeapMarshalledValueFactory(this.context, this.memory);
+    }
+
+    @Test
+    public void offload() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        OffHeapMarshalledValue<UUID> value = this.factory.createMarshalledValue(uuid);
+
+        // Value was accessed after the specified time
+        assertFalse(value.offload(System.currentTimeMillis() - 1000, this.memory));
+        assertSame(uuid, value.get(this.context));
+
+        assertTrue(value.offload(System.currentTimeMillis(), this.memory));
+        assertFalse(value.offload(System.currentTimeMillis(), this.memory));
+        assertEquals(1, this.memory.getOffloadCount());
+        assertTrue(this.memory.getOffHeapBytes() > 0);
+
+        UUID result = value.get(this.context);
+        assertNotSame(uuid, result);
+        assertEquals(uuid, result);
+        assertEquals(1, this.memory.getRehydrationCount());
+        // Block is returned to its slab on rehydration
+        assertEquals(0, this.memory.getOffHeapBytes());
+        assertSame(result, value.get(this.context));
+        assertEquals(1, this.memory.getRehydrationCount());
+    }
+
+    @Test
+    public void discard() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        OffHeapMarshalledValue<UUID> value = this.factory.createMarshalledValue(uuid);
+
+        assertTrue(value.offload(System.currentTimeMillis(), this.memory));
+        assertTrue(this.memory.getOffHeapBytes() > 0);
+
+        value.discard();
+        assertEquals(0, this.memory.getOffHeapBytes());
+        assertEquals(0, this.memory.getRehydrationCount());
+        assertNull(value.get(this.context));
+
+        // A released block is reused by the next offload
+        OffHeapMarshalledValue<UUID> other = this.factory.createMarshalledValue(uuid);
+        assertTrue(other.offload(System.currentTimeMillis(), this.memory));
+        assertEquals(uuid, other.get(this.context));
+        assertEquals(0, this.memory.getOffHeapBytes());
+        assertEquals(2, this.memory.getOffloadCount());
+        assertEquals(1, this.memory.getRehydrationCount());
+    }
+
+    @Test
+    public void sizeClass() {
+        assertEquals(0, OffHeapMemory.sizeClass(1));
+        assertEquals(0, OffHeapMemory.sizeClass(OffHeapMemory.MIN_BLOCK_SIZE));
+        assertEquals(1, OffHeapMemory.sizeClass(OffHeapMemory.MIN_BLOCK_SIZE + 1));
+        assertEquals(1, OffHeapMemory.sizeClass(OffHeapMemory.MIN_BLOCK_SIZE * 2));
+        assertEquals(Integer.numberOfTrailingZeros(OffHeapMemory.SLAB_SIZE / OffHeapMemory.MIN_BLOCK_SIZE), OffHeapMemory.sizeClass(OffHeapMemory.SLAB_SIZE));
+    }
+
+    @Test
+    public void replicate() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        OffHeapMarshalledValue<UUID> value = this.factory.createMarshalledValue(uuid);
+
+        // A replicated value keeps its serialized form on the heap, until offloaded by the scheduler
+        OffHeapMarshalledValue<UUID> copy = replicate(value);
+        assertEquals(0, this.memory.getOffloadCount());
+        assertEquals(uuid, copy.get(this.context));
+        assertEquals(0, this.memory.getRehydrationCount());
+
+        copy = replicate(value);
+        assertTrue(copy.offload(System.currentTimeMillis(), this.memory));
+        assertEquals(1, this.memory.getOffloadCount());
+        assertEquals(uuid, copy.get(this.context));
+        assertEquals(1, this.memory.getRehydrationCount());
+
+        // An offloaded value replicates its off heap form
+        assertTrue(value.offload(System.currentTimeMillis(), this.memory));
+        copy = replicate(value);
+        assertEquals(uuid, copy.get(this.context));
+        assertEquals(uuid, value.get(this.context));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> OffHeapMarshalledValue<V> replicate(OffHeapMarshalledValue<V> value) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(output);
+        out.writeObject(value);
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(output.toByteArray()));
+        try {
+            return (OffHeapMarshalledValue<V>) in.readObject();
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.session;
+
+/**
+ * Statistics of the session attributes moved off the heap by a session manager.
+ */
+public interface OffHeapStatistics {
+    /**
+     * Returns the number of bytes of direct memory currently held by serialized session attributes.
+     * @return a number of bytes
+     */
+    long getOffHeapBytes();
+
+    /**
+     * Returns the number of times a serialized session attribute was moved off the heap.
+     * @return a count
+     */
+    long getOffloadCount();
+
+    /**
+     * Returns the number of times a serialized session attribute stayed on the heap, because direct memory was exhausted.
+     * @return a count
+     */
+    long getRejectedOffloadCount();
+
+    /**
+     * Returns the number of times a session attribute was rehydrated from off heap memory.
+     * @return a count
+     */
+    long getRehydrationCount();
+}
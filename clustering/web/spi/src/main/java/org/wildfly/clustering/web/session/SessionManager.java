@@ -77,4 +77,10 @@ public interface SessionManager<L> extends SessionIdentifierFactory, RouteLocato
      * @return a batcher.
      */
     Batcher getBatcher();
+
+    /**
+     * Exposes the statistics of the session attributes moved off the heap by this session manager.
+     * @return off heap statistics, or null if session attributes are kept on the heap
+     */
+    OffHeapStatistics getOffHeapStatistics();
 }
@@ -61,8 +61,7 @@ public abstract class PoolMetrics implements OperationStepHandler {
                             final ModelNode result = context.getResult();
                             List<StatisticsPlugin> stats = getMatchingStats(jndiName, repository);
                             for (StatisticsPlugin stat : stats) {
-
-                                result.set("" + stat.getValue(attributeName));
+                                setValue(result, stat, attributeName);
                             }
                         } catch (Exception e) {
                             throw new OperationFailedException(MESSAGES.failedToGetMetrics(e.getLocalizedMessage()));
@@ -78,6 +77,42 @@ public abstract class PoolMetrics implements OperationStepHandler {
 
     protected abstract List<StatisticsPlugin> getMatchingStats(String jndiName, ManagementRepository repository);
 
+    /**
+     * Sets the value of a statistic on the given node, using the model type that
+     * {@link org.jboss.as.connector.dynamicresource.descriptionproviders.StatisticsDescriptionProvider} describes it with.
+     *
+     * @param node the node to set the value on
+     * @param stats the statistics plugin
+     * @param name the name of the statistic
+     */
+    public static void setValue(final ModelNode node, final StatisticsPlugin stats, final String name) {
+        final Object value = stats.getValue(name);
+        if (value == null) {
+            return;
+        }
+        final Class<?> type = stats.getType(name);
+        if (type == int.class && value instanceof Number) {
+            node.set(((Number) value).intValue());
+        } else if (type == long.class && value instanceof Number) {
+            node.set(((Number) value).longValue());
+        } else {
+            node.set(value.toString());
+        }
+    }
+
+    /**
+     * Sets all statistics of the given plugin on the given node.
+     *
+     * @param node the node to add the statistics to
+     * @param stats the statistics plugin
+     */
+    public static void setValues(final ModelNode node, final StatisticsPlugin stats) {
+        node.setEmptyObject();
+        for (String name : stats.getNames()) {
+            setValue(node.get(name), stats, name);
+        }
+    }
+
     public static class ParametrizedPoolMetricsHandler implements OperationStepHandler {
 
         private final StatisticsPlugin stats;
@@ -92,17 +127,10 @@ public abstract class PoolMetrics implements OperationStepHandler {
                 context.addStep(new OperationStepHandler() {
                     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
                         final String attributeName = operation.require(NAME).asString();
-
-                        final ServiceController<?> managementRepoService = context.getServiceRegistry(false).getService(
-                                ConnectorServices.MANAGEMENT_REPOSITORY_SERVICE);
-                        if (managementRepoService != null) {
-                            try {
-                                final ModelNode result = context.getResult();
-                                result.set("" + stats.getValue(attributeName));
-
-                            } catch (Exception e) {
-                               throw new OperationFailedException(MESSAGES.failedToGetMetrics(e.getLocalizedMessage()));
-                            }
+                        try {
+                            setValue(context.getResult(), stats, attributeName);
+                        } catch (Exception e) {
+                            throw new OperationFailedException(MESSAGES.failedToGetMetrics(e.getLocalizedMessage()));
                         }
                         context.stepCompleted();
                     }
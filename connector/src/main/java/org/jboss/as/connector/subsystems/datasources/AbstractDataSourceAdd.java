@@ -44,6 +44,7 @@ import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.naming.service.NamingService;
 import org.jboss.as.security.service.SubjectFactoryService;
+import org.jboss.as.server.Services;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
 import org.jboss.jca.core.api.connectionmanager.ccm.CachedConnectionManager;
@@ -163,6 +164,7 @@ public abstract class AbstractDataSourceAdd extends AbstractAddStepHandler {
 
         dataSourceServiceBuilder.addDependency(driverServiceName, Driver.class,
                     dataSourceService.getDriverInjector());
+        Services.addServerExecutorDependency(dataSourceServiceBuilder, dataSourceService.getExecutorInjector(), true);
 
         dataSourceServiceBuilder.setInitialMode(ServiceController.Mode.NEVER);
 
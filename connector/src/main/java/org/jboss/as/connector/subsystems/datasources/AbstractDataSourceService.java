@@ -34,6 +34,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.naming.Reference;
 import javax.resource.spi.ManagedConnectionFactory;
 import javax.sql.DataSource;
@@ -62,9 +64,12 @@ import org.jboss.jca.common.api.validator.ValidateException;
 import org.jboss.jca.common.metadata.ds.DatasourcesImpl;
 import org.jboss.jca.common.metadata.ds.DriverImpl;
 import org.jboss.jca.core.api.connectionmanager.ccm.CachedConnectionManager;
+import org.jboss.jca.core.api.connectionmanager.pool.Pool;
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
 import org.jboss.jca.core.api.management.ManagementRepository;
 import org.jboss.jca.core.connectionmanager.ConnectionManager;
 import org.jboss.jca.core.spi.mdr.NotFoundException;
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
 import org.jboss.jca.core.spi.transaction.TransactionIntegration;
 import org.jboss.jca.deployers.DeployersLogger;
 import org.jboss.jca.deployers.common.AbstractDsDeployer;
@@ -97,11 +102,16 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
     private final InjectedValue<SubjectFactory> subjectFactory = new InjectedValue<SubjectFactory>();
     private final InjectedValue<DriverRegistry> driverRegistry = new InjectedValue<DriverRegistry>();
     private final InjectedValue<CachedConnectionManager> ccmValue = new InjectedValue<CachedConnectionManager>();
+    private final InjectedValue<ExecutorService> executor = new InjectedValue<ExecutorService>();
 
     private final String jndiName;
 
     protected CommonDeployment deploymentMD;
-    private javax.sql.DataSource sqlDataSource;
+    private volatile javax.sql.DataSource sqlDataSource;
+    private volatile StatisticsPlugin jdbcStatistics;
+    private volatile StatisticsPlugin poolStatistics;
+    private volatile long deployTime;
+    private final DataSourceReadiness readiness = new DataSourceReadiness();
 
     /**
      * The class loader to use. If null the Driver class loader will be used instead.
@@ -113,7 +123,40 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
         this.classLoader = classLoader;
     }
 
-    public synchronized void start(StartContext startContext) throws StartException {
+    /**
+     * Deploys the datasource. If a server executor has been injected the deployment, and the connection test once the
+     * pool is prefilled, run on that executor instead of the MSC thread. Dependent services only wait for the
+     * deployment; the prefill wait is tied to this start and is abandoned if the datasource stops in the meantime.
+     */
+    public void start(final StartContext startContext) throws StartException {
+        final ExecutorService executorService = executor.getOptionalValue();
+        if (executorService == null) {
+            final int generation = deploy(startContext);
+            readiness.ready(generation, 0L, true);
+            return;
+        }
+        startContext.asynchronous();
+        executorService.execute(new Runnable() {
+            @Override
+            public void run() {
+                final int generation;
+                final long deployed;
+                try {
+                    generation = deploy(startContext);
+                    deployed = System.nanoTime();
+                } catch (StartException e) {
+                    startContext.failed(e);
+                    return;
+                }
+                startContext.complete();
+                awaitPrefill(generation, deployed);
+            }
+        });
+    }
+
+    private synchronized int deploy(final StartContext startContext) throws StartException {
+        final long start = System.nanoTime();
+        final int generation = readiness.start();
         try {
             final ServiceContainer container = startContext.getController().getServiceContainer();
 
@@ -122,12 +165,39 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
                 throw MESSAGES.cannotStartDs();
             }
             sqlDataSource = (javax.sql.DataSource) deploymentMD.getCfs()[0];
-            DS_DEPLOYER_LOGGER.debugf("Adding datasource: %s", deploymentMD.getCfJndiNames()[0]);
+            if (deploymentMD.getDataSources() != null && deploymentMD.getDataSources().length > 0) {
+                final org.jboss.jca.core.api.management.DataSource mgtDs = deploymentMD.getDataSources()[0];
+                jdbcStatistics = mgtDs.getStatistics();
+                poolStatistics = mgtDs.getPool() != null ? mgtDs.getPool().getStatistics() : null;
+            }
+            deployTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            DS_DEPLOYER_LOGGER.debugf("Adding datasource: %s (deployed in %d ms)", deploymentMD.getCfJndiNames()[0], deployTime);
+            return generation;
         } catch (Throwable t) {
             throw MESSAGES.deploymentError(t, jndiName);
         }
     }
 
+    /**
+     * Waits until the pool of a prefilled datasource reached its minimum size and hands out a valid connection.
+     * The deployment is read under the service monitor, so it cannot be torn down by a concurrent {@code stop()}.
+     * The wait itself does not hold the monitor.
+     */
+    private void awaitPrefill(final int generation, final long deployed) {
+        final Pool pool;
+        final PoolConfiguration poolConfiguration;
+        synchronized (this) {
+            if (!readiness.isCurrent(generation)) {
+                return;
+            }
+            final org.jboss.jca.core.api.management.DataSource mgtDs = deploymentMD != null && deploymentMD.getDataSources() != null
+                    && deploymentMD.getDataSources().length > 0 ? deploymentMD.getDataSources()[0] : null;
+            pool = mgtDs != null ? mgtDs.getPool() : null;
+            poolConfiguration = mgtDs != null ? mgtDs.getPoolConfiguration() : null;
+        }
+        readiness.awaitPrefill(generation, jndiName, pool, poolConfiguration, deployed, executor.getValue());
+    }
+
     protected abstract AS7DataSourceDeployer getDeployer() throws ValidateException ;
 
     public synchronized void stop(StopContext stopContext) {
@@ -147,13 +217,62 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
         }
 
         sqlDataSource = null;
+        jdbcStatistics = null;
+        poolStatistics = null;
+        readiness.stop();
     }
 
     public CommonDeployment getDeploymentMD() {
         return deploymentMD;
     }
 
-    public synchronized DataSource getValue() throws IllegalStateException, IllegalArgumentException {
+    /**
+     * Get the JDBC statistics of the started datasource.
+     *
+     * @return the statistics, or {@code null} if the datasource is not started
+     */
+    public StatisticsPlugin getJdbcStatistics() {
+        return jdbcStatistics;
+    }
+
+    /**
+     * Get the pool statistics of the started datasource.
+     *
+     * @return the statistics, or {@code null} if the datasource is not started
+     */
+    public StatisticsPlugin getPoolStatistics() {
+        return poolStatistics;
+    }
+
+    /**
+     * Get the time the datasource deployment took, i.e. creating the pool and connection factory.
+     *
+     * @return the time in milliseconds
+     */
+    public long getDeployTime() {
+        return deployTime;
+    }
+
+    /**
+     * Get the time between the end of the deployment and a prefilled pool reaching its minimum size.
+     *
+     * @return the time in milliseconds, or {@code 0} if the pool is not prefilled or not filled yet
+     */
+    public long getPrefillTime() {
+        return readiness.getPrefillTime();
+    }
+
+    /**
+     * Whether the datasource is started and, if its pool is prefilled, reached its minimum size and handed out a valid
+     * connection.
+     *
+     * @return {@code true} if the datasource is ready
+     */
+    public boolean isReady() {
+        return readiness.isReady();
+    }
+
+    public DataSource getValue() throws IllegalStateException, IllegalArgumentException {
         return sqlDataSource;
     }
 
@@ -181,6 +300,10 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
         return ccmValue;
     }
 
+    public Injector<ExecutorService> getExecutorInjector() {
+        return executor;
+    }
+
     protected String buildConfigPropsString(Map<String, String> configProps) {
         final StringBuffer valueBuf = new StringBuffer();
         for (Map.Entry<String, String> connProperty : configProps.entrySet()) {
@@ -563,6 +563,11 @@ class Constants {
             .setRuntimeOnly().build();
     static final SimpleOperationDefinition CLEAR_STATISTICS = new SimpleOperationDefinitionBuilder("clear-statistics", DataSourcesExtension.getResourceDescriptionResolver())
             .build();
+    static final SimpleOperationDefinition READ_STATISTICS = new SimpleOperationDefinitionBuilder("read-statistics", DataSourcesExtension.getResourceDescriptionResolver())
+            .setRuntimeOnly()
+            .setReplyType(ModelType.OBJECT)
+            .setReadOnly()
+            .build();
 
 
 }
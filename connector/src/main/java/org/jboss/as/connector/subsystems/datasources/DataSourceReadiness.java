@@ -0,0 +1,216 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.connector.logging.ConnectorLogger.DS_DEPLOYER_LOGGER;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.jca.core.api.connectionmanager.pool.Pool;
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.GetAccessControlContextAction;
+
+/**
+ * Tracks whether a started datasource is ready, i.e. whether its pool reached the minimum pool size and handed out a
+ * valid connection if the pool is prefilled.
+ * <p/>
+ * Each start of the datasource begins a new generation, and each stop ends it. The outcome of a prefill wait is only
+ * published if its generation is still current, so a wait that outlives its start never marks a stopped datasource
+ * as ready.
+ */
+final class DataSourceReadiness {
+
+    /**
+     * The pool statistic counting the physical connections currently held by the pool.
+     */
+    static final String ACTIVE_COUNT = "ActiveCount";
+
+    private static final long POLL_INTERVAL = 10L;
+
+    /**
+     * Polls the pool statistics of all prefilled datasources. Each poll only reads the statistics, so one thread is enough.
+     */
+    private static final ScheduledExecutorService POLLER = Executors.newSingleThreadScheduledExecutor(
+            new JBossThreadFactory(new ThreadGroup("datasource-prefill-threads"), Boolean.TRUE, null, "%G - %t", null, null,
+                    doPrivileged(GetAccessControlContextAction.getInstance())));
+
+    private int generation;
+    private boolean ready;
+    private long prefillTime;
+
+    /**
+     * Begin a new generation for a starting datasource, which is not ready until {@link #ready(int, long, boolean)}.
+     *
+     * @return the generation
+     */
+    synchronized int start() {
+        ready = false;
+        prefillTime = 0L;
+        return ++generation;
+    }
+
+    /**
+     * End the current generation.
+     */
+    synchronized void stop() {
+        ready = false;
+        generation++;
+    }
+
+    synchronized boolean isCurrent(final int generation) {
+        return this.generation == generation;
+    }
+
+    /**
+     * Publish the outcome of a start, unless the datasource was stopped or restarted since.
+     *
+     * @return {@code true} if the outcome was published
+     */
+    synchronized boolean ready(final int generation, final long prefillTime, final boolean ready) {
+        if (this.generation != generation) {
+            return false;
+        }
+        this.prefillTime = prefillTime;
+        this.ready = ready;
+        return true;
+    }
+
+    synchronized boolean isReady() {
+        return ready;
+    }
+
+    synchronized long getPrefillTime() {
+        return prefillTime;
+    }
+
+    /**
+     * Wait until a prefilled pool holds the minimum number of connections, then test that it hands out a valid one.
+     * IronJacamar fills the pool on its own filler thread, so the pool statistics are polled by a shared scheduler
+     * instead of a thread sleeping per datasource. The connection test runs on the given executor, without holding the
+     * service monitor, as it may block until the blocking timeout of the pool. Its outcome is only published if the
+     * datasource was not stopped in the meantime. If the pool statistics are disabled, the time of the successful
+     * connection test is recorded instead.
+     *
+     * @param generation the generation of the start
+     * @param jndiName the JNDI name of the datasource, for logging
+     * @param pool the pool
+     * @param poolConfiguration the pool configuration
+     * @param deployed the {@link System#nanoTime()} at which the datasource was deployed
+     * @param executor the executor to test the connection on
+     */
+    void awaitPrefill(final int generation, final String jndiName, final Pool pool, final PoolConfiguration poolConfiguration, final long deployed, final Executor executor) {
+        awaitPrefill(generation, jndiName, pool, poolConfiguration, deployed, POLLER, executor);
+    }
+
+    void awaitPrefill(final int generation, final String jndiName, final Pool pool, final PoolConfiguration poolConfiguration, final long deployed,
+                      final ScheduledExecutorService poller, final Executor executor) {
+        if (pool == null || poolConfiguration == null || !poolConfiguration.isPrefill()) {
+            ready(generation, 0L, true);
+            return;
+        }
+        final long timeout = TimeUnit.MILLISECONDS.toNanos(Math.max(poolConfiguration.getBlockingTimeout(), POLL_INTERVAL));
+        new PrefillPoll(generation, jndiName, pool, poolConfiguration.getMinSize(), deployed, deployed + timeout, poller, executor).run();
+    }
+
+    private void testConnection(final int generation, final String jndiName, final Pool pool, final boolean filled, final long filledAt, final long deployed) {
+        if (!isCurrent(generation)) {
+            return;
+        }
+        boolean valid = false;
+        try {
+            valid = pool.testConnection();
+        } catch (Throwable t) {
+            DS_DEPLOYER_LOGGER.debugf(t, "Could not obtain a connection from the prefilled pool of datasource %s", jndiName);
+        }
+        final long prefillTime = TimeUnit.NANOSECONDS.toMillis((filled ? filledAt : System.nanoTime()) - deployed);
+        if (ready(generation, prefillTime, filled && valid)) {
+            DS_DEPLOYER_LOGGER.debugf("Prefill of datasource %s took %d ms, reached min-pool-size: %s, valid connection: %s", jndiName, prefillTime, filled, valid);
+        }
+    }
+
+    /**
+     * Polls the pool statistics until the pool holds the minimum number of connections or the deadline passed, then
+     * hands the connection test to the executor. Polling stops as soon as the generation ends.
+     */
+    private final class PrefillPoll implements Runnable {
+        private final int generation;
+        private final String jndiName;
+        private final Pool pool;
+        private final StatisticsPlugin statistics;
+        private final int minSize;
+        private final long deployed;
+        private final long deadline;
+        private final ScheduledExecutorService poller;
+        private final Executor executor;
+
+        PrefillPoll(final int generation, final String jndiName, final Pool pool, final int minSize, final long deployed, final long deadline,
+                    final ScheduledExecutorService poller, final Executor executor) {
+            this.generation = generation;
+            this.jndiName = jndiName;
+            this.pool = pool;
+            this.statistics = pool.getStatistics();
+            this.minSize = minSize;
+            this.deployed = deployed;
+            this.deadline = deadline;
+            this.poller = poller;
+            this.executor = executor;
+        }
+
+        @Override
+        public void run() {
+            if (!isCurrent(generation)) {
+                // stopped while waiting
+                return;
+            }
+            final boolean filled = isFilled();
+            if (!filled && System.nanoTime() - deadline < 0) {
+                poller.schedule(this, POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                return;
+            }
+            final long filledAt = System.nanoTime();
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    testConnection(generation, jndiName, pool, filled, filledAt, deployed);
+                }
+            });
+        }
+
+        /**
+         * @return {@code true} if the pool reached the minimum size or its size is unknown
+         */
+        private boolean isFilled() {
+            if (statistics == null || !statistics.isEnabled() || !statistics.getNames().contains(ACTIVE_COUNT)) {
+                return true;
+            }
+            final Object count = statistics.getValue(ACTIVE_COUNT);
+            return !(count instanceof Number) || ((Number) count).intValue() >= minSize;
+        }
+    }
+}
@@ -30,7 +30,6 @@ import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.PlaceholderResource;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
-import org.jboss.jca.deployers.common.CommonDeployment;
 import org.jboss.msc.service.AbstractServiceListener;
 import org.jboss.msc.service.ServiceController;
 
@@ -60,12 +59,12 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
         switch (transition) {
             case STARTING_to_UP: {
 
-                CommonDeployment deploymentMD = ((AbstractDataSourceService) controller.getService()).getDeploymentMD();
+                AbstractDataSourceService dataSourceService = (AbstractDataSourceService) controller.getService();
 
-                StatisticsPlugin jdbcStats = deploymentMD.getDataSources()[0].getStatistics();
-                StatisticsPlugin poolStats = deploymentMD.getDataSources()[0].getPool().getStatistics();
-                int jdbcStatsSize = jdbcStats.getNames().size();
-                int poolStatsSize = poolStats.getNames().size();
+                StatisticsPlugin jdbcStats = dataSourceService.getJdbcStatistics();
+                StatisticsPlugin poolStats = dataSourceService.getPoolStatistics();
+                int jdbcStatsSize = jdbcStats != null ? jdbcStats.getNames().size() : 0;
+                int poolStatsSize = poolStats != null ? poolStats.getNames().size() : 0;
                 if (jdbcStatsSize > 0 || poolStatsSize > 0) {
                     ManagementResourceRegistration subRegistration = registration.isAllowsOverride() ? registration.registerOverrideModel(dsName, DataSourcesSubsystemProviders.OVERRIDE_DS_DESC) : registration;
 
@@ -0,0 +1,111 @@
+/*
+ *
+ *  JBoss, Home of Professional Open Source.
+ *  Copyright 2013, Red Hat, Inc., and individual contributors
+ *  as indicated by the @author tags. See the copyright.txt file in the
+ *  distribution for a full listing of individual contributors.
+ *
+ *  This is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as
+ *  published by the Free Software Foundation; either version 2.1 of
+ *  the License, or (at your option) any later version.
+ *
+ *  This software is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this software; if not, write to the Free
+ *  Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ *  02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ * /
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.jboss.as.connector.logging.ConnectorMessages.MESSAGES;
+import static org.jboss.as.connector.subsystems.datasources.Constants.DATA_SOURCE;
+import static org.jboss.as.connector.subsystems.datasources.Constants.JNDI_NAME;
+import static org.jboss.as.connector.subsystems.datasources.Constants.XA_DATASOURCE;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jboss.as.connector.subsystems.common.pool.PoolMetrics;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
+
+/**
+ * Reads the pool and JDBC statistics of all datasources and XA datasources in one operation.
+ * <p>
+ * The result holds one entry per started datasource, grouped by resource type, with a {@code pool}
+ * and a {@code jdbc} child holding the typed statistic values. Each entry also reports the time the datasource
+ * took to deploy and to prefill its pool, and whether it is ready.
+ */
+public class DataSourcesStatisticsHandler implements OperationStepHandler {
+
+    public static final DataSourcesStatisticsHandler INSTANCE = new DataSourcesStatisticsHandler();
+
+    private DataSourcesStatisticsHandler() {
+    }
+
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        if (context.isNormalServer()) {
+            final Resource resource = context.readResource(PathAddress.EMPTY_ADDRESS);
+            final Map<String, Map<String, String>> jndiNames = new LinkedHashMap<String, Map<String, String>>();
+            for (String type : new String[] {DATA_SOURCE, XA_DATASOURCE}) {
+                final Map<String, String> names = new LinkedHashMap<String, String>();
+                for (Resource.ResourceEntry entry : resource.getChildren(type)) {
+                    names.put(entry.getName(), entry.getModel().get(JNDI_NAME.getName()).asString());
+                }
+                jndiNames.put(type, names);
+            }
+            context.addStep(new OperationStepHandler() {
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    final ServiceRegistry registry = context.getServiceRegistry(false);
+                    final ModelNode result = context.getResult();
+                    result.setEmptyObject();
+                    try {
+                        for (Map.Entry<String, Map<String, String>> type : jndiNames.entrySet()) {
+                            final ModelNode typeNode = result.get(type.getKey()).setEmptyObject();
+                            for (Map.Entry<String, String> dataSource : type.getValue().entrySet()) {
+                                final ServiceController<?> controller = registry.getService(AbstractDataSourceService.SERVICE_NAME_BASE.append(dataSource.getValue()));
+                                if (controller == null || controller.getState() != ServiceController.State.UP) {
+                                    continue;
+                                }
+                                final AbstractDataSourceService service = (AbstractDataSourceService) controller.getService();
+                                final ModelNode dataSourceNode = typeNode.get(dataSource.getKey());
+                                dataSourceNode.get("deploy-time").set(service.getDeployTime());
+                                dataSourceNode.get("prefill-time").set(service.getPrefillTime());
+                                dataSourceNode.get("ready").set(service.isReady());
+                                addStatistics(dataSourceNode, "pool", service.getPoolStatistics());
+                                addStatistics(dataSourceNode, "jdbc", service.getJdbcStatistics());
+                            }
+                        }
+                    } catch (Exception e) {
+                        throw new OperationFailedException(MESSAGES.failedToGetMetrics(e.getLocalizedMessage()));
+                    }
+                    context.stepCompleted();
+                }
+            }, OperationContext.Stage.RUNTIME);
+        } else {
+            context.getResult().set(MESSAGES.noMetricsAvailable());
+        }
+
+        context.stepCompleted();
+    }
+
+    private static void addStatistics(final ModelNode node, final String name, final StatisticsPlugin stats) {
+        if (stats != null && !stats.getNames().isEmpty()) {
+            PoolMetrics.setValues(node.get(name), stats);
+        }
+    }
+}
@@ -28,6 +28,7 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.DATA_SOURC
 import static org.jboss.as.connector.subsystems.datasources.Constants.GET_INSTALLED_DRIVER;
 import static org.jboss.as.connector.subsystems.datasources.Constants.INSTALLED_DRIVERS;
 import static org.jboss.as.connector.subsystems.datasources.Constants.INSTALLED_DRIVERS_LIST;
+import static org.jboss.as.connector.subsystems.datasources.Constants.READ_STATISTICS;
 import static org.jboss.as.connector.subsystems.datasources.Constants.XA_DATASOURCE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PERSISTENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
@@ -80,6 +81,7 @@ public class DataSourcesSubsystemRootDefinition extends SimpleResourceDefinition
         if (registerRuntimeOnly && ! deployed) {
             resourceRegistration.registerOperationHandler(INSTALLED_DRIVERS_LIST, InstalledDriversListOperationHandler.INSTANCE);
             resourceRegistration.registerOperationHandler(GET_INSTALLED_DRIVER, GetInstalledDriverOperationHandler.INSTANCE);
+            resourceRegistration.registerOperationHandler(READ_STATISTICS, DataSourcesStatisticsHandler.INSTANCE);
         }
 
     }
@@ -0,0 +1,220 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.jca.core.api.connectionmanager.pool.Pool;
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the readiness and prefill timing of datasources.
+ */
+public class DataSourceReadinessTestCase {
+
+    private final DataSourceReadiness readiness = new DataSourceReadiness();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicBoolean statisticsEnabled = new AtomicBoolean(true);
+    private final AtomicBoolean validConnection = new AtomicBoolean(true);
+    private final AtomicBoolean stopDuringTest = new AtomicBoolean();
+    private final AtomicInteger connectionTests = new AtomicInteger();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor();
+    private final CountDownLatch tested = new CountDownLatch(1);
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+            tested.countDown();
+        }
+    };
+
+    @After
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    @Test
+    public void testNotPrefilled() {
+        final int generation = readiness.start();
+        assertFalse(readiness.isReady());
+        awaitPrefill(generation, poolConfiguration(false, 5, 1000L), System.nanoTime());
+        assertTrue(readiness.isReady());
+        assertEquals(0L, readiness.getPrefillTime());
+        assertEquals(0, connectionTests.get());
+    }
+
+    @Test
+    public void testPrefillTimeMeasuredUntilMinPoolSize() throws Exception {
+        final int generation = readiness.start();
+        final long deployed = System.nanoTime();
+        final Thread filler = fillAfter(200L, 5);
+        awaitPrefill(generation, poolConfiguration(true, 5, 10000L), deployed);
+        assertTrue(tested.await(5, TimeUnit.SECONDS));
+        filler.join();
+        assertTrue(readiness.isReady());
+        assertTrue(String.valueOf(readiness.getPrefillTime()), readiness.getPrefillTime() >= 200L);
+        assertEquals(1, connectionTests.get());
+    }
+
+    @Test
+    public void testMinPoolSizeNotReached() throws Exception {
+        final int generation = readiness.start();
+        activeCount.set(1);
+        awaitPrefill(generation, poolConfiguration(true, 5, 100L), System.nanoTime());
+        assertTrue(tested.await(5, TimeUnit.SECONDS));
+        assertFalse(readiness.isReady());
+        assertTrue(readiness.getPrefillTime() >= 100L);
+    }
+
+    @Test
+    public void testInvalidConnection() throws Exception {
+        final int generation = readiness.start();
+        activeCount.set(5);
+        validConnection.set(false);
+        awaitPrefill(generation, poolConfiguration(true, 5, 1000L), System.nanoTime());
+        assertTrue(tested.await(5, TimeUnit.SECONDS));
+        assertFalse(readiness.isReady());
+    }
+
+    @Test
+    public void testStatisticsDisabled() throws Exception {
+        final int generation = readiness.start();
+        statisticsEnabled.set(false);
+        awaitPrefill(generation, poolConfiguration(true, 5, 1000L), System.nanoTime());
+        assertTrue(tested.await(5, TimeUnit.SECONDS));
+        assertTrue(readiness.isReady());
+        assertEquals(1, connectionTests.get());
+    }
+
+    @Test
+    public void testStopWhileWaiting() throws Exception {
+        final int generation = readiness.start();
+        awaitPrefill(generation, poolConfiguration(true, 5, 10000L), System.nanoTime());
+        Thread.sleep(50L);
+        readiness.stop();
+        activeCount.set(5);
+        // the polls end with the generation, the connection is never tested
+        assertFalse(tested.await(200L, TimeUnit.MILLISECONDS));
+        assertFalse(readiness.isReady());
+        assertEquals(0, connectionTests.get());
+
+        // a stale outcome is not published for a restarted datasource either
+        final int restarted = readiness.start();
+        assertFalse(readiness.ready(generation, 1L, true));
+        assertTrue(readiness.ready(restarted, 1L, true));
+        assertTrue(readiness.isReady());
+    }
+
+    @Test
+    public void testStopDuringConnectionTest() throws Exception {
+        final int generation = readiness.start();
+        activeCount.set(5);
+        stopDuringTest.set(true);
+        awaitPrefill(generation, poolConfiguration(true, 5, 1000L), System.nanoTime());
+        assertTrue(tested.await(5, TimeUnit.SECONDS));
+        assertEquals(1, connectionTests.get());
+        assertFalse(readiness.isReady());
+    }
+
+    private void awaitPrefill(final int generation, final PoolConfiguration poolConfiguration, final long deployed) {
+        readiness.awaitPrefill(generation, "java:/test", pool(), poolConfiguration, deployed, poller, executor);
+    }
+
+    private Thread fillAfter(final long delay, final int count) {
+        final Thread filler = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                activeCount.set(count);
+            }
+        });
+        filler.start();
+        return filler;
+    }
+
+    private static PoolConfiguration poolConfiguration(final boolean prefill, final int minSize, final long blockingTimeout) {
+        final PoolConfiguration configuration = new PoolConfiguration();
+        configuration.setPrefill(prefill);
+        configuration.setMinSize(minSize);
+        configuration.setBlockingTimeout(blockingTimeout);
+        return configuration;
+    }
+
+    private Pool pool() {
+        return (Pool) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Pool.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("testConnection")) {
+                    connectionTests.incrementAndGet();
+                    if (stopDuringTest.get()) {
+                        // the datasource stops while the connection is tested, which is not done under the service monitor
+                        readiness.stop();
+                    }
+                    return validConnection.get();
+                }
+                if (method.getName().equals("getStatistics")) {
+                    return statistics(method.getReturnType());
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private Object statistics(final Class<?> type) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("isEnabled")) {
+                    return statisticsEnabled.get();
+                }
+                if (method.getName().equals("getNames")) {
+                    return Collections.singleton(DataSourceReadiness.ACTIVE_COUNT);
+                }
+                if (method.getName().equals("getValue") && DataSourceReadiness.ACTIVE_COUNT.equals(args[0])) {
+                    return activeCount.get();
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
@@ -39,9 +39,12 @@ public interface ExpressionResolver {
      * Resolves any expressions in the passed in ModelNode.
      * Expressions may either represent system properties or vaulted date. For vaulted data the format is
      * ${VAULT::vault_block::attribute_name::sharedKey}
+     * <p>
+     * A node that contains no expressions is returned as is, so callers that modify the result must pass in a copy
+     * of any node they do not own.
      *
      * @param node the ModelNode containing expressions.
-     * @return a copy of the node with expressions resolved
+     * @return a copy of the node with expressions resolved, or the node itself if it contains no expressions
      *
      * @throws OperationFailedException if there is a value of type {@link org.jboss.dmr.ModelType#EXPRESSION} in the node tree and
      *            there is no system property or environment variable that matches the expression, or if a security
@@ -21,60 +21,156 @@
 */
 package org.jboss.as.controller;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.Property;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Basic {@link ExpressionResolver} implementation.
+ * <p>
+ * Resolvers created with caching enabled remember the result of resolving an expression string, as long as
+ * it was resolved from system properties and environment variables alone. The cached results are discarded
+ * by {@link #invalidateCachedResolutions()}, which must be called whenever the system properties backing
+ * the management model change. System properties set directly by other code are not tracked.
+ * </p>
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  */
 public class ExpressionResolverImpl implements ExpressionResolver {
 
+    /** Upper bound of the number of cached resolutions per resolver */
+    private static final int MAX_CACHED_RESOLUTIONS = 8192;
+
+    /** Incremented on every invalidation; cached resolutions of older generations are stale */
+    private static final AtomicInteger cacheGeneration = new AtomicInteger();
+
+    private final Map<String, CachedResolution> cache;
+
     protected ExpressionResolverImpl() {
+        this(false);
+    }
+
+    /**
+     * Creates a new resolver.
+     *
+     * @param cacheResolutions {@code true} if resolved expressions should be cached
+     */
+    protected ExpressionResolverImpl(final boolean cacheResolutions) {
+        this.cache = cacheResolutions ? new ConcurrentHashMap<String, CachedResolution>() : null;
+    }
+
+    /**
+     * Discards the cached resolutions of all resolvers. To be called when a system property is changed, or
+     * a source of {@link #resolvePluggableExpression(ModelNode) pluggable} resolution is added or removed.
+     */
+    public static void invalidateCachedResolutions() {
+        cacheGeneration.incrementAndGet();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the node holds no {@link ModelType#EXPRESSION} nodes, it is returned as is.
+     * </p>
+     */
     @Override
     public final ModelNode resolveExpressions(final ModelNode node) throws OperationFailedException {
-        return resolveExpressionsRecursively(node);
+        if (!containsExpression(node)) {
+            return node;
+        }
+        ModelNode resolved = node.clone();
+        resolveExpressionsRecursively(resolved);
+        return resolved;
+    }
+
+    private static boolean containsExpression(final ModelNode node) {
+        switch (node.getType()) {
+            case EXPRESSION:
+                return true;
+            case OBJECT:
+                for (String key : node.keys()) {
+                    if (containsExpression(node.get(key))) {
+                        return true;
+                    }
+                }
+                return false;
+            case LIST:
+                for (ModelNode current : node.asList()) {
+                    if (containsExpression(current)) {
+                        return true;
+                    }
+                }
+                return false;
+            case PROPERTY:
+                return containsExpression(node.asProperty().getValue());
+            default:
+                return false;
+        }
     }
 
     /**
      * Examine the given model node, resolving any expressions found within, including within child nodes.
+     * The node is resolved in place, so it must be a private copy of the node passed to
+     * {@link #resolveExpressions(ModelNode)}.
      *
      * @param node the node
-     * @return a node with all expressions resolved
      * @throws OperationFailedException if an expression cannot be resolved
      */
-    private ModelNode resolveExpressionsRecursively(final ModelNode node) throws OperationFailedException {
-        if (!node.isDefined()) {
-            return node;
-        }
-
+    private void resolveExpressionsRecursively(final ModelNode node) throws OperationFailedException {
         ModelType type = node.getType();
-        ModelNode resolved;
         if (type == ModelType.EXPRESSION) {
-            resolved = resolveExpressionType(node, false);
+            node.set(resolveCachedExpressionType(node));
         } else if (type == ModelType.OBJECT) {
-            resolved = node.clone();
-            for (Property prop : resolved.asPropertyList()) {
-                resolved.get(prop.getName()).set(resolveExpressionsRecursively(prop.getValue()));
+            for (String key : node.keys()) {
+                resolveExpressionsRecursively(node.get(key));
             }
         } else if (type == ModelType.LIST) {
-            resolved = node.clone();
-            ModelNode list = new ModelNode();
-            for (ModelNode current : resolved.asList()) {
-                list.add(resolveExpressionsRecursively(current));
+            for (ModelNode current : node.asList()) {
+                resolveExpressionsRecursively(current);
             }
-            resolved = list;
         } else if (type == ModelType.PROPERTY) {
-            resolved = node.clone();
-            resolved.set(resolved.asProperty().getName(), resolveExpressionsRecursively(resolved.asProperty().getValue()));
-        } else {
-            resolved = node;
+            Property property = node.asProperty();
+            if (containsExpression(property.getValue())) {
+                ModelNode value = property.getValue().clone();
+                resolveExpressionsRecursively(value);
+                node.set(property.getName(), value);
+            }
         }
+    }
 
+    /**
+     * Resolves an expression, using the cached resolution if possible.
+     *
+     * @param expressionType a node of {@link ModelType#EXPRESSION}
+     * @return a node of {@link ModelType#STRING} where the encapsulated string is the resolved expression
+     * @throws OperationFailedException if the expression cannot be resolved
+     */
+    private ModelNode resolveCachedExpressionType(final ModelNode expressionType) throws OperationFailedException {
+        // Resolution is subject to permission checks on the caller, so never bypass them with a cached value
+        if (cache == null || WildFlySecurityManager.isChecking()) {
+            return resolveExpressionType(expressionType, false, null);
+        }
+        final String expression = expressionType.asString();
+        // Read the generation before resolving, so a concurrent invalidation makes the new entry stale
+        final int current = cacheGeneration.get();
+        final CachedResolution cached = cache.get(expression);
+        if (cached != null && cached.generation == current) {
+            return new ModelNode(cached.value);
+        }
+        final boolean[] pluggable = new boolean[1];
+        final ModelNode resolved = resolveExpressionType(expressionType, false, pluggable);
+        // Values from pluggable sources, i.e. the vault, are never kept around
+        if (!pluggable[0]) {
+            if (cache.size() >= MAX_CACHED_RESOLUTIONS) {
+                cache.clear();
+            }
+            cache.put(expression, new CachedResolution(current, resolved.asString()));
+        }
         return resolved;
     }
 
@@ -102,12 +198,14 @@ public class ExpressionResolverImpl implements ExpressionResolver {
      * @param expressionType a node of {@link ModelType#EXPRESSION}
      * @param ignoreDMRResolutionFailure {@code false} if {@link org.jboss.dmr.ModelNode#resolve() basic DMR resolution}
      *                            failures should be ignored, and {@code new ModelNode(expressionType.asString())} returned
+     * @param pluggable if not {@code null}, its first element is set to {@code true} if
+     *                  {@link #resolvePluggableExpression(ModelNode) pluggable resolution} contributed to the result
      *
      * @return a node of {@link ModelType#STRING} where the encapsulated string is the resolved expression
      *
      * @throws OperationFailedException if the expression cannot be resolved
      */
-    private ModelNode resolveExpressionType(final ModelNode expressionType, final boolean ignoreDMRResolutionFailure) throws OperationFailedException {
+    private ModelNode resolveExpressionType(final ModelNode expressionType, final boolean ignoreDMRResolutionFailure, final boolean[] pluggable) throws OperationFailedException {
 
         ModelNode resolved = expressionType.clone();
 
@@ -121,22 +219,25 @@ public class ExpressionResolverImpl implements ExpressionResolver {
             String resolvedString = resolved.asString();
             if (!unresolvedString.equals(resolvedString)) {
                 // resolveStandardExpression made progress; keep resolving
-                resolved = convertAndResolve(resolvedString);
+                resolved = convertAndResolve(resolvedString, pluggable);
             } // else there is nothing more we can do with this string
         } else {
             // resolvePluggableExpression made progress; keep resolving
-            resolved = convertAndResolve(resolved.asString());
+            if (pluggable != null) {
+                pluggable[0] = true;
+            }
+            resolved = convertAndResolve(resolved.asString(), pluggable);
         }
 
         return resolved;
     }
 
-    private ModelNode convertAndResolve(String possibleExpression) throws OperationFailedException {
+    private ModelNode convertAndResolve(String possibleExpression, boolean[] pluggable) throws OperationFailedException {
         if (EXPRESSION_PATTERN.matcher(possibleExpression).matches()) {
             // Keep resolving, but don't fail on unresolvable strings
             ModelNode expression = new ModelNode();
             expression.setExpression(possibleExpression);
-            return resolveExpressionType(expression, true);
+            return resolveExpressionType(expression, true, pluggable);
         }
         return new ModelNode(possibleExpression);
     }
@@ -169,4 +270,13 @@ public class ExpressionResolverImpl implements ExpressionResolver {
 
     }
 
+    private static final class CachedResolution {
+        private final int generation;
+        private final String value;
+
+        private CachedResolution(final int generation, final String value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
 }
@@ -51,6 +51,7 @@ public class ModelDescriptionConstants {
     public static final String ATTRIBUTES = "attributes";
     public static final String ATTRIBUTES_ONLY = "attributes-only";
     public static final String AUTHENTICATION = "authentication";
+    public static final String AUTHENTICATION_CACHE_TTL = "authentication-cache-ttl";
     public static final String AUTHORIZATION = "authorization";
     public static final String AUTO_START = "auto-start";
     public static final String BASE_DN = "base-dn";
@@ -249,6 +250,7 @@ public class ModelDescriptionConstants {
     public static final String SCHEMA_LOCATIONS = "schema-locations";
     public static final String SEARCH_CREDENTIAL = "search-credential";
     public static final String SEARCH_DN = "search-dn";
+    public static final String SEARCH_POOL_SIZE = "search-pool-size";
     public static final String SECRET = "secret";
     public static final String SECURE_PORT = "secure-port";
     public static final String SECURE_SOCKET_BINDING = "secure-socket-binding";
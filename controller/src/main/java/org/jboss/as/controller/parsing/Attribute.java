@@ -43,6 +43,7 @@ public enum Attribute {
     ALLOW_EMPTY_PASSWORDS("allow-empty-passwords"),
     ALLOWED_USERS("allowed-users"),
     ATTRIBUTE("attribute"),
+    AUTHENTICATION_CACHE_TTL("authentication-cache-ttl"),
     AUTO_START("auto-start"),
     BASE_DN("base-dn"),
     BOOT_TIME("boot-time"),
@@ -101,6 +102,7 @@ public enum Attribute {
     RUNTIME_NAME("runtime-name"),
     SEARCH_CREDENTIAL("search-credential"),
     SEARCH_DN("search-dn"),
+    SEARCH_POOL_SIZE("search-pool-size"),
     SECURE_PORT("secure-port"),
     SECURITY_REALM("security-realm"),
     SHA1("sha1"),
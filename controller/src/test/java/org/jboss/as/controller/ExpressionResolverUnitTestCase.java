@@ -22,6 +22,7 @@
 package org.jboss.as.controller;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 import org.jboss.dmr.ModelNode;
@@ -187,6 +188,88 @@ public class ExpressionResolverUnitTestCase {
         }
     }
 
+    @Test
+    public void testNodeWithoutExpressionsIsNotCopied() throws OperationFailedException {
+        ModelNode node = new ModelNode();
+        node.get("map", "plain").set("a");
+        node.get("list").add("one");
+        node.get("plainprop").set("plain", "plain");
+        assertSame(node, ExpressionResolver.TEST_RESOLVER.resolveExpressions(node));
+    }
+
+    @Test
+    public void testResolutionDoesNotModifyNode() throws OperationFailedException {
+        System.setProperty("test.prop.expr", "EXPR");
+        System.setProperty("test.prop.b", "B");
+        System.setProperty("test.prop.c", "C");
+        System.setProperty("test.prop.two", "TWO");
+        System.setProperty("test.prop.three", "THREE");
+        System.setProperty("test.prop.prop", "PROP");
+        try {
+            ModelNode unresolved = createModelNode();
+            checkResolved(ExpressionResolver.TEST_RESOLVER.resolveExpressions(unresolved));
+            assertEquals(createModelNode(), unresolved);
+        } finally {
+            System.clearProperty("test.prop.expr");
+            System.clearProperty("test.prop.b");
+            System.clearProperty("test.prop.c");
+            System.clearProperty("test.prop.two");
+            System.clearProperty("test.prop.three");
+            System.clearProperty("test.prop.prop");
+        }
+    }
+
+    @Test
+    public void testCachedResolutionsAreInvalidated() throws OperationFailedException {
+        ExpressionResolver resolver = new ExpressionResolverImpl(true) {
+        };
+        ModelNode node = new ModelNode();
+        node.setExpression("${test.prop.cached}");
+        System.setProperty("test.prop.cached", "A");
+        try {
+            assertEquals("A", resolver.resolveExpressions(node).asString());
+            // Not seen until the cached resolutions are invalidated
+            System.setProperty("test.prop.cached", "B");
+            assertEquals("A", resolver.resolveExpressions(node).asString());
+            ExpressionResolverImpl.invalidateCachedResolutions();
+            assertEquals("B", resolver.resolveExpressions(node).asString());
+        } finally {
+            System.clearProperty("test.prop.cached");
+        }
+    }
+
+    @Test
+    public void testPluggableResolutionsAreNotCached() throws OperationFailedException {
+        final String[] secret = {"A"};
+        ExpressionResolver resolver = new ExpressionResolverImpl(true) {
+            @Override
+            protected void resolvePluggableExpression(ModelNode node) {
+                if (node.asString().equals("${test.prop.vault}")) {
+                    node.set(secret[0]);
+                }
+            }
+        };
+        ModelNode node = new ModelNode();
+        node.setExpression("${test.prop.vault}");
+        assertEquals("A", resolver.resolveExpressions(node).asString());
+        secret[0] = "B";
+        assertEquals("B", resolver.resolveExpressions(node).asString());
+    }
+
+    @Test
+    public void testLargeModel() throws OperationFailedException {
+        ExpressionResolver resolver = new ExpressionResolverImpl(true) {
+        };
+        ModelNode node = new ModelNode();
+        for (int i = 0; i < 5000; i++) {
+            node.get("resource" + (i % 50), "attr" + i).setExpression("${test.prop.missing" + (i % 100) + ":" + i + "}");
+        }
+        ModelNode resolved = resolver.resolveExpressions(node);
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(String.valueOf(i), resolved.get("resource" + (i % 50), "attr" + i).asString());
+        }
+    }
+
     private void checkResolved(ModelNode node) {
         assertEquals(6, node.keys().size());
         assertEquals(1, node.get("int").asInt());
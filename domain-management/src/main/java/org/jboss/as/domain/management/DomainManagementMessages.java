@@ -666,6 +666,14 @@ public interface DomainManagementMessages {
     @Message(id = 15272, value = "Unable to create delegate trust manager.")
     IllegalStateException unableToCreateDelegateTrustManager();
 
+    /**
+     * Create an exception indicating a pooled LDAP context was used after it was closed.
+     *
+     * @return a {@link NamingException} for the error.
+     */
+    @Message(id = 15273, value = "The LDAP context has been closed and returned to the pool.")
+    NamingException pooledContextClosed();
+
     /**
      * A prompt to double check the user is really sure they want to set password.
      *
@@ -50,4 +50,17 @@ public interface ConnectionManager {
      * @return the ready connected connection.
      */
     Object getConnection(String principal, String credential) throws Exception;
+
+    /**
+     * Verify that the principal and credential work to connect to the resource
+     * without retaining the connection.
+     *
+     * Implementations may answer repeated verifications from a cache of
+     * recently verified principals and credentials.
+     *
+     * @param principal - The principal to use when connecting.
+     * @param credential - The credential to use when connecting.
+     * @return true if the connection could be established.
+     */
+    boolean verifyConnection(String principal, String credential) throws Exception;
 }
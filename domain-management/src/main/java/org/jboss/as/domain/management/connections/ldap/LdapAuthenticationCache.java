@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.management.connections.ldap;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of principal and credential pairs that have recently been verified against the LDAP server.
+ * <p>
+ * Entries are keyed by a salted SHA-256 hash of the pair so that no credential is held in memory, the salt is generated
+ * per cache instance. A verification is remembered for the configured time to live, so a changed or revoked credential
+ * may still be accepted until the entry expired.
+ */
+final class LdapAuthenticationCache {
+
+    static final int MAX_ENTRIES = 1024;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ConcurrentMap<String, Long> entries = new ConcurrentHashMap<String, Long>();
+    private final byte[] salt = new byte[16];
+    private final long timeToLive;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * @param timeToLive the time in milliseconds a verification is cached
+     */
+    LdapAuthenticationCache(final long timeToLive) {
+        this.timeToLive = timeToLive;
+        new SecureRandom().nextBytes(salt);
+    }
+
+    /**
+     * Check if the principal and credential have been verified within the time to live.
+     */
+    boolean isVerified(final String principal, final String credential) {
+        final Long expiry = entries.get(key(principal, credential));
+        if (expiry != null && expiry.longValue() > System.currentTimeMillis()) {
+            hitCount.incrementAndGet();
+            return true;
+        }
+        missCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Remember that the principal and credential have just been verified.
+     */
+    void verified(final String principal, final String credential) {
+        final long now = System.currentTimeMillis();
+        if (entries.size() >= MAX_ENTRIES) {
+            purge(now);
+            if (entries.size() >= MAX_ENTRIES) {
+                // Still full of live entries, start over rather than tracking usage
+                entries.clear();
+            }
+        }
+        entries.put(key(principal, credential), Long.valueOf(now + timeToLive));
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    long getMissCount() {
+        return missCount.get();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void purge(final long now) {
+        final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().longValue() <= now) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private String key(final String principal, final String credential) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        digest.update(salt);
+        digest.update(principal.getBytes(UTF_8));
+        digest.update((byte) 0);
+        digest.update(credential.getBytes(UTF_8));
+        final byte[] hash = digest.digest();
+        final StringBuilder builder = new StringBuilder(hash.length * 2);
+        for (final byte b : hash) {
+            builder.append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+        }
+        return builder.toString();
+    }
+}
@@ -21,14 +21,19 @@
  */
 package org.jboss.as.domain.management.connections.ldap;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.AUTHENTICATION_CACHE_TTL;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INITIAL_CONTEXT_FACTORY;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SEARCH_CREDENTIAL;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SEARCH_DN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SEARCH_POOL_SIZE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.URL;
 
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import javax.naming.Context;
+import javax.naming.directory.DirContext;
 import javax.naming.directory.InitialDirContext;
 import javax.net.ssl.SSLContext;
 
@@ -53,17 +58,25 @@ public class LdapConnectionManagerService implements Service<LdapConnectionManag
 
     private final InjectedValue<SSLIdentity> sslIdentity = new InjectedValue<SSLIdentity>();
     private volatile ModelNode resolvedConfiguration;
+    private volatile LdapSearchContextPool searchPool;
+    private volatile LdapAuthenticationCache authenticationCache;
+    private boolean started;
 
     public LdapConnectionManagerService(final ModelNode resolvedConfiguration) {
         setResolvedConfiguration(resolvedConfiguration);
     }
 
-    void setResolvedConfiguration(final ModelNode resolvedConfiguration) {
+    synchronized void setResolvedConfiguration(final ModelNode resolvedConfiguration) {
         // Validate
         resolvedConfiguration.require(LdapConnectionResourceDefinition.URL.getName());
         resolvedConfiguration.require(LdapConnectionResourceDefinition.INITIAL_CONTEXT_FACTORY.getName());
         // Store
         this.resolvedConfiguration = resolvedConfiguration;
+        // Pooled connections and cached verifications may no longer match the configuration.
+        if (started) {
+            stopCaching();
+            startCaching(resolvedConfiguration);
+        }
     }
 
     /*
@@ -71,9 +84,40 @@ public class LdapConnectionManagerService implements Service<LdapConnectionManag
     */
 
     public synchronized void start(StartContext context) throws StartException {
+        startCaching(resolvedConfiguration);
+        started = true;
     }
 
     public synchronized void stop(StopContext context) {
+        started = false;
+        stopCaching();
+    }
+
+    private void startCaching(final ModelNode config) {
+        if (config.hasDefined(SEARCH_POOL_SIZE) && config.get(SEARCH_POOL_SIZE).asInt() > 0) {
+            searchPool = new LdapSearchContextPool(new Callable<DirContext>() {
+                @Override
+                public DirContext call() throws Exception {
+                    return createConnection();
+                }
+            }, config.get(SEARCH_POOL_SIZE).asInt());
+        }
+        if (config.hasDefined(AUTHENTICATION_CACHE_TTL) && config.get(AUTHENTICATION_CACHE_TTL).asInt() > 0) {
+            authenticationCache = new LdapAuthenticationCache(TimeUnit.SECONDS.toMillis(config.get(AUTHENTICATION_CACHE_TTL).asInt()));
+        }
+    }
+
+    private void stopCaching() {
+        final LdapSearchContextPool searchPool = this.searchPool;
+        if (searchPool != null) {
+            searchPool.close();
+            this.searchPool = null;
+        }
+        final LdapAuthenticationCache authenticationCache = this.authenticationCache;
+        if (authenticationCache != null) {
+            authenticationCache.clear();
+            this.authenticationCache = null;
+        }
     }
 
     public synchronized LdapConnectionManagerService getValue() throws IllegalStateException, IllegalArgumentException {
@@ -89,6 +133,14 @@ public class LdapConnectionManagerService implements Service<LdapConnectionManag
      */
 
     public Object getConnection() throws Exception {
+        final LdapSearchContextPool searchPool = this.searchPool;
+        if (searchPool != null) {
+            return searchPool.borrow();
+        }
+        return createConnection();
+    }
+
+    private DirContext createConnection() throws Exception {
         final ModelNode config = resolvedConfiguration;
         return getConnection(getFullProperties(config), getSSLContext(false));
     }
@@ -103,7 +155,55 @@ public class LdapConnectionManagerService implements Service<LdapConnectionManag
         return getConnection(connectionProperties, getSSLContext(true));
     }
 
-    private Object getConnection(final Properties properties, final SSLContext sslContext) throws Exception {
+    public boolean verifyConnection(String principal, String credential) throws Exception {
+        final LdapAuthenticationCache authenticationCache = this.authenticationCache;
+        if (authenticationCache != null && authenticationCache.isVerified(principal, credential)) {
+            return true;
+        }
+        final Context context = (Context) getConnection(principal, credential);
+        if (context == null) {
+            return false;
+        }
+        try {
+            if (authenticationCache != null) {
+                authenticationCache.verified(principal, credential);
+            }
+            return true;
+        } finally {
+            context.close();
+        }
+    }
+
+    /*
+     *  Statistics
+     */
+
+    public long getSearchPoolHitCount() {
+        final LdapSearchContextPool searchPool = this.searchPool;
+        return searchPool != null ? searchPool.getHitCount() : 0;
+    }
+
+    public long getSearchPoolMissCount() {
+        final LdapSearchContextPool searchPool = this.searchPool;
+        return searchPool != null ? searchPool.getMissCount() : 0;
+    }
+
+    public int getSearchPoolIdleCount() {
+        final LdapSearchContextPool searchPool = this.searchPool;
+        return searchPool != null ? searchPool.getIdleCount() : 0;
+    }
+
+    public long getAuthenticationCacheHitCount() {
+        final LdapAuthenticationCache authenticationCache = this.authenticationCache;
+        return authenticationCache != null ? authenticationCache.getHitCount() : 0;
+    }
+
+    public long getAuthenticationCacheMissCount() {
+        final LdapAuthenticationCache authenticationCache = this.authenticationCache;
+        return authenticationCache != null ? authenticationCache.getMissCount() : 0;
+    }
+
+    private DirContext getConnection(final Properties properties, final SSLContext sslContext) throws Exception {
         try {
             if (sslContext != null) {
                 ThreadLocalSSLSocketFactory.setSSLSocketFactory(sslContext.getSocketFactory());
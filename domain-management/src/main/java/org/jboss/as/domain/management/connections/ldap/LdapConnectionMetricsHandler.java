@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.management.connections.ldap;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handler reading the search pool and authentication cache statistics of an ldap management connection.
+ */
+public class LdapConnectionMetricsHandler implements OperationStepHandler {
+
+    public static final LdapConnectionMetricsHandler INSTANCE = new LdapConnectionMetricsHandler();
+
+    enum Metric {
+        SEARCH_POOL_HIT_COUNT("search-pool-hit-count", ModelType.LONG) {
+            @Override
+            void read(LdapConnectionManagerService service, ModelNode result) {
+                result.set(service.getSearchPoolHitCount());
+            }
+        },
+        SEARCH_POOL_MISS_COUNT("search-pool-miss-count", ModelType.LONG) {
+            @Override
+            void read(LdapConnectionManagerService service, ModelNode result) {
+                result.set(service.getSearchPoolMissCount());
+            }
+        },
+        SEARCH_POOL_IDLE_COUNT("search-pool-idle-count", ModelType.INT) {
+            @Override
+            void read(LdapConnectionManagerService service, ModelNode result) {
+                result.set(service.getSearchPoolIdleCount());
+            }
+        },
+        AUTHENTICATION_CACHE_HIT_COUNT("authentication-cache-hit-count", ModelType.LONG) {
+            @Override
+            void read(LdapConnectionManagerService service, ModelNode result) {
+                result.set(service.getAuthenticationCacheHitCount());
+            }
+        },
+        AUTHENTICATION_CACHE_MISS_COUNT("authentication-cache-miss-count", ModelType.LONG) {
+            @Override
+            void read(LdapConnectionManagerService service, ModelNode result) {
+                result.set(service.getAuthenticationCacheMissCount());
+            }
+        };
+
+        private final AttributeDefinition definition;
+
+        private Metric(String name, ModelType type) {
+            this.definition = new SimpleAttributeDefinitionBuilder(name, type, true).setStorageRuntime().build();
+        }
+
+        AttributeDefinition getDefinition() {
+            return definition;
+        }
+
+        abstract void read(LdapConnectionManagerService service, ModelNode result);
+
+        static Metric forName(String name) {
+            for (Metric metric : values()) {
+                if (metric.definition.getName().equals(name)) {
+                    return metric;
+                }
+            }
+            return null;
+        }
+    }
+
+    private LdapConnectionMetricsHandler() {
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String connectionName = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final Metric metric = Metric.forName(operation.require(NAME).asString());
+
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                final ModelNode result = context.getResult();
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(LdapConnectionManagerService.BASE_SERVICE_NAME.append(connectionName));
+                if (controller != null && controller.getState() == ServiceController.State.UP) {
+                    metric.read(LdapConnectionManagerService.class.cast(controller.getValue()), result);
+                } else {
+                    // The connection is started on demand, until then nothing has been pooled or cached
+                    result.set(0);
+                }
+                context.stepCompleted();
+            }
+        }, OperationContext.Stage.RUNTIME);
+
+        context.stepCompleted();
+    }
+}
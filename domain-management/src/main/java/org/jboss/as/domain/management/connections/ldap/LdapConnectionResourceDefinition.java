@@ -30,7 +30,9 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.common.ControllerResolver;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -64,7 +66,15 @@ public class LdapConnectionResourceDefinition extends SimpleResourceDefinition {
     public static final SimpleAttributeDefinition INITIAL_CONTEXT_FACTORY = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.INITIAL_CONTEXT_FACTORY, ModelType.STRING, true)
             .setAllowExpression(true).setDefaultValue(new ModelNode(DEFAULT_INITIAL_CONTEXT)).setValidator(new StringLengthValidator(1, Integer.MAX_VALUE, true, true)).build();
 
-    public static final AttributeDefinition[] ATTRIBUTE_DEFINITIONS = {URL, SEARCH_DN, SEARCH_CREDENTIAL, SECURITY_REALM, INITIAL_CONTEXT_FACTORY};
+    public static final SimpleAttributeDefinition SEARCH_POOL_SIZE = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.SEARCH_POOL_SIZE, ModelType.INT, true)
+            .setAllowExpression(true).setDefaultValue(new ModelNode(0)).setValidator(new IntRangeValidator(0, Integer.MAX_VALUE, true, true)).build();
+
+    public static final SimpleAttributeDefinition AUTHENTICATION_CACHE_TTL = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.AUTHENTICATION_CACHE_TTL, ModelType.INT, true)
+            .setAllowExpression(true).setDefaultValue(new ModelNode(0)).setMeasurementUnit(MeasurementUnit.SECONDS)
+            .setValidator(new IntRangeValidator(0, Integer.MAX_VALUE, true, true)).build();
+
+    public static final AttributeDefinition[] ATTRIBUTE_DEFINITIONS = {URL, SEARCH_DN, SEARCH_CREDENTIAL, SECURITY_REALM, INITIAL_CONTEXT_FACTORY,
+            SEARCH_POOL_SIZE, AUTHENTICATION_CACHE_TTL};
 
     public static final LdapConnectionResourceDefinition INSTANCE = new LdapConnectionResourceDefinition();
 
@@ -80,5 +90,10 @@ public class LdapConnectionResourceDefinition extends SimpleResourceDefinition {
 
         LdapConnectionWriteAttributeHandler writeHandler = new LdapConnectionWriteAttributeHandler();
         writeHandler.registerAttributes(resourceRegistration);
+
+        // Metrics
+        for (LdapConnectionMetricsHandler.Metric metric : LdapConnectionMetricsHandler.Metric.values()) {
+            resourceRegistration.registerMetric(metric.getDefinition(), LdapConnectionMetricsHandler.INSTANCE);
+        }
     }
 }
@@ -0,0 +1,200 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.management.connections.ldap;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.naming.CommunicationException;
+import javax.naming.NamingException;
+import javax.naming.ServiceUnavailableException;
+import javax.naming.directory.DirContext;
+
+import org.jboss.as.domain.management.DomainManagementMessages;
+
+/**
+ * A bounded pool of {@link DirContext}s connected with the search identity of an LDAP connection.
+ * <p>
+ * Each borrower gets a new proxy, a lease, whose {@link DirContext#close()} returns the context to the pool. A closed
+ * lease rejects any further call, so a borrower that kept its reference cannot use or release the context of the next
+ * borrower. At most {@code maxSize} contexts are retained, any surplus is closed on release. Contexts that failed with
+ * a {@link CommunicationException} or {@link ServiceUnavailableException} are discarded, and contexts that have been
+ * idle for longer than the validation interval are validated by reading the root DSE before they are handed out again.
+ */
+final class LdapSearchContextPool {
+
+    static final long VALIDATION_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+
+    private static final String[] NO_ATTRIBUTES = new String[0];
+
+    private final Callable<DirContext> factory;
+    private final BlockingDeque<PooledContext> idle;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private volatile boolean closed;
+
+    LdapSearchContextPool(final Callable<DirContext> factory, final int maxSize) {
+        this.factory = factory;
+        this.idle = new LinkedBlockingDeque<PooledContext>(maxSize);
+    }
+
+    /**
+     * Obtain a context from the pool, or create a new one if no valid idle context is available.
+     *
+     * @return a context that returns to the pool once closed.
+     */
+    DirContext borrow() throws Exception {
+        final long now = System.currentTimeMillis();
+        PooledContext pooled;
+        // Most recently used first, so surplus contexts age and are validated or discarded
+        while ((pooled = idle.pollFirst()) != null) {
+            if (now - pooled.released < VALIDATION_INTERVAL || isValid(pooled.context)) {
+                hitCount.incrementAndGet();
+                return pooled.lease();
+            }
+            pooled.destroy();
+        }
+        missCount.incrementAndGet();
+        return new PooledContext(factory.call()).lease();
+    }
+
+    /**
+     * Close all idle contexts, contexts still in use are closed once released.
+     */
+    void close() {
+        closed = true;
+        drain();
+    }
+
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    long getMissCount() {
+        return missCount.get();
+    }
+
+    int getIdleCount() {
+        return idle.size();
+    }
+
+    private void release(final PooledContext pooled) {
+        pooled.released = System.currentTimeMillis();
+        if (closed || idle.offerFirst(pooled) == false) {
+            pooled.destroy();
+        } else if (closed) {
+            // Raced with close()
+            drain();
+        }
+    }
+
+    private void drain() {
+        PooledContext pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.destroy();
+        }
+    }
+
+    private static boolean isValid(final DirContext context) {
+        try {
+            context.getAttributes("", NO_ATTRIBUTES);
+            return true;
+        } catch (NamingException e) {
+            return false;
+        }
+    }
+
+    private final class PooledContext {
+
+        private final DirContext delegate;
+        private volatile long released;
+        private volatile boolean broken;
+
+        private PooledContext(final DirContext delegate) {
+            this.delegate = delegate;
+        }
+
+        DirContext lease() {
+            return (DirContext) Proxy.newProxyInstance(LdapSearchContextPool.class.getClassLoader(), new Class<?>[] { DirContext.class }, new Lease(this));
+        }
+
+        void destroy() {
+            try {
+                delegate.close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    /**
+     * A single borrowing of a pooled context.
+     */
+    private final class Lease implements InvocationHandler {
+
+        private final PooledContext pooled;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(final PooledContext pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                // equals, hashCode and toString of the proxy itself
+                return method.invoke(this, args);
+            }
+            if ("close".equals(method.getName()) && method.getParameterTypes().length == 0) {
+                // Repeated calls are ignored, the context may already be leased to someone else
+                if (closed.compareAndSet(false, true)) {
+                    if (pooled.broken) {
+                        pooled.destroy();
+                    } else {
+                        release(pooled);
+                    }
+                }
+                return null;
+            }
+            if (closed.get()) {
+                throw DomainManagementMessages.MESSAGES.pooledContextClosed();
+            }
+            try {
+                return method.invoke(pooled.delegate, args);
+            } catch (InvocationTargetException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof CommunicationException || cause instanceof ServiceUnavailableException) {
+                    pooled.broken = true;
+                }
+                throw cause;
+            }
+        }
+    }
+}
@@ -187,9 +187,12 @@ public class ManagementXml {
                         case DOMAIN_1_3:
                             parseLdapConnection_1_0(reader, address, list);
                             break;
-                        default:
+                        case DOMAIN_1_4:
                             parseLdapConnection_1_4(reader, address, list);
                             break;
+                        default:
+                            parseLdapConnection_2_0(reader, address, list);
+                            break;
                     }
                     break;
                 }
@@ -308,6 +311,70 @@ public class ManagementXml {
         requireNoContent(reader);
     }
 
+    private void parseLdapConnection_2_0(final XMLExtendedStreamReader reader, final ModelNode address, final List<ModelNode> list)
+            throws XMLStreamException {
+
+        final ModelNode add = new ModelNode();
+        add.get(OP).set(ADD);
+
+        list.add(add);
+
+        Set<Attribute> required = EnumSet.of(Attribute.NAME, Attribute.URL);
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            final String value = reader.getAttributeValue(i);
+            if (!isNoNamespaceAttribute(reader, i)) {
+                throw unexpectedAttribute(reader, i);
+            } else {
+                final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+                required.remove(attribute);
+                switch (attribute) {
+                    case NAME: {
+                        add.get(OP_ADDR).set(address).add(LDAP_CONNECTION, value);
+                        break;
+                    }
+                    case URL: {
+                        LdapConnectionResourceDefinition.URL.parseAndSetParameter(value, add, reader);
+                        break;
+                    }
+                    case SEARCH_DN: {
+                        LdapConnectionResourceDefinition.SEARCH_DN.parseAndSetParameter(value,  add, reader);
+                        break;
+                    }
+                    case SEARCH_CREDENTIAL: {
+                        LdapConnectionResourceDefinition.SEARCH_CREDENTIAL.parseAndSetParameter(value, add, reader);
+                        break;
+                    }
+                    case SECURITY_REALM: {
+                        LdapConnectionResourceDefinition.SECURITY_REALM.parseAndSetParameter(value, add, reader);
+                        break;
+                    }
+                    case INITIAL_CONTEXT_FACTORY: {
+                        LdapConnectionResourceDefinition.INITIAL_CONTEXT_FACTORY.parseAndSetParameter(value, add, reader);
+                        break;
+                    }
+                    case SEARCH_POOL_SIZE: {
+                        LdapConnectionResourceDefinition.SEARCH_POOL_SIZE.parseAndSetParameter(value, add, reader);
+                        break;
+                    }
+                    case AUTHENTICATION_CACHE_TTL: {
+                        LdapConnectionResourceDefinition.AUTHENTICATION_CACHE_TTL.parseAndSetParameter(value, add, reader);
+                        break;
+                    }
+                    default: {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                }
+            }
+        }
+
+        if (required.size() > 0) {
+            throw missingRequired(reader, required);
+        }
+
+        requireNoContent(reader);
+    }
+
     private void parseSecurityRealms(final XMLExtendedStreamReader reader, final ModelNode address, final Namespace expectedNs, final List<ModelNode> list)
             throws XMLStreamException {
         while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
@@ -1721,6 +1788,8 @@ public class ManagementXml {
             LdapConnectionResourceDefinition.SEARCH_CREDENTIAL.marshallAsAttribute(connection, writer);
             LdapConnectionResourceDefinition.SECURITY_REALM.marshallAsAttribute(connection, writer);
             LdapConnectionResourceDefinition.INITIAL_CONTEXT_FACTORY.marshallAsAttribute(connection, writer);
+            LdapConnectionResourceDefinition.SEARCH_POOL_SIZE.marshallAsAttribute(connection, writer);
+            LdapConnectionResourceDefinition.AUTHENTICATION_CACHE_TTL.marshallAsAttribute(connection, writer);
         }
         writer.writeEndElement();
     }
@@ -37,7 +37,7 @@ import javax.naming.Context;
 import javax.naming.NamingEnumeration;
 import javax.naming.directory.Attribute;
 import javax.naming.directory.Attributes;
-import javax.naming.directory.InitialDirContext;
+import javax.naming.directory.DirContext;
 import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
 import javax.security.auth.callback.Callback;
@@ -178,12 +178,11 @@ public class UserLdapCallbackHandler implements Service<CallbackHandlerService>,
             throw MESSAGES.noPassword();
         }
 
-        InitialDirContext searchContext = null;
-        InitialDirContext userContext = null;
+        DirContext searchContext = null;
         NamingEnumeration<SearchResult> searchEnumeration = null;
         try {
             // 1 - Obtain Connection to LDAP
-            searchContext = (InitialDirContext) connectionManager.getConnection();
+            searchContext = (DirContext) connectionManager.getConnection();
             // 2 - Search to identify the DN of the user connecting
             SearchControls searchControls = new SearchControls();
             if (recursive) {
@@ -220,8 +219,7 @@ public class UserLdapCallbackHandler implements Service<CallbackHandlerService>,
             }
 
             // 3 - Connect as user once their DN is identified
-            userContext = (InitialDirContext) connectionManager.getConnection(distinguishedUserDN, password);
-            if (userContext != null) {
+            if (connectionManager.verifyConnection(distinguishedUserDN, password)) {
                 verifyPasswordCallback.setVerified(true);
             }
 
@@ -231,7 +229,6 @@ public class UserLdapCallbackHandler implements Service<CallbackHandlerService>,
         } finally {
             safeClose(searchEnumeration);
             safeClose(searchContext);
-            safeClose(userContext);
         }
     }
 
@@ -0,0 +1,258 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.management.connections.ldap;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.AUTHENTICATION_CACHE_TTL;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INITIAL_CONTEXT_FACTORY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SEARCH_DN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SEARCH_POOL_SIZE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.URL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Hashtable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.naming.AuthenticationException;
+import javax.naming.CommunicationException;
+import javax.naming.Context;
+import javax.naming.NamingException;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.SearchControls;
+import javax.naming.spi.InitialContextFactory;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the search connection pool and authentication cache of the {@link LdapConnectionManagerService}.
+ * <p>
+ * The connections are provided by an in-JVM {@link InitialContextFactory} so no directory server is needed.
+ */
+public class LdapConnectionManagerServiceTestCase {
+
+    private static final String SEARCH_USER = "uid=search";
+    private static final String USER = "uid=user";
+    private static final String PASSWORD = "secret";
+
+    private LdapConnectionManagerService service;
+
+    @Before
+    public void reset() {
+        TestContextFactory.created.set(0);
+        TestContextFactory.closed.set(0);
+        TestContextFactory.binds.set(0);
+        TestContextFactory.failSearch = false;
+    }
+
+    @After
+    public void stop() {
+        if (service != null) {
+            service.stop(null);
+        }
+    }
+
+    @Test
+    public void testNoPoolByDefault() throws Exception {
+        service = start(0, 0);
+        close(service.getConnection());
+        close(service.getConnection());
+
+        assertEquals(2, TestContextFactory.created.get());
+        assertEquals(2, TestContextFactory.closed.get());
+        assertEquals(0, service.getSearchPoolHitCount());
+    }
+
+    @Test
+    public void testSearchContextPooled() throws Exception {
+        service = start(1, 0);
+        DirContext first = (DirContext) service.getConnection();
+        DirContext second = (DirContext) service.getConnection();
+        first.close();
+        // Closing twice must not put the context into the pool twice
+        first.close();
+        second.close();
+
+        assertEquals(2, TestContextFactory.created.get());
+        // The pool retains one context, the surplus is closed
+        assertEquals(1, TestContextFactory.closed.get());
+        assertEquals(1, service.getSearchPoolIdleCount());
+
+        close(service.getConnection());
+        assertEquals(2, TestContextFactory.created.get());
+        assertEquals(1, service.getSearchPoolHitCount());
+        assertEquals(2, service.getSearchPoolMissCount());
+
+        service.stop(null);
+        service = null;
+        assertEquals(2, TestContextFactory.closed.get());
+    }
+
+    @Test
+    public void testStaleLeaseRejected() throws Exception {
+        service = start(1, 0);
+        DirContext stale = (DirContext) service.getConnection();
+        stale.close();
+        DirContext current = (DirContext) service.getConnection();
+        assertEquals(1, TestContextFactory.created.get());
+        assertNotSame(stale, current);
+
+        // The previous borrower can neither use nor release the context of the current one
+        try {
+            stale.getAttributes("");
+            fail("a closed lease should be rejected");
+        } catch (NamingException expected) {
+        }
+        stale.close();
+        assertEquals(0, service.getSearchPoolIdleCount());
+        current.getAttributes("");
+
+        current.close();
+        assertEquals(1, service.getSearchPoolIdleCount());
+        assertEquals(0, TestContextFactory.closed.get());
+    }
+
+    @Test
+    public void testBrokenContextDiscarded() throws Exception {
+        service = start(1, 0);
+        DirContext context = (DirContext) service.getConnection();
+        TestContextFactory.failSearch = true;
+        try {
+            context.search("ou=users", "(uid={0})", new Object[] { "user" }, new SearchControls());
+            fail("search should fail");
+        } catch (CommunicationException expected) {
+        } finally {
+            context.close();
+        }
+        TestContextFactory.failSearch = false;
+
+        assertEquals(1, TestContextFactory.closed.get());
+        assertEquals(0, service.getSearchPoolIdleCount());
+        close(service.getConnection());
+        assertEquals(2, TestContextFactory.created.get());
+    }
+
+    @Test
+    public void testVerificationCached() throws Exception {
+        service = start(0, 60);
+        assertTrue(service.verifyConnection(USER, PASSWORD));
+        assertTrue(service.verifyConnection(USER, PASSWORD));
+
+        assertEquals(1, TestContextFactory.binds.get());
+        assertEquals(1, service.getAuthenticationCacheHitCount());
+        assertEquals(1, service.getAuthenticationCacheMissCount());
+
+        // A different credential is never answered from the cache
+        try {
+            service.verifyConnection(USER, "wrong");
+            fail("verification should fail");
+        } catch (AuthenticationException expected) {
+        }
+        assertEquals(2, TestContextFactory.binds.get());
+    }
+
+    @Test
+    public void testVerificationNotCachedByDefault() throws Exception {
+        service = start(0, 0);
+        assertTrue(service.verifyConnection(USER, PASSWORD));
+        assertTrue(service.verifyConnection(USER, PASSWORD));
+
+        assertEquals(2, TestContextFactory.binds.get());
+        assertEquals(2, TestContextFactory.closed.get());
+    }
+
+    @Test
+    public void testReconfigurationFlushesCache() throws Exception {
+        service = start(0, 60);
+        assertTrue(service.verifyConnection(USER, PASSWORD));
+
+        service.setResolvedConfiguration(configuration(0, 60));
+        assertTrue(service.verifyConnection(USER, PASSWORD));
+        assertEquals(2, TestContextFactory.binds.get());
+    }
+
+    private static LdapConnectionManagerService start(int poolSize, int cacheTtl) throws Exception {
+        LdapConnectionManagerService service = new LdapConnectionManagerService(configuration(poolSize, cacheTtl));
+        service.start(null);
+        return service;
+    }
+
+    private static ModelNode configuration(int poolSize, int cacheTtl) {
+        ModelNode configuration = new ModelNode();
+        configuration.get(URL).set("ldap://localhost:10389");
+        configuration.get(INITIAL_CONTEXT_FACTORY).set(TestContextFactory.class.getName());
+        configuration.get(SEARCH_DN).set(SEARCH_USER);
+        configuration.get(SEARCH_POOL_SIZE).set(poolSize);
+        configuration.get(AUTHENTICATION_CACHE_TTL).set(cacheTtl);
+        return configuration;
+    }
+
+    private static void close(Object context) throws Exception {
+        ((Context) context).close();
+    }
+
+    public static class TestContextFactory implements InitialContextFactory {
+
+        static final AtomicInteger created = new AtomicInteger();
+        static final AtomicInteger closed = new AtomicInteger();
+        static final AtomicInteger binds = new AtomicInteger();
+        static volatile boolean failSearch;
+
+        @Override
+        public Context getInitialContext(Hashtable<?, ?> environment) throws javax.naming.NamingException {
+            Object principal = environment.get(Context.SECURITY_PRINCIPAL);
+            if (SEARCH_USER.equals(principal) == false) {
+                binds.incrementAndGet();
+                if (PASSWORD.equals(environment.get(Context.SECURITY_CREDENTIALS)) == false) {
+                    throw new AuthenticationException(String.valueOf(principal));
+                }
+            }
+            created.incrementAndGet();
+            return (DirContext) Proxy.newProxyInstance(DirContext.class.getClassLoader(), new Class<?>[] { DirContext.class }, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    String name = method.getName();
+                    if ("close".equals(name)) {
+                        closed.incrementAndGet();
+                        return null;
+                    }
+                    if ("search".equals(name) && failSearch) {
+                        throw new CommunicationException("connection reset");
+                    }
+                    if ("getAttributes".equals(name)) {
+                        return new BasicAttributes();
+                    }
+                    throw new UnsupportedOperationException(name);
+                }
+            });
+        }
+    }
+}
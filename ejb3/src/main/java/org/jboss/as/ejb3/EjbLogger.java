@@ -586,6 +586,10 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 14265, value = "Error during transaction recovery")
     void errorDuringTransactionRecovery(@Cause Throwable cause);
 
+    @LogMessage(level = WARN)
+    @Message(id = 14266, value = "Could not store IIOP stub %s in cache file %s")
+    void couldNotCacheIIOPStub(String stubClassName, String file, @Cause Throwable cause);
+
 
 
     // Don't add message ids greater that 14299!!! If you need more first check what EjbMessages is
@@ -23,9 +23,14 @@ package org.jboss.as.ejb3.deployment.processors;
 
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.ejb.TransactionManagementType;
 
@@ -46,6 +51,7 @@ import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
 import org.jboss.as.ejb3.iiop.EjbIIOPService;
 import org.jboss.as.ejb3.iiop.EjbIIOPTransactionInterceptor;
 import org.jboss.as.ejb3.iiop.POARegistry;
+import org.jboss.as.ejb3.iiop.stub.DynamicStubFactoryFactory;
 import org.jboss.as.ejb3.subsystem.IIOPSettingsService;
 import org.jboss.as.jacorb.deployment.JacORBDeploymentMarker;
 import org.jboss.as.jacorb.rmi.AttributeAnalysis;
@@ -75,6 +81,7 @@ import org.jboss.msc.service.ServiceTarget;
 import org.omg.CORBA.ORB;
 import org.omg.CosNaming.NamingContextExt;
 import org.omg.PortableServer.POA;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
 
@@ -117,6 +124,7 @@ public class EjbIIOPDeploymentUnitProcessor implements DeploymentUnitProcessor {
         final DeploymentClassIndex classIndex = deploymentUnit.getAttachment(org.jboss.as.server.deployment.Attachments.CLASS_INDEX);
         final DeploymentReflectionIndex deploymentReflectionIndex = deploymentUnit.getAttachment(org.jboss.as.server.deployment.Attachments.REFLECTION_INDEX);
         final Module module = deploymentUnit.getAttachment(org.jboss.as.server.deployment.Attachments.MODULE);
+        final List<IIOPAnalysisTask> tasks = new ArrayList<IIOPAnalysisTask>();
         if (moduleDescription != null) {
             for (final ComponentDescription componentDescription : moduleDescription.getComponentDescriptions()) {
                 if (componentDescription instanceof EJBComponentDescription) {
@@ -130,13 +138,15 @@ public class EjbIIOPDeploymentUnitProcessor implements DeploymentUnitProcessor {
                         // the bean will be exposed via IIOP if it has IIOP metadata that applies to it or if IIOP access
                         // has been enabled by default in the EJB3 subsystem.
                         if (iiopMetaData != null || settingsService.isEnabledByDefault()) {
-                            processEjb(ejbComponentDescription, classIndex, deploymentReflectionIndex, module,
-                                    phaseContext.getServiceTarget(), iiopMetaData);
+                            tasks.add(prepareEjb(ejbComponentDescription, classIndex, deploymentReflectionIndex, module, iiopMetaData));
                         }
                     }
                 }
             }
         }
+        for (final IIOPAnalysis analysis : analyze(tasks)) {
+            installIIOPService(analysis, module, phaseContext.getServiceTarget());
+        }
     }
 
     @Override
@@ -144,14 +154,51 @@ public class EjbIIOPDeploymentUnitProcessor implements DeploymentUnitProcessor {
 
     }
 
-    private void processEjb(final EJBComponentDescription componentDescription, final DeploymentClassIndex classIndex,
-                            final DeploymentReflectionIndex deploymentReflectionIndex, final Module module,
-                            final ServiceTarget serviceTarget, final IIOPMetaData iiopMetaData) {
-        componentDescription.setExposedViaIiop(true);
-
+    /**
+     * Runs the interface analysis of all beans, concurrently if the subsystem provides an executor.
+     */
+    private List<IIOPAnalysis> analyze(final List<IIOPAnalysisTask> tasks) throws DeploymentUnitProcessingException {
+        final List<IIOPAnalysis> result = new ArrayList<IIOPAnalysis>(tasks.size());
+        final ExecutorService executor = settingsService.getExecutor();
+        if (executor == null || tasks.size() < 2) {
+            for (final IIOPAnalysisTask task : tasks) {
+                result.add(task.call());
+            }
+            return result;
+        }
+        final List<Future<IIOPAnalysis>> futures;
+        try {
+            futures = executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeploymentUnitProcessingException(e);
+        }
+        for (final Future<IIOPAnalysis> future : futures) {
+            try {
+                result.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DeploymentUnitProcessingException(e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new DeploymentUnitProcessingException(cause);
+            }
+        }
+        return result;
+    }
 
-        // Create bean method mappings for container invoker
+    private IIOPAnalysisTask prepareEjb(final EJBComponentDescription componentDescription, final DeploymentClassIndex classIndex,
+                                        final DeploymentReflectionIndex deploymentReflectionIndex, final Module module,
+                                        final IIOPMetaData iiopMetaData) {
+        componentDescription.setExposedViaIiop(true);
 
+        // the class index is not thread safe, so the view classes are loaded before the analysis is handed off
         final EJBViewDescription remoteView = componentDescription.getEjbRemoteView();
         final ClassIndex remoteClass;
         try {
@@ -170,100 +217,146 @@ public class EjbIIOPDeploymentUnitProcessor implements DeploymentUnitProcessor {
         componentDescription.getEjbHomeView().getConfigurators().add(new IIOPInterceptorViewConfigurator());
         componentDescription.getEjbRemoteView().getConfigurators().add(new IIOPInterceptorViewConfigurator());
 
+        return new IIOPAnalysisTask(componentDescription, remoteClass.getModuleClass(), homeClass.getModuleClass(),
+                deploymentReflectionIndex, module, iiopMetaData);
+    }
 
-        final InterfaceAnalysis remoteInterfaceAnalysis;
-        try {
-            //TODO: change all this to use the deployment reflection index
-            remoteInterfaceAnalysis = InterfaceAnalysis.getInterfaceAnalysis(remoteClass.getModuleClass());
-        } catch (RMIIIOPViolationException e) {
-            throw MESSAGES.failedToAnalyzeRemoteInterface(e, componentDescription.getComponentName());
-        }
+    private void installIIOPService(final IIOPAnalysis analysis, final Module module, final ServiceTarget serviceTarget) {
+        final EJBComponentDescription componentDescription = analysis.componentDescription;
+        final EjbIIOPService service = new EjbIIOPService(analysis.beanMethodMap, analysis.beanRepositoryIds, analysis.homeMethodMap,
+                analysis.homeRepositoryIds, settingsService.isUseQualifiedName(), analysis.iiopMetaData, module);
+        final ServiceBuilder<EjbIIOPService> builder = serviceTarget.addService(componentDescription.getServiceName().append(EjbIIOPService.SERVICE_NAME), service);
+        builder.addDependency(componentDescription.getCreateServiceName(), EJBComponent.class, service.getEjbComponentInjectedValue());
+        builder.addDependency(componentDescription.getEjbHomeView().getServiceName(), ComponentView.class, service.getHomeView());
+        builder.addDependency(componentDescription.getEjbRemoteView().getServiceName(), ComponentView.class, service.getRemoteView());
+        builder.addDependency(CorbaORBService.SERVICE_NAME, ORB.class, service.getOrb());
+        builder.addDependency(POARegistry.SERVICE_NAME, POARegistry.class, service.getPoaRegistry());
+        builder.addDependency(CorbaPOAService.INTERFACE_REPOSITORY_SERVICE_NAME, POA.class, service.getIrPoa());
+        builder.addDependency(CorbaNamingService.SERVICE_NAME, NamingContextExt.class, service.getCorbaNamingContext());
+        builder.addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ServiceModuleLoader.class, service.getServiceModuleLoaderInjectedValue());
+
+        //we need the arjunta transaction manager to be up, as it performs some initialization that is required by the orb interceptors
+        builder.addDependency(TxnServices.JBOSS_TXN_ARJUNA_TRANSACTION_MANAGER);
+        builder.install();
+    }
 
-        final Map<String, SkeletonStrategy> beanMethodMap = new HashMap<String, SkeletonStrategy>();
+    private static Map<String, SkeletonStrategy> createMethodMap(final DeploymentReflectionIndex deploymentReflectionIndex, final InterfaceAnalysis interfaceAnalysis) {
+        final Map<String, SkeletonStrategy> methodMap = new HashMap<String, SkeletonStrategy>();
 
-        final AttributeAnalysis[] remoteAttrs = remoteInterfaceAnalysis.getAttributes();
-        for (int i = 0; i < remoteAttrs.length; i++) {
-            final OperationAnalysis op = remoteAttrs[i].getAccessorAnalysis();
+        final AttributeAnalysis[] attrs = interfaceAnalysis.getAttributes();
+        for (int i = 0; i < attrs.length; i++) {
+            final OperationAnalysis op = attrs[i].getAccessorAnalysis();
             if (op != null) {
                 EjbLogger.ROOT_LOGGER.debug("    " + op.getJavaName() + "\n                " + op.getIDLName());
                 //translate to the deployment reflection index method
                 //TODO: this needs to be fixed so it just returns the correct method
-                final Method method = translateMethod(deploymentReflectionIndex, op);
-
-                beanMethodMap.put(op.getIDLName(), new SkeletonStrategy(method));
-                final OperationAnalysis setop = remoteAttrs[i].getMutatorAnalysis();
+                methodMap.put(op.getIDLName(), new SkeletonStrategy(translateMethod(deploymentReflectionIndex, op)));
+                final OperationAnalysis setop = attrs[i].getMutatorAnalysis();
                 if (setop != null) {
                     EjbLogger.ROOT_LOGGER.debug("    " + setop.getJavaName() + "\n                " + setop.getIDLName());
-                    //translate to the deployment reflection index method
-                    //TODO: this needs to be fixed so it just returns the correct method
-                    final Method realSetmethod = translateMethod(deploymentReflectionIndex, setop);
-                    beanMethodMap.put(setop.getIDLName(), new SkeletonStrategy(realSetmethod));
+                    methodMap.put(setop.getIDLName(), new SkeletonStrategy(translateMethod(deploymentReflectionIndex, setop)));
                 }
             }
         }
 
-        final OperationAnalysis[] ops = remoteInterfaceAnalysis.getOperations();
+        final OperationAnalysis[] ops = interfaceAnalysis.getOperations();
         for (int i = 0; i < ops.length; i++) {
             EjbLogger.ROOT_LOGGER.debug("    " + ops[i].getJavaName() + "\n                " + ops[i].getIDLName());
-            beanMethodMap.put(ops[i].getIDLName(), new SkeletonStrategy(translateMethod(deploymentReflectionIndex, ops[i])));
+            methodMap.put(ops[i].getIDLName(), new SkeletonStrategy(translateMethod(deploymentReflectionIndex, ops[i])));
         }
+        return methodMap;
+    }
 
-        // Initialize repository ids of remote interface
-        final String[] beanRepositoryIds = remoteInterfaceAnalysis.getAllTypeIds();
-
-        // Create home method mappings for container invoker
-        final InterfaceAnalysis homeInterfaceAnalysis;
-        try {
-            //TODO: change all this to use the deployment reflection index
-            homeInterfaceAnalysis = InterfaceAnalysis.getInterfaceAnalysis(homeClass.getModuleClass());
-        } catch (RMIIIOPViolationException e) {
-            throw MESSAGES.failedToAnalyzeRemoteInterface(e, componentDescription.getComponentName());
+    /**
+     * Analyses the remote and home interfaces of a bean, and generates their stubs ahead of the first invocation.
+     */
+    private static final class IIOPAnalysisTask implements Callable<IIOPAnalysis> {
+
+        private final EJBComponentDescription componentDescription;
+        private final Class<?> remoteClass;
+        private final Class<?> homeClass;
+        private final DeploymentReflectionIndex deploymentReflectionIndex;
+        private final Module module;
+        private final IIOPMetaData iiopMetaData;
+
+        IIOPAnalysisTask(final EJBComponentDescription componentDescription, final Class<?> remoteClass, final Class<?> homeClass,
+                         final DeploymentReflectionIndex deploymentReflectionIndex, final Module module, final IIOPMetaData iiopMetaData) {
+            this.componentDescription = componentDescription;
+            this.remoteClass = remoteClass;
+            this.homeClass = homeClass;
+            this.deploymentReflectionIndex = deploymentReflectionIndex;
+            this.module = module;
+            this.iiopMetaData = iiopMetaData;
         }
 
-        final Map<String, SkeletonStrategy> homeMethodMap = new HashMap<String, SkeletonStrategy>();
-
-        final AttributeAnalysis[] attrs = homeInterfaceAnalysis.getAttributes();
-        for (int i = 0; i < attrs.length; i++) {
-            final OperationAnalysis op = attrs[i].getAccessorAnalysis();
-            if (op != null) {
-                EjbLogger.ROOT_LOGGER.debug("    " + op.getJavaName() + "\n                " + op.getIDLName());
-                homeMethodMap.put(op.getIDLName(), new SkeletonStrategy(translateMethod(deploymentReflectionIndex, op)));
-                final OperationAnalysis setop = attrs[i].getMutatorAnalysis();
-                if (setop != null) {
-                    EjbLogger.ROOT_LOGGER.debug("    " + setop.getJavaName() + "\n                " + setop.getIDLName());
-                    homeMethodMap.put(setop.getIDLName(), new SkeletonStrategy(translateMethod(deploymentReflectionIndex, setop)));
+        @Override
+        public IIOPAnalysis call() {
+            // Create bean method mappings for container invoker
+            final InterfaceAnalysis remoteInterfaceAnalysis;
+            try {
+                //TODO: change all this to use the deployment reflection index
+                remoteInterfaceAnalysis = InterfaceAnalysis.getInterfaceAnalysis(remoteClass);
+            } catch (RMIIIOPViolationException e) {
+                throw MESSAGES.failedToAnalyzeRemoteInterface(e, componentDescription.getComponentName());
+            }
+            final Map<String, SkeletonStrategy> beanMethodMap = createMethodMap(deploymentReflectionIndex, remoteInterfaceAnalysis);
+
+            // Create home method mappings for container invoker
+            final InterfaceAnalysis homeInterfaceAnalysis;
+            try {
+                //TODO: change all this to use the deployment reflection index
+                homeInterfaceAnalysis = InterfaceAnalysis.getInterfaceAnalysis(homeClass);
+            } catch (RMIIIOPViolationException e) {
+                throw MESSAGES.failedToAnalyzeRemoteInterface(e, componentDescription.getComponentName());
+            }
+            final Map<String, SkeletonStrategy> homeMethodMap = createMethodMap(deploymentReflectionIndex, homeInterfaceAnalysis);
+
+            // generate the stubs now rather than on first use, they are picked up from the module class loader later
+            final ClassLoader cl = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+            try {
+                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(module.getClassLoader());
+                try {
+                    DynamicStubFactoryFactory.makeStubClass(homeClass);
+                } catch (Exception e) {
+                    EjbLogger.EJB3_LOGGER.dynamicStubCreationFailed(homeClass.getName(), e);
                 }
+                try {
+                    DynamicStubFactoryFactory.makeStubClass(remoteClass);
+                } catch (Exception e) {
+                    EjbLogger.EJB3_LOGGER.dynamicStubCreationFailed(remoteClass.getName(), e);
+                }
+            } finally {
+                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(cl);
             }
-        }
 
-        final OperationAnalysis[] homeops = homeInterfaceAnalysis.getOperations();
-        for (int i = 0; i < homeops.length; i++) {
-            EjbLogger.ROOT_LOGGER.debug("    " + homeops[i].getJavaName() + "\n                " + homeops[i].getIDLName());
-            homeMethodMap.put(homeops[i].getIDLName(), new SkeletonStrategy(translateMethod(deploymentReflectionIndex, homeops[i])));
+            // Initialize repository ids of remote and home interface
+            return new IIOPAnalysis(componentDescription, iiopMetaData, beanMethodMap, remoteInterfaceAnalysis.getAllTypeIds(),
+                    homeMethodMap, homeInterfaceAnalysis.getAllTypeIds());
         }
+    }
 
-        // Initialize repository ids of home interface
-        final String[] homeRepositoryIds = homeInterfaceAnalysis.getAllTypeIds();
-
-        final EjbIIOPService service = new EjbIIOPService(beanMethodMap, beanRepositoryIds, homeMethodMap, homeRepositoryIds,
-                settingsService.isUseQualifiedName(), iiopMetaData, module);
-        final ServiceBuilder<EjbIIOPService> builder = serviceTarget.addService(componentDescription.getServiceName().append(EjbIIOPService.SERVICE_NAME), service);
-        builder.addDependency(componentDescription.getCreateServiceName(), EJBComponent.class, service.getEjbComponentInjectedValue());
-        builder.addDependency(homeView.getServiceName(), ComponentView.class, service.getHomeView());
-        builder.addDependency(remoteView.getServiceName(), ComponentView.class, service.getRemoteView());
-        builder.addDependency(CorbaORBService.SERVICE_NAME, ORB.class, service.getOrb());
-        builder.addDependency(POARegistry.SERVICE_NAME, POARegistry.class, service.getPoaRegistry());
-        builder.addDependency(CorbaPOAService.INTERFACE_REPOSITORY_SERVICE_NAME, POA.class, service.getIrPoa());
-        builder.addDependency(CorbaNamingService.SERVICE_NAME, NamingContextExt.class, service.getCorbaNamingContext());
-        builder.addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ServiceModuleLoader.class, service.getServiceModuleLoaderInjectedValue());
-
-        //we need the arjunta transaction manager to be up, as it performs some initialization that is required by the orb interceptors
-        builder.addDependency(TxnServices.JBOSS_TXN_ARJUNA_TRANSACTION_MANAGER);
-        builder.install();
-
+    private static final class IIOPAnalysis {
+
+        private final EJBComponentDescription componentDescription;
+        private final IIOPMetaData iiopMetaData;
+        private final Map<String, SkeletonStrategy> beanMethodMap;
+        private final String[] beanRepositoryIds;
+        private final Map<String, SkeletonStrategy> homeMethodMap;
+        private final String[] homeRepositoryIds;
+
+        IIOPAnalysis(final EJBComponentDescription componentDescription, final IIOPMetaData iiopMetaData,
+                     final Map<String, SkeletonStrategy> beanMethodMap, final String[] beanRepositoryIds,
+                     final Map<String, SkeletonStrategy> homeMethodMap, final String[] homeRepositoryIds) {
+            this.componentDescription = componentDescription;
+            this.iiopMetaData = iiopMetaData;
+            this.beanMethodMap = beanMethodMap;
+            this.beanRepositoryIds = beanRepositoryIds;
+            this.homeMethodMap = homeMethodMap;
+            this.homeRepositoryIds = homeRepositoryIds;
+        }
     }
 
-    private Method translateMethod(final DeploymentReflectionIndex deploymentReflectionIndex, final OperationAnalysis op) {
+    private static Method translateMethod(final DeploymentReflectionIndex deploymentReflectionIndex, final OperationAnalysis op) {
         final Method nonMethod = op.getMethod();
         return deploymentReflectionIndex.getClassIndex(nonMethod.getDeclaringClass()).getMethod(nonMethod);
     }
@@ -40,7 +40,6 @@ import org.jboss.as.ejb3.EjbLogger;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.entity.EntityBeanComponent;
 import org.jboss.as.ejb3.component.stateless.StatelessSessionComponent;
-import org.jboss.as.ejb3.iiop.stub.DynamicStubFactoryFactory;
 import org.jboss.as.jacorb.csiv2.CSIv2Policy;
 import org.jboss.as.jacorb.rmi.ir.InterfaceRepository;
 import org.jboss.as.jacorb.rmi.marshal.strategy.SkeletonStrategy;
@@ -85,7 +84,6 @@ import org.omg.CosNaming.NamingContextPackage.NotFound;
 import org.omg.PortableServer.Current;
 import org.omg.PortableServer.CurrentHelper;
 import org.omg.PortableServer.POA;
-import org.wildfly.security.manager.WildFlySecurityManager;
 
 import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
 
@@ -373,25 +371,6 @@ public class EjbIIOPService implements Service<EjbIIOPService> {
             rebind(corbaNamingContext.getValue(), name, corbaRef);
             EjbLogger.ROOT_LOGGER.debug("Home IOR for " + component.getComponentName() + " bound to " + this.name + " in CORBA naming service");
 
-            //now eagerly force stub creation, so de-serialization of stubs will work correctly
-            final ClassLoader cl = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
-            try {
-                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(module.getClassLoader());
-                try {
-                    DynamicStubFactoryFactory.makeStubClass(homeView.getValue().getViewClass());
-                } catch (Exception e) {
-                    EjbLogger.EJB3_LOGGER.dynamicStubCreationFailed(homeView.getValue().getViewClass().getName(), e);
-                }
-                try {
-                    DynamicStubFactoryFactory.makeStubClass(remoteView.getValue().getViewClass());
-                } catch (Exception e) {
-                    EjbLogger.EJB3_LOGGER.dynamicStubCreationFailed(remoteView.getValue().getViewClass().getName(), e);
-                }
-            } finally {
-                WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(cl);
-            }
-
-
         } catch (Exception e) {
             throw new StartException(e);
         }
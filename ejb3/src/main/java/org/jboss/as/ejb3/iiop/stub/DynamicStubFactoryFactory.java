@@ -35,6 +35,17 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  */
 public class DynamicStubFactoryFactory extends StubFactoryFactoryDynamicBase {
 
+    private static volatile IIOPStubCache stubCache;
+
+    /**
+     * Sets the persistent cache that is consulted before generating stub classes.
+     *
+     * @param cache the cache, or {@code null} to always generate stubs
+     */
+    public static void setStubCache(final IIOPStubCache cache) {
+        stubCache = cache;
+    }
+
     @Override
     public PresentationManager.StubFactory makeDynamicStubFactory(final PresentationManager pm, final PresentationManager.ClassData classData, final ClassLoader classLoader) {
         final Class<?> myClass = classData.getMyClass();
@@ -61,8 +72,7 @@ public class DynamicStubFactoryFactory extends StubFactoryFactoryDynamicBase {
             theClass = cl.loadClass(stubClassName);
         } catch (ClassNotFoundException e) {
             try {
-                final ClassFile clazz = IIOPStubCompiler.compile(myClass, stubClassName);
-                theClass = clazz.define(cl, myClass.getProtectionDomain());
+                theClass = defineStubClass(myClass, stubClassName, cl);
             } catch (RuntimeException ex) {
                 //there is a possibility that another thread may have defined the same class in the meantime
                 try {
@@ -76,6 +86,47 @@ public class DynamicStubFactoryFactory extends StubFactoryFactoryDynamicBase {
         return theClass;
     }
 
+    static Class<?> defineStubClass(final Class<?> myClass, final String stubClassName, final ClassLoader cl) {
+        final IIOPStubCache cache = stubCache;
+        if (cache != null) {
+            final byte[] bytecode = cache.get(myClass, stubClassName);
+            if (bytecode != null) {
+                try {
+                    return new CachedClassFile(stubClassName, myClass, bytecode).define(cl, myClass.getProtectionDomain());
+                } catch (RuntimeException e) {
+                    // unusable cache entry, generate the stub again
+                    EjbLogger.ROOT_LOGGER.debugf(e, "Could not define cached stub %s", stubClassName);
+                } catch (LinkageError e) {
+                    EjbLogger.ROOT_LOGGER.debugf(e, "Could not define cached stub %s", stubClassName);
+                }
+            }
+        }
+        final ClassFile clazz = IIOPStubCompiler.compile(myClass, stubClassName);
+        if (cache != null) {
+            cache.put(myClass, stubClassName, clazz.toBytecode());
+        }
+        return clazz.define(cl, myClass.getProtectionDomain());
+    }
+
+    /**
+     * A class file whose bytecode was read from the {@link IIOPStubCache}. Defining it goes through the same
+     * class file writer path as a freshly generated stub, so cached stubs need no class loader access of their own.
+     */
+    private static final class CachedClassFile extends ClassFile {
+
+        private final byte[] bytecode;
+
+        CachedClassFile(final String stubClassName, final Class<?> intf, final byte[] bytecode) {
+            super(stubClassName, DynamicIIOPStub.class.getName(), intf.getName());
+            this.bytecode = bytecode;
+        }
+
+        @Override
+        public byte[] toBytecode() {
+            return bytecode;
+        }
+    }
+
     private static final class StubFactory extends StubFactoryBase {
 
         private final Class<?> clazz;
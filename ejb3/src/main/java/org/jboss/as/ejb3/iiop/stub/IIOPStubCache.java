@@ -0,0 +1,210 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.iiop.stub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jboss.as.ejb3.EjbLogger;
+
+/**
+ * A persistent cache of generated IIOP stub bytecode.
+ * <p>
+ * Entries are keyed by a digest over the bytecode of the remote interface, its super interfaces and the
+ * application exceptions declared by its methods, as these are the inputs that determine the generated stub.
+ * A changed interface therefore simply results in a new entry, so entries never need to be invalidated.
+ */
+public final class IIOPStubCache {
+
+    /**
+     * Bump this whenever {@link IIOPStubCompiler} changes the code it generates
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File directory;
+
+    public IIOPStubCache(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the cached bytecode of the stub for the given interface.
+     *
+     * @param intf          the remote interface
+     * @param stubClassName the name of the stub class
+     * @return the bytecode, or {@code null} if the stub has not been cached
+     */
+    public byte[] get(final Class<?> intf, final String stubClassName) {
+        final String key = key(intf, stubClassName);
+        if (key == null) {
+            return null;
+        }
+        final File file = new File(directory, key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            final InputStream in = new FileInputStream(file);
+            try {
+                return readFully(in);
+            } finally {
+                safeClose(in);
+            }
+        } catch (IOException e) {
+            EjbLogger.ROOT_LOGGER.debugf(e, "Could not read cached IIOP stub %s", file);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the bytecode of the stub for the given interface.
+     *
+     * @param intf          the remote interface
+     * @param stubClassName the name of the stub class
+     * @param bytecode      the generated bytecode
+     */
+    public void put(final Class<?> intf, final String stubClassName, final byte[] bytecode) {
+        final String key = key(intf, stubClassName);
+        if (key == null) {
+            return;
+        }
+        final File file = new File(directory, key);
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+                throw new IOException(directory.getAbsolutePath());
+            }
+            // write to a temp file first, so concurrent readers never see a partially written stub
+            final File temp = File.createTempFile(key, ".tmp", directory);
+            final OutputStream out = new FileOutputStream(temp);
+            try {
+                out.write(bytecode);
+            } finally {
+                safeClose(out);
+            }
+            if (!temp.renameTo(file)) {
+                temp.delete();
+            }
+        } catch (IOException e) {
+            EjbLogger.ROOT_LOGGER.couldNotCacheIIOPStub(stubClassName, file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Computes the cache key for a stub, or returns {@code null} if the bytecode of the
+     * interface cannot be read.
+     */
+    String key(final Class<?> intf, final String stubClassName) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+        digest.update((FORMAT_VERSION + ":" + stubClassName).getBytes(UTF_8));
+        for (final Class<?> clazz : inputClasses(intf)) {
+            digest.update(clazz.getName().getBytes(UTF_8));
+            final ClassLoader loader = clazz.getClassLoader();
+            if (loader == null) {
+                // JDK classes are identified by name only
+                continue;
+            }
+            final InputStream in = loader.getResourceAsStream(clazz.getName().replace('.', '/') + ".class");
+            if (in == null) {
+                return null;
+            }
+            try {
+                digest.update(readFully(in));
+            } catch (IOException e) {
+                return null;
+            } finally {
+                safeClose(in);
+            }
+        }
+        final byte[] hash = digest.digest();
+        final StringBuilder builder = new StringBuilder(hash.length * 2 + 6);
+        for (final byte b : hash) {
+            builder.append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+        }
+        return builder.append(".class").toString();
+    }
+
+    /**
+     * Collects the classes whose structure ends up in the generated stub: the interface hierarchy, and the
+     * declared exceptions of all methods including their super classes, as the exception repository ids
+     * are derived from them.
+     */
+    private static Collection<Class<?>> inputClasses(final Class<?> intf) {
+        // sorted by name, as the order of reflected methods is not stable between runs
+        final Map<String, Class<?>> classes = new TreeMap<String, Class<?>>();
+        addInterfaces(intf, classes);
+        for (final Method method : intf.getMethods()) {
+            for (Class<?> exception : method.getExceptionTypes()) {
+                while (exception != null && classes.put(exception.getName(), exception) == null) {
+                    exception = exception.getSuperclass();
+                }
+            }
+        }
+        return classes.values();
+    }
+
+    private static void addInterfaces(final Class<?> intf, final Map<String, Class<?>> classes) {
+        if (classes.put(intf.getName(), intf) == null) {
+            for (final Class<?> parent : intf.getInterfaces()) {
+                addInterfaces(parent, classes);
+            }
+        }
+    }
+
+    private static byte[] readFully(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignore) {
+        }
+    }
+}
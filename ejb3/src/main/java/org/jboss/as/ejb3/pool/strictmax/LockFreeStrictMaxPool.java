@@ -0,0 +1,264 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.pool.strictmax;
+
+import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size, which does not serialize its callers on a monitor.
+ * <p/>
+ * Like {@link StrictMaxPool}, at most {@code maxSize} instances are handed out at any time, and a caller waits up to
+ * the configured timeout for an instance to be released. Idle instances are kept in a set of slots, one of which
+ * a thread releases its instance to and takes it from again on its next invocation, and in a shared Treiber stack
+ * for the instances which do not fit into a slot. Neither is guarded by a lock. Permits are handed out by a non fair
+ * semaphore, so waiting callers are not guaranteed to be served in arrival order.
+ */
+public class LockFreeStrictMaxPool<T> extends AbstractPool<T> {
+
+    private static final int MAX_SLOTS = 64;
+
+    private final Semaphore semaphore;
+    private final int maxSize;
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    /**
+     * The idle instances a thread prefers, indexed by {@link #slot()}
+     */
+    private final AtomicReferenceArray<T> slots;
+    private final int slotMask;
+    /**
+     * The top of the stack of idle instances which did not fit into a slot
+     */
+    private final AtomicReference<Node<T>> stack = new AtomicReference<Node<T>>();
+    /**
+     * The number of instances which are either in use or idle
+     */
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong waitTime = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+
+    public LockFreeStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.semaphore = new Semaphore(maxSize);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // more slots than instances or concurrently running threads would mostly stay empty
+        final int wanted = Math.min(MAX_SLOTS, Math.min(maxSize, Runtime.getRuntime().availableProcessors() * 2));
+        final int slotCount = wanted <= 1 ? 1 : Integer.highestOneBit(wanted - 1) << 1;
+        this.slots = new AtomicReferenceArray<T>(slotCount);
+        this.slotMask = slotCount - 1;
+    }
+
+    public void discard(T ctx) {
+        size.decrementAndGet();
+        semaphore.release();
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        return semaphore.availablePermits();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        throw MESSAGES.methodNotImplemented();
+    }
+
+    /**
+     * @return the total time, in milliseconds, callers have waited for an instance to be released
+     */
+    public long getWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(waitTime.get());
+    }
+
+    /**
+     * @return the number of calls to {@link #get()} which had to wait for an instance to be released
+     */
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    public T get() {
+        if (!semaphore.tryAcquire()) {
+            final long start = System.nanoTime();
+            final boolean acquired;
+            try {
+                acquired = semaphore.tryAcquire(timeout, timeUnit);
+            } catch (InterruptedException e) {
+                throw MESSAGES.acquireSemaphoreInterrupted();
+            } finally {
+                waitTime.addAndGet(System.nanoTime() - start);
+                waitCount.incrementAndGet();
+            }
+            if (!acquired) {
+                throw MESSAGES.failedToAcquirePermit(timeout, timeUnit);
+            }
+        }
+
+        T bean = null;
+        try {
+            bean = take();
+        } finally {
+            if (bean == null) {
+                semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Takes an idle instance, or creates one if there is none. Must only be called while holding a permit.
+     */
+    private T take() {
+        final int home = slot();
+        for (;;) {
+            T bean = poll(home);
+            if (bean != null) {
+                return bean;
+            }
+            bean = pop();
+            if (bean != null) {
+                return bean;
+            }
+            for (int i = 1; i <= slotMask; i++) {
+                bean = poll((home + i) & slotMask);
+                if (bean != null) {
+                    return bean;
+                }
+            }
+            final int current = size.get();
+            if (current < maxSize) {
+                if (size.compareAndSet(current, current + 1)) {
+                    boolean created = false;
+                    try {
+                        bean = create();
+                        created = true;
+                    } finally {
+                        if (!created) {
+                            size.decrementAndGet();
+                        }
+                    }
+                    return bean;
+                }
+            } else {
+                // As we hold a permit, an idle instance is just being released
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Return an instance after invocation.
+     *
+     * @param obj the instance
+     */
+    public void release(T obj) {
+        // the instance must be visible to other callers before the permit is
+        if (!slots.compareAndSet(slot(), null, obj)) {
+            push(obj);
+        }
+        semaphore.release();
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        size.decrementAndGet();
+        semaphore.release();
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        for (int i = 0; i <= slotMask; i++) {
+            final T bean = poll(i);
+            if (bean != null) {
+                size.decrementAndGet();
+                destroy(bean);
+            }
+        }
+        T bean;
+        while ((bean = pop()) != null) {
+            size.decrementAndGet();
+            destroy(bean);
+        }
+    }
+
+    private int slot() {
+        return (int) Thread.currentThread().getId() & slotMask;
+    }
+
+    private T poll(final int slot) {
+        final T bean = slots.get(slot);
+        return bean != null && slots.compareAndSet(slot, bean, null) ? bean : null;
+    }
+
+    private void push(final T bean) {
+        final Node<T> node = new Node<T>(bean);
+        Node<T> top;
+        do {
+            top = stack.get();
+            node.next = top;
+        } while (!stack.compareAndSet(top, node));
+    }
+
+    private T pop() {
+        Node<T> top;
+        do {
+            top = stack.get();
+            if (top == null) {
+                return null;
+            }
+        } while (!stack.compareAndSet(top, top.next));
+        return top.value;
+    }
+
+    private static final class Node<T> {
+        final T value;
+        Node<T> next;
+
+        Node(final T value) {
+            this.value = value;
+        }
+    }
+}
@@ -27,18 +27,28 @@ import org.jboss.as.ejb3.EjbMessages;
 import org.jboss.as.network.ClientMapping;
 import org.jboss.ejb.client.remoting.PackedInteger;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.Inet4Address;
 import java.net.InetAddress;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A {@link ClusterTopologyWriter} is responsible for writing out cluster topology related EJB remoting protocol
  * messages to the {@link DataOutput} that's passed to its write methods
+ * <p>
+ * The same topology message is usually sent to every connected client, so the encode methods return the same bytes
+ * as long as the topology they are asked to encode is unchanged. The encoded topology of a cluster is attached to the
+ * registry snapshot it was read from, and is discarded along with it. The most recently encoded nodes added and nodes
+ * removed messages are kept per cluster name, since the registry passes the same nodes to each of its listeners.
  *
  * @author Jaikiran Pai
  */
@@ -49,6 +59,129 @@ class ClusterTopologyWriter {
     private static final byte HEADER_NEW_NODES_ADDED = 0x17;
     private static final byte HEADER_NODES_REMOVED = 0x18;
 
+    private static final byte[] NO_MESSAGE = new byte[0];
+
+    // key of the encoded cluster topology attached to a registry snapshot
+    private static final Object CLUSTER_TOPOLOGY = new Object();
+
+    private static final ConcurrentMap<String, EncodedMessage> lastNewNodesAdded = new ConcurrentHashMap<String, EncodedMessage>();
+    private static final ConcurrentMap<String, EncodedMessage> lastNodesRemoved = new ConcurrentHashMap<String, EncodedMessage>();
+
+    /**
+     * Encodes a message containing the complete topology of the passed clusters. The encoded message may share its
+     * contents with other callers asking for the same versions of the same clusters, so it must not be modified.
+     *
+     * @param clientMappingsRegistries the clusters
+     * @return the message, or an empty array if there are no clusters
+     * @throws IOException
+     */
+    byte[] encodeCompleteClusterTopology(final Collection<Registry<String, List<ClientMapping>>> clientMappingsRegistries) throws IOException {
+        if (clientMappingsRegistries == null || clientMappingsRegistries.isEmpty()) {
+            return NO_MESSAGE;
+        }
+        final List<byte[]> clusters = new ArrayList<byte[]>(clientMappingsRegistries.size());
+        for (final Registry<String, List<ClientMapping>> registry : clientMappingsRegistries) {
+            clusters.add(this.encodeClusterTopology(registry.getName(), registry.getSnapshot()));
+        }
+        if (clusters.size() == 1) {
+            return clusters.get(0);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        // write the header
+        output.write(HEADER_COMPLETE_CLUSTER_TOPOLOGY);
+        // write the cluster count
+        PackedInteger.writePackedInteger(output, clusters.size());
+        // each cluster message starts with the header and a cluster count of 1
+        final int offset = 2;
+        for (final byte[] cluster : clusters) {
+            output.write(cluster, offset, cluster.length - offset);
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encodes a complete topology message for a single cluster, once per registry snapshot.
+     *
+     * @param clusterName the cluster name
+     * @param snapshot    the registry snapshot of the cluster
+     * @return the message
+     * @throws IOException
+     */
+    private byte[] encodeClusterTopology(final String clusterName, final Registry.Snapshot<String, List<ClientMapping>> snapshot) throws IOException {
+        final byte[] encoded = (byte[]) snapshot.getAttachment(CLUSTER_TOPOLOGY);
+        if (encoded != null) {
+            return encoded;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        // write the header
+        output.write(HEADER_COMPLETE_CLUSTER_TOPOLOGY);
+        // write the cluster count
+        PackedInteger.writePackedInteger(output, 1);
+        // write the cluster name
+        output.writeUTF(clusterName);
+        // write out the information of each cluster node
+        this.writeClusterNodes(output, clusterName, snapshot.getEntries());
+        output.flush();
+        final byte[] message = bytes.toByteArray();
+        final byte[] existing = (byte[]) snapshot.putAttachmentIfAbsent(CLUSTER_TOPOLOGY, message);
+        return (existing != null) ? existing : message;
+    }
+
+    /**
+     * Encodes a message containing the nodes added to a cluster. The encoded message is shared with other callers
+     * asking for the same nodes, so it must not be modified.
+     *
+     * @param clusterName    the cluster name
+     * @param clientMappings the client mappings of the added nodes
+     * @return the message, or an empty array if no nodes were added
+     * @throws IOException
+     */
+    byte[] encodeNewNodesAdded(final String clusterName, final Map<String, List<ClientMapping>> clientMappings) throws IOException {
+        if (clientMappings.isEmpty()) {
+            return NO_MESSAGE;
+        }
+        final EncodedMessage last = lastNewNodesAdded.get(clusterName);
+        if (last != null && last.nodes.equals(clientMappings)) {
+            return last.bytes;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        this.writeNewNodesAdded(output, clusterName, clientMappings);
+        output.flush();
+        final EncodedMessage message = new EncodedMessage(clientMappings, bytes.toByteArray());
+        lastNewNodesAdded.put(clusterName, message);
+        return message.bytes;
+    }
+
+    /**
+     * Encodes a message containing the nodes removed from a cluster. The encoded message is shared with other callers
+     * asking for the same nodes, so it must not be modified.
+     *
+     * @param clusterName  the cluster name
+     * @param removedNodes the names of the removed nodes
+     * @return the message, or an empty array if no nodes were removed
+     * @throws IOException
+     */
+    byte[] encodeNodesRemoved(final String clusterName, final Set<String> removedNodes) throws IOException {
+        if (removedNodes == null || removedNodes.isEmpty()) {
+            return NO_MESSAGE;
+        }
+        final EncodedMessage last = lastNodesRemoved.get(clusterName);
+        if (last != null && last.nodes.equals(removedNodes)) {
+            return last.bytes;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        this.writeNodesRemoved(output, clusterName, removedNodes);
+        output.flush();
+        final EncodedMessage message = new EncodedMessage(removedNodes, bytes.toByteArray());
+        lastNodesRemoved.put(clusterName, message);
+        return message.bytes;
+    }
+
     /**
      * Writes out a EJB remoting protocol message containing the cluster topology information for the passed <code>clusters</code>
      *
@@ -72,7 +205,7 @@ class ClusterTopologyWriter {
             // write the cluster name
             output.writeUTF(registry.getName());
             // write out the information of each cluster node
-            this.writeClusterNodes(output, registry.getName(), registry.getEntries());
+            this.writeClusterNodes(output, registry.getName(), registry.getSnapshot().getEntries());
         }
 
     }
@@ -184,4 +317,14 @@ class ClusterTopologyWriter {
             }
         }
     }
+
+    private static final class EncodedMessage {
+        private final Object nodes;
+        private final byte[] bytes;
+
+        EncodedMessage(final Object nodes, final byte[] bytes) {
+            this.nodes = nodes;
+            this.bytes = bytes;
+        }
+    }
 }
@@ -311,21 +311,33 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
      * @throws IOException If any exception occurs while sending the message over the channel
      */
     private void sendNewClusterFormedMessage(final Collection<Registry<String, List<ClientMapping>>> clientMappingRegistries) throws IOException {
-        final DataOutputStream outputStream;
+        final ClusterTopologyWriter clusterTopologyWriter = new ClusterTopologyWriter();
+        final byte[] message = clusterTopologyWriter.encodeCompleteClusterTopology(clientMappingRegistries);
+        EjbLogger.ROOT_LOGGER.debug("Writing out cluster formation message for " + clientMappingRegistries.size() + " clusters, to channel " + this.channelAssociation.getChannel());
+        this.writeEncodedMessage(message);
+    }
+
+    /**
+     * Writes out an already encoded protocol message over the remoting channel
+     *
+     * @param message The encoded message, which may be shared with other channels
+     * @throws IOException If any exception occurs while sending the message over the channel
+     */
+    private void writeEncodedMessage(final byte[] message) throws IOException {
+        if (message.length == 0) {
+            return;
+        }
         final MessageOutputStream messageOutputStream;
         try {
             messageOutputStream = channelAssociation.acquireChannelMessageOutputStream();
         } catch (Exception e) {
             throw EjbMessages.MESSAGES.failedToOpenMessageOutputStream(e);
         }
-        outputStream = new DataOutputStream(messageOutputStream);
-        final ClusterTopologyWriter clusterTopologyWriter = new ClusterTopologyWriter();
         try {
-            EjbLogger.ROOT_LOGGER.debug("Writing out cluster formation message for " + clientMappingRegistries.size() + " clusters, to channel " + this.channelAssociation.getChannel());
-            clusterTopologyWriter.writeCompleteClusterTopology(outputStream, clientMappingRegistries);
+            messageOutputStream.write(message);
         } finally {
             channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
-            outputStream.close();
+            messageOutputStream.close();
         }
     }
 
@@ -418,58 +430,33 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
         }
 
         private void sendClusterNodesRemoved(final Set<String> removedNodes) throws IOException {
-            final DataOutputStream outputStream;
-            final MessageOutputStream messageOutputStream;
-            try {
-                messageOutputStream = channelAssociation.acquireChannelMessageOutputStream();
-            } catch (Exception e) {
-                throw EjbMessages.MESSAGES.failedToOpenMessageOutputStream(e);
-            }
-            outputStream = new DataOutputStream(messageOutputStream);
             final ClusterTopologyWriter clusterTopologyWriter = new ClusterTopologyWriter();
-            try {
-                if (EjbLogger.ROOT_LOGGER.isDebugEnabled()) {
-                    EjbLogger.ROOT_LOGGER.debug("Following " + removedNodes.size() + " nodes removed from cluster " + clusterName + ", writing a protocol message to channel " + this.channelReceiver.channelAssociation.getChannel());
-                    final StringBuffer sb = new StringBuffer();
-                    for (final String nodeName : removedNodes) {
-                        sb.append(nodeName);
-                        sb.append("\n");
-                    }
-                    EjbLogger.ROOT_LOGGER.debug(sb.toString());
+            final byte[] message = clusterTopologyWriter.encodeNodesRemoved(clusterName, removedNodes);
+            if (EjbLogger.ROOT_LOGGER.isDebugEnabled()) {
+                EjbLogger.ROOT_LOGGER.debug("Following " + removedNodes.size() + " nodes removed from cluster " + clusterName + ", writing a protocol message to channel " + this.channelReceiver.channelAssociation.getChannel());
+                final StringBuffer sb = new StringBuffer();
+                for (final String nodeName : removedNodes) {
+                    sb.append(nodeName);
+                    sb.append("\n");
                 }
-                clusterTopologyWriter.writeNodesRemoved(outputStream, clusterName, removedNodes);
-            } finally {
-                channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
-                outputStream.close();
+                EjbLogger.ROOT_LOGGER.debug(sb.toString());
             }
+            this.channelReceiver.writeEncodedMessage(message);
         }
 
         private void sendClusterNodesAdded(final Map<String, List<ClientMapping>> addedNodes) throws IOException {
-            final DataOutputStream outputStream;
-            final MessageOutputStream messageOutputStream;
-            try {
-                messageOutputStream = channelAssociation.acquireChannelMessageOutputStream();
-            } catch (Exception e) {
-                throw EjbMessages.MESSAGES.failedToOpenMessageOutputStream(e);
-            }
-            outputStream = new DataOutputStream(messageOutputStream);
             final ClusterTopologyWriter clusterTopologyWriter = new ClusterTopologyWriter();
-            try {
-                if (EjbLogger.ROOT_LOGGER.isDebugEnabled()) {
-                    EjbLogger.ROOT_LOGGER.debug("Following " + addedNodes.size() + " nodes added to cluster " + clusterName + ", writing a protocol message to channel " + this.channelReceiver.channelAssociation.getChannel());
-                    final StringBuffer sb = new StringBuffer();
-                    for (final String nodeName : addedNodes.keySet()) {
-                        sb.append(nodeName);
-                        sb.append("\n");
-                    }
-                    EjbLogger.ROOT_LOGGER.debug(sb.toString());
+            final byte[] message = clusterTopologyWriter.encodeNewNodesAdded(clusterName, addedNodes);
+            if (EjbLogger.ROOT_LOGGER.isDebugEnabled()) {
+                EjbLogger.ROOT_LOGGER.debug("Following " + addedNodes.size() + " nodes added to cluster " + clusterName + ", writing a protocol message to channel " + this.channelReceiver.channelAssociation.getChannel());
+                final StringBuffer sb = new StringBuffer();
+                for (final String nodeName : addedNodes.keySet()) {
+                    sb.append(nodeName);
+                    sb.append("\n");
                 }
-
-                clusterTopologyWriter.writeNewNodesAdded(outputStream, clusterName, addedNodes);
-            } finally {
-                channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
-                outputStream.close();
+                EjbLogger.ROOT_LOGGER.debug(sb.toString());
             }
+            this.channelReceiver.writeEncodedMessage(message);
         }
     }
 }
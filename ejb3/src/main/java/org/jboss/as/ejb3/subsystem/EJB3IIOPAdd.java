@@ -32,8 +32,12 @@ import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.ejb3.deployment.processors.EjbIIOPDeploymentUnitProcessor;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.ServerEnvironmentService;
+import org.jboss.as.server.Services;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 
 /**
@@ -61,7 +65,10 @@ public class EJB3IIOPAdd extends AbstractBoottimeAddStepHandler {
             }
         }, OperationContext.Stage.RUNTIME);
 
-        newControllers.add(context.getServiceTarget().addService(IIOPSettingsService.SERVICE_NAME, settingsService).install());
+        final ServiceBuilder<IIOPSettingsService> builder = context.getServiceTarget().addService(IIOPSettingsService.SERVICE_NAME, settingsService);
+        builder.addDependency(ServerEnvironmentService.SERVICE_NAME, ServerEnvironment.class, settingsService.getServerEnvironmentInjector());
+        Services.addServerExecutorDependency(builder, settingsService.getExecutorInjector(), true);
+        newControllers.add(builder.install());
     }
 
 
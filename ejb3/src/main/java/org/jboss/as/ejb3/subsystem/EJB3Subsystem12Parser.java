@@ -449,7 +449,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
                     break;
 
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    parseStrictMaxPoolAttribute(reader, i, attribute, value, operation);
             }
         }
         requireNoContent(reader);
@@ -463,6 +463,15 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>
         operations.add(operation);
     }
 
+    /**
+     * Parses a strict-max-bean-instance-pool attribute that this schema version does not know about. Later schema
+     * versions override this to handle the attributes they add.
+     */
+    protected void parseStrictMaxPoolAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute,
+                                               final String value, final ModelNode operation) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
     private void parseCaches(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
         // no attributes expected
         requireNoAttributes(reader);
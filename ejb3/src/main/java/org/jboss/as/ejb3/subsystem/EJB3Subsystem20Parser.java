@@ -108,6 +108,18 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         }
     }
 
+    @Override
+    protected void parseStrictMaxPoolAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute,
+                                               final String value, final ModelNode operation) throws XMLStreamException {
+        switch (attribute) {
+            case LOCK_FREE:
+                StrictMaxPoolResourceDefinition.LOCK_FREE.parseAndSetParameter(value, operation, reader);
+                break;
+            default:
+                super.parseStrictMaxPoolAttribute(reader, index, attribute, value, operation);
+        }
+    }
+
     private void parseTimerService(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
 
         final ModelNode address = new ModelNode();
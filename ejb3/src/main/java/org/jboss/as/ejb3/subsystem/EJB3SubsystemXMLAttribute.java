@@ -58,6 +58,8 @@ public enum EJB3SubsystemXMLAttribute {
 
     KEEPALIVE_TIME("keepalive-time"),
 
+    LOCK_FREE("lock-free"),
+
     MAX_POOL_SIZE("max-pool-size"),
     MAX_SIZE("max-size"),
     MAX_THREADS("max-threads"),
@@ -22,11 +22,18 @@
 
 package org.jboss.as.ejb3.subsystem;
 
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+
+import org.jboss.as.ejb3.iiop.stub.DynamicStubFactoryFactory;
+import org.jboss.as.ejb3.iiop.stub.IIOPStubCache;
+import org.jboss.as.server.ServerEnvironment;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
 
 /**
  * Services that manages IIOP settings
@@ -39,6 +46,9 @@ public class IIOPSettingsService implements Service<IIOPSettingsService> {
     private volatile boolean enabledByDefault = false;
     private volatile boolean useQualifiedName = false;
 
+    private final InjectedValue<ServerEnvironment> serverEnvironment = new InjectedValue<ServerEnvironment>();
+    private final InjectedValue<ExecutorService> executor = new InjectedValue<ExecutorService>();
+
     public IIOPSettingsService(final boolean enabledByDefault, final boolean useQualifiedName) {
         this.enabledByDefault = enabledByDefault;
         this.useQualifiedName = useQualifiedName;
@@ -46,12 +56,15 @@ public class IIOPSettingsService implements Service<IIOPSettingsService> {
 
     @Override
     public void start(final StartContext context) throws StartException {
-
+        final ServerEnvironment environment = serverEnvironment.getOptionalValue();
+        if (environment != null) {
+            DynamicStubFactoryFactory.setStubCache(new IIOPStubCache(new File(environment.getServerDataDir(), "iiop-stubs")));
+        }
     }
 
     @Override
     public void stop(final StopContext context) {
-
+        DynamicStubFactoryFactory.setStubCache(null);
     }
 
     @Override
@@ -74,4 +87,20 @@ public class IIOPSettingsService implements Service<IIOPSettingsService> {
     public void setUseQualifiedName(final boolean useQualifiedName) {
         this.useQualifiedName = useQualifiedName;
     }
+
+    public InjectedValue<ServerEnvironment> getServerEnvironmentInjector() {
+        return serverEnvironment;
+    }
+
+    public InjectedValue<ExecutorService> getExecutorInjector() {
+        return executor;
+    }
+
+    /**
+     * @return the executor used to analyse IIOP interfaces of a deployment concurrently, or {@code null} if
+     *         they should be analysed on the deployment thread
+     */
+    public ExecutorService getExecutor() {
+        return executor.getOptionalValue();
+    }
 }
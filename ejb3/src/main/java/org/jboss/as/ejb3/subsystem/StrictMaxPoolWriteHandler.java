@@ -47,7 +47,7 @@ public class StrictMaxPoolWriteHandler extends AbstractWriteAttributeHandler<Voi
 
     private StrictMaxPoolWriteHandler() {
         super(StrictMaxPoolResourceDefinition.MAX_POOL_SIZE, StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT,
-                StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT);
+                StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT, StrictMaxPoolResourceDefinition.LOCK_FREE);
     }
 
     @Override
@@ -78,6 +78,9 @@ public class StrictMaxPoolWriteHandler extends AbstractWriteAttributeHandler<Voi
                 } else if (StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.getName().equals(attributeName)) {
                     String timeoutUnit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.resolveModelAttribute(context, model).asString();
                     smpc.setTimeoutUnit(TimeUnit.valueOf(timeoutUnit));
+                } else if (StrictMaxPoolResourceDefinition.LOCK_FREE.getName().equals(attributeName)) {
+                    boolean lockFree = StrictMaxPoolResourceDefinition.LOCK_FREE.resolveModelAttribute(context, model).asBoolean();
+                    smpc.setLockFree(lockFree);
                 }
             }
         }
@@ -110,6 +110,10 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
     public static final SimpleAttributeDefinition POOL_MAX_SIZE = new SimpleAttributeDefinitionBuilder("pool-max-size", ModelType.INT, false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_WAIT_COUNT = new SimpleAttributeDefinitionBuilder("pool-wait-count", ModelType.LONG, true)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition POOL_WAIT_TIME = new SimpleAttributeDefinitionBuilder("pool-wait-time", ModelType.LONG, true)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
 
     private final EJBComponentType componentType;
 
@@ -137,6 +141,8 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             resourceRegistration.registerReadOnlyAttribute(POOL_REMOVE_COUNT, handler);
             resourceRegistration.registerReadOnlyAttribute(POOL_CURRENT_SIZE, handler);
             resourceRegistration.registerReadWriteAttribute(POOL_MAX_SIZE, handler, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_WAIT_COUNT, handler);
+            resourceRegistration.registerReadOnlyAttribute(POOL_WAIT_TIME, handler);
         }
         resourceRegistration.registerMetric(EXECUTION_TIME, new AbstractRuntimeMetricsHandler() {
             @Override
@@ -37,6 +37,7 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.strictmax.LockFreeStrictMaxPool;
 import org.jboss.as.ejb3.security.EJBSecurityMetaData;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceController;
@@ -53,6 +54,8 @@ import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourc
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_MAX_SIZE;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_NAME;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_REMOVE_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_WAIT_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_WAIT_TIME;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.RUN_AS_ROLE;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.SECURITY_DOMAIN;
 
@@ -167,6 +170,16 @@ public abstract class AbstractEJBComponentRuntimeHandler<T extends EJBComponent>
             if (pool != null) {
                 result.set(pool.getMaxSize());
             }
+        } else if (hasPool && POOL_WAIT_COUNT.getName().equals(attributeName)) {
+            final Pool<?> pool = componentType.getPool(component);
+            if (pool instanceof LockFreeStrictMaxPool) {
+                context.getResult().set(((LockFreeStrictMaxPool<?>) pool).getWaitCount());
+            }
+        } else if (hasPool && POOL_WAIT_TIME.getName().equals(attributeName)) {
+            final Pool<?> pool = componentType.getPool(component);
+            if (pool instanceof LockFreeStrictMaxPool) {
+                context.getResult().set(((LockFreeStrictMaxPool<?>) pool).getWaitTime());
+            }
         } else {
             // Bug; we were registered for an attribute but there is no code for handling it
             throw MESSAGES.unknownAttribute(attributeName);
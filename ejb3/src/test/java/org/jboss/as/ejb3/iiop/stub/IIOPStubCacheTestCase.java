@@ -0,0 +1,195 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.iiop.stub;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link IIOPStubCache}.
+ */
+public class IIOPStubCacheTestCase {
+
+    private static final String STUB_CLASS_NAME = StubCacheTestRemote.class.getName() + "_Stub";
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("iiop-stubs", "");
+        assertTrue(directory.delete());
+    }
+
+    @After
+    public void tearDown() {
+        DynamicStubFactoryFactory.setStubCache(null);
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testRoundTripThroughPersistedCache() throws Exception {
+        DynamicStubFactoryFactory.setStubCache(new IIOPStubCache(directory));
+        final Class<?> generated = DynamicStubFactoryFactory.defineStubClass(StubCacheTestRemote.class, STUB_CLASS_NAME, newClassLoader());
+        assertEquals(STUB_CLASS_NAME, generated.getName());
+        final File[] entries = directory.listFiles();
+        assertEquals(1, entries.length);
+        final long lastModified = entries[0].lastModified();
+
+        // a new cache instance, as after a restart, finds the persisted stub
+        final IIOPStubCache cache = new IIOPStubCache(directory);
+        final byte[] bytecode = cache.get(StubCacheTestRemote.class, STUB_CLASS_NAME);
+        assertNotNull(bytecode);
+        DynamicStubFactoryFactory.setStubCache(cache);
+        final Class<?> cached = DynamicStubFactoryFactory.defineStubClass(StubCacheTestRemote.class, STUB_CLASS_NAME, newClassLoader());
+        assertEquals(STUB_CLASS_NAME, cached.getName());
+        assertTrue(StubCacheTestRemote.class.isAssignableFrom(cached));
+        assertTrue(DynamicIIOPStub.class.isAssignableFrom(cached));
+
+        // the stub was defined from the cache, not generated and stored again
+        assertEquals(Arrays.asList(entries), Arrays.asList(directory.listFiles()));
+        assertEquals(lastModified, entries[0].lastModified());
+        assertArrayEquals(bytecode, cache.get(StubCacheTestRemote.class, STUB_CLASS_NAME));
+    }
+
+    @Test
+    public void testChangedInterfaceMissesCache() throws Exception {
+        final IIOPStubCache cache = new IIOPStubCache(directory);
+        final InterfaceClassLoader loader = new InterfaceClassLoader();
+        final Class<?> intf = loader.loadClass(StubCacheTestRemote.class.getName());
+        assertSame(loader, intf.getClassLoader());
+
+        final String key = cache.key(intf, STUB_CLASS_NAME);
+        assertNotNull(key);
+        assertEquals(key, cache.key(intf, STUB_CLASS_NAME));
+        cache.put(intf, STUB_CLASS_NAME, new byte[] {1, 2, 3});
+        assertArrayEquals(new byte[] {1, 2, 3}, cache.get(intf, STUB_CLASS_NAME));
+
+        // the interface was changed, e.g. by redeploying a new version of the application
+        loader.bytecode = readClass(IIOPStubCacheTestCase.class);
+        assertFalse(key.equals(cache.key(intf, STUB_CLASS_NAME)));
+        assertNull(cache.get(intf, STUB_CLASS_NAME));
+
+        // and so does another stub name for the same interface
+        loader.bytecode = null;
+        assertFalse(key.equals(cache.key(intf, STUB_CLASS_NAME + "2")));
+    }
+
+    @Test
+    public void testCorruptEntryIsGeneratedAgain() throws Exception {
+        final IIOPStubCache cache = new IIOPStubCache(directory);
+        final byte[] corrupt = new byte[] {(byte) 0xca, (byte) 0xfe, 0, 0};
+        cache.put(StubCacheTestRemote.class, STUB_CLASS_NAME, corrupt);
+        DynamicStubFactoryFactory.setStubCache(cache);
+
+        final Class<?> stub = DynamicStubFactoryFactory.defineStubClass(StubCacheTestRemote.class, STUB_CLASS_NAME, newClassLoader());
+        assertEquals(STUB_CLASS_NAME, stub.getName());
+        assertTrue(StubCacheTestRemote.class.isAssignableFrom(stub));
+
+        // the corrupt entry was replaced by the generated stub
+        final byte[] bytecode = cache.get(StubCacheTestRemote.class, STUB_CLASS_NAME);
+        assertFalse(Arrays.equals(corrupt, bytecode));
+        assertTrue(bytecode.length > corrupt.length);
+        assertArrayEquals(new byte[] {(byte) 0xca, (byte) 0xfe, (byte) 0xba, (byte) 0xbe}, Arrays.copyOf(bytecode, 4));
+    }
+
+    private static ClassLoader newClassLoader() {
+        return new ClassLoader(IIOPStubCacheTestCase.class.getClassLoader()) {
+        };
+    }
+
+    private static byte[] readClass(final Class<?> clazz) throws IOException {
+        final InputStream in = clazz.getClassLoader().getResourceAsStream(clazz.getName().replace('.', '/') + ".class");
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Defines its own copy of {@link StubCacheTestRemote}, and can be told to serve other bytecode for it afterwards.
+     */
+    private static final class InterfaceClassLoader extends ClassLoader {
+
+        private final String resourceName = StubCacheTestRemote.class.getName().replace('.', '/') + ".class";
+        volatile byte[] bytecode;
+
+        InterfaceClassLoader() {
+            super(IIOPStubCacheTestCase.class.getClassLoader());
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(StubCacheTestRemote.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) {
+                try {
+                    final byte[] bytes = readClass(StubCacheTestRemote.class);
+                    clazz = defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+            return clazz;
+        }
+
+        @Override
+        public InputStream getResourceAsStream(final String name) {
+            final byte[] bytes = this.bytecode;
+            if (bytes != null && name.equals(resourceName)) {
+                return new ByteArrayInputStream(bytes);
+            }
+            return super.getResourceAsStream(name);
+        }
+    }
+}
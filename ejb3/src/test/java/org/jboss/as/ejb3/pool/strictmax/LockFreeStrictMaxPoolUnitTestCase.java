@@ -0,0 +1,186 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.pool.strictmax;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ejb.EJBException;
+
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.common.MockBean;
+import org.jboss.as.ejb3.pool.common.MockFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the max size and timeout behaviour of the {@link LockFreeStrictMaxPool}.
+ */
+public class LockFreeStrictMaxPoolUnitTestCase {
+
+    @Before
+    public void reset() {
+        MockBean.reset();
+    }
+
+    @Test
+    public void testInstancesAreReused() {
+        final Pool<MockBean> pool = new LockFreeStrictMaxPool<MockBean>(new MockFactory(), 10, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        final MockBean bean = pool.get();
+        pool.release(bean);
+        for (int i = 0; i < 100; i++) {
+            final MockBean next = pool.get();
+            assertSame(bean, next);
+            pool.release(next);
+        }
+        assertEquals(1, pool.getCreateCount());
+
+        final MockBean[] beans = new MockBean[10];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+        }
+        assertEquals(0, pool.getAvailableCount());
+        for (MockBean b : beans) {
+            pool.release(b);
+        }
+        assertEquals(10, pool.getAvailableCount());
+        assertEquals(10, pool.getCurrentSize());
+
+        pool.stop();
+
+        assertEquals(10, MockBean.getPostConstructs());
+        assertEquals(10, MockBean.getPreDestroys());
+        assertEquals(0, pool.getCurrentSize());
+    }
+
+    @Test
+    public void testTimeout() {
+        final LockFreeStrictMaxPool<MockBean> pool = new LockFreeStrictMaxPool<MockBean>(new MockFactory(), 2, 100, TimeUnit.MILLISECONDS);
+        pool.start();
+
+        final MockBean first = pool.get();
+        final MockBean second = pool.get();
+        assertEquals(0, pool.getWaitCount());
+        try {
+            pool.get();
+            fail("should have thrown an exception");
+        } catch (EJBException expected) {
+        }
+        assertEquals(1, pool.getWaitCount());
+        assertTrue(pool.getWaitTime() >= 50);
+
+        pool.release(first);
+        pool.release(second);
+        pool.stop();
+
+        assertEquals(2, MockBean.getPostConstructs());
+        assertEquals(2, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void testDiscard() {
+        final Pool<MockBean> pool = new LockFreeStrictMaxPool<MockBean>(new MockFactory(), 1, 1, TimeUnit.SECONDS);
+        pool.start();
+
+        pool.discard(pool.get());
+        assertEquals(1, pool.getAvailableCount());
+        assertEquals(0, pool.getCurrentSize());
+
+        // the discarded instance must not count against the max size any more
+        pool.release(pool.get());
+        pool.stop();
+
+        assertEquals(2, MockBean.getPostConstructs());
+        assertEquals(2, MockBean.getPreDestroys());
+    }
+
+    /**
+     * Many more threads than the pool size, which must never hand out more than max size instances at a time.
+     */
+    @Test
+    public void testMultiThread() throws Exception {
+        for (int threads = 1; threads <= 128; threads <<= 1) {
+            MockBean.reset();
+            testMultiThread(threads);
+        }
+    }
+
+    private void testMultiThread(final int threads) throws Exception {
+        final int maxSize = 10;
+        final Pool<MockBean> pool = new LockFreeStrictMaxPool<MockBean>(new MockFactory(), maxSize, 60, TimeUnit.SECONDS);
+        pool.start();
+
+        final AtomicInteger inUse = new AtomicInteger();
+        final AtomicInteger maxInUse = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final Callable<Void> task = new Callable<Void>() {
+            public Void call() throws Exception {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    final MockBean bean = pool.get();
+                    final int current = inUse.incrementAndGet();
+                    int max;
+                    while (current > (max = maxInUse.get()) && !maxInUse.compareAndSet(max, current)) {
+                    }
+                    inUse.decrementAndGet();
+                    pool.release(bean);
+                }
+                return null;
+            }
+        };
+
+        final ExecutorService service = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Void>> results = new ArrayList<Future<Void>>();
+            for (int i = 0; i < threads; i++) {
+                results.add(service.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            service.shutdown();
+        }
+        pool.stop();
+
+        assertTrue(maxInUse.get() <= maxSize);
+        assertTrue(pool.getCreateCount() <= maxSize);
+        assertEquals(maxSize, pool.getAvailableCount());
+        assertEquals(MockBean.getPostConstructs(), MockBean.getPreDestroys());
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote.protocol.versionone;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.clustering.registry.Registry;
+import org.jboss.as.network.ClientMapping;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests that {@link ClusterTopologyWriter} encodes a topology message once and reuses it while the topology is unchanged.
+ */
+public class ClusterTopologyWriterTestCase {
+
+    private final ClusterTopologyWriter writer = new ClusterTopologyWriter();
+
+    @Test
+    public void testCompleteClusterTopologyEncodedOnce() throws IOException {
+        final TestSnapshot snapshot = new TestSnapshot(1L, Collections.singletonMap("node1", mappings(8080)));
+        final Registry<String, List<ClientMapping>> registry = registry("ejb", snapshot);
+        final Collection<Registry<String, List<ClientMapping>>> registries = Collections.singleton(registry);
+
+        final byte[] first = this.writer.encodeCompleteClusterTopology(registries);
+        assertSame(first, this.writer.encodeCompleteClusterTopology(registries));
+        // the topology is only read once per snapshot
+        assertEquals(1, snapshot.reads);
+        assertArrayEquals(writeCompleteClusterTopology(registries), first);
+
+        // a new snapshot is encoded again
+        final Map<String, List<ClientMapping>> entries = new HashMap<String, List<ClientMapping>>();
+        entries.put("node1", mappings(8080));
+        entries.put("node2", mappings(8180));
+        Mockito.when(registry.getSnapshot()).thenReturn(new TestSnapshot(2L, entries));
+
+        final byte[] second = this.writer.encodeCompleteClusterTopology(registries);
+        assertNotSame(first, second);
+        assertFalse(Arrays.equals(first, second));
+        assertArrayEquals(writeCompleteClusterTopology(registries), second);
+    }
+
+    @Test
+    public void testCompleteClusterTopologyOfOtherClusters() throws IOException {
+        final Registry<String, List<ClientMapping>> registry1 = registry("ejb1", new TestSnapshot(1L, Collections.singletonMap("node1", mappings(8080))));
+        final Map<String, List<ClientMapping>> entries = new HashMap<String, List<ClientMapping>>();
+        entries.put("node1", mappings(8080));
+        entries.put("node2", mappings(8180));
+        final Registry<String, List<ClientMapping>> registry2 = registry("ejb2", new TestSnapshot(1L, entries));
+
+        final byte[] first = this.writer.encodeCompleteClusterTopology(Collections.singleton(registry1));
+        final byte[] second = this.writer.encodeCompleteClusterTopology(Collections.singleton(registry2));
+        assertNotSame(first, second);
+        assertArrayEquals(writeCompleteClusterTopology(Collections.singleton(registry2)), second);
+        // encoding another cluster does not evict the topology of the first one
+        assertSame(first, this.writer.encodeCompleteClusterTopology(Collections.singleton(registry1)));
+
+        // the message of several clusters is assembled from the topology of each cluster
+        final Collection<Registry<String, List<ClientMapping>>> registries = Arrays.asList(registry1, registry2);
+        assertArrayEquals(writeCompleteClusterTopology(registries), this.writer.encodeCompleteClusterTopology(registries));
+    }
+
+    @Test
+    public void testNodesAddedEncodedOnce() throws IOException {
+        final Map<String, List<ClientMapping>> added = Collections.singletonMap("node3", mappings(8280));
+
+        final byte[] first = this.writer.encodeNewNodesAdded("ejb", added);
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(expected);
+        this.writer.writeNewNodesAdded(output, "ejb", added);
+        output.flush();
+        assertArrayEquals(expected.toByteArray(), first);
+        // every listener is passed the same client mappings
+        assertSame(first, this.writer.encodeNewNodesAdded("ejb", Collections.singletonMap("node3", added.get("node3"))));
+        assertNotSame(first, this.writer.encodeNewNodesAdded("other", added));
+        // the message of another cluster does not evict this one
+        assertSame(first, this.writer.encodeNewNodesAdded("ejb", added));
+    }
+
+    @Test
+    public void testNodesRemovedEncodedOnce() throws IOException {
+        final Set<String> removed = new HashSet<String>(Arrays.asList("node1", "node2"));
+
+        final byte[] first = this.writer.encodeNodesRemoved("ejb", removed);
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(expected);
+        this.writer.writeNodesRemoved(output, "ejb", removed);
+        output.flush();
+        assertArrayEquals(expected.toByteArray(), first);
+        assertSame(first, this.writer.encodeNodesRemoved("ejb", new HashSet<String>(removed)));
+        assertNotSame(first, this.writer.encodeNodesRemoved("other", removed));
+        assertSame(first, this.writer.encodeNodesRemoved("ejb", removed));
+        assertNotSame(first, this.writer.encodeNodesRemoved("ejb", Collections.singleton("node1")));
+    }
+
+    @Test
+    public void testEmptyMessages() throws IOException {
+        assertEquals(0, this.writer.encodeCompleteClusterTopology(Collections.<Registry<String, List<ClientMapping>>>emptySet()).length);
+        assertEquals(0, this.writer.encodeNewNodesAdded("ejb", Collections.<String, List<ClientMapping>>emptyMap()).length);
+        assertEquals(0, this.writer.encodeNodesRemoved("ejb", Collections.<String>emptySet()).length);
+    }
+
+    private byte[] writeCompleteClusterTopology(final Collection<Registry<String, List<ClientMapping>>> registries) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        this.writer.writeCompleteClusterTopology(output, registries);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Registry<String, List<ClientMapping>> registry(final String name, final Registry.Snapshot<String, List<ClientMapping>> snapshot) {
+        final Registry<String, List<ClientMapping>> registry = Mockito.mock(Registry.class);
+        Mockito.when(registry.getName()).thenReturn(name);
+        Mockito.when(registry.getSnapshot()).thenReturn(snapshot);
+        return registry;
+    }
+
+    private static List<ClientMapping> mappings(final int port) throws IOException {
+        return Collections.singletonList(new ClientMapping(InetAddress.getByName("0.0.0.0"), 0, "127.0.0.1", port));
+    }
+
+    private static class TestSnapshot implements Registry.Snapshot<String, List<ClientMapping>> {
+        private final long version;
+        private final Map<String, List<ClientMapping>> entries;
+        private final ConcurrentMap<Object, Object> attachments = new ConcurrentHashMap<Object, Object>();
+        volatile int reads;
+
+        TestSnapshot(final long version, final Map<String, List<ClientMapping>> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+
+        @Override
+        public long getVersion() {
+            return this.version;
+        }
+
+        @Override
+        public Map<String, List<ClientMapping>> getEntries() {
+            this.reads++;
+            return this.entries;
+        }
+
+        @Override
+        public Object getAttachment(final Object key) {
+            return this.attachments.get(key);
+        }
+
+        @Override
+        public Object putAttachmentIfAbsent(final Object key, final Object value) {
+            return this.attachments.putIfAbsent(key, value);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Bounded journal of the committed changes to the domain model of the master host controller.
+ * <p>
+ * Each committed change to the domain wide part of the model increments the revision of the model and records
+ * the top level resources it affected. A slave which reports the revision it last synchronized with can then be
+ * sent only the top level resources changed since then, instead of the whole domain model. The revision is
+ * qualified by a random epoch, which changes whenever the domain controller is (re)started, so a revision handed
+ * out by an earlier incarnation of the domain controller is never mistaken for a current one.
+ */
+public final class DomainModelJournal {
+
+    public static final String EPOCH = "epoch";
+    public static final String REVISION = "revision";
+
+    static final int DEFAULT_CAPACITY = 1000;
+
+    private final long epoch;
+    private final int capacity;
+    private final Deque<Entry> entries = new ArrayDeque<Entry>();
+    private long revision;
+
+    public DomainModelJournal() {
+        this(new SecureRandom().nextLong(), DEFAULT_CAPACITY);
+    }
+
+    DomainModelJournal(final long epoch, final int capacity) {
+        this.epoch = epoch;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records a committed change to the model.
+     *
+     * @param affectedAddresses the addresses of the resources affected by the change
+     */
+    public synchronized void record(final Collection<PathAddress> affectedAddresses) {
+        final Set<PathElement> elements = new HashSet<PathElement>();
+        for (final PathAddress address : affectedAddresses) {
+            // the root resource is always sent, and the hosts are not part of the domain wide model
+            if (address.size() > 0 && !HOST.equals(address.getElement(0).getKey())) {
+                elements.add(address.getElement(0));
+            }
+        }
+        if (elements.isEmpty()) {
+            return;
+        }
+        entries.addLast(new Entry(++revision, elements));
+        if (entries.size() > capacity) {
+            entries.removeFirst();
+        }
+    }
+
+    /**
+     * Gets the current revision of the model.
+     *
+     * @return the revision, with its epoch
+     */
+    public synchronized ModelNode getCurrentRevision() {
+        final ModelNode result = new ModelNode();
+        result.get(EPOCH).set(epoch);
+        result.get(REVISION).set(revision);
+        return result;
+    }
+
+    /**
+     * Gets the top level resources changed since the given revision.
+     *
+     * @param since a revision previously obtained from {@link #getCurrentRevision()}
+     * @return the top level resources which changed, or {@code null} if the changes since the given revision are
+     *         unknown, because the revision is from another epoch or the journal no longer covers it
+     */
+    public synchronized Set<PathElement> getChangedSince(final ModelNode since) {
+        if (since == null || !since.hasDefined(EPOCH) || !since.hasDefined(REVISION) || since.get(EPOCH).asLong() != epoch) {
+            return null;
+        }
+        final long sinceRevision = since.get(REVISION).asLong();
+        if (sinceRevision > revision || sinceRevision < 0) {
+            return null;
+        }
+        final Set<PathElement> result = new HashSet<PathElement>();
+        if (sinceRevision == revision) {
+            return result;
+        }
+        if (entries.isEmpty() || entries.getFirst().revision > sinceRevision + 1) {
+            // the journal rolled over
+            return null;
+        }
+        final Iterator<Entry> iterator = entries.descendingIterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (entry.revision <= sinceRevision) {
+                break;
+            }
+            result.addAll(entry.elements);
+        }
+        return result;
+    }
+
+    private static final class Entry {
+        private final long revision;
+        private final Set<PathElement> elements;
+
+        private Entry(final long revision, final Set<PathElement> elements) {
+            this.revision = revision;
+            this.elements = elements;
+        }
+    }
+}
@@ -29,16 +29,23 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXT
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HASH;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_CLIENT_CONTENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PATH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLOUT_PLAN;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLOUT_PLANS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
 import static org.jboss.as.domain.controller.DomainControllerLogger.ROOT_LOGGER;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -54,7 +61,6 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
-import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
@@ -80,6 +86,9 @@ import org.jboss.dmr.ModelNode;
  *      had with boot operations of the domain model following the applied changes.</li>
  * </ul>
  *
+ * If the master only sent the top level resources which changed since we last synchronized, only those top level
+ * resources are replaced, otherwise the whole domain model is.
+ *
  * {@link ApplyMissingDomainModelResourcesHandler} contains similar functionality for when config is changed at runtime to bring it into the domain model.
  *
  * @author John Bailey
@@ -93,6 +102,10 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
         .setPrivateEntry()
         .build();
 
+    // Extensions are handled in ApplyExtensionsHandler
+    private static final Set<String> REPLACED_TYPES = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(
+            PATH, SYSTEM_PROPERTY, PROFILE, INTERFACE, SOCKET_BINDING_GROUP, DEPLOYMENT, SERVER_GROUP)));
+
     protected final DomainController domainController;
     protected final HostControllerEnvironment hostControllerEnvironment;
     protected final LocalHostControllerInfo localHostInfo;
@@ -126,11 +139,17 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
         final Set<String> relevantDeployments = new HashSet<String>();
         final Set<byte[]> requiredContent = new HashSet<byte[]>();
 
+        final Set<PathElement> delta = getDelta(domainModel);
         final Resource rootResource = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS);
-        clearDomain(rootResource);
+        clearDomain(rootResource, delta);
 
         for (final ModelNode resourceDescription : domainModel.asList()) {
 
+            if (resourceDescription.has(ReadMasterDomainModelUtil.DOMAIN_MODEL_REVISION)) {
+                // Not a resource, see getDelta()
+                continue;
+            }
+
             final PathAddress resourceAddress = PathAddress.pathAddress(resourceDescription.require(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_ADDRESS));
 
             if (ignoredResourceRegistry.isResourceExcluded(resourceAddress)) {
@@ -150,20 +169,7 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
                 PathElement pe = resourceAddress.getElement(0);
                 String peKey = pe.getKey();
                 if (peKey.equals(DEPLOYMENT)) {
-                    ModelNode model = resource.getModel();
-                    String id = resourceAddress.getElement(0).getValue();
-                    if (model.hasDefined(CONTENT)) {
-                        for (ModelNode contentItem : model.get(CONTENT).asList()) {
-                            if (contentItem.hasDefined(HASH)) {
-                                Set<byte[]> hashes = deploymentHashes.get(id);
-                                if (hashes == null) {
-                                    hashes = new HashSet<byte[]>();
-                                    deploymentHashes.put(id, hashes);
-                                }
-                                hashes.add(contentItem.get(HASH).asBytes());
-                            }
-                        }
-                    }
+                    addDeploymentHashes(resourceAddress.getElement(0).getValue(), resource.getModel(), deploymentHashes);
                 } else if (peKey.equals(MANAGEMENT_CLIENT_CONTENT)) {
                     // We need to pull over management content from the master HC's repo
                     ModelNode model = resource.getModel();
@@ -180,6 +186,22 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
             }
         }
 
+        if (delta != null) {
+            // Unchanged server groups and deployments were not sent, so check the content of those we already have as well
+            for (String group : ourServerGroups) {
+                final Resource serverGroup = rootResource.getChild(PathElement.pathElement(SERVER_GROUP, group));
+                if (serverGroup != null) {
+                    relevantDeployments.addAll(serverGroup.getChildrenNames(DEPLOYMENT));
+                }
+            }
+            for (String id : relevantDeployments) {
+                final Resource deployment = rootResource.getChild(PathElement.pathElement(DEPLOYMENT, id));
+                if (deployment != null && !deploymentHashes.containsKey(id)) {
+                    addDeploymentHashes(id, deployment.getModel(), deploymentHashes);
+                }
+            }
+        }
+
         // Make sure we have all needed deployment and management client content
         for (String id : relevantDeployments) {
             Set<byte[]> hashes = deploymentHashes.remove(id);
@@ -199,28 +221,58 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
         context.stepCompleted();
     }
 
-    private void clearDomain(final Resource rootResource) {
-        // Extensions are handled in ApplyExtensionsHandler
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.PATH)) {
-            rootResource.removeChild(entry.getPathElement());
+    /**
+     * Gets the top level resources to replace, if the master only sent those which changed since we last synchronized.
+     * In that case the described resources are preceded by an entry holding the revision of the domain model and the
+     * addresses of the changed top level resources.
+     *
+     * @param domainModel the described resources
+     * @return the top level resources to replace, or {@code null} if the whole domain model was sent
+     */
+    private static Set<PathElement> getDelta(final ModelNode domainModel) {
+        final List<ModelNode> descriptions = domainModel.asList();
+        if (descriptions.isEmpty()) {
+            return null;
         }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.SYSTEM_PROPERTY)) {
-            rootResource.removeChild(entry.getPathElement());
+        final ModelNode first = descriptions.get(0);
+        if (!first.has(ReadMasterDomainModelUtil.DOMAIN_MODEL_REVISION) || !first.hasDefined(ReadMasterDomainModelUtil.DOMAIN_MODEL_DELTA)) {
+            return null;
         }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.PROFILE)) {
-            rootResource.removeChild(entry.getPathElement());
+        final Set<PathElement> delta = new HashSet<PathElement>();
+        for (ModelNode address : first.get(ReadMasterDomainModelUtil.DOMAIN_MODEL_DELTA).asList()) {
+            delta.add(PathAddress.pathAddress(address).getElement(0));
         }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.INTERFACE)) {
-            rootResource.removeChild(entry.getPathElement());
-        }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.SOCKET_BINDING_GROUP)) {
-            rootResource.removeChild(entry.getPathElement());
-        }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.DEPLOYMENT)) {
-            rootResource.removeChild(entry.getPathElement());
+        return delta;
+    }
+
+    private void clearDomain(final Resource rootResource, final Set<PathElement> delta) {
+        if (delta == null) {
+            for (String type : REPLACED_TYPES) {
+                for (Resource.ResourceEntry entry : rootResource.getChildren(type)) {
+                    rootResource.removeChild(entry.getPathElement());
+                }
+            }
+        } else {
+            for (PathElement element : delta) {
+                if (REPLACED_TYPES.contains(element.getKey()) && rootResource.hasChild(element)) {
+                    rootResource.removeChild(element);
+                }
+            }
         }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.SERVER_GROUP)) {
-            rootResource.removeChild(entry.getPathElement());
+    }
+
+    private static void addDeploymentHashes(final String id, final ModelNode model, final Map<String, Set<byte[]>> deploymentHashes) {
+        if (model.hasDefined(CONTENT)) {
+            for (ModelNode contentItem : model.get(CONTENT).asList()) {
+                if (contentItem.hasDefined(HASH)) {
+                    Set<byte[]> hashes = deploymentHashes.get(id);
+                    if (hashes == null) {
+                        hashes = new HashSet<byte[]>();
+                        deploymentHashes.put(id, hashes);
+                    }
+                    hashes.add(contentItem.get(HASH).asBytes());
+                }
+            }
         }
     }
 
@@ -22,12 +22,16 @@
 
 package org.jboss.as.domain.controller.operations;
 
+import java.util.Set;
+
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.transform.Transformers;
+import org.jboss.as.domain.controller.DomainModelJournal;
 import org.jboss.as.host.controller.mgmt.DomainControllerRuntimeIgnoreTransformationRegistry;
 import org.jboss.dmr.ModelNode;
 
@@ -35,6 +39,12 @@ import org.jboss.dmr.ModelNode;
  * Step handler responsible for collecting a complete description of the domain model,
  * which is going to be sent back to a remote host-controller. This is called when the
  * remote slave boots up or when it reconnects to the DC
+ * <p>
+ * If the slave reported the revision of the domain model it last synchronized with, the described resources are
+ * preceded by an entry holding the current {@link ReadMasterDomainModelUtil#DOMAIN_MODEL_REVISION revision}. If the
+ * changes since the slave's revision are still known, that entry also lists the changed top level resources as
+ * {@link ReadMasterDomainModelUtil#DOMAIN_MODEL_DELTA delta}, and only the root resource and the changed top level
+ * resources are described.
  *
  * @author John Bailey
  * @author Kabir Khan
@@ -46,11 +56,24 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
     protected final String host;
     protected final Transformers transformers;
     protected final DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry;
+    private final DomainModelJournal journal;
+    private final ModelNode slaveRevision;
 
     public ReadMasterDomainModelHandler(final String host, final Transformers transformers, DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry) {
+        this(host, transformers, runtimeIgnoreTransformationRegistry, null, null);
+    }
+
+    /**
+     * @param journal the journal of the domain model changes, may be {@code null}
+     * @param slaveRevision the revision reported by the slave, or {@code null} if the slave does not support incremental synchronization
+     */
+    public ReadMasterDomainModelHandler(final String host, final Transformers transformers, DomainControllerRuntimeIgnoreTransformationRegistry runtimeIgnoreTransformationRegistry,
+                                        final DomainModelJournal journal, final ModelNode slaveRevision) {
         this.host = host;
         this.transformers = transformers;
         this.runtimeIgnoreTransformationRegistry = runtimeIgnoreTransformationRegistry;
+        this.journal = journal;
+        this.slaveRevision = slaveRevision;
     }
 
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -59,7 +82,31 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
 
         final Resource rootResource = context.readResource(PathAddress.EMPTY_ADDRESS,true);
         final ReadMasterDomainModelUtil readUtil = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(context, transformers, rootResource, runtimeIgnoreTransformationRegistry);
-        context.getResult().set(readUtil.getDescribedResources());
+        if (journal == null || slaveRevision == null) {
+            context.getResult().set(readUtil.getDescribedResources());
+        } else {
+            // With the controller lock held the revision matches the described model
+            final ModelNode revisionEntry = new ModelNode();
+            revisionEntry.get(ReadMasterDomainModelUtil.DOMAIN_MODEL_REVISION).set(journal.getCurrentRevision());
+            final Set<PathElement> changed = journal.getChangedSince(slaveRevision);
+            if (changed != null) {
+                final ModelNode delta = revisionEntry.get(ReadMasterDomainModelUtil.DOMAIN_MODEL_DELTA).setEmptyList();
+                for (final PathElement element : changed) {
+                    delta.add(PathAddress.pathAddress(element).toModelNode());
+                }
+            }
+            final ModelNode result = context.getResult().setEmptyList();
+            result.add(revisionEntry);
+            for (final ModelNode description : readUtil.getDescribedResources()) {
+                if (changed != null) {
+                    final PathAddress address = PathAddress.pathAddress(description.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_ADDRESS));
+                    if (address.size() > 0 && !changed.contains(address.getElement(0))) {
+                        continue;
+                    }
+                }
+                result.add(description);
+            }
+        }
 
         context.completeStep(new OperationContext.ResultHandler() {
             @Override
@@ -51,6 +51,17 @@ public class ReadMasterDomainModelUtil {
 
     public static final String DOMAIN_RESOURCE_MODEL = "domain-resource-model";
 
+    /**
+     * The revision of the domain model. Sent by slaves supporting incremental synchronization when registering, and
+     * by the master in the leading entry of the described resources sent to them.
+     */
+    public static final String DOMAIN_MODEL_REVISION = "domain-model-revision";
+
+    /**
+     * The addresses of the top level resources replaced by an incremental synchronization of the domain model.
+     */
+    public static final String DOMAIN_MODEL_DELTA = "domain-model-delta";
+
     private final Set<PathElement> newRootResources = new HashSet<>();
 
     private volatile List<ModelNode> describedResources;
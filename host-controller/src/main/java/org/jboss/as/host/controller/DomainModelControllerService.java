@@ -85,6 +85,7 @@ import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.services.path.PathManagerService;
 import org.jboss.as.controller.transform.Transformers;
 import org.jboss.as.domain.controller.DomainController;
+import org.jboss.as.domain.controller.DomainModelJournal;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
 import org.jboss.as.domain.controller.operations.ApplyMissingDomainModelResourcesHandler;
@@ -154,6 +155,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
     }
 
     private volatile HostControllerConfigurationPersister hostControllerConfigurationPersister;
+    private volatile DomainModelJournal domainModelJournal;
     private final HostControllerEnvironment environment;
     private final HostRunningModeControl runningModeControl;
     private final LocalHostControllerInfoImpl hostControllerInfo;
@@ -386,7 +388,8 @@ public class DomainModelControllerService extends AbstractControllerService impl
     @Override
     public void start(StartContext context) throws StartException {
         final ExecutorService executorService = getExecutorServiceInjector().getValue();
-        this.hostControllerConfigurationPersister = new HostControllerConfigurationPersister(environment, hostControllerInfo, executorService, extensionRegistry);
+        this.domainModelJournal = new DomainModelJournal();
+        this.hostControllerConfigurationPersister = new HostControllerConfigurationPersister(environment, hostControllerInfo, executorService, extensionRegistry, domainModelJournal);
         setConfigurationPersister(hostControllerConfigurationPersister);
         prepareStepHandler.setExecutorService(executorService);
         ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("proxy-threads"), Boolean.FALSE, null, "%G - %t", null, null, doPrivileged(GetAccessControlContextAction.getInstance()));
@@ -498,7 +501,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
                     if (ok) {
                         InternalExecutor executor = new InternalExecutor();
                         ManagementRemotingServices.installManagementChannelServices(serviceTarget, ManagementRemotingServices.MANAGEMENT_ENDPOINT,
-                                new MasterDomainControllerOperationHandlerService(this, executor, executor, runtimeIgnoreTransformationRegistry),
+                                new MasterDomainControllerOperationHandlerService(this, executor, executor, runtimeIgnoreTransformationRegistry, domainModelJournal),
                                 DomainModelControllerService.SERVICE_NAME, ManagementRemotingServices.DOMAIN_CHANNEL, null, null);
                         serverInventory = getFuture(inventoryFuture);
                     }
@@ -806,6 +809,21 @@ public class DomainModelControllerService extends AbstractControllerService impl
         public void awaitServersState(Collection<String> serverNames, boolean started) {
             serverInventory.awaitServersState(serverNames, started);
         }
+
+        @Override
+        public void startServers(Map<String, String> serverGroups, ModelNode domainModel, ServerStartPolicy policy) {
+            serverInventory.startServers(serverGroups, domainModel, policy);
+        }
+
+        @Override
+        public long getServerLaunchTime(String serverName) {
+            return serverInventory.getServerLaunchTime(serverName);
+        }
+
+        @Override
+        public long getServerStartDuration(String serverName) {
+            return serverInventory.getServerStartDuration(serverName);
+        }
     }
 
     private static <S> S service(final Class<S> service) {
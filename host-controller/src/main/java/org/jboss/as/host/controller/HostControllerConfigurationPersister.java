@@ -37,6 +37,7 @@ import org.jboss.as.controller.persistence.ConfigurationFile;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
+import org.jboss.as.domain.controller.DomainModelJournal;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementWriter;
@@ -54,10 +55,21 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
     private final LocalHostControllerInfo hostControllerInfo;
     private final ExecutorService executorService;
     private final ExtensionRegistry extensionRegistry;
+    private final DomainModelJournal domainModelJournal;
     private Boolean slave;
 
     public HostControllerConfigurationPersister(final HostControllerEnvironment environment, final LocalHostControllerInfo localHostControllerInfo,
                                                 final ExecutorService executorService, final ExtensionRegistry extensionRegistry) {
+        this(environment, localHostControllerInfo, executorService, extensionRegistry, null);
+    }
+
+    /**
+     * @param domainModelJournal journal recording the committed changes to the domain model, may be {@code null}
+     */
+    public HostControllerConfigurationPersister(final HostControllerEnvironment environment, final LocalHostControllerInfo localHostControllerInfo,
+                                                final ExecutorService executorService, final ExtensionRegistry extensionRegistry,
+                                                final DomainModelJournal domainModelJournal) {
+        this.domainModelJournal = domainModelJournal;
         this.environment = environment;
         this.hostControllerInfo = localHostControllerInfo;
         this.executorService = executorService;
@@ -114,7 +126,7 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
     }
 
     @Override
-    public PersistenceResource store(ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
+    public PersistenceResource store(ModelNode model, final Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
         final PersistenceResource[] delegates = new PersistenceResource[2];
         for (PathAddress addr : affectedAddresses) {
             if (delegates[0] == null && addr.size() > 0 && HOST.equals(addr.getElement(0).getKey()) && addr.getElement(0).getValue().equals(hostControllerInfo.getLocalHostName())) {
@@ -138,6 +150,9 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
                 }
                 if (delegates[1] != null) {
                     delegates[1].commit();
+                    if (domainModelJournal != null) {
+                        domainModelJournal.record(affectedAddresses);
+                    }
                 }
             }
 
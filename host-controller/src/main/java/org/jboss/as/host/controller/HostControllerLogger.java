@@ -437,4 +437,36 @@ public interface HostControllerLogger extends BasicLogger {
     @LogMessage(level = Level.ERROR)
     @Message(id=16537, value = "Could not remove S3 file. Error was: %s")
     void cannotRemoveS3File(Exception e);
+
+    /**
+     * Logs a warning message indicating that a server start policy property has an invalid value.
+     *
+     * @param value        the invalid value
+     * @param property     the name of the system property
+     * @param defaultValue the value used instead
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id=16541, value = "Invalid value '%s' for system property %s, using %s instead")
+    void invalidServerStartPolicyProperty(String value, String property, Object defaultValue);
+
+    /**
+     * Logs an informational message indicating that the start of a server is delayed as the host
+     * is short of memory or CPU.
+     *
+     * @param serverName the name of the server
+     */
+    @LogMessage(level = Level.INFO)
+    @Message(id=16542, value = "Delaying the start of server %s until enough memory and CPU is available")
+    void delayingServerStart(String serverName);
+
+    /**
+     * Logs a warning message indicating that a server is started although the host is still short of
+     * memory or CPU.
+     *
+     * @param serverName the name of the server
+     * @param timeout    the time waited, in seconds
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id=16543, value = "Starting server %s although the host is still short of memory or CPU after %d seconds")
+    void startingServerWithoutResources(String serverName, long timeout);
 }
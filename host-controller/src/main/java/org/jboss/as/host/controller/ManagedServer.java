@@ -36,6 +36,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.CurrentOperationIdHolder;
 import org.jboss.as.controller.PathAddress;
@@ -117,6 +118,10 @@ class ManagedServer {
     private volatile InternalState requiredState = InternalState.STOPPED;
     private volatile InternalState internalState = InternalState.STOPPED;
 
+    private volatile long launchTime = -1;
+    private volatile long launchNanos;
+    private volatile long startDuration = -1;
+
     // Get the current operation id when the server is created
     // This is only used when starting a server, reconnection might not be triggered using a mgmt operation
     private final int operationID = CurrentOperationIdHolder.getCurrentOperationID();
@@ -240,9 +245,30 @@ class ManagedServer {
         }
         this.requiredState = InternalState.SERVER_STARTED;
         ROOT_LOGGER.startingServer(serverName);
+        this.launchTime = System.currentTimeMillis();
+        this.launchNanos = System.nanoTime();
+        this.startDuration = -1;
         transition();
     }
 
+    /**
+     * Get the time the server process was last launched by {@link #start()}.
+     *
+     * @return the launch time in milliseconds since the epoch, or {@code -1} if the server was not launched
+     */
+    public long getLaunchTime() {
+        return launchTime;
+    }
+
+    /**
+     * Get the time it took the server to start, from the launch until the server reported to be started.
+     *
+     * @return the start duration in milliseconds, or {@code -1} if the server did not start since the last launch
+     */
+    public long getStartDuration() {
+        return startDuration;
+    }
+
     /**
      * Stop a managed server.
      */
@@ -335,6 +361,10 @@ class ManagedServer {
                 if(expected == current) {
                     return true;
                 }
+                // Stop in case the server failed to start, nothing more is going to happen
+                if(expected == InternalState.SERVER_STARTED && current == InternalState.FAILED) {
+                    return false;
+                }
                 try {
                     wait();
                 } catch(InterruptedException e) {
@@ -389,7 +419,11 @@ class ManagedServer {
     }
 
     protected synchronized void serverStarted(final TransitionTask task) {
-        internalSetState(task, InternalState.SERVER_STARTING, InternalState.SERVER_STARTED);
+        if (internalSetState(task, InternalState.SERVER_STARTING, InternalState.SERVER_STARTED) && launchNanos != 0) {
+            // Only measured once per launch, i.e. not for reloads
+            startDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launchNanos);
+            launchNanos = 0;
+        }
     }
 
     protected synchronized void serverStartFailed() {
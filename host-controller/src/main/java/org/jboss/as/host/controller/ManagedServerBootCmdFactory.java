@@ -136,6 +136,8 @@ public class ManagedServerBootCmdFactory implements ManagedServerBootConfigurati
             return null;
         }
         try {
+            // The resolver hands back its argument if there is nothing to resolve, and get() on the result
+            // adds missing children, so never pass it the domain or host model itself
             return expressionResolver.resolveExpressions(unresolved.clone());
         } catch (OperationFailedException e) {
             // Fail
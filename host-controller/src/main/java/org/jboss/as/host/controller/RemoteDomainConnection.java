@@ -39,6 +39,7 @@ import javax.security.auth.callback.CallbackHandler;
 
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
+import org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil;
 import org.jboss.as.domain.management.CallbackHandlerFactory;
 import org.jboss.as.domain.management.SecurityRealm;
 import org.jboss.as.host.controller.discovery.DiscoveryOption;
@@ -110,6 +111,8 @@ class RemoteDomainConnection extends FutureManagementChannel {
     private final List<DiscoveryOption> discoveryOptions;
     private URI uri;
     private volatile boolean closing = false;
+    // The revision of the domain model we last synchronized with, empty until the first synchronization
+    private volatile ModelNode domainModelRevision = new ModelNode().setEmptyObject();
 
     RemoteDomainConnection(final String localHostName, final ModelNode localHostInfo,
                            final ProtocolChannelClient.Configuration configuration, final SecurityRealm realm,
@@ -306,7 +309,16 @@ class RemoteDomainConnection extends FutureManagementChannel {
             return false;
         }
         final List<ModelNode> bootOperations= result.get(ModelDescriptionConstants.RESULT).asList();
-        return callback.applyDomainModel(bootOperations);
+        // A master supporting incremental synchronization leads with the revision of the domain model
+        final ModelNode revision = !bootOperations.isEmpty() && bootOperations.get(0).hasDefined(ReadMasterDomainModelUtil.DOMAIN_MODEL_REVISION)
+                ? bootOperations.get(0).get(ReadMasterDomainModelUtil.DOMAIN_MODEL_REVISION) : null;
+        // Request the full model next time, unless this one gets applied
+        domainModelRevision = new ModelNode().setEmptyObject();
+        final boolean success = callback.applyDomainModel(bootOperations);
+        if (success && revision != null) {
+            domainModelRevision = revision;
+        }
+        return success;
     }
 
     void registered() {
@@ -361,6 +373,7 @@ class RemoteDomainConnection extends FutureManagementChannel {
              output.writeUTF(localHostName);
              ModelNode hostInfo = localHostInfo.clone();
              hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).set(pongHandler.getConnectionId());
+             hostInfo.get(ReadMasterDomainModelUtil.DOMAIN_MODEL_REVISION).set(domainModelRevision);
              hostInfo.writeExternal(output);
          }
 
@@ -299,4 +299,29 @@ public interface ServerInventory {
      */
     void awaitServersState(Collection<String> serverNames, boolean started);
 
+    /**
+     * Start a set of servers as permitted by the given start policy. Blocks until all servers were launched.
+     *
+     * @param serverGroups the names of the servers to start, mapped to their server group, in start order
+     * @param domainModel the configuration model for the domain
+     * @param policy the start policy
+     */
+    void startServers(Map<String, String> serverGroups, ModelNode domainModel, ServerStartPolicy policy);
+
+    /**
+     * Get the time a server was last launched.
+     *
+     * @param serverName the name of the server
+     * @return the launch time in milliseconds since the epoch, or {@code -1} if the server was not launched
+     */
+    long getServerLaunchTime(String serverName);
+
+    /**
+     * Get the time it took a server to start, from its launch until it reported to be started.
+     *
+     * @param serverName the name of the server
+     * @return the start duration in milliseconds, or {@code -1} if the server did not start since its last launch
+     */
+    long getServerStartDuration(String serverName);
+
 }
@@ -40,6 +40,7 @@ import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -172,18 +173,7 @@ public class ServerInventoryImpl implements ServerInventory {
         if(shutdown || connectionFinished) {
             throw HostControllerMessages.MESSAGES.hostAlreadyShutdown();
         }
-        ManagedServer server = servers.get(serverName);
-        if(server == null) {
-            // Create a new authKey
-            final byte[] authKey = new byte[16];
-            new Random(new SecureRandom().nextLong()).nextBytes(authKey);
-            // Create the managed server
-            final ManagedServer newServer = createManagedServer(serverName, domainModel, authKey);
-            server = servers.putIfAbsent(serverName, newServer);
-            if(server == null) {
-                server = newServer;
-            }
-        }
+        final ManagedServer server = getOrCreateManagedServer(serverName, domainModel);
         server.start();
         synchronized (shutdownCondition) {
             shutdownCondition.notifyAll();
@@ -198,6 +188,62 @@ public class ServerInventoryImpl implements ServerInventory {
         return server.getState();
     }
 
+    @Override
+    public void startServers(final Map<String, String> serverGroups, final ModelNode domainModel, final ServerStartPolicy policy) {
+        if(shutdown || connectionFinished) {
+            throw HostControllerMessages.MESSAGES.hostAlreadyShutdown();
+        }
+        // Create the servers in the calling thread, as they need to pick up the id of the current operation
+        final Map<String, String> created = new LinkedHashMap<String, String>();
+        for (final Map.Entry<String, String> entry : serverGroups.entrySet()) {
+            try {
+                getOrCreateManagedServer(entry.getKey(), domainModel);
+                created.put(entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                ROOT_LOGGER.failedToStartServer(e, entry.getKey());
+            }
+        }
+        new ServerStartScheduler(policy, new ServerStartScheduler.Launcher() {
+            @Override
+            public void startServer(final String serverName) {
+                ServerInventoryImpl.this.startServer(serverName, domainModel, false);
+            }
+
+            @Override
+            public void awaitServersStarted(final Collection<String> serverNames) {
+                awaitServersState(serverNames, true);
+            }
+        }).startServers(created);
+    }
+
+    private ManagedServer getOrCreateManagedServer(final String serverName, final ModelNode domainModel) {
+        ManagedServer server = servers.get(serverName);
+        if(server == null) {
+            // Create a new authKey
+            final byte[] authKey = new byte[16];
+            new Random(new SecureRandom().nextLong()).nextBytes(authKey);
+            // Create the managed server
+            final ManagedServer newServer = createManagedServer(serverName, domainModel, authKey);
+            server = servers.putIfAbsent(serverName, newServer);
+            if(server == null) {
+                server = newServer;
+            }
+        }
+        return server;
+    }
+
+    @Override
+    public long getServerLaunchTime(final String serverName) {
+        final ManagedServer server = servers.get(serverName);
+        return server == null ? -1 : server.getLaunchTime();
+    }
+
+    @Override
+    public long getServerStartDuration(final String serverName) {
+        final ManagedServer server = servers.get(serverName);
+        return server == null ? -1 : server.getStartDuration();
+    }
+
     @Override
     public ServerStatus restartServer(final String serverName, final int gracefulTimeout, final ModelNode domainModel) {
         return restartServer(serverName, gracefulTimeout, domainModel, false);
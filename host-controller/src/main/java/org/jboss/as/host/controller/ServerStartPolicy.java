@@ -0,0 +1,262 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.host.controller.HostControllerLogger.ROOT_LOGGER;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Policy for starting the managed servers when the host controller boots.
+ * <p>
+ * The policy limits the number of servers that are launched concurrently, optionally starts the servers
+ * group by group, and delays each launch while the host is short of free physical memory or CPU. It is
+ * configured with the following system properties of the host controller:
+ * <ul>
+ *     <li>{@code org.jboss.as.host.start.servers.sequential}: start one server after another, each one
+ *     only once the previous one is started. Defaults to {@code false}.</li>
+ *     <li>{@code org.jboss.as.host.start.servers.concurrency}: the maximum number of servers starting
+ *     concurrently. A server counts as starting from its launch until it reported started, or failed to start.
+ *     Defaults to {@code 0}, i.e. the servers are launched one after another without waiting for them to start.</li>
+ *     <li>{@code org.jboss.as.host.start.servers.group-order}: a comma separated list of server groups. The
+ *     servers of these groups are started group by group in the given order, and each group only once all
+ *     servers of the previous group are started. Servers of other groups are started last.</li>
+ *     <li>{@code org.jboss.as.host.start.servers.min-free-memory}: the free physical memory, in megabytes,
+ *     required to launch a server. Defaults to {@code 0}, i.e. no check.</li>
+ *     <li>{@code org.jboss.as.host.start.servers.max-load}: the maximum system load average per processor
+ *     that allows to launch a server. Defaults to {@code 0}, i.e. no check.</li>
+ *     <li>{@code org.jboss.as.host.start.servers.admission-timeout}: the maximum time, in seconds, to delay
+ *     a launch for lack of memory or CPU. The server is launched anyway afterwards. Defaults to {@code 60}.</li>
+ * </ul>
+ */
+public class ServerStartPolicy {
+
+    private static final String PREFIX = "org.jboss.as.host.start.servers.";
+    static final String SEQUENTIAL = PREFIX + "sequential";
+    static final String CONCURRENCY = PREFIX + "concurrency";
+    static final String GROUP_ORDER = PREFIX + "group-order";
+    static final String MIN_FREE_MEMORY = PREFIX + "min-free-memory";
+    static final String MAX_LOAD = PREFIX + "max-load";
+    static final String ADMISSION_TIMEOUT = PREFIX + "admission-timeout";
+
+    private static final long ADMISSION_POLL_INTERVAL = 500;
+
+    private final boolean sequential;
+    private final int concurrency;
+    private final List<String> groupOrder;
+    private final long minFreeMemory;
+    private final double maxLoad;
+    private final long admissionTimeout;
+
+    /**
+     * Creates a new policy.
+     *
+     * @param sequential       {@code true} if each server should only be started once the previous one is started
+     * @param concurrency      the maximum number of servers starting concurrently, or {@code 0} for no limit
+     * @param groupOrder       the server groups to start first, in order
+     * @param minFreeMemory    the free physical memory in megabytes required to launch a server, or {@code 0}
+     * @param maxLoad          the maximum system load average per processor to launch a server, or {@code 0}
+     * @param admissionTimeout the maximum time in seconds to delay a launch for lack of memory or CPU
+     */
+    ServerStartPolicy(final boolean sequential, final int concurrency, final List<String> groupOrder,
+                      final long minFreeMemory, final double maxLoad, final long admissionTimeout) {
+        this.sequential = sequential;
+        this.concurrency = sequential ? 1 : Math.max(0, concurrency);
+        this.groupOrder = groupOrder;
+        this.minFreeMemory = minFreeMemory;
+        this.maxLoad = maxLoad;
+        this.admissionTimeout = admissionTimeout;
+    }
+
+    /**
+     * Creates the policy configured by the system properties of the host controller.
+     *
+     * @return the policy
+     */
+    public static ServerStartPolicy fromSystemProperties() {
+        final boolean sequential = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(SEQUENTIAL, "false"));
+        final int concurrency = (int) getLongProperty(CONCURRENCY, 0);
+        final String groups = WildFlySecurityManager.getPropertyPrivileged(GROUP_ORDER, "").trim();
+        final List<String> groupOrder = groups.isEmpty() ? Collections.<String>emptyList() : Arrays.asList(groups.split("\\s*,\\s*"));
+        final long minFreeMemory = getLongProperty(MIN_FREE_MEMORY, 0);
+        final long admissionTimeout = getLongProperty(ADMISSION_TIMEOUT, 60);
+        double maxLoad = 0;
+        final String load = WildFlySecurityManager.getPropertyPrivileged(MAX_LOAD, null);
+        if (load != null) {
+            try {
+                maxLoad = Double.parseDouble(load);
+            } catch (NumberFormatException e) {
+                ROOT_LOGGER.invalidServerStartPolicyProperty(load, MAX_LOAD, maxLoad);
+            }
+        }
+        return new ServerStartPolicy(sequential, concurrency, groupOrder, minFreeMemory, maxLoad, admissionTimeout);
+    }
+
+    private static long getLongProperty(final String name, final long defaultValue) {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            final long result = Long.parseLong(value.trim());
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        ROOT_LOGGER.invalidServerStartPolicyProperty(value, name, defaultValue);
+        return defaultValue;
+    }
+
+    /**
+     * Whether a server should only be started once the previous one is started.
+     *
+     * @return {@code true} if servers are started sequentially
+     */
+    public boolean isSequential() {
+        return sequential;
+    }
+
+    /**
+     * Get the maximum number of servers starting concurrently.
+     *
+     * @return the concurrency level, or {@code 0} if the number of servers starting concurrently is not limited
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Split the servers to start into stages. A stage may only be started once all servers of the previous
+     * stage are started.
+     *
+     * @param serverGroups the servers to start, mapped to their server group, in start order
+     * @return the names of the servers per stage
+     */
+    List<List<String>> getStages(final Map<String, String> serverGroups) {
+        final List<List<String>> stages = new ArrayList<List<String>>();
+        for (final String group : groupOrder) {
+            final List<String> stage = new ArrayList<String>();
+            for (final Map.Entry<String, String> entry : serverGroups.entrySet()) {
+                if (group.equals(entry.getValue())) {
+                    stage.add(entry.getKey());
+                }
+            }
+            if (!stage.isEmpty()) {
+                stages.add(stage);
+            }
+        }
+        final List<String> remaining = new ArrayList<String>();
+        for (final Map.Entry<String, String> entry : serverGroups.entrySet()) {
+            if (!groupOrder.contains(entry.getValue())) {
+                remaining.add(entry.getKey());
+            }
+        }
+        if (!remaining.isEmpty()) {
+            stages.add(remaining);
+        }
+        return stages;
+    }
+
+    /**
+     * Wait until the host has enough free memory and CPU to launch a server, or until the admission
+     * timeout elapsed. Admission checks are made one at a time.
+     *
+     * @param serverName the name of the server about to be launched
+     */
+    synchronized void awaitAdmission(final String serverName) {
+        if (isAdmitted()) {
+            return;
+        }
+        ROOT_LOGGER.delayingServerStart(serverName);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(admissionTimeout);
+        do {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                ROOT_LOGGER.startingServerWithoutResources(serverName, admissionTimeout);
+                return;
+            }
+            try {
+                Thread.sleep(Math.min(ADMISSION_POLL_INTERVAL, TimeUnit.NANOSECONDS.toMillis(remaining) + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        } while (!isAdmitted());
+    }
+
+    private boolean isAdmitted() {
+        if (minFreeMemory > 0) {
+            final long free = getFreePhysicalMemory();
+            if (free >= 0 && free < minFreeMemory * 1024 * 1024) {
+                return false;
+            }
+        }
+        if (maxLoad > 0) {
+            final double load = getLoadPerProcessor();
+            if (load >= 0 && load > maxLoad) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the free physical memory of the host.
+     *
+     * @return the free memory in bytes, or {@code -1} if not available on this platform
+     */
+    long getFreePhysicalMemory() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final Object free = server.getAttribute(new ObjectName(ManagementFactory.OPERATING_SYSTEM_MXBEAN_NAME), "FreePhysicalMemorySize");
+            return free instanceof Number ? ((Number) free).longValue() : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Get the system load average per processor of the host.
+     *
+     * @return the load average, or a negative value if not available on this platform
+     */
+    double getLoadPerProcessor() {
+        final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        final double load = os.getSystemLoadAverage();
+        return load < 0 ? load : load / os.getAvailableProcessors();
+    }
+}
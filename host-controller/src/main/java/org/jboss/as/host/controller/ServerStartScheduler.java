@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static java.security.AccessController.doPrivileged;
+import static org.jboss.as.host.controller.HostControllerLogger.ROOT_LOGGER;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.GetAccessControlContextAction;
+
+/**
+ * Starts a set of servers as permitted by a {@link ServerStartPolicy}.
+ * <p>
+ * The servers are split into the stages defined by the policy. At most {@link ServerStartPolicy#getConcurrency()}
+ * servers of a stage are starting at the same time, each server is launched once the host has the resources to launch
+ * it. A server keeps its slot from its launch until it is started, or failed to start, as launching a server only
+ * requests its process from the process controller. The next stage is only started once all servers of the previous
+ * stage are started.
+ */
+final class ServerStartScheduler {
+
+    /**
+     * The actual server lifecycle operations.
+     */
+    interface Launcher {
+
+        /**
+         * Launch a server, without waiting for it to start.
+         *
+         * @param serverName the name of the server
+         * @throws Exception if the server could not be started
+         */
+        void startServer(String serverName) throws Exception;
+
+        /**
+         * Wait until the given servers are started, or failed to start.
+         *
+         * @param serverNames the names of the servers
+         */
+        void awaitServersStarted(Collection<String> serverNames);
+    }
+
+    private final ServerStartPolicy policy;
+    private final Launcher launcher;
+
+    ServerStartScheduler(final ServerStartPolicy policy, final Launcher launcher) {
+        this.policy = policy;
+        this.launcher = launcher;
+    }
+
+    /**
+     * Start the servers. Blocks until all servers were launched.
+     *
+     * @param serverGroups the servers to start, mapped to their server group, in start order
+     */
+    void startServers(final Map<String, String> serverGroups) {
+        final List<List<String>> stages = policy.getStages(serverGroups);
+        for (int i = 0; i < stages.size(); i++) {
+            final List<String> stage = stages.get(i);
+            if (!startStage(stage)) {
+                return;
+            }
+            if (i < stages.size() - 1) {
+                launcher.awaitServersStarted(stage);
+            }
+        }
+    }
+
+    private boolean startStage(final List<String> serverNames) {
+        final int concurrency = policy.getConcurrency();
+        if (concurrency == 0 || concurrency >= serverNames.size()) {
+            // Nothing to limit, launch all servers of the stage
+            for (final String serverName : serverNames) {
+                startServer(serverName, false);
+            }
+            return true;
+        }
+        if (concurrency == 1) {
+            for (final String serverName : serverNames) {
+                startServer(serverName, true);
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("server-start-threads"), Boolean.FALSE, null, "%G - %t", null, null, doPrivileged(GetAccessControlContextAction.getInstance()));
+        final ExecutorService executor = Executors.newFixedThreadPool(concurrency, threadFactory);
+        try {
+            for (final String serverName : serverNames) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        startServer(serverName, true);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void startServer(final String serverName, final boolean await) {
+        policy.awaitAdmission(serverName);
+        try {
+            launcher.startServer(serverName);
+        } catch (Exception e) {
+            ROOT_LOGGER.failedToStartServer(e, serverName);
+            return;
+        }
+        if (await) {
+            // Hold the slot until the server is started, or failed to start
+            launcher.awaitServersStarted(Collections.singleton(serverName));
+        }
+    }
+}
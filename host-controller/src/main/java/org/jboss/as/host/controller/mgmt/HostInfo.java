@@ -53,6 +53,7 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.transform.TransformationTarget;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
+import org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil;
 import org.jboss.as.host.controller.IgnoredNonAffectedServerGroupsUtil;
 import org.jboss.as.host.controller.IgnoredNonAffectedServerGroupsUtil.ServerConfigInfo;
 import org.jboss.as.host.controller.RemoteDomainConnectionService;
@@ -117,6 +118,7 @@ public class HostInfo implements TransformationTarget.IgnoredTransformationRegis
     private final String productName;
     private final String productVersion;
     private final Long remoteConnectionId;
+    private final ModelNode domainModelRevision;
     private final Map<String, IgnoredType> ignoredResources;
     private final boolean ignoreUnaffectedConfig;
     private final ConcurrentMap<String, ServerConfigInfo> serverConfigInfos;
@@ -132,6 +134,8 @@ public class HostInfo implements TransformationTarget.IgnoredTransformationRegis
         productVersion = hostInfo.hasDefined(PRODUCT_VERSION) ? hostInfo.require(PRODUCT_VERSION).asString() : null;
         remoteConnectionId = hostInfo.hasDefined(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID)
                 ? hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).asLong() : null;
+        domainModelRevision = hostInfo.hasDefined(ReadMasterDomainModelUtil.DOMAIN_MODEL_REVISION)
+                ? hostInfo.get(ReadMasterDomainModelUtil.DOMAIN_MODEL_REVISION).clone() : null;
 
         if (hostInfo.hasDefined(IGNORED_RESOURCES)) {
             ignoredResources = new HashMap<String, IgnoredType>();
@@ -196,6 +200,16 @@ public class HostInfo implements TransformationTarget.IgnoredTransformationRegis
         return remoteConnectionId;
     }
 
+    /**
+     * Gets the revision of the domain model the slave last synchronized with.
+     *
+     * @return the revision, an empty object if the slave has not synchronized yet, or {@code null} if the slave
+     *         does not support receiving only the changes to the domain model
+     */
+    public ModelNode getDomainModelRevision() {
+        return domainModelRevision;
+    }
+
     public boolean isResourceTransformationIgnored(final PathAddress address) {
         //Resource transformation only happens on boot so the list from the slave is up to date
         if (ignoredResources != null && address.size() > 0) {
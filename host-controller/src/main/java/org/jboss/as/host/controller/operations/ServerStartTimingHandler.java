@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.host.controller.ServerInventory;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * {@code OperationHandler} reading the launch time and start duration of a server.
+ */
+public class ServerStartTimingHandler implements OperationStepHandler {
+
+    public static final String LAUNCH_TIME = "launch-time";
+    public static final String START_DURATION = "start-duration";
+
+    private final ServerInventory serverInventory;
+
+    public ServerStartTimingHandler(final ServerInventory serverInventory) {
+        this.serverInventory = serverInventory;
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String serverName = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final String attributeName = operation.require(NAME).asString();
+
+        final long value;
+        if (LAUNCH_TIME.equals(attributeName)) {
+            value = serverInventory.getServerLaunchTime(serverName);
+        } else {
+            value = serverInventory.getServerStartDuration(serverName);
+        }
+        // Leave the result undefined if the server was not started yet
+        if (value >= 0) {
+            context.getResult().set(value);
+        }
+        context.stepCompleted();
+    }
+}
@@ -20,11 +20,13 @@ package org.jboss.as.host.controller.operations;
 
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.AUTO_START;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
 import static org.jboss.as.host.controller.HostControllerLogger.ROOT_LOGGER;
 import static org.jboss.as.host.controller.HostControllerMessages.MESSAGES;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.jboss.as.controller.OperationContext;
@@ -39,6 +41,7 @@ import org.jboss.as.host.controller.HostControllerEnvironment;
 import org.jboss.as.host.controller.HostRunningModeControl;
 import org.jboss.as.host.controller.RestartMode;
 import org.jboss.as.host.controller.ServerInventory;
+import org.jboss.as.host.controller.ServerStartPolicy;
 import org.jboss.as.host.controller.resources.ServerConfigResourceDefinition;
 import org.jboss.as.process.ProcessInfo;
 import org.jboss.dmr.ModelNode;
@@ -46,7 +49,7 @@ import org.jboss.dmr.Property;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
- * Starts or reconnect all auto-start servers (at boot).
+ * Starts or reconnect all auto-start servers (at boot), as permitted by the {@link ServerStartPolicy}.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
@@ -110,34 +113,43 @@ public class StartServersHandler implements OperationStepHandler {
     }
 
     private void cleanStartServers(final ModelNode servers, final ModelNode domainModel, OperationContext context) throws OperationFailedException {
+        final Map<String, String> serverGroups = new LinkedHashMap<String, String>();
         for(final Property serverProp : servers.asPropertyList()) {
             String serverName = serverProp.getName();
             if (ServerConfigResourceDefinition.AUTO_START.resolveModelAttribute(context, serverProp.getValue()).asBoolean(true)) {
-                try {
-                    serverInventory.startServer(serverName, domainModel, START_BLOCKING);
-                } catch (Exception e) {
-                    ROOT_LOGGER.failedToStartServer(e, serverName);
-                }
+                serverGroups.put(serverName, serverProp.getValue().get(GROUP).asString());
             }
         }
+        startServers(serverGroups, domainModel);
     }
 
     private void restartedHcStartOrReconnectServers(final ModelNode servers, final ModelNode domainModel, final OperationContext context){
         Map<String, ProcessInfo> processInfos = serverInventory.determineRunningProcesses();
+        final Map<String, String> serverGroups = new LinkedHashMap<String, String>();
         for(final String serverName : servers.keys()) {
             ProcessInfo info = processInfos.get(serverInventory.getServerProcessName(serverName));
             boolean auto = servers.get(serverName, AUTO_START).asBoolean(true);
             if (info == null && auto) {
-                try {
-                    serverInventory.startServer(serverName, domainModel, START_BLOCKING);
-                } catch (Exception e) {
-                    ROOT_LOGGER.failedToStartServer(e, serverName);
-                }
+                serverGroups.put(serverName, servers.get(serverName, GROUP).asString());
             } else if (info != null){
                 // Reconnect the server using the current authKey
                 final byte[] authKey = info.getAuthKey();
                 serverInventory.reconnectServer(serverName, domainModel, authKey, info.isRunning(), info.isStopping());
             }
         }
+        startServers(serverGroups, domainModel);
+    }
+
+    private void startServers(final Map<String, String> serverGroups, final ModelNode domainModel) {
+        if (serverGroups.isEmpty()) {
+            return;
+        }
+        try {
+            serverInventory.startServers(serverGroups, domainModel, ServerStartPolicy.fromSystemProperties());
+        } catch (Exception e) {
+            for (final String serverName : serverGroups.keySet()) {
+                ROOT_LOGGER.failedToStartServer(e, serverName);
+            }
+        }
     }
 }
@@ -36,6 +36,7 @@ import org.jboss.as.controller.ReadResourceNameOperationStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.client.helpers.domain.ServerStatus;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.EnumValidator;
@@ -56,6 +57,7 @@ import org.jboss.as.host.controller.operations.ServerRemoveHandler;
 import org.jboss.as.host.controller.operations.ServerRestartHandler;
 import org.jboss.as.host.controller.operations.ServerRestartRequiredServerConfigWriteAttributeHandler;
 import org.jboss.as.host.controller.operations.ServerStartHandler;
+import org.jboss.as.host.controller.operations.ServerStartTimingHandler;
 import org.jboss.as.host.controller.operations.ServerStatusHandler;
 import org.jboss.as.host.controller.operations.ServerStopHandler;
 import org.jboss.as.server.controller.resources.SystemPropertyResourceDefinition;
@@ -95,6 +97,14 @@ public class ServerConfigResourceDefinition extends SimpleResourceDefinition {
             .setValidator(new EnumValidator<ServerStatus>(ServerStatus.class, false, false))
             .build();
 
+    public static final SimpleAttributeDefinition LAUNCH_TIME = SimpleAttributeDefinitionBuilder.create(ServerStartTimingHandler.LAUNCH_TIME, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.EPOCH_MILLISECONDS)
+            .build();
+
+    public static final SimpleAttributeDefinition START_DURATION = SimpleAttributeDefinitionBuilder.create(ServerStartTimingHandler.START_DURATION, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
     /**
      * Bogus attribute that we accidentally registered in AS 7.1.2/EAP 6 even though it didn't appear in the
      * resource description. So for compatibility we register it here as well, and include it in the description
@@ -152,6 +162,9 @@ public class ServerConfigResourceDefinition extends SimpleResourceDefinition {
 
         if (serverInventory != null) {
             resourceRegistration.registerMetric(STATUS, new ServerStatusHandler(serverInventory));
+            final ServerStartTimingHandler timingHandler = new ServerStartTimingHandler(serverInventory);
+            resourceRegistration.registerMetric(LAUNCH_TIME, timingHandler);
+            resourceRegistration.registerMetric(START_DURATION, timingHandler);
         }
     }
 
@@ -0,0 +1,198 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link DomainModelJournal}.
+ */
+public class DomainModelJournalTestCase {
+
+    private static final PathElement PROFILE_A = PathElement.pathElement(PROFILE, "a");
+    private static final PathElement GROUP_A = PathElement.pathElement(SERVER_GROUP, "a");
+    private static final PathElement DEPLOYMENT_A = PathElement.pathElement(DEPLOYMENT, "a");
+
+    @Test
+    public void testChangedSince() {
+        final DomainModelJournal journal = new DomainModelJournal(1L, 10);
+        final ModelNode initial = journal.getCurrentRevision();
+        assertEquals(Collections.emptySet(), journal.getChangedSince(initial));
+
+        journal.record(addresses(PathAddress.pathAddress(PROFILE_A, PathElement.pathElement(SUBSYSTEM, "logging"))));
+        final ModelNode first = journal.getCurrentRevision();
+        journal.record(addresses(PathAddress.pathAddress(GROUP_A), PathAddress.pathAddress(DEPLOYMENT_A)));
+
+        assertEquals(new HashSet<PathElement>(Arrays.asList(PROFILE_A, GROUP_A, DEPLOYMENT_A)), journal.getChangedSince(initial));
+        assertEquals(new HashSet<PathElement>(Arrays.asList(GROUP_A, DEPLOYMENT_A)), journal.getChangedSince(first));
+        assertEquals(Collections.emptySet(), journal.getChangedSince(journal.getCurrentRevision()));
+    }
+
+    @Test
+    public void testRootAndHostChangesIgnored() {
+        final DomainModelJournal journal = new DomainModelJournal(1L, 10);
+        final ModelNode initial = journal.getCurrentRevision();
+        journal.record(addresses(PathAddress.EMPTY_ADDRESS,
+                PathAddress.pathAddress(PathElement.pathElement(HOST, "slave"), PathElement.pathElement(SERVER_CONFIG, "one"))));
+        assertEquals(initial, journal.getCurrentRevision());
+    }
+
+    @Test
+    public void testRolledOver() {
+        final DomainModelJournal journal = new DomainModelJournal(1L, 2);
+        final ModelNode initial = journal.getCurrentRevision();
+        journal.record(addresses(PathAddress.pathAddress(PROFILE_A)));
+        final ModelNode first = journal.getCurrentRevision();
+        journal.record(addresses(PathAddress.pathAddress(GROUP_A)));
+        journal.record(addresses(PathAddress.pathAddress(DEPLOYMENT_A)));
+
+        // The change following the initial revision is no longer journaled
+        assertNull(journal.getChangedSince(initial));
+        assertEquals(new HashSet<PathElement>(Arrays.asList(GROUP_A, DEPLOYMENT_A)), journal.getChangedSince(first));
+    }
+
+    @Test
+    public void testUnknownRevision() {
+        final DomainModelJournal journal = new DomainModelJournal(1L, 10);
+        journal.record(addresses(PathAddress.pathAddress(PROFILE_A)));
+
+        final ModelNode otherEpoch = journal.getCurrentRevision();
+        otherEpoch.get(DomainModelJournal.EPOCH).set(2L);
+        assertNull(journal.getChangedSince(otherEpoch));
+
+        final ModelNode future = journal.getCurrentRevision();
+        future.get(DomainModelJournal.REVISION).set(5L);
+        assertNull(journal.getChangedSince(future));
+
+        assertNull(journal.getChangedSince(new ModelNode().setEmptyObject()));
+        assertNull(journal.getChangedSince(null));
+    }
+
+    /**
+     * Randomly changes a model while slaves disconnect and reconnect, and checks that every slave ends up with
+     * the model of the master, using incremental synchronization where the journal allows it.
+     */
+    @Test
+    public void testConvergenceWithDisconnects() {
+        final Random random = new Random(42L);
+        final DomainModelJournal journal = new DomainModelJournal(random.nextLong(), 20);
+        final Map<PathElement, ModelNode> master = new HashMap<PathElement, ModelNode>();
+        final Slave[] slaves = new Slave[] {new Slave(), new Slave(), new Slave()};
+        for (final Slave slave : slaves) {
+            slave.synchronize(master, journal);
+        }
+
+        final String[] types = {PROFILE, SERVER_GROUP, DEPLOYMENT, SYSTEM_PROPERTY};
+        for (int i = 0; i < 5000; i++) {
+            if (random.nextInt(10) == 0) {
+                final Slave slave = slaves[random.nextInt(slaves.length)];
+                if (slave.connected) {
+                    slave.connected = false;
+                } else {
+                    slave.synchronize(master, journal);
+                }
+                continue;
+            }
+            final PathElement element = PathElement.pathElement(types[random.nextInt(types.length)], String.valueOf(random.nextInt(5)));
+            final ModelNode value = random.nextInt(4) == 0 ? null : new ModelNode(i);
+            if (value == null) {
+                master.remove(element);
+            } else {
+                master.put(element, value);
+            }
+            journal.record(addresses(PathAddress.pathAddress(element, PathElement.pathElement(SUBSYSTEM, "x"))));
+            // Connected slaves apply the change as part of the domain wide operation, without a new revision
+            for (final Slave slave : slaves) {
+                if (slave.connected) {
+                    slave.apply(element, value);
+                }
+            }
+        }
+
+        for (final Slave slave : slaves) {
+            slave.synchronize(master, journal);
+            assertEquals(master, slave.model);
+            assertTrue(slave.incrementalSynchronizations > 0);
+            assertTrue(slave.fullSynchronizations > 1);
+        }
+    }
+
+    private static Set<PathAddress> addresses(final PathAddress... addresses) {
+        return new HashSet<PathAddress>(Arrays.asList(addresses));
+    }
+
+    private static final class Slave {
+        private final Map<PathElement, ModelNode> model = new HashMap<PathElement, ModelNode>();
+        private ModelNode revision = new ModelNode().setEmptyObject();
+        private boolean connected;
+        private int fullSynchronizations;
+        private int incrementalSynchronizations;
+
+        void synchronize(final Map<PathElement, ModelNode> master, final DomainModelJournal journal) {
+            final ModelNode current = journal.getCurrentRevision();
+            final Set<PathElement> changed = journal.getChangedSince(revision);
+            if (changed == null) {
+                model.clear();
+                model.putAll(master);
+                fullSynchronizations++;
+            } else {
+                for (final PathElement element : changed) {
+                    apply(element, master.get(element));
+                }
+                incrementalSynchronizations++;
+            }
+            revision = current;
+            connected = true;
+        }
+
+        void apply(final PathElement element, final ModelNode value) {
+            if (value == null) {
+                model.remove(element);
+            } else {
+                model.put(element, value);
+            }
+        }
+    }
+}
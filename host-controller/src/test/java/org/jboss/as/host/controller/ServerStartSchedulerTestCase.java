@@ -0,0 +1,227 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link ServerStartScheduler}.
+ */
+public class ServerStartSchedulerTestCase {
+
+    @Test
+    public void testConcurrencyBound() throws Exception {
+        final RecordingLauncher launcher = new RecordingLauncher(50);
+        final ServerStartPolicy policy = new ServerStartPolicy(false, 3, Collections.<String>emptyList(), 0, 0, 0);
+        new ServerStartScheduler(policy, launcher).startServers(servers(12, "main-server-group"));
+        launcher.finish();
+
+        assertEquals(12, launcher.started.size());
+        assertTrue("Concurrency exceeded: " + launcher.maxStarting.get(), launcher.maxStarting.get() <= 3);
+        assertTrue("Servers were not started concurrently", launcher.maxStarting.get() > 1);
+    }
+
+    @Test
+    public void testUnbounded() throws Exception {
+        final RecordingLauncher launcher = new RecordingLauncher(200);
+        final ServerStartPolicy policy = new ServerStartPolicy(false, 0, Collections.<String>emptyList(), 0, 0, 0);
+        new ServerStartScheduler(policy, launcher).startServers(servers(6, "main-server-group"));
+
+        // All servers are launched without waiting for any of them to start
+        assertEquals(6, launcher.launched.size());
+        launcher.finish();
+        assertEquals(6, launcher.maxStarting.get());
+    }
+
+    @Test
+    public void testSequential() throws Exception {
+        final RecordingLauncher launcher = new RecordingLauncher(10);
+        final ServerStartPolicy policy = new ServerStartPolicy(true, 8, Collections.<String>emptyList(), 0, 0, 0);
+        new ServerStartScheduler(policy, launcher).startServers(servers(5, "main-server-group"));
+        launcher.finish();
+
+        assertEquals(Arrays.asList("server-0", "server-1", "server-2", "server-3", "server-4"), launcher.started);
+        assertEquals(1, launcher.maxStarting.get());
+    }
+
+    @Test
+    public void testGroupOrder() throws Exception {
+        final Map<String, String> servers = new LinkedHashMap<String, String>();
+        servers.put("web-1", "web");
+        servers.put("other-1", "other");
+        servers.put("db-1", "db");
+        servers.put("web-2", "web");
+        servers.put("db-2", "db");
+        servers.put("other-2", "other");
+
+        final RecordingLauncher launcher = new RecordingLauncher(10);
+        final ServerStartPolicy policy = new ServerStartPolicy(false, 4, Arrays.asList("db", "web"), 0, 0, 0);
+        new ServerStartScheduler(policy, launcher).startServers(servers);
+        launcher.finish();
+
+        assertEquals(6, launcher.started.size());
+        assertGroupBefore(launcher.started, Arrays.asList("db-1", "db-2"), Arrays.asList("web-1", "web-2"));
+        assertGroupBefore(launcher.started, Arrays.asList("web-1", "web-2"), Arrays.asList("other-1", "other-2"));
+        // Each group is awaited before the next one is launched, the last one is not awaited
+        assertEquals(Arrays.asList("await db-1", "await db-2", "start web", "await web-1", "await web-2", "start other"),
+                launcher.events);
+    }
+
+    @Test
+    public void testAdmission() throws Exception {
+        final AtomicInteger checks = new AtomicInteger();
+        final RecordingLauncher launcher = new RecordingLauncher(0);
+        final ServerStartPolicy policy = new ServerStartPolicy(false, 1, Collections.<String>emptyList(), 100, 0, 60) {
+            @Override
+            long getFreePhysicalMemory() {
+                // short of memory for the first two checks
+                return checks.incrementAndGet() > 2 ? 200L * 1024 * 1024 : 0;
+            }
+        };
+        new ServerStartScheduler(policy, launcher).startServers(servers(2, "main-server-group"));
+        launcher.finish();
+
+        assertEquals(2, launcher.started.size());
+        assertEquals(4, checks.get());
+    }
+
+    @Test
+    public void testAdmissionTimeout() throws Exception {
+        final RecordingLauncher launcher = new RecordingLauncher(0);
+        final ServerStartPolicy policy = new ServerStartPolicy(false, 2, Collections.<String>emptyList(), 0, 0.5, 0) {
+            @Override
+            double getLoadPerProcessor() {
+                return 10;
+            }
+        };
+        new ServerStartScheduler(policy, launcher).startServers(servers(3, "main-server-group"));
+        launcher.finish();
+
+        // Launched anyway once the admission timeout elapsed
+        assertEquals(3, launcher.started.size());
+    }
+
+    private static Map<String, String> servers(final int count, final String group) {
+        final Map<String, String> servers = new LinkedHashMap<String, String>();
+        for (int i = 0; i < count; i++) {
+            servers.put("server-" + i, group);
+        }
+        return servers;
+    }
+
+    private static void assertGroupBefore(final List<String> started, final List<String> first, final List<String> second) {
+        for (final String a : first) {
+            for (final String b : second) {
+                assertTrue(a + " not started before " + b, started.indexOf(a) < started.indexOf(b));
+            }
+        }
+    }
+
+    /**
+     * Models the launch of a server process: the launch returns right away, the server reports started later.
+     */
+    private static final class RecordingLauncher implements ServerStartScheduler.Launcher {
+
+        private final long startTime;
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        private final Map<String, CountDownLatch> starts = new ConcurrentHashMap<String, CountDownLatch>();
+        final List<String> launched = Collections.synchronizedList(new ArrayList<String>());
+        final List<String> started = Collections.synchronizedList(new ArrayList<String>());
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        final AtomicInteger starting = new AtomicInteger();
+        final AtomicInteger maxStarting = new AtomicInteger();
+        private String lastStage;
+
+        RecordingLauncher(final long startTime) {
+            this.startTime = startTime;
+        }
+
+        @Override
+        public void startServer(final String serverName) {
+            final int current = starting.incrementAndGet();
+            int max;
+            while (current > (max = maxStarting.get()) && !maxStarting.compareAndSet(max, current)) {
+                // retry
+            }
+            final String stage = serverName.substring(0, serverName.indexOf('-'));
+            synchronized (this) {
+                if (!events.isEmpty() && !stage.equals(lastStage)) {
+                    events.add("start " + stage);
+                }
+                lastStage = stage;
+            }
+            final CountDownLatch start = new CountDownLatch(1);
+            starts.put(serverName, start);
+            launched.add(serverName);
+            executor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    starting.decrementAndGet();
+                    started.add(serverName);
+                    start.countDown();
+                }
+            }, startTime, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void awaitServersStarted(final Collection<String> serverNames) {
+            for (final String serverName : serverNames) {
+                final CountDownLatch start = starts.get(serverName);
+                assertNotNull(serverName + " was not launched", start);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                events.add("await " + serverName);
+            }
+        }
+
+        /**
+         * Wait until all launched servers are started.
+         */
+        void finish() throws InterruptedException {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
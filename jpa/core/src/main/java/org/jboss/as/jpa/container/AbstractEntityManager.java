@@ -27,6 +27,7 @@ import static org.jboss.as.jpa.messages.JpaMessages.MESSAGES;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javax.persistence.EntityGraph;
 import javax.persistence.EntityManager;
@@ -44,6 +45,9 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.CriteriaUpdate;
 import javax.persistence.metamodel.Metamodel;
 
+import org.jboss.as.jpa.management.EntityManagerMetrics;
+import org.jboss.as.jpa.management.EntityManagerMetrics.Operation;
+
 /**
  * Abstract entity manager used by all container managed entity managers.
  *
@@ -51,9 +55,15 @@ import javax.persistence.metamodel.Metamodel;
  */
 public abstract class AbstractEntityManager implements EntityManager {
     private final transient boolean isTraceEnabled = ROOT_LOGGER.isTraceEnabled();
+    private transient volatile EntityManagerMetrics metrics;
 
     protected abstract EntityManager getEntityManager();
 
+    /**
+     * @return the fully application scoped persistence unit name
+     */
+    protected abstract String getScopedPuName();
+
     /**
      * @return true if an extended persistence context is in use
      *         <p/>
@@ -75,133 +85,117 @@ public abstract class AbstractEntityManager implements EntityManager {
     }
 
     public <T> TypedQuery<T> createNamedQuery(String name, Class<T> resultClass) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             // invoke underlying entity manager method and if not running in a tx
             // return a Query wrapper around the result.
             EntityManager entityManager = getEntityManager();
             return detachTypedQueryNonTxInvocation(entityManager,entityManager.createNamedQuery(name, resultClass));
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createNamedQuery name '%s', resultClass '%s' took %dms", name, resultClass.getName(), elapsed);
             }
         }
     }
 
     public <T> TypedQuery<T> createQuery(CriteriaQuery<T> criteriaQuery) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             // invoke underlying entity manager method and if not running in a tx
             // return a Query wrapper around the result.
             EntityManager entityManager = getEntityManager();
             return detachTypedQueryNonTxInvocation(entityManager,entityManager.createQuery(criteriaQuery));
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createQuery took %dms", elapsed);
             }
         }
     }
 
     public <T> TypedQuery<T> createQuery(String qlString, Class<T> resultClass) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             // invoke underlying entity manager method and if not running in a tx
             // return a Query wrapper around the result.
             EntityManager entityManager = getEntityManager();
             return detachTypedQueryNonTxInvocation(entityManager,entityManager.createQuery(qlString, resultClass));
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createQuery resultClass '%s' took %dms", resultClass.getName(), elapsed);
             }
         }
     }
 
     public void detach(Object entity) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             getEntityManager().detach(entity);
         } finally {
+            final long elapsed = record(Operation.DETACH, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("detach entityClass '%s' took %dms", entity.getClass().getName(), elapsed);
             }
         }
     }
 
     public <T> T find(Class<T> entityClass, Object primaryKey, Map<String, Object> properties) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             final EntityManager underlyingEntityManager = getEntityManager();
             T result = underlyingEntityManager.find(entityClass, primaryKey, properties);
             detachNonTxInvocation(underlyingEntityManager);
             return result;
         } finally {
+            final long elapsed = record(Operation.FIND, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("find entityClass '%s' took %dms", entityClass.getName(), elapsed);
             }
         }
     }
 
     public <T> T find(Class<T> entityClass, Object primaryKey, LockModeType lockMode) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             final EntityManager underlyingEntityManager = getEntityManager();
             T result = underlyingEntityManager.find(entityClass, primaryKey, lockMode);
             detachNonTxInvocation(underlyingEntityManager);
             return result;
         } finally {
+            final long elapsed = record(Operation.FIND, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("find entityClass '%s', lockMode '%s' took %dms", entityClass.getName(), getLockModeAsString(lockMode), elapsed);
             }
         }
     }
 
     public <T> T find(Class<T> entityClass, Object primaryKey, LockModeType lockMode, Map<String, Object> properties) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             final EntityManager underlyingEntityManager = getEntityManager();
             T result = underlyingEntityManager.find(entityClass, primaryKey, lockMode, properties);
             detachNonTxInvocation(underlyingEntityManager);
             return result;
         } finally {
+            final long elapsed = record(Operation.FIND, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("find entityClass '%s', lockMode '%s' took %dms", entityClass.getName(), getLockModeAsString(lockMode), elapsed);
             }
         }
     }
 
     public <T> T find(Class<T> entityClass, Object primaryKey) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             final EntityManager underlyingEntityManager = getEntityManager();
-            T result = getEntityManager().find(entityClass, primaryKey);
+            T result = underlyingEntityManager.find(entityClass, primaryKey);
             detachNonTxInvocation(underlyingEntityManager);
             return result;
         } finally {
+            final long elapsed = record(Operation.FIND, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("find entityClass '%s' took %dms", entityClass.getName(), elapsed);
             }
         }
@@ -209,43 +203,37 @@ public abstract class AbstractEntityManager implements EntityManager {
 
 
     public CriteriaBuilder getCriteriaBuilder() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().getCriteriaBuilder();
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("getCriteriaBuilder took %dms", elapsed);
             }
         }
     }
 
     public EntityManagerFactory getEntityManagerFactory() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().getEntityManagerFactory();
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("getEntityManagerFactory took %dms", elapsed);
             }
         }
     }
 
     public LockModeType getLockMode(Object entity) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         LockModeType result = null;
         try {
             result = getEntityManager().getLockMode(entity);
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("getLockMode entityClass '%s', lockMode '%s'  took %dms", entity.getClass().getName(), getLockModeAsString(result), elapsed);
             }
         }
@@ -253,42 +241,36 @@ public abstract class AbstractEntityManager implements EntityManager {
     }
 
     public Metamodel getMetamodel() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().getMetamodel();
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("getMetamodel took %dms", elapsed);
             }
         }
     }
 
     public Map<String, Object> getProperties() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().getProperties();
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("getProperties took %dms", elapsed);
             }
         }
     }
 
     public void lock(Object entity, LockModeType lockMode, Map<String, Object> properties) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             getEntityManager().lock(entity, lockMode, properties);
         } finally {
+            final long elapsed = record(Operation.LOCK, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("lock entityClass '%s', lockMode '%s'  took %dms", entity.getClass().getName(), getLockModeAsString(lockMode), elapsed);
             }
         }
@@ -296,73 +278,63 @@ public abstract class AbstractEntityManager implements EntityManager {
 
 
     public void setProperty(String propertyName, Object value) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             getEntityManager().setProperty(propertyName, value);
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("setProperty took %dms", elapsed);
             }
         }
     }
 
     public void clear() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             getEntityManager().clear();
         } finally {
+            final long elapsed = record(Operation.CLEAR, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("clear took %dms", elapsed);
             }
         }
     }
 
     public void close() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             getEntityManager().close();
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("close took %dms", elapsed);
             }
         }
     }
 
     public boolean contains(Object entity) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().contains(entity);
         } finally {
+            final long elapsed = record(Operation.CONTAINS, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("contains '%s' took %dms", entity.getClass().getName(), elapsed);
             }
         }
     }
 
     public Query createNamedQuery(String name) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             // invoke underlying entity manager method and if not running in a tx
             // return a Query wrapper around the result.
             EntityManager entityManager = getEntityManager();
             return detachQueryNonTxInvocation(entityManager, entityManager.createNamedQuery(name));
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createNamedQuery name '%s' took %dms", name, elapsed);
             }
         }
@@ -370,394 +342,339 @@ public abstract class AbstractEntityManager implements EntityManager {
 
     @SuppressWarnings("unchecked")
     public Query createNativeQuery(String sqlString, Class resultClass) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             // invoke underlying entity manager method and if not running in a tx
             // return a Query wrapper around the result.
             EntityManager entityManager = getEntityManager();
             return detachQueryNonTxInvocation(entityManager, entityManager.createNativeQuery(sqlString, resultClass));
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createNativeQuery resultClass '%s' took %dms", resultClass.getName(), elapsed);
             }
         }
     }
 
     public Query createNativeQuery(String sqlString, String resultSetMapping) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             // invoke underlying entity manager method and if not running in a tx
             // return a Query wrapper around the result.
             EntityManager entityManager = getEntityManager();
             return detachQueryNonTxInvocation(entityManager, entityManager.createNativeQuery(sqlString, resultSetMapping));
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createNativeQuery took %dms", elapsed);
             }
         }
     }
 
     public Query createNativeQuery(String sqlString) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             // invoke underlying entity manager method and if not running in a tx
             // return a Query wrapper around the result.
             EntityManager entityManager = getEntityManager();
             return detachQueryNonTxInvocation(entityManager, entityManager.createNativeQuery(sqlString));
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createNativeQuery took %dms", elapsed);
             }
         }
     }
 
     public Query createQuery(String ejbqlString) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             // invoke underlying entity manager method and if not running in a tx
             // return a Query wrapper around the result.
             EntityManager entityManager = getEntityManager();
             return detachQueryNonTxInvocation(entityManager, entityManager.createQuery(ejbqlString));
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createQuery took %dms", elapsed);
             }
         }
     }
 
     public void flush() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             getEntityManager().flush();
         } finally {
+            final long elapsed = record(Operation.FLUSH, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("flush took %dms", elapsed);
             }
         }
     }
 
     public Object getDelegate() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().getDelegate();
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("getDelegate took %dms", elapsed);
             }
         }
     }
 
     public FlushModeType getFlushMode() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().getFlushMode();
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("getFlushMode took %dms", elapsed);
             }
         }
     }
 
     public <T> T getReference(Class<T> entityClass, Object primaryKey) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             final EntityManager underlyingEntityManager = getEntityManager();
             T result = getEntityManager().getReference(entityClass, primaryKey);
             detachNonTxInvocation(underlyingEntityManager);
             return result;
         } finally {
+            final long elapsed = record(Operation.GET_REFERENCE, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("getReference entityClass '%s' took %dms", entityClass.getName(), elapsed);
             }
         }
     }
 
     public EntityTransaction getTransaction() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().getTransaction();
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("getTransaction took %dms", elapsed);
             }
         }
     }
 
     public boolean isOpen() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
         return getEntityManager().isOpen();
     }
 
     public void joinTransaction() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             getEntityManager().joinTransaction();
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("joinTransaction took %dms", elapsed);
             }
         }
     }
 
     public void lock(Object entity, LockModeType lockMode) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             getEntityManager().lock(entity, lockMode);
         } finally {
+            final long elapsed = record(Operation.LOCK, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("lock entityClass '%s', lockMode '%s' took %dms", entity.getClass().getName(), getLockModeAsString(lockMode), elapsed);
             }
         }
     }
 
     public <T> T merge(T entity) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             transactionIsRequired();
             return getEntityManager().merge(entity);
         } finally {
+            final long elapsed = record(Operation.MERGE, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("merge entityClass '%s' took %dms", entity.getClass().getName(), elapsed);
             }
         }
     }
 
     public void persist(Object entity) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             transactionIsRequired();
             getEntityManager().persist(entity);
         } finally {
+            final long elapsed = record(Operation.PERSIST, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("persist entityClass '%s' took %dms", entity.getClass().getName(), elapsed);
             }
         }
     }
 
     public void refresh(Object entity) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             transactionIsRequired();
             getEntityManager().refresh(entity);
         } finally {
+            final long elapsed = record(Operation.REFRESH, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("refresh entityClass '%s' took %dms", entity.getClass().getName(), elapsed);
             }
         }
     }
 
     public void refresh(Object entity, Map<String, Object> properties) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             transactionIsRequired();
             getEntityManager().refresh(entity, properties);
         } finally {
+            final long elapsed = record(Operation.REFRESH, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("refresh entityClass '%s' took %dms", entity.getClass().getName(), elapsed);
             }
         }
     }
 
     public void refresh(Object entity, LockModeType lockMode) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             transactionIsRequired();
             getEntityManager().refresh(entity, lockMode);
         } finally {
+            final long elapsed = record(Operation.REFRESH, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("refresh entityClass '%s', lockMode '%s' took %dms", entity.getClass().getName(), getLockModeAsString(lockMode), elapsed);
             }
         }
     }
 
     public void refresh(Object entity, LockModeType lockMode, Map<String, Object> properties) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             transactionIsRequired();
             getEntityManager().refresh(entity, lockMode, properties);
         } finally {
+            final long elapsed = record(Operation.REFRESH, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("refresh entityClass '%s', lockMode '%s' took %dms", entity.getClass().getName(), getLockModeAsString(lockMode), elapsed);
             }
         }
     }
 
     public void remove(Object entity) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             transactionIsRequired();
             getEntityManager().remove(entity);
         } finally {
+            final long elapsed = record(Operation.REMOVE, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("remove entityClass '%s' took %dms", entity.getClass().getName(), elapsed);
             }
         }
     }
 
     public void setFlushMode(FlushModeType flushMode) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             getEntityManager().setFlushMode(flushMode);
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("setFlushMode took %dms", elapsed);
             }
         }
     }
 
     public Query createQuery(CriteriaUpdate criteriaUpdate) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().createQuery(criteriaUpdate);
 
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createQuery(CriteriaUpdate) took %dms", elapsed);
             }
         }
     }
 
     public Query createQuery(CriteriaDelete criteriaDelete) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().createQuery(criteriaDelete);
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createQuery(criteriaDelete) took %dms", elapsed);
             }
         }
     }
 
     public StoredProcedureQuery createNamedStoredProcedureQuery(String name) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().createNamedStoredProcedureQuery(name);
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createNamedStoredProcedureQuery %s took %dms", name, elapsed);
             }
         }
     }
 
     public StoredProcedureQuery createStoredProcedureQuery(String procedureName) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().createStoredProcedureQuery(procedureName);
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createStoredProcedureQuery %s took %dms", procedureName, elapsed);
             }
         }
     }
 
     public StoredProcedureQuery createStoredProcedureQuery(String procedureName, Class... resultClasses) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().createStoredProcedureQuery(procedureName, resultClasses);
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createStoredProcedureQuery %s, resultClasses... took %dms", procedureName, elapsed);
             }
         }
     }
 
     public StoredProcedureQuery createStoredProcedureQuery(String procedureName, String... resultSetMappings) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().createStoredProcedureQuery(procedureName, resultSetMappings);
         } finally {
+            final long elapsed = record(Operation.CREATE_QUERY, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createStoredProcedureQuery %s, resultSetMappings... took %dms", procedureName, elapsed);
             }
         }
     }
 
     public <T> EntityGraph<T> createEntityGraph(Class<T> tClass) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().createEntityGraph(tClass);
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createEntityGraph %s took %dms", tClass.getName(), elapsed);
             }
         }
@@ -765,56 +682,48 @@ public abstract class AbstractEntityManager implements EntityManager {
     }
 
     public EntityGraph<?> createEntityGraph(String s) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().createEntityGraph(s);
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("createEntityGraph %s took %dms", s, elapsed);
             }
         }
     }
 
     public <T> EntityGraph<T> getEntityGraph(String s) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().getEntityGraph(s);
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("getEntityGraph %s took %dms", s, elapsed);
             }
         }
     }
 
     public <T> List<EntityGraph<? super T>> getEntityGraphs(Class<T> tClass) {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().getEntityGraphs(tClass);
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("getEntityGraphs %s took %dms", tClass.getName(), elapsed);
             }
         }
     }
 
     public boolean isJoinedToTransaction() {
-        long start = 0;
-        if (isTraceEnabled)
-            start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         try {
             return getEntityManager().isJoinedToTransaction();
         } finally {
+            final long elapsed = record(Operation.OTHER, start);
             if (isTraceEnabled) {
-                long elapsed = System.currentTimeMillis() - start;
                 ROOT_LOGGER.tracef("isJoinedToTransaction() took %dms", elapsed);
             }
         }
@@ -848,6 +757,27 @@ public abstract class AbstractEntityManager implements EntityManager {
     }
 
 
+    /**
+     * Record an entity manager invocation in the metrics of the persistence unit.
+     *
+     * @param operation the invoked operation
+     * @param start the {@link System#nanoTime()} the invocation started at
+     * @return the elapsed time in milliseconds
+     */
+    private long record(final Operation operation, final long start) {
+        final long elapsed = System.nanoTime() - start;
+        EntityManagerMetrics metrics = this.metrics;
+        if (metrics == null) {
+            // resolved lazily, the persistence unit may not have been started when this entity manager was created
+            metrics = EntityManagerMetrics.forPersistenceUnit(getScopedPuName());
+            this.metrics = metrics;
+        }
+        if (metrics != null) {
+            metrics.record(operation, elapsed);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(elapsed);
+    }
+
     // JPA 7.9.1 if invoked without a JTA transaction and a transaction scoped persistence context is used,
     // will throw TransactionRequiredException for any calls to entity manager remove/merge/persist/refresh.
     private void transactionIsRequired() {
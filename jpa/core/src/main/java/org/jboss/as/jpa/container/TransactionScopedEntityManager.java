@@ -31,13 +31,16 @@ import java.util.Map;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.SynchronizationType;
+import javax.transaction.Transaction;
 
 import org.jboss.as.jpa.service.PersistenceUnitServiceImpl;
 import org.jboss.as.jpa.transaction.TransactionUtil;
+import org.jboss.as.jpa.transaction.TransactionUtil.SessionSynchronization;
 import org.jboss.as.jpa.util.JPAServiceNames;
 import org.jboss.as.server.CurrentServiceContainer;
 import org.jboss.msc.service.ServiceContainer;
 import org.jboss.msc.service.ServiceController;
+import org.jboss.tm.TxUtils;
 
 import static org.jboss.as.jpa.messages.JpaLogger.JPA_LOGGER;
 import static org.jboss.as.jpa.messages.JpaMessages.MESSAGES;
@@ -58,6 +61,8 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
     private final String puScopedName;          // Scoped name of the persistent unit
     private final Map properties;
     private transient EntityManagerFactory emf;
+    // per thread, the synchronization of the entity manager this proxy last resolved within a transaction
+    private transient ThreadLocal<SessionSynchronization> synchronization = new ThreadLocal<SessionSynchronization>();
     private transient boolean isJPA21=true;          // true if persistence provider supports JPA 2.1
     private final SynchronizationType synchronizationType;
 
@@ -70,13 +75,15 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
 
     @Override
     protected EntityManager getEntityManager() {
+        final Transaction transaction = TransactionUtil.getTransaction();
         EntityManager entityManager;
-        boolean isInTx;
-
-        isInTx = TransactionUtil.isInTx();
-
-        if (isInTx) {
-            entityManager = getOrCreateTransactionScopedEntityManager(emf, puScopedName, properties, synchronizationType);
+        if (transaction != null && TxUtils.isActive(transaction)) {
+            // fast path, the calling thread already used this entity manager in the current transaction
+            final SessionSynchronization synchronization = this.synchronization.get();
+            entityManager = synchronization != null ? synchronization.getEntityManager(transaction) : null;
+            if (entityManager == null) {
+                entityManager = getOrCreateTransactionScopedEntityManager(emf, puScopedName, properties, synchronizationType, transaction);
+            }
         } else {
             entityManager = NonTxEmCloser.get(puScopedName);
             if (entityManager == null) {
@@ -87,6 +94,11 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
         return entityManager;
     }
 
+    @Override
+    protected String getScopedPuName() {
+        return puScopedName;
+    }
+
     @Override
     protected boolean isExtendedPersistenceContext() {
         return false;
@@ -112,6 +124,7 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
         final ServiceController<?> controller = currentServiceContainer().getService(JPAServiceNames.getPUServiceName(puScopedName));
         final PersistenceUnitServiceImpl persistenceUnitService = (PersistenceUnitServiceImpl) controller.getService();
         emf = persistenceUnitService.getEntityManagerFactory();
+        synchronization = new ThreadLocal<SessionSynchronization>();
         isJPA21 = true;
     }
 
@@ -138,28 +151,37 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
      * @param scopedPuName
      * @param properties
      * @param synchronizationType
+     * @param transaction the active transaction of the current thread
      * @return
      */
     private EntityManager getOrCreateTransactionScopedEntityManager(
             final EntityManagerFactory emf,
             final String scopedPuName,
             final Map properties,
-            final SynchronizationType synchronizationType) {
+            final SynchronizationType synchronizationType,
+            final Transaction transaction) {
         EntityManager entityManager = TransactionUtil.getTransactionScopedEntityManager(puScopedName);
         if (entityManager == null) {
             entityManager = createEntityManager(emf, properties, synchronizationType);
             if (JPA_LOGGER.isDebugEnabled())
                 JPA_LOGGER.debugf("%s: created entity manager session %s", TransactionUtil.getEntityManagerDetails(entityManager),
-                    TransactionUtil.getTransaction().toString());
-            TransactionUtil.registerSynchronization(entityManager, scopedPuName);
+                    transaction.toString());
+            synchronization.set(TransactionUtil.registerSynchronization(entityManager, scopedPuName));
             TransactionUtil.putEntityManagerInTransactionRegistry(scopedPuName, entityManager);
         }
         else {
             testForMixedSyncronizationTypes(entityManager, puScopedName, synchronizationType);
             if (JPA_LOGGER.isDebugEnabled()) {
                 JPA_LOGGER.debugf("%s: reuse entity manager session already in tx %s", TransactionUtil.getEntityManagerDetails(entityManager),
-                    TransactionUtil.getTransaction().toString());
+                    transaction.toString());
+            }
+            // another proxy of the persistence unit may have created the entity manager, otherwise an extended
+            // persistence context propagated into the transaction, which needs a handle of its own
+            SessionSynchronization existing = TransactionUtil.getSessionSynchronization(scopedPuName);
+            if (existing == null || existing.getEntityManager(transaction) != entityManager) {
+                existing = TransactionUtil.registerEntityManagerHandle(entityManager, scopedPuName);
             }
+            synchronization.set(existing);
         }
         return entityManager;
     }
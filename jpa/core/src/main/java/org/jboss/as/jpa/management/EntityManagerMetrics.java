@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jpa.management;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.as.jpa.service.PersistenceUnitServiceImpl;
+import org.jboss.as.jpa.spi.PersistenceUnitService;
+import org.jboss.as.jpa.subsystem.PersistenceUnitRegistryImpl;
+
+/**
+ * Always on invocation counts and times of the container managed entity managers of a persistence unit.
+ * <p>
+ * The counters are striped by thread, so concurrent invocations rarely update the same counter. Reading the
+ * metrics sums up all stripes. All times are reported in microseconds.
+ */
+public final class EntityManagerMetrics {
+
+    /**
+     * The entity manager operations that are tracked separately.
+     */
+    public enum Operation {
+        FIND("find"),
+        GET_REFERENCE("get-reference"),
+        PERSIST("persist"),
+        MERGE("merge"),
+        REMOVE("remove"),
+        REFRESH("refresh"),
+        LOCK("lock"),
+        DETACH("detach"),
+        FLUSH("flush"),
+        CLEAR("clear"),
+        CONTAINS("contains"),
+        CREATE_QUERY("create-query"),
+        OTHER("other");
+
+        private final String name;
+
+        Operation(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final int COUNT = 0;
+    private static final int TIME = 1;
+    private static final int MAX_TIME = 2;
+    private static final int SLOTS = 3;
+    private static final int STRIPE_SIZE = OPERATIONS.length * SLOTS;
+    private static final int STRIPES = stripes();
+
+    private final AtomicLongArray values = new AtomicLongArray(STRIPES * STRIPE_SIZE);
+
+    /**
+     * Get the metrics of a deployed persistence unit.
+     *
+     * @param scopedPersistenceUnitName the fully application scoped persistence unit name
+     * @return the metrics, or {@code null} if the persistence unit is not started
+     */
+    public static EntityManagerMetrics forPersistenceUnit(final String scopedPersistenceUnitName) {
+        final PersistenceUnitService service = PersistenceUnitRegistryImpl.INSTANCE.getPersistenceUnitService(scopedPersistenceUnitName);
+        return service instanceof PersistenceUnitServiceImpl ? ((PersistenceUnitServiceImpl) service).getEntityManagerMetrics() : null;
+    }
+
+    /**
+     * Record a finished entity manager invocation.
+     *
+     * @param operation the operation
+     * @param nanos the invocation time in nanoseconds
+     */
+    public void record(final Operation operation, final long nanos) {
+        final int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        final int index = stripe * STRIPE_SIZE + operation.ordinal() * SLOTS;
+        values.incrementAndGet(index + COUNT);
+        values.addAndGet(index + TIME, nanos);
+        long max;
+        while (nanos > (max = values.get(index + MAX_TIME))) {
+            if (values.compareAndSet(index + MAX_TIME, max, nanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the number of finished invocations of the operation
+     */
+    public long getCount(final Operation operation) {
+        return sum(operation, COUNT);
+    }
+
+    /**
+     * @return the total time spent in the operation
+     */
+    public long getTotalTime(final Operation operation) {
+        return TimeUnit.NANOSECONDS.toMicros(sum(operation, TIME));
+    }
+
+    /**
+     * @return the longest invocation of the operation
+     */
+    public long getMaxTime(final Operation operation) {
+        long max = 0L;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            max = Math.max(max, values.get(stripe * STRIPE_SIZE + operation.ordinal() * SLOTS + MAX_TIME));
+        }
+        return TimeUnit.NANOSECONDS.toMicros(max);
+    }
+
+    /**
+     * @return the average time of an invocation of the operation
+     */
+    public long getAverageTime(final Operation operation) {
+        final long count = getCount(operation);
+        return count == 0L ? 0L : TimeUnit.NANOSECONDS.toMicros(sum(operation, TIME)) / count;
+    }
+
+    /**
+     * Reset all counters.
+     */
+    public void clear() {
+        for (int i = 0; i < values.length(); i++) {
+            values.set(i, 0L);
+        }
+    }
+
+    private long sum(final Operation operation, final int slot) {
+        long sum = 0L;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            sum += values.get(stripe * STRIPE_SIZE + operation.ordinal() * SLOTS + slot);
+        }
+        return sum;
+    }
+
+    private static int stripes() {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = 1;
+        while (stripes < processors * 2 && stripes < 64) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jpa.management;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.jpa.subsystem.JPAExtension;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Reads the {@link EntityManagerMetrics} of a persistence unit, i.e. the invocation counts and times of its
+ * container managed entity managers per operation.
+ */
+public class EntityManagerStatisticsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final SimpleOperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder("read-entity-manager-statistics", JPAExtension.getResourceDescriptionResolver("persistence-unit"))
+            .setRuntimeOnly()
+            .setReadOnly()
+            .setReplyType(ModelType.OBJECT)
+            .build();
+
+    public static final EntityManagerStatisticsHandler INSTANCE = new EntityManagerStatisticsHandler();
+
+    private EntityManagerStatisticsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final String scopedPersistenceUnitName = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final EntityManagerMetrics metrics = EntityManagerMetrics.forPersistenceUnit(scopedPersistenceUnitName);
+        final ModelNode result = context.getResult();
+        result.setEmptyObject();
+        if (metrics != null) {
+            for (EntityManagerMetrics.Operation entityManagerOperation : EntityManagerMetrics.Operation.values()) {
+                final ModelNode node = result.get(entityManagerOperation.toString());
+                node.get("count").set(metrics.getCount(entityManagerOperation));
+                node.get("total-time").set(metrics.getTotalTime(entityManagerOperation));
+                node.get("max-time").set(metrics.getMaxTime(entityManagerOperation));
+                node.get("average-time").set(metrics.getAverageTime(entityManagerOperation));
+            }
+        }
+        context.stepCompleted();
+    }
+}
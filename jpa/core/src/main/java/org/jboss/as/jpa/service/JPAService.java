@@ -39,6 +39,7 @@ import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.jpa.config.ExtendedPersistenceInheritance;
 import org.jboss.as.jpa.management.DynamicManagementStatisticsResource;
+import org.jboss.as.jpa.management.EntityManagerStatisticsHandler;
 import org.jboss.as.jpa.management.EntityManagerFactoryLookup;
 import org.jboss.as.jpa.management.ManagementResourceDefinition;
 import org.jboss.as.jpa.processor.CacheDeploymentHelper;
@@ -184,8 +185,9 @@ public class JPAService implements Service<Void> {
                         deploymentUnit.getAttachment(DeploymentModelUtils.MUTABLE_REGISTRATION_ATTACHMENT).
                                 getSubModel(PathAddress.pathAddress(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, JPAExtension.SUBSYSTEM_NAME)));
 
-                managementResourceRegistration.registerSubModel(
+                ManagementResourceRegistration persistenceUnitRegistration = managementResourceRegistration.registerSubModel(
                                 new ManagementResourceDefinition(PathElement.pathElement(managementAdaptor.getIdentificationLabel()), resourceDescriptionResolver, statistics, entityManagerFactoryLookup));
+                persistenceUnitRegistration.registerOperationHandler(EntityManagerStatisticsHandler.DEFINITION, EntityManagerStatisticsHandler.INSTANCE);
                 existingResourceDescriptionResolver.add(managementAdaptor.getVersion());
             }
             // create (per deployment) dynamic Resource implementation that can reflect the deployment specific names (e.g. jpa entity classname/Hibernate region name)
@@ -31,6 +31,7 @@ import javax.persistence.spi.PersistenceProvider;
 import javax.sql.DataSource;
 
 import org.jboss.as.jpa.classloader.TempClassLoaderFactoryImpl;
+import org.jboss.as.jpa.management.EntityManagerMetrics;
 import org.jboss.as.jpa.spi.PersistenceUnitService;
 import org.jboss.as.jpa.subsystem.PersistenceUnitRegistryImpl;
 import org.jboss.as.jpa.util.JPAServiceNames;
@@ -71,6 +72,7 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
     private final ServiceName deploymentUnitServiceName;
 
     private volatile EntityManagerFactory entityManagerFactory;
+    private final EntityManagerMetrics entityManagerMetrics = new EntityManagerMetrics();
 
 
     public PersistenceUnitServiceImpl(
@@ -171,6 +173,15 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
         return pu.getScopedPersistenceUnitName();
     }
 
+    /**
+     * Get the invocation metrics of the container managed entity managers of this persistence unit
+     *
+     * @return the metrics
+     */
+    public EntityManagerMetrics getEntityManagerMetrics() {
+        return entityManagerMetrics;
+    }
+
     public Injector<Map> getPropertiesInjector() {
         return properties;
     }
@@ -94,8 +94,49 @@ public class TransactionUtil {
         return getEntityManagerInTransactionRegistry(puScopedName);
     }
 
-    public static void registerSynchronization(EntityManager entityManager, String puScopedName) {
-        getTransactionSynchronizationRegistry().registerInterposedSynchronization(new SessionSynchronization(entityManager, puScopedName));
+    /**
+     * Register the synchronization that closes the specified transaction scoped entity manager when the
+     * current transaction completes.  Only call while a transaction is active in the current thread.
+     *
+     * @param entityManager the underlying entity manager
+     * @param puScopedName  the fully (application deployment) scoped name of the persistence unit
+     * @return the synchronization, which hands out the entity manager until the transaction completes
+     */
+    public static SessionSynchronization registerSynchronization(EntityManager entityManager, String puScopedName) {
+        return registerSynchronization(entityManager, puScopedName, true);
+    }
+
+    /**
+     * Register a handle to an entity manager that another party joined to the current transaction, such as an extended
+     * persistence context.  The entity manager is not closed when the transaction completes.
+     * Only call while a transaction is active in the current thread.
+     *
+     * @param entityManager the entity manager already stored in the registry
+     * @param puScopedName  the fully (application deployment) scoped name of the persistence unit
+     * @return the synchronization, which hands out the entity manager until the transaction completes
+     */
+    public static SessionSynchronization registerEntityManagerHandle(EntityManager entityManager, String puScopedName) {
+        return registerSynchronization(entityManager, puScopedName, false);
+    }
+
+    private static SessionSynchronization registerSynchronization(EntityManager entityManager, String puScopedName, boolean close) {
+        final SessionSynchronization synchronization = new SessionSynchronization(entityManager, puScopedName, getTransaction(), close);
+        final TransactionSynchronizationRegistry registry = getTransactionSynchronizationRegistry();
+        registry.registerInterposedSynchronization(synchronization);
+        registry.putResource(new SessionSynchronizationKey(puScopedName), synchronization);
+        return synchronization;
+    }
+
+    /**
+     * Get the synchronization of the entity manager of the current transaction.  There is one per persistence unit
+     * and transaction, stored once in the registry, so it can serve as the handle to the entity manager for the rest
+     * of the transaction.  Only call while a transaction is associated with the current thread.
+     *
+     * @param puScopedName the fully (application deployment) scoped name of the persistence unit
+     * @return the synchronization or {@code null} if the current transaction has no entity manager for the persistence unit
+     */
+    public static SessionSynchronization getSessionSynchronization(String puScopedName) {
+        return (SessionSynchronization) getTransactionSynchronizationRegistry().getResource(new SessionSynchronizationKey(puScopedName));
     }
 
     public static Transaction getTransaction() {
@@ -142,19 +183,42 @@ public class TransactionUtil {
         getTransactionSynchronizationRegistry().putResource(scopedPuName, entityManager);
     }
 
-    private static class SessionSynchronization implements Synchronization {
-        private EntityManager manager;  // the underlying entity manager
-        private String scopedPuName;
+    /**
+     * Closes a transaction scoped entity manager when its transaction completes.
+     * <p/>
+     * Until the transaction starts completing, the synchronization also serves as a cheap handle to the entity
+     * manager: callers that hold on to it can use the entity manager of their transaction without looking it up in the
+     * registry again.
+     */
+    public static final class SessionSynchronization implements Synchronization {
+        private volatile EntityManager manager;  // the underlying entity manager, released once the transaction completed
+        private final String scopedPuName;
+        private volatile Transaction transaction;   // cleared as soon as the transaction starts completing
+        private final boolean close;   // false for entity managers owned by someone else, like an extended persistence context
 
-        public SessionSynchronization(EntityManager session, String scopedPuName) {
+        SessionSynchronization(EntityManager session, String scopedPuName, Transaction transaction, boolean close) {
             this.manager = session;
             this.scopedPuName = scopedPuName;
+            this.transaction = transaction;
+            this.close = close;
+        }
+
+        /**
+         * Get the entity manager, if the specified transaction is the (still active) transaction it belongs to.
+         *
+         * @param transaction the transaction of the current thread
+         * @return the entity manager or {@code null}
+         */
+        public EntityManager getEntityManager(Transaction transaction) {
+            return transaction != null && transaction == this.transaction ? manager : null;
         }
 
         public void beforeCompletion() {
+            transaction = null;
         }
 
         public void afterCompletion(int status) {
+            transaction = null;
             /**
              * If its not safe (safeToClose returns false) to close the EntityManager now,
              * any connections joined to the JTA transaction
@@ -162,7 +226,7 @@ public class TransactionUtil {
              * referencing the EntityManager, it will be eligible for garbage collection.
              * See AS7-6586 for more details.
              */
-            if (safeToClose(status)) {
+            if (close && safeToClose(status)) {
                 try {
                     if (JPA_LOGGER.isDebugEnabled())
                         JPA_LOGGER.debugf("%s: closing entity managersession", getEntityManagerDetails(manager));
@@ -173,7 +237,8 @@ public class TransactionUtil {
                 }
             }
             // The TX reference to the entity manager, should be cleared by the TM
-
+            // release our own reference, transaction scoped entity managers may still hold on to this synchronization
+            manager = null;
         }
 
         /**
@@ -199,5 +264,27 @@ public class TransactionUtil {
         }
     }
 
+    /**
+     * Key of the {@link SessionSynchronization} in the {@link TransactionSynchronizationRegistry}, kept apart from the
+     * entity manager which is stored under the persistence unit name.
+     */
+    private static final class SessionSynchronizationKey {
+        private final String scopedPuName;
+
+        SessionSynchronizationKey(String scopedPuName) {
+            this.scopedPuName = scopedPuName;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof SessionSynchronizationKey && scopedPuName.equals(((SessionSynchronizationKey) other).scopedPuName);
+        }
+
+        @Override
+        public int hashCode() {
+            return scopedPuName.hashCode();
+        }
+    }
+
 
 }
@@ -0,0 +1,405 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jpa.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.SynchronizationType;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+import javax.transaction.xa.XAResource;
+
+import org.jboss.as.jpa.transaction.TransactionUtil;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests that a {@link TransactionScopedEntityManager} resolves the entity manager of the transaction of the calling
+ * thread, and stops handing it out once the transaction completed.
+ */
+public class TransactionScopedEntityManagerTestCase {
+
+    private static final TestTransactionManager transactionManager = new TestTransactionManager();
+    private static final TestTransactionSynchronizationRegistry registry = new TestTransactionSynchronizationRegistry(transactionManager);
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final Set<EntityManager> closed = Collections.newSetFromMap(new ConcurrentHashMap<EntityManager, Boolean>());
+    private TransactionScopedEntityManager entityManager;
+    private String puScopedName;
+
+    @BeforeClass
+    public static void setUpTransactionManager() {
+        TransactionUtil.setTransactionManager(transactionManager);
+        TransactionUtil.setTransactionSynchronizationRegistry(registry);
+    }
+
+    @Before
+    public void setUp() {
+        // each test gets its own persistence unit, the transaction manager is shared
+        puScopedName = "test.jar#" + System.nanoTime();
+        entityManager = new TransactionScopedEntityManager(puScopedName, null, entityManagerFactory(), SynchronizationType.SYNCHRONIZED);
+    }
+
+    @Test
+    public void testEntityManagerIsReusedWithinTransaction() throws Exception {
+        transactionManager.begin();
+        final EntityManager first = entityManager.getEntityManager();
+        assertSame(first, entityManager.getEntityManager());
+        assertSame(first, TransactionUtil.getTransactionScopedEntityManager(puScopedName));
+        assertTrue(entityManager.isInTx());
+        transactionManager.commit();
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testCommitInvalidatesEntityManager() throws Exception {
+        transactionManager.begin();
+        final Transaction transaction = transactionManager.getTransaction();
+        final EntityManager first = entityManager.getEntityManager();
+        final TransactionUtil.SessionSynchronization synchronization = TransactionUtil.getSessionSynchronization(puScopedName);
+        assertSame(first, synchronization.getEntityManager(transaction));
+        transactionManager.commit();
+
+        assertNull(synchronization.getEntityManager(transaction));
+        assertTrue(closed.contains(first));
+        assertFalse(entityManager.isInTx());
+
+        transactionManager.begin();
+        final EntityManager second = entityManager.getEntityManager();
+        assertNotSame(first, second);
+        transactionManager.commit();
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    public void testRollbackInvalidatesEntityManager() throws Exception {
+        transactionManager.begin();
+        final Transaction transaction = transactionManager.getTransaction();
+        final EntityManager first = entityManager.getEntityManager();
+        final TransactionUtil.SessionSynchronization synchronization = TransactionUtil.getSessionSynchronization(puScopedName);
+        transactionManager.rollback();
+
+        assertNull(synchronization.getEntityManager(transaction));
+        assertTrue(closed.contains(first));
+
+        transactionManager.begin();
+        assertNotSame(first, entityManager.getEntityManager());
+        transactionManager.rollback();
+    }
+
+    @Test
+    public void testPropagatedEntityManagerIsNotClosed() throws Exception {
+        transactionManager.begin();
+        final EntityManager propagated = newEntityManager();
+        TransactionUtil.putEntityManagerInTransactionRegistry(puScopedName, propagated);
+        assertSame(propagated, entityManager.getEntityManager());
+        assertSame(propagated, entityManager.getEntityManager());
+        transactionManager.commit();
+        assertFalse(closed.contains(propagated));
+        assertEquals(0, created.get());
+    }
+
+    @Test
+    public void testFastPathSkipsRegistry() throws Exception {
+        transactionManager.begin();
+        final EntityManager first = entityManager.getEntityManager();
+        final int lookups = registry.lookups.get();
+        for (int i = 0; i < 100; i++) {
+            assertSame(first, entityManager.getEntityManager());
+        }
+        assertEquals(lookups, registry.lookups.get());
+
+        // a second proxy of the persistence unit shares the entity manager and its synchronization
+        final TransactionScopedEntityManager other = new TransactionScopedEntityManager(puScopedName, null, entityManagerFactory(), SynchronizationType.SYNCHRONIZED);
+        assertSame(first, other.getEntityManager());
+        final TestTransaction transaction = transactionManager.getTransaction();
+        assertEquals(1, transaction.synchronizations.size());
+        transactionManager.commit();
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testMarkedRollbackUsesNonTransactionalEntityManager() throws Exception {
+        // same as before the fast path: a transaction marked for rollback only is not active,
+        // so the invocation gets an entity manager that is not joined to it
+        NonTxEmCloser.pushCall();
+        try {
+            transactionManager.begin();
+            final EntityManager transactional = entityManager.getEntityManager();
+            transactionManager.setRollbackOnly();
+            assertFalse(entityManager.isInTx());
+            final EntityManager nonTransactional = entityManager.getEntityManager();
+            assertNotSame(transactional, nonTransactional);
+            assertSame(nonTransactional, entityManager.getEntityManager());
+            transactionManager.rollback();
+            assertTrue(closed.contains(transactional));
+            assertFalse(closed.contains(nonTransactional));
+        } finally {
+            NonTxEmCloser.popCall();
+        }
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    public void testConcurrentTransactions() throws Exception {
+        final int threads = 8;
+        final int calls = 1000;
+        final CyclicBarrier barrier = new CyclicBarrier(threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<EntityManager>> futures = new ArrayList<Future<EntityManager>>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<EntityManager>() {
+                    @Override
+                    public EntityManager call() throws Exception {
+                        transactionManager.begin();
+                        try {
+                            // keep all transactions open at the same time
+                            barrier.await();
+                            final EntityManager first = entityManager.getEntityManager();
+                            for (int j = 0; j < calls; j++) {
+                                assertSame(first, entityManager.getEntityManager());
+                            }
+                            barrier.await();
+                            return first;
+                        } finally {
+                            transactionManager.commit();
+                        }
+                    }
+                }));
+            }
+            final Set<EntityManager> entityManagers = Collections.newSetFromMap(new HashMap<EntityManager, Boolean>());
+            for (Future<EntityManager> future : futures) {
+                entityManagers.add(future.get());
+            }
+            assertEquals(threads, entityManagers.size());
+            assertEquals(threads, created.get());
+            assertTrue(closed.containsAll(entityManagers));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private EntityManagerFactory entityManagerFactory() {
+        return (EntityManagerFactory) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {EntityManagerFactory.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("createEntityManager")) {
+                    created.incrementAndGet();
+                    return newEntityManager();
+                }
+                return objectMethod(proxy, method, args);
+            }
+        });
+    }
+
+    private EntityManager newEntityManager() {
+        return (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {EntityManager.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("close")) {
+                    closed.add((EntityManager) proxy);
+                    return null;
+                }
+                return objectMethod(proxy, method, args);
+            }
+        });
+    }
+
+    private static Object objectMethod(Object proxy, Method method, Object[] args) {
+        if (method.getName().equals("equals")) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        }
+        if (method.getName().equals("toString")) {
+            return "proxy@" + System.identityHashCode(proxy);
+        }
+        throw new UnsupportedOperationException(method.getName());
+    }
+
+    static final class TestTransaction implements Transaction {
+        final Map<Object, Object> resources = new ConcurrentHashMap<Object, Object>();
+        final List<Synchronization> synchronizations = new ArrayList<Synchronization>();
+        volatile int status = Status.STATUS_ACTIVE;
+
+        void complete(boolean commit) {
+            if (commit) {
+                for (Synchronization synchronization : synchronizations) {
+                    synchronization.beforeCompletion();
+                }
+            }
+            status = commit ? Status.STATUS_COMMITTED : Status.STATUS_ROLLEDBACK;
+            for (Synchronization synchronization : synchronizations) {
+                synchronization.afterCompletion(status);
+            }
+        }
+
+        public void commit() {
+            complete(true);
+        }
+
+        public void rollback() {
+            complete(false);
+        }
+
+        public boolean delistResource(XAResource resource, int flag) {
+            return false;
+        }
+
+        public boolean enlistResource(XAResource resource) {
+            return false;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public void registerSynchronization(Synchronization synchronization) {
+            synchronizations.add(synchronization);
+        }
+
+        public void setRollbackOnly() {
+            status = Status.STATUS_MARKED_ROLLBACK;
+        }
+    }
+
+    static final class TestTransactionManager implements TransactionManager {
+        private final ThreadLocal<TestTransaction> current = new ThreadLocal<TestTransaction>();
+
+        public void begin() {
+            current.set(new TestTransaction());
+        }
+
+        public void commit() {
+            current.get().commit();
+            current.remove();
+        }
+
+        public void rollback() {
+            current.get().rollback();
+            current.remove();
+        }
+
+        public int getStatus() {
+            final TestTransaction transaction = current.get();
+            return transaction == null ? Status.STATUS_NO_TRANSACTION : transaction.getStatus();
+        }
+
+        public TestTransaction getTransaction() {
+            return current.get();
+        }
+
+        public void resume(Transaction transaction) {
+            current.set((TestTransaction) transaction);
+        }
+
+        public void setRollbackOnly() {
+            current.get().setRollbackOnly();
+        }
+
+        public void setTransactionTimeout(int seconds) {
+        }
+
+        public Transaction suspend() {
+            final TestTransaction transaction = current.get();
+            current.remove();
+            return transaction;
+        }
+    }
+
+    static final class TestTransactionSynchronizationRegistry implements TransactionSynchronizationRegistry {
+        private final TestTransactionManager transactionManager;
+        final AtomicInteger lookups = new AtomicInteger();
+
+        TestTransactionSynchronizationRegistry(TestTransactionManager transactionManager) {
+            this.transactionManager = transactionManager;
+        }
+
+        private TestTransaction transaction() {
+            final TestTransaction transaction = transactionManager.getTransaction();
+            if (transaction == null) {
+                throw new IllegalStateException("No transaction");
+            }
+            return transaction;
+        }
+
+        public Object getTransactionKey() {
+            return transactionManager.getTransaction();
+        }
+
+        public void putResource(Object key, Object value) {
+            transaction().resources.put(key, value);
+        }
+
+        public Object getResource(Object key) {
+            lookups.incrementAndGet();
+            return transaction().resources.get(key);
+        }
+
+        public void registerInterposedSynchronization(Synchronization synchronization) {
+            transaction().registerSynchronization(synchronization);
+        }
+
+        public int getTransactionStatus() {
+            return transactionManager.getStatus();
+        }
+
+        public void setRollbackOnly() {
+            transaction().setRollbackOnly();
+        }
+
+        public boolean getRollbackOnly() {
+            return transaction().getStatus() == Status.STATUS_MARKED_ROLLBACK;
+        }
+    }
+}
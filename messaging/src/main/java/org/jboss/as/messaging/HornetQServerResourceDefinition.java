@@ -126,6 +126,7 @@ public class HornetQServerResourceDefinition extends SimpleResourceDefinition {
         if (registerRuntimeOnly) {
             HornetQServerControlHandler.INSTANCE.registerOperations(resourceRegistration);
             JMSServerControlHandler.INSTANCE.registerOperations(resourceRegistration);
+            resourceRegistration.registerOperationHandler(ReadDestinationMetricsHandler.DEFINITION, ReadDestinationMetricsHandler.INSTANCE);
         }
 
         // unsupported runtime operations exposed by HornetQServerControl
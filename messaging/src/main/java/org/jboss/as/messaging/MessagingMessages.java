@@ -545,4 +545,15 @@ public interface MessagingMessages {
      */
     @Message(id = 11679, value = "The broadcast group '%s' defines reference to nonexistent connector '%s'. Available connectors '%s'.")
     OperationFailedException wrongConnectorRefInBroadCastGroup(final String bgName, final String connectorRef, final Collection<String> presentConnectors);
+
+    /**
+     * Create an exception indicating that the metrics of a destination could not be read.
+     *
+     * @param cause the cause of the error.
+     * @param name  the name of the destination.
+     *
+     * @return an {@link OperationFailedException} for the error.
+     */
+    @Message(id = 11680, value = "Failed to read the metrics of destination %s")
+    OperationFailedException failedToReadDestinationMetrics(@Cause Throwable cause, String name);
 }
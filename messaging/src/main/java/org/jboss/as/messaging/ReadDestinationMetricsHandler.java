@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.messaging;
+
+import static org.jboss.as.messaging.HornetQActivationService.ignoreOperationIfServerNotActive;
+import static org.jboss.as.messaging.MessagingMessages.MESSAGES;
+import static org.jboss.dmr.ModelType.OBJECT;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hornetq.api.core.management.QueueControl;
+import org.hornetq.api.jms.management.DestinationControl;
+import org.hornetq.api.jms.management.JMSQueueControl;
+import org.hornetq.api.jms.management.TopicControl;
+import org.hornetq.core.server.HornetQServer;
+import org.hornetq.core.server.management.ManagementService;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.StringListAttributeDefinition;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Implements the {@code read-destination-metrics} operation, which reads the metrics of all (or of the given) core queues,
+ * JMS queues and JMS topics of a HornetQ server at once.
+ * <p>
+ * Instead of looking up the control of each destination in the management registry, the controls of each type of
+ * destination are fetched from the registry in one call. The metrics are read from the same controls, and thus
+ * have the same values, as the metrics of the {@code queue}, {@code runtime-queue}, {@code jms-queue} and
+ * {@code jms-topic} resources.
+ */
+public class ReadDestinationMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final String OPERATION_NAME = "read-destination-metrics";
+
+    static final StringListAttributeDefinition QUEUE_NAMES = new StringListAttributeDefinition.Builder("queue-names")
+            .setAllowNull(true)
+            .build();
+
+    static final StringListAttributeDefinition JMS_QUEUE_NAMES = new StringListAttributeDefinition.Builder("jms-queue-names")
+            .setAllowNull(true)
+            .build();
+
+    static final StringListAttributeDefinition JMS_TOPIC_NAMES = new StringListAttributeDefinition.Builder("jms-topic-names")
+            .setAllowNull(true)
+            .build();
+
+    public static final OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(OPERATION_NAME,
+            MessagingExtension.getResourceDescriptionResolver(CommonAttributes.HORNETQ_SERVER))
+            .setParameters(QUEUE_NAMES, JMS_QUEUE_NAMES, JMS_TOPIC_NAMES)
+            .setReplyType(OBJECT)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+
+    static final ReadDestinationMetricsHandler INSTANCE = new ReadDestinationMetricsHandler();
+
+    private ReadDestinationMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        if (ignoreOperationIfServerNotActive(context, operation)) {
+            return;
+        }
+
+        final ModelNode queueNames = QUEUE_NAMES.resolveModelAttribute(context, operation);
+        final ModelNode jmsQueueNames = JMS_QUEUE_NAMES.resolveModelAttribute(context, operation);
+        final ModelNode jmsTopicNames = JMS_TOPIC_NAMES.resolveModelAttribute(context, operation);
+        // Without any filter, the metrics of all destinations are read
+        final boolean all = !queueNames.isDefined() && !jmsQueueNames.isDefined() && !jmsTopicNames.isDefined();
+
+        final ServiceName hqServiceName = MessagingServices.getHornetQServiceName(PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR)));
+        final ServiceController<?> hqService = context.getServiceRegistry(false).getService(hqServiceName);
+        if (hqService == null || hqService.getState() != ServiceController.State.UP) {
+            throw MESSAGES.hornetQServerNotInstalled(hqServiceName.getSimpleName());
+        }
+        final HornetQServer hqServer = HornetQServer.class.cast(hqService.getValue());
+
+        context.getResult().set(readMetrics(hqServer.getManagementService(),
+                all ? null : toSet(queueNames), all ? null : toSet(jmsQueueNames), all ? null : toSet(jmsTopicNames)));
+        context.stepCompleted();
+    }
+
+    /**
+     * Reads the destination metrics.
+     *
+     * @param managementService the management service of the HornetQ server
+     * @param queueNames the names of the core queues to read, or {@code null} to read all of them
+     * @param jmsQueueNames the names of the JMS queues to read, or {@code null} to read all of them
+     * @param jmsTopicNames the names of the JMS topics to read, or {@code null} to read all of them
+     * @return the metrics of each destination, by destination type and name
+     * @throws OperationFailedException if the message count of a JMS destination cannot be read
+     */
+    static ModelNode readMetrics(final ManagementService managementService, final Set<String> queueNames,
+                                 final Set<String> jmsQueueNames, final Set<String> jmsTopicNames) throws OperationFailedException {
+        final ModelNode result = new ModelNode();
+        final ModelNode queues = result.get(CommonAttributes.QUEUE).setEmptyObject();
+        for (Object resource : managementService.getResources(QueueControl.class)) {
+            final QueueControl control = QueueControl.class.cast(resource);
+            if (queueNames == null || queueNames.contains(control.getName())) {
+                final ModelNode metrics = queues.get(control.getName());
+                metrics.get(CommonAttributes.MESSAGE_COUNT.getName()).set(control.getMessageCount());
+                metrics.get(CommonAttributes.DELIVERING_COUNT.getName()).set(control.getDeliveringCount());
+                metrics.get(CommonAttributes.MESSAGES_ADDED.getName()).set(control.getMessagesAdded());
+                metrics.get(CommonAttributes.CONSUMER_COUNT.getName()).set(control.getConsumerCount());
+                metrics.get(CommonAttributes.SCHEDULED_COUNT.getName()).set(control.getScheduledCount());
+            }
+        }
+        final ModelNode jmsQueues = result.get(CommonAttributes.JMS_QUEUE).setEmptyObject();
+        for (Object resource : managementService.getResources(JMSQueueControl.class)) {
+            final JMSQueueControl control = JMSQueueControl.class.cast(resource);
+            if (jmsQueueNames == null || jmsQueueNames.contains(control.getName())) {
+                final ModelNode metrics = readDestinationMetrics(control, jmsQueues.get(control.getName()));
+                metrics.get(CommonAttributes.CONSUMER_COUNT.getName()).set(control.getConsumerCount());
+                metrics.get(CommonAttributes.SCHEDULED_COUNT.getName()).set(control.getScheduledCount());
+            }
+        }
+        // Topics have no consumer or scheduled count of their own, these are only tracked by their subscription queues
+        final ModelNode jmsTopics = result.get(CommonAttributes.JMS_TOPIC).setEmptyObject();
+        for (Object resource : managementService.getResources(TopicControl.class)) {
+            final TopicControl control = TopicControl.class.cast(resource);
+            if (jmsTopicNames == null || jmsTopicNames.contains(control.getName())) {
+                readDestinationMetrics(control, jmsTopics.get(control.getName()));
+            }
+        }
+        return result;
+    }
+
+    private static ModelNode readDestinationMetrics(final DestinationControl control, final ModelNode metrics) throws OperationFailedException {
+        try {
+            metrics.get(CommonAttributes.MESSAGE_COUNT.getName()).set(control.getMessageCount());
+        } catch (Exception e) {
+            throw MESSAGES.failedToReadDestinationMetrics(e, control.getName());
+        }
+        metrics.get(CommonAttributes.DELIVERING_COUNT.getName()).set(control.getDeliveringCount());
+        metrics.get(CommonAttributes.MESSAGES_ADDED.getName()).set(control.getMessagesAdded());
+        return metrics;
+    }
+
+    private static Set<String> toSet(final ModelNode names) {
+        final Set<String> result = new HashSet<String>();
+        if (names.isDefined()) {
+            for (ModelNode name : names.asList()) {
+                result.add(name.asString());
+            }
+        }
+        return result;
+    }
+}
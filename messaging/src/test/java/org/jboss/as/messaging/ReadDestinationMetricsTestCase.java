@@ -0,0 +1,314 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.hornetq.api.core.Message;
+import org.hornetq.api.core.TransportConfiguration;
+import org.hornetq.api.core.client.ClientConsumer;
+import org.hornetq.api.core.client.ClientMessage;
+import org.hornetq.api.core.client.ClientProducer;
+import org.hornetq.api.core.client.ClientSession;
+import org.hornetq.api.core.client.ClientSessionFactory;
+import org.hornetq.api.core.client.HornetQClient;
+import org.hornetq.api.core.client.ServerLocator;
+import org.hornetq.api.core.management.QueueControl;
+import org.hornetq.api.jms.management.JMSQueueControl;
+import org.hornetq.api.jms.management.TopicControl;
+import org.hornetq.core.config.Configuration;
+import org.hornetq.core.config.impl.ConfigurationImpl;
+import org.hornetq.core.remoting.impl.invm.InVMAcceptorFactory;
+import org.hornetq.core.remoting.impl.invm.InVMConnectorFactory;
+import org.hornetq.core.server.HornetQServer;
+import org.hornetq.core.server.HornetQServers;
+import org.hornetq.core.server.management.ManagementService;
+import org.hornetq.jms.server.impl.JMSServerManagerImpl;
+import org.hornetq.spi.core.naming.BindingRegistry;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.messaging.jms.JMSQueueReadAttributeHandler;
+import org.jboss.as.messaging.jms.JMSTopicReadAttributeHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Checks that the metrics returned by {@link ReadDestinationMetricsHandler} match the ones
+ * returned by the read-attribute handlers of the destination resources of an in-vm HornetQ server.
+ */
+public class ReadDestinationMetricsTestCase {
+
+    private static final String CORE_QUEUE = "coreQueue";
+    private static final String JMS_QUEUE = "jmsQueue";
+    private static final String JMS_TOPIC = "jmsTopic";
+    private static final PathAddress SERVER_ADDRESS = PathAddress.pathAddress(
+            PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, MessagingExtension.SUBSYSTEM_NAME),
+            PathElement.pathElement(CommonAttributes.HORNETQ_SERVER, "default"));
+
+    private File dataDir;
+    private JMSServerManagerImpl jmsServer;
+    private ServerLocator locator;
+    private ClientSessionFactory sessionFactory;
+    private ClientSession session;
+
+    @Before
+    public void startServer() throws Exception {
+        // the server lock is written even with persistence disabled
+        dataDir = File.createTempFile("hornetq", "");
+        dataDir.delete();
+        final Configuration configuration = new ConfigurationImpl();
+        configuration.setJournalDirectory(new File(dataDir, "journal").getAbsolutePath());
+        configuration.setBindingsDirectory(new File(dataDir, "bindings").getAbsolutePath());
+        configuration.setPagingDirectory(new File(dataDir, "paging").getAbsolutePath());
+        configuration.setLargeMessagesDirectory(new File(dataDir, "largemessages").getAbsolutePath());
+        configuration.setPersistenceEnabled(false);
+        configuration.setSecurityEnabled(false);
+        configuration.setJMXManagementEnabled(false);
+        configuration.getAcceptorConfigurations().add(new TransportConfiguration(InVMAcceptorFactory.class.getName()));
+        final HornetQServer server = HornetQServers.newHornetQServer(configuration, false);
+        jmsServer = new JMSServerManagerImpl(server, new NoopBindingRegistry());
+        jmsServer.start();
+        jmsServer.createQueue(false, JMS_QUEUE, null, false);
+        jmsServer.createTopic(false, JMS_TOPIC);
+
+        locator = HornetQClient.createServerLocatorWithoutHA(new TransportConfiguration(InVMConnectorFactory.class.getName()));
+        sessionFactory = locator.createSessionFactory();
+        session = sessionFactory.createSession(true, true, 0);
+        session.createQueue(CORE_QUEUE, CORE_QUEUE, false);
+        session.createQueue("jms.topic." + JMS_TOPIC, "subscription", false);
+        session.start();
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        try {
+            if (session != null) {
+                session.close();
+            }
+            if (sessionFactory != null) {
+                sessionFactory.close();
+            }
+            if (locator != null) {
+                locator.close();
+            }
+        } finally {
+            if (jmsServer != null) {
+                jmsServer.stop();
+            }
+            delete(dataDir);
+        }
+    }
+
+    @Test
+    public void testMetricsMatchAttributes() throws Exception {
+        send(CORE_QUEUE, 3, true);
+        send("jms.queue." + JMS_QUEUE, 2, true);
+        send("jms.topic." + JMS_TOPIC, 4, false);
+        // keep the messages received by the consumers in delivery
+        final ClientConsumer coreConsumer = session.createConsumer(CORE_QUEUE);
+        final ClientConsumer jmsConsumer = session.createConsumer("jms.queue." + JMS_QUEUE);
+        assertTrue(coreConsumer.receive(5000) != null);
+        assertTrue(jmsConsumer.receive(5000) != null);
+
+        final ModelNode operation = Util.createOperation(ReadDestinationMetricsHandler.OPERATION_NAME, SERVER_ADDRESS);
+        final ModelNode result = execute(ReadDestinationMetricsHandler.INSTANCE, operation);
+
+        // compare with the values read by the read-attribute handlers of the destination resources
+        final ModelNode queue = result.get(CommonAttributes.QUEUE, CORE_QUEUE);
+        final PathAddress queueAddress = SERVER_ADDRESS.append(CommonAttributes.QUEUE, CORE_QUEUE);
+        for (AttributeDefinition metric : new AttributeDefinition[] {CommonAttributes.MESSAGE_COUNT, CommonAttributes.DELIVERING_COUNT,
+                CommonAttributes.MESSAGES_ADDED, CommonAttributes.CONSUMER_COUNT, CommonAttributes.SCHEDULED_COUNT}) {
+            assertEquals(metric.getName(), readAttribute(QueueReadAttributeHandler.INSTANCE, queueAddress, metric), queue.get(metric.getName()));
+        }
+        assertEquals(1, queue.get(CommonAttributes.SCHEDULED_COUNT.getName()).asLong());
+        assertTrue(queue.get(CommonAttributes.DELIVERING_COUNT.getName()).asInt() > 0);
+
+        final ModelNode jmsQueue = result.get(CommonAttributes.JMS_QUEUE, JMS_QUEUE);
+        final PathAddress jmsQueueAddress = SERVER_ADDRESS.append(CommonAttributes.JMS_QUEUE, JMS_QUEUE);
+        for (AttributeDefinition metric : new AttributeDefinition[] {CommonAttributes.MESSAGE_COUNT, CommonAttributes.DELIVERING_COUNT,
+                CommonAttributes.MESSAGES_ADDED, CommonAttributes.CONSUMER_COUNT, CommonAttributes.SCHEDULED_COUNT}) {
+            assertEquals(metric.getName(), readAttribute(JMSQueueReadAttributeHandler.INSTANCE, jmsQueueAddress, metric), jmsQueue.get(metric.getName()));
+        }
+
+        final ModelNode jmsTopic = result.get(CommonAttributes.JMS_TOPIC, JMS_TOPIC);
+        final PathAddress jmsTopicAddress = SERVER_ADDRESS.append(CommonAttributes.JMS_TOPIC, JMS_TOPIC);
+        for (AttributeDefinition metric : new AttributeDefinition[] {CommonAttributes.MESSAGE_COUNT, CommonAttributes.DELIVERING_COUNT,
+                CommonAttributes.MESSAGES_ADDED}) {
+            assertEquals(metric.getName(), readAttribute(JMSTopicReadAttributeHandler.INSTANCE, jmsTopicAddress, metric), jmsTopic.get(metric.getName()));
+        }
+        assertEquals(4, jmsTopic.get(CommonAttributes.MESSAGE_COUNT.getName()).asLong());
+    }
+
+    @Test
+    public void testMessageCountFailure() throws Exception {
+        final TopicControl control = mock(TopicControl.class);
+        when(control.getName()).thenReturn(JMS_TOPIC);
+        when(control.getMessageCount()).thenThrow(new Exception());
+        final ManagementService managementService = mock(ManagementService.class);
+        when(managementService.getResources(QueueControl.class)).thenReturn(new Object[0]);
+        when(managementService.getResources(JMSQueueControl.class)).thenReturn(new Object[0]);
+        when(managementService.getResources(TopicControl.class)).thenReturn(new Object[] {control});
+
+        try {
+            ReadDestinationMetricsHandler.readMetrics(managementService, null, null, null);
+            fail("the message count failure should have been reported");
+        } catch (OperationFailedException e) {
+            assertTrue(e.getFailureDescription().asString(), e.getFailureDescription().asString().contains(JMS_TOPIC));
+        }
+    }
+
+    @Test
+    public void testFilteredMetrics() throws Exception {
+        final ManagementService managementService = jmsServer.getHornetQServer().getManagementService();
+        final ModelNode result = ReadDestinationMetricsHandler.readMetrics(managementService,
+                Collections.<String>emptySet(), Collections.singleton(JMS_QUEUE), Collections.<String>emptySet());
+
+        assertEquals(0, result.get(CommonAttributes.QUEUE).keys().size());
+        assertEquals(Collections.singleton(JMS_QUEUE), result.get(CommonAttributes.JMS_QUEUE).keys());
+        assertEquals(0, result.get(CommonAttributes.JMS_TOPIC).keys().size());
+        assertFalse(result.get(CommonAttributes.JMS_QUEUE).has("unknown"));
+    }
+
+    private ModelNode readAttribute(final OperationStepHandler handler, final PathAddress address, final AttributeDefinition attribute) throws Exception {
+        final ModelNode operation = Util.createOperation(ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION, address);
+        operation.get(ModelDescriptionConstants.NAME).set(attribute.getName());
+        return execute(handler, operation);
+    }
+
+    /**
+     * Executes a runtime only handler against the in-vm server, the way the management controller does.
+     */
+    private ModelNode execute(final OperationStepHandler handler, final ModelNode operation) throws Exception {
+        final ServiceController<?> controller = mock(ServiceController.class);
+        doReturn(jmsServer.getHornetQServer()).when(controller).getValue();
+        doReturn(ServiceController.State.UP).when(controller).getState();
+        final ServiceRegistry registry = mock(ServiceRegistry.class);
+        doReturn(controller).when(registry).getService(MessagingServices.getHornetQServiceName(SERVER_ADDRESS));
+        // the core queue is a configured queue resource, not a runtime-queue
+        final Resource serverResource = Resource.Factory.create();
+        serverResource.registerChild(PathElement.pathElement(CommonAttributes.QUEUE, CORE_QUEUE), Resource.Factory.create());
+
+        final ModelNode result = new ModelNode();
+        final OperationContext context = mock(OperationContext.class);
+        when(context.getServiceRegistry(false)).thenReturn(registry);
+        when(context.getResult()).thenReturn(result);
+        when(context.readResourceFromRoot(SERVER_ADDRESS)).thenReturn(serverResource);
+        when(context.resolveExpressions(any(ModelNode.class))).thenAnswer(new Answer<ModelNode>() {
+            @Override
+            public ModelNode answer(InvocationOnMock invocation) throws Throwable {
+                return ((ModelNode) invocation.getArguments()[0]).resolve();
+            }
+        });
+
+        handler.execute(context, operation);
+        final ArgumentCaptor<OperationStepHandler> runtimeStep = ArgumentCaptor.forClass(OperationStepHandler.class);
+        verify(context).addStep(runtimeStep.capture(), eq(OperationContext.Stage.RUNTIME));
+        runtimeStep.getValue().execute(context, operation);
+        verify(context).stepCompleted();
+        return result;
+    }
+
+    private void send(final String address, final int count, final boolean scheduleLast) throws Exception {
+        final ClientProducer producer = session.createProducer(address);
+        try {
+            for (int i = 0; i < count; i++) {
+                final ClientMessage message = session.createMessage(false);
+                if (scheduleLast && i == count - 1) {
+                    message.putLongProperty(Message.HDR_SCHEDULED_DELIVERY_TIME, System.currentTimeMillis() + 60000L);
+                }
+                producer.send(message);
+            }
+        } finally {
+            producer.close();
+        }
+    }
+
+    private static void delete(final File file) {
+        if (file == null) {
+            return;
+        }
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static final class NoopBindingRegistry implements BindingRegistry {
+
+        @Override
+        public Object getContext() {
+            return null;
+        }
+
+        @Override
+        public void setContext(Object context) {
+        }
+
+        @Override
+        public Object lookup(String name) {
+            return null;
+        }
+
+        @Override
+        public boolean bind(String name, Object obj) {
+            return true;
+        }
+
+        @Override
+        public void unbind(String name) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -27,10 +27,14 @@ import static org.jboss.as.naming.NamingMessages.MESSAGES;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
@@ -63,6 +67,12 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
 
+    // Names that resolved directly to a binding service, so repeated lookups skip building the service name.
+    // Each bind or unbind increments the generation and evicts the entries it affects, the generation prevents
+    // a lookup racing with a bind or unbind from caching what it resolved before.
+    private final ConcurrentMap<Name, ServiceController<?>> resolvedNames = new ConcurrentHashMap<Name, ServiceController<?>>();
+    private final AtomicLong bindingGeneration = new AtomicLong();
+
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
         this.serviceRegistry = serviceRegistry;
         this.serviceNameBase = serviceNameBase;
@@ -77,13 +87,31 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        final ServiceController<?> resolved = resolvedNames.get(name);
+        if (resolved != null) {
+            if (resolved.getState() == ServiceController.State.UP) {
+                final Object obj = lookup(name, resolved, dereference);
+                if (obj != null) {
+                    return obj;
+                }
+            }
+            resolvedNames.remove(name, resolved);
+        }
+        final long generation = bindingGeneration.get();
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
-        if (obj == null) {
+        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        Object obj = lookup(name, controller, dereference);
+        if (obj != null) {
+            final Name key = (Name) name.clone();
+            resolvedNames.put(key, controller);
+            if (bindingGeneration.get() != generation) {
+                resolvedNames.remove(key, controller);
+            }
+        } else {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
                 // Parent might be a reference or a link
-                obj = lookup(name.toString(), lower, dereference);
+                obj = lookup(name, lower, dereference);
                 //if the lower is a context that has been explicitly bound then
                 //we do not return a resolve result, as this will result in an
                 //infinite loop
@@ -122,15 +150,18 @@ public class ServiceBasedNamingStore implements NamingStore {
         return cpe;
     }
 
-    private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
-        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+    private Object lookup(final Name name, final ServiceName lookupName, boolean dereference) throws NamingException {
+        return lookup(name, serviceRegistry.getService(lookupName), dereference);
+    }
+
+    private Object lookup(final Name name, final ServiceController<?> controller, boolean dereference) throws NamingException {
         final Object object;
         if (controller != null) {
             try {
                 object = controller.getValue();
             } catch (IllegalStateException e) {
                 //occurs if the service is not actually up
-                throw new NameNotFoundException("Error looking up " + name + ", service " + lookupName + " is not started");
+                throw new NameNotFoundException("Error looking up " + name + ", service " + controller.getName() + " is not started");
             }
         } else {
             return null;
@@ -153,7 +184,7 @@ public class ServiceBasedNamingStore implements NamingStore {
         boolean isContextBinding = false;
         if (floor != null && floor.isParentOf(lookupName)) {
             // Parent might be a reference or a link
-            Object obj = lookup(name.toString(), floor, true);
+            Object obj = lookup(name, floor, true);
             if (obj instanceof NamingContext) {
                 isContextBinding = true;
             } else if (obj != null) {
@@ -170,7 +201,7 @@ public class ServiceBasedNamingStore implements NamingStore {
             if (childParts.length > lookupParts.length + 1) {
                 childContexts.add(childParts[lookupParts.length]);
             } else {
-                final Object binding = lookup(name.toString(), child, false);
+                final Object binding = lookup(name, child, false);
                 final String bindingType;
                 if (binding instanceof ContextListManagedReferenceFactory) {
                     bindingType = ContextListManagedReferenceFactory.class.cast(binding)
@@ -197,7 +228,7 @@ public class ServiceBasedNamingStore implements NamingStore {
         boolean isContextBinding = false;
         if (floor != null && floor.isParentOf(lookupName)) {
             // Parent might be a reference or a link
-            Object obj = lookup(name.toString(), floor, true);
+            Object obj = lookup(name, floor, true);
             if (obj instanceof NamingContext) {
                 isContextBinding = true;
             } else if (obj != null) {
@@ -213,7 +244,7 @@ public class ServiceBasedNamingStore implements NamingStore {
             if (childParts.length > lookupParts.length + 1) {
                 childContexts.add(childParts[lookupParts.length]);
             } else {
-                final Object binding = lookup(name.toString(), child, true);
+                final Object binding = lookup(name, child, true);
                 results.add(new Binding(childParts[childParts.length - 1], binding));
             }
         }
@@ -244,6 +275,8 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        bindingGeneration.incrementAndGet();
+        resolvedNames.clear();
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -258,10 +291,23 @@ public class ServiceBasedNamingStore implements NamingStore {
             throw MESSAGES.serviceAlreadyBound(serviceName);
         }
         boundServices.add(serviceName);
+        evictResolvedNames(serviceName);
     }
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        evictResolvedNames(serviceName);
+    }
+
+    private void evictResolvedNames(final ServiceName serviceName) {
+        bindingGeneration.incrementAndGet();
+        final Iterator<ServiceController<?>> resolved = resolvedNames.values().iterator();
+        while (resolved.hasNext()) {
+            final ServiceName resolvedName = resolved.next().getName();
+            if (serviceName.equals(resolvedName) || serviceName.isParentOf(resolvedName)) {
+                resolved.remove();
+            }
+        }
     }
 
     protected ServiceName buildServiceName(final Name name) {
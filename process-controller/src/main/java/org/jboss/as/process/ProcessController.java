@@ -67,10 +67,12 @@ public final class ProcessController {
 
     private final PrintStream stdout;
     private final PrintStream stderr;
+    private final ProcessOutputMultiplexer outputMultiplexer = new ProcessOutputMultiplexer();
 
     public ProcessController(final ProtocolServer.Configuration configuration, final PrintStream stdout, final PrintStream stderr) throws IOException {
         this.stdout = stdout;
         this.stderr = stderr;
+        outputMultiplexer.start("Process output pump");
         //noinspection ThisEscapedInObjectConstruction
         configuration.setConnectionHandler(new ProcessControllerServerHandler(this));
         final ProtocolServer server = new ProtocolServer(configuration);
@@ -240,6 +242,7 @@ public final class ProcessController {
                     // ignore
                 }
             }
+            outputMultiplexer.shutdown();
             ROOT_LOGGER.shutdownComplete();
         }
     }
@@ -411,6 +414,10 @@ public final class ProcessController {
         return stderr;
     }
 
+    ProcessOutputMultiplexer getOutputMultiplexer() {
+        return outputMultiplexer;
+    }
+
     private static final class Key {
         private final byte[] authKey;
         private final int hashCode;
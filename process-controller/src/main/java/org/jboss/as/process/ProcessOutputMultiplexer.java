@@ -0,0 +1,291 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.process;
+
+import static org.jboss.as.process.ProcessMessages.MESSAGES;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.as.process.protocol.StreamUtils;
+import org.jboss.logging.Logger;
+
+/**
+ * Drains the stdout and stderr pipes of all managed processes from a single thread.
+ * <p>
+ * Process pipes are not selectable channels, so instead of one blocking reader thread per
+ * stream the pump polls each registered stream for available bytes and only ever reads
+ * what can be read without blocking. Output is split into lines, prefixed with the process name
+ * and written to the target stream in one batch per stream and pass. Each stream has a bounded
+ * line buffer and a bounded amount of data it may consume per pass, so a chatty process cannot
+ * stall the output of the others.
+ */
+final class ProcessOutputMultiplexer implements Runnable {
+
+    static final int LINE_BUFFER_SIZE = 8192;
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final int MAX_READ_PER_PASS = 4 * READ_BUFFER_SIZE;
+    private static final long MIN_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final byte ESC = '\033';
+    private static final byte[] RESET = "\033[0m".getBytes(Charset.forName("US-ASCII"));
+    private static final byte[] NO_ESCAPE = new byte[0];
+
+    private final CopyOnWriteArrayList<Registration> registrations = new CopyOnWriteArrayList<Registration>();
+    private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+    private volatile Thread thread;
+    private volatile boolean shutdown;
+
+    /**
+     * Start the pump thread.
+     *
+     * @param name the thread name
+     */
+    synchronized void start(final String name) {
+        if (thread != null) {
+            return;
+        }
+        final Thread thread = new Thread(this, name);
+        thread.setDaemon(true);
+        this.thread = thread;
+        thread.start();
+    }
+
+    /**
+     * Stop the pump thread once all registered streams have been drained.
+     */
+    void shutdown() {
+        shutdown = true;
+        wakeup();
+    }
+
+    /**
+     * Register a process output stream.
+     *
+     * @param processName the process name used as line prefix
+     * @param source the process output
+     * @param target the target stream
+     * @return the registration, which must be closed once the process finished
+     */
+    Registration register(final String processName, final InputStream source, final PrintStream target) {
+        if (processName == null) {
+            throw MESSAGES.nullVar("processName");
+        }
+        if (source == null) {
+            throw MESSAGES.nullVar("source");
+        }
+        if (target == null) {
+            throw MESSAGES.nullVar("target");
+        }
+        final Registration registration = new Registration(processName, source, target);
+        registrations.add(registration);
+        wakeup();
+        return registration;
+    }
+
+    private void wakeup() {
+        final Thread thread = this.thread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    public void run() {
+        long idle = MIN_IDLE_NANOS;
+        for (;;) {
+            boolean active = false;
+            for (final Registration registration : registrations) {
+                active |= pump(registration);
+            }
+            if (active) {
+                idle = MIN_IDLE_NANOS;
+                continue;
+            }
+            if (registrations.isEmpty()) {
+                if (shutdown) {
+                    return;
+                }
+                LockSupport.park(this);
+            } else {
+                LockSupport.parkNanos(this, idle);
+                idle = Math.min(idle << 1, MAX_IDLE_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Read whatever is available without blocking from a registered stream.
+     *
+     * @param registration the registration
+     * @return {@code true} if any data was consumed
+     */
+    boolean pump(final Registration registration) {
+        final byte[] buffer = readBuffer;
+        final boolean closing = registration.closing;
+        int total = 0;
+        boolean finished = false;
+        try {
+            int available;
+            while (total < MAX_READ_PER_PASS && (available = registration.source.available()) > 0) {
+                final int read = registration.source.read(buffer, 0, Math.min(available, buffer.length));
+                if (read == -1) {
+                    finished = true;
+                    break;
+                }
+                registration.consume(buffer, read);
+                total += read;
+            }
+            // Once the process exited, the stream is complete when nothing more is available
+            if (closing && total < MAX_READ_PER_PASS) {
+                finished = true;
+            }
+        } catch (IOException e) {
+            registration.log.streamProcessingFailed(registration.processName, e);
+            finished = true;
+        }
+        if (finished) {
+            registration.finish();
+            registrations.remove(registration);
+        } else {
+            registration.flush();
+        }
+        return total > 0;
+    }
+
+    final class Registration {
+
+        private final String processName;
+        private final InputStream source;
+        private final PrintStream target;
+        private final ProcessLogger log;
+        private final byte[] prefix;
+        private final ByteBuffer line = ByteBuffer.allocate(LINE_BUFFER_SIZE);
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream(LINE_BUFFER_SIZE);
+        private byte[] prevEscape = NO_ESCAPE;
+        private volatile boolean closing;
+
+        Registration(final String processName, final InputStream source, final PrintStream target) {
+            this.processName = processName;
+            this.source = source;
+            this.target = target;
+            this.prefix = ("[" + processName + "] ").getBytes();
+            this.log = Logger.getMessageLogger(ProcessLogger.class, "org.jboss.as.process." + processName + ".status");
+        }
+
+        /**
+         * Mark the stream as complete. Remaining available output is still drained by the pump.
+         */
+        void close() {
+            closing = true;
+            wakeup();
+        }
+
+        void consume(final byte[] bytes, final int length) {
+            final ByteBuffer line = this.line;
+            for (int i = 0; i < length; i++) {
+                final byte b = bytes[i];
+                if (b == '\n') {
+                    emitLine();
+                } else {
+                    if (!line.hasRemaining()) {
+                        // Line exceeds the buffer, emit what we have
+                        emitLine();
+                    }
+                    line.put(b);
+                }
+            }
+        }
+
+        private void emitLine() {
+            final byte[] content = line.array();
+            int length = line.position();
+            if (length > 0 && content[length - 1] == '\r') {
+                length--;
+            }
+            // Has ANSI?
+            int escape = -1;
+            for (int i = length - 1; i >= 0; i--) {
+                if (content[i] == ESC) {
+                    escape = i;
+                    break;
+                }
+            }
+            pending.write(prefix, 0, prefix.length);
+            pending.write(prevEscape, 0, prevEscape.length);
+            pending.write(content, 0, length);
+            // Reset if there was ANSI
+            if (escape != -1 || prevEscape.length > 0) {
+                pending.write(RESET, 0, RESET.length);
+            }
+            pending.write('\n');
+
+            // Remember escape code for the next line
+            if (escape != -1) {
+                int end = -1;
+                for (int i = escape; i < length; i++) {
+                    if (content[i] == 'm') {
+                        end = i;
+                        break;
+                    }
+                }
+                if (end != -1) {
+                    final byte[] code = Arrays.copyOfRange(content, escape, end + 1);
+                    prevEscape = Arrays.equals(RESET, code) ? NO_ESCAPE : code;
+                }
+            }
+            line.clear();
+        }
+
+        void flush() {
+            if (pending.size() == 0) {
+                return;
+            }
+            synchronized (target) {
+                try {
+                    pending.writeTo(target);
+                } catch (IOException e) {
+                    log.streamProcessingFailed(processName, e);
+                }
+                target.flush();
+            }
+            pending.reset();
+        }
+
+        void finish() {
+            if (line.position() > 0) {
+                emitLine();
+            }
+            flush();
+            StreamUtils.safeClose(source);
+        }
+    }
+}
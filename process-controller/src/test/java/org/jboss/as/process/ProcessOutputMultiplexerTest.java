@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests for the line handling of the {@link ProcessOutputMultiplexer}.
+ */
+public final class ProcessOutputMultiplexerTest {
+
+    @Test
+    public void testLinePrefix() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ProcessOutputMultiplexer multiplexer = new ProcessOutputMultiplexer();
+        final ProcessOutputMultiplexer.Registration registration = multiplexer.register("server-one", source("first\r\nsecond\nthird"), new PrintStream(out));
+
+        assertTrue(multiplexer.pump(registration));
+        // the incomplete line stays buffered until the process finished
+        assertEquals("[server-one] first\n[server-one] second\n", out.toString());
+
+        registration.close();
+        assertFalse(multiplexer.pump(registration));
+        assertEquals("[server-one] first\n[server-one] second\n[server-one] third\n", out.toString());
+    }
+
+    @Test
+    public void testEscapeCarriedOver() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ProcessOutputMultiplexer multiplexer = new ProcessOutputMultiplexer();
+        final ProcessOutputMultiplexer.Registration registration = multiplexer.register("hc", source("\033[31mred\nstill red\033[0m\nplain\n"), new PrintStream(out));
+
+        multiplexer.pump(registration);
+        assertEquals("[hc] \033[31mred\033[0m\n" +
+                "[hc] \033[31mstill red\033[0m\033[0m\n" +
+                "[hc] plain\n", out.toString());
+    }
+
+    @Test
+    public void testLongLineIsSplit() throws Exception {
+        final char[] chars = new char[ProcessOutputMultiplexer.LINE_BUFFER_SIZE + 10];
+        Arrays.fill(chars, 'x');
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ProcessOutputMultiplexer multiplexer = new ProcessOutputMultiplexer();
+        final ProcessOutputMultiplexer.Registration registration = multiplexer.register("p", source(new String(chars) + "\n"), new PrintStream(out));
+
+        multiplexer.pump(registration);
+        final String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(ProcessOutputMultiplexer.LINE_BUFFER_SIZE + 4, lines[0].length());
+        assertEquals("[p] xxxxxxxxxx", lines[1]);
+    }
+
+    private static ByteArrayInputStream source(final String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+}
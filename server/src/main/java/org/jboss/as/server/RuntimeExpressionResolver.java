@@ -33,6 +33,7 @@ public class RuntimeExpressionResolver extends ExpressionResolverImpl {
     private final VaultReader vaultReader;
 
     public RuntimeExpressionResolver(VaultReader vaultReader) {
+        super(true);
         this.vaultReader = vaultReader;
     }
 
@@ -401,4 +401,8 @@ public interface ServerLogger extends BasicLogger {
     @LogMessage(level = Logger.Level.INFO)
     @Message(id = 15971, value = "Deployment restart detected for deployment %s, performing full redeploy instead.")
     void deploymentRestartDetected(String deployment);
+
+    @LogMessage(level = WARN)
+    @Message(id = 15972, value = "Cannot read deployment %s with the zip resource loader, falling back to VFS")
+    void zipResourceLoaderUnavailable(String deployment, @Cause Throwable cause);
 }
@@ -204,6 +204,13 @@ public class DeploymentAttributes {
     public static final OperationDefinition UNDEPLOY_DEFINITION = new SimpleOperationDefinition(ModelDescriptionConstants.UNDEPLOY, DEPLOYMENT_RESOLVER);
     public static final OperationDefinition REDEPLOY_DEFINITION = new SimpleOperationDefinition(ModelDescriptionConstants.REDEPLOY, DEPLOYMENT_RESOLVER);
 
+    /** Per deployment unit processor timings of a deployment */
+    public static final OperationDefinition READ_DEPLOYMENT_PROFILE_DEFINITION = new SimpleOperationDefinitionBuilder("read-deployment-profile", DEPLOYMENT_RESOLVER)
+            .setReplyType(ModelType.OBJECT)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+
     /** Server add deployment definition */
     public static final OperationDefinition SERVER_DEPLOYMENT_ADD_DEFINITION = new SimpleOperationDefinitionBuilder(ModelDescriptionConstants.ADD, DEPLOYMENT_RESOLVER)
             .setParameters(SERVER_ADD_ATTRIBUTES)
@@ -82,6 +82,11 @@ public final class Attachments {
      */
     public static final AttachmentKey<String> MANAGEMENT_NAME = AttachmentKey.create(String.class);
 
+    /**
+     * The time spent in each deployment unit processor for the deployment unit
+     */
+    public static final AttachmentKey<DeploymentProfile> DEPLOYMENT_PROFILE = AttachmentKey.create(DeploymentProfile.class);
+
     /**
      * The deployment contents
      */
@@ -74,6 +74,16 @@ public class ContentOverrideDeploymentUnitProcessor implements DeploymentUnitPro
         }
     }
 
+    /**
+     * Determine whether any deployment overlay content was mounted over the given deployment.
+     *
+     * @param deploymentUnit the top level deployment unit
+     * @return {@code true} if the deployment contents are overridden, {@code false} otherwise
+     */
+    public static boolean hasContentOverrides(final DeploymentUnit deploymentUnit) {
+        return !deploymentUnit.getAttachmentList(MOUNTED_FILES).isEmpty();
+    }
+
     @Override
     public void undeploy(final DeploymentUnit context) {
         for (Closeable closable : context.getAttachmentList(MOUNTED_FILES)) {
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The time spent and memory allocated by each deployment unit processor while deploying a deployment unit.
+ * <p>
+ * Only the work a processor does on the deployment thread is accounted for; services it installs start later and
+ * are not included. Allocated bytes are only available on JVMs supporting per thread allocation accounting, otherwise
+ * they are reported as {@code -1}.
+ */
+public final class DeploymentProfile {
+
+    private static final ThreadMXBean THREAD_MX_BEAN;
+    private static final Method GET_THREAD_ALLOCATED_BYTES;
+
+    static {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Method method = null;
+        try {
+            // com.sun.management is not visible to this module, so it is looked up through the system class loader
+            final Class<?> type = Class.forName("com.sun.management.ThreadMXBean", true, ClassLoader.getSystemClassLoader());
+            if (type.isInstance(threadMXBean)
+                    && (Boolean) type.getMethod("isThreadAllocatedMemorySupported").invoke(threadMXBean)
+                    && (Boolean) type.getMethod("isThreadAllocatedMemoryEnabled").invoke(threadMXBean)) {
+                method = type.getMethod("getThreadAllocatedBytes", long.class);
+            }
+        } catch (Exception ignored) {
+            // not a HotSpot compatible JVM
+        }
+        THREAD_MX_BEAN = threadMXBean;
+        GET_THREAD_ALLOCATED_BYTES = method;
+    }
+
+    private final Queue<Entry> entries = new ConcurrentLinkedQueue<Entry>();
+
+    /**
+     * Get the bytes allocated by the current thread so far.
+     *
+     * @return the allocated bytes, or {@code -1} if not supported
+     */
+    static long currentThreadAllocatedBytes() {
+        final Method method = GET_THREAD_ALLOCATED_BYTES;
+        if (method == null) {
+            return -1L;
+        }
+        try {
+            return (Long) method.invoke(THREAD_MX_BEAN, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return -1L;
+        }
+    }
+
+    void record(final Phase phase, final RegisteredDeploymentUnitProcessor processor, final long nanos, final long allocatedBytes) {
+        entries.add(new Entry(phase, processor.getPriority(), processor.getProcessor().getClass().getName(), processor.getSubsystemName(),
+                nanos, allocatedBytes));
+    }
+
+    /**
+     * Discard the entries recorded for a phase, so that a restarted phase is not accounted twice.
+     *
+     * @param phase the phase
+     */
+    void clear(final Phase phase) {
+        final Iterator<Entry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getPhase() == phase) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the recorded processor invocations, in the order they were executed.
+     *
+     * @return the entries
+     */
+    public List<Entry> getEntries() {
+        return new ArrayList<Entry>(entries);
+    }
+
+    /**
+     * Get the total time spent in processors.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getTotalTime() {
+        long total = 0L;
+        for (final Entry entry : entries) {
+            total += entry.getTime();
+        }
+        return total;
+    }
+
+    /**
+     * Get the total bytes allocated by processors.
+     *
+     * @return the allocated bytes, or {@code -1} if not supported
+     */
+    public long getTotalAllocatedBytes() {
+        long total = 0L;
+        for (final Entry entry : entries) {
+            if (entry.getAllocatedBytes() < 0L) {
+                return -1L;
+            }
+            total += entry.getAllocatedBytes();
+        }
+        return total;
+    }
+
+    /**
+     * A single processor invocation.
+     */
+    public static final class Entry {
+        private final Phase phase;
+        private final int priority;
+        private final String processor;
+        private final String subsystemName;
+        private final long time;
+        private final long allocatedBytes;
+
+        Entry(final Phase phase, final int priority, final String processor, final String subsystemName, final long time, final long allocatedBytes) {
+            this.phase = phase;
+            this.priority = priority;
+            this.processor = processor;
+            this.subsystemName = subsystemName;
+            this.time = time;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        /**
+         * @return the class name of the processor
+         */
+        public String getProcessor() {
+            return processor;
+        }
+
+        /**
+         * @return the name of the subsystem that registered the processor, or {@code null} for core processors
+         */
+        public String getSubsystemName() {
+            return subsystemName;
+        }
+
+        /**
+         * @return the wall clock time in nanoseconds
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * @return the allocated bytes, or {@code -1} if not supported
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+}
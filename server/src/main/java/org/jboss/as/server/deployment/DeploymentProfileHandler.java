@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the {@link DeploymentProfile} of a deployment and its subdeployments.
+ */
+public class DeploymentProfileHandler implements OperationStepHandler {
+
+    public static final OperationStepHandler INSTANCE = new DeploymentProfileHandler();
+
+    private static final String TOTAL_TIME = "total-time";
+    private static final String TOTAL_ALLOCATED_BYTES = "total-allocated-bytes";
+    private static final String PROCESSORS = "processors";
+    private static final String PHASE = "phase";
+    private static final String PRIORITY = "priority";
+    private static final String PROCESSOR = "processor";
+    private static final String SUBSYSTEM = "subsystem";
+    private static final String TIME = "time";
+    private static final String ALLOCATED_BYTES = "allocated-bytes";
+    private static final String SUBDEPLOYMENTS = "subdeployments";
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String deploymentName = PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue();
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.deploymentUnitName(deploymentName));
+                if (controller != null) {
+                    final DeploymentUnit deploymentUnit = ((AbstractDeploymentUnitService) controller.getService()).getValue();
+                    if (deploymentUnit != null) {
+                        writeProfile(deploymentUnit, context.getResult());
+                    }
+                }
+                context.stepCompleted();
+            }
+        }, OperationContext.Stage.RUNTIME);
+
+        context.stepCompleted();
+    }
+
+    private static void writeProfile(final DeploymentUnit deploymentUnit, final ModelNode result) {
+        final DeploymentProfile profile = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+        if (profile == null) {
+            return;
+        }
+        result.get(TOTAL_TIME).set(TimeUnit.NANOSECONDS.toMicros(profile.getTotalTime()));
+        result.get(TOTAL_ALLOCATED_BYTES).set(profile.getTotalAllocatedBytes());
+        final ModelNode processors = result.get(PROCESSORS).setEmptyList();
+        for (final DeploymentProfile.Entry entry : profile.getEntries()) {
+            final ModelNode processor = processors.add();
+            processor.get(PHASE).set(entry.getPhase().name());
+            processor.get(PRIORITY).set(entry.getPriority());
+            processor.get(PROCESSOR).set(entry.getProcessor());
+            if (entry.getSubsystemName() != null) {
+                processor.get(SUBSYSTEM).set(entry.getSubsystemName());
+            }
+            processor.get(TIME).set(TimeUnit.NANOSECONDS.toMicros(entry.getTime()));
+            processor.get(ALLOCATED_BYTES).set(entry.getAllocatedBytes());
+        }
+        for (final DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+            writeProfile(subDeployment, result.get(SUBDEPLOYMENTS, subDeployment.getName()));
+        }
+    }
+}
@@ -152,11 +152,24 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
+        DeploymentProfile profile = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+        if (profile == null) {
+            profile = new DeploymentProfile();
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_PROFILE, profile);
+        } else {
+            // a failed start is retried without a stop, so do not rely on stop() alone
+            profile.clear(phase);
+        }
+
         while (iterator.hasNext()) {
             final RegisteredDeploymentUnitProcessor processor = iterator.next();
             try {
                 if (shouldRun(deploymentUnit, processor)) {
+                    final long allocated = DeploymentProfile.currentThreadAllocatedBytes();
+                    final long start = System.nanoTime();
                     processor.getProcessor().deploy(processorContext);
+                    final long time = System.nanoTime() - start;
+                    profile.record(phase, processor, time, allocated < 0L ? -1L : DeploymentProfile.currentThreadAllocatedBytes() - allocated);
                 }
             } catch (Throwable e) {
                 while (iterator.hasPrevious()) {
@@ -229,6 +242,10 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             final RegisteredDeploymentUnitProcessor prev = iterator.previous();
             safeUndeploy(deploymentUnitContext, phase, prev);
         }
+        final DeploymentProfile profile = deploymentUnitContext.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+        if (profile != null) {
+            profile.clear(phase);
+        }
     }
 
     private Mode getDeferableInitialMode(final DeploymentUnit deploymentUnit, List<String> deferredModules) {
@@ -31,14 +31,18 @@ import java.util.HashSet;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.PropertyPermission;
+import java.util.jar.Manifest;
 
 import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.ServerMessages;
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ContentOverrideDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.as.server.deployment.MountExplodedMarker;
 import org.jboss.as.server.deployment.SubDeploymentMarker;
 import org.jboss.as.server.moduleservice.ModuleDefinition;
 import org.jboss.as.server.moduleservice.ModuleLoadService;
@@ -47,6 +51,7 @@ import org.jboss.as.server.moduleservice.ServiceModuleLoader;
 import org.jboss.modules.DependencySpec;
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.modules.ModuleSpec;
+import org.jboss.modules.ResourceLoader;
 import org.jboss.modules.ResourceLoaderSpec;
 import org.jboss.modules.filter.MultiplePathFilterBuilder;
 import org.jboss.modules.filter.PathFilter;
@@ -58,6 +63,9 @@ import org.jboss.msc.service.ServiceController.Mode;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ValueService;
 import org.jboss.msc.value.ImmediateValue;
+import org.wildfly.security.manager.WildFlySecurityManager;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFilePermission;
 
@@ -74,6 +82,19 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
 
     private static final ServerLogger logger = ServerLogger.DEPLOYMENT_LOGGER;
 
+    /**
+     * System property enabling the {@link ZipResourceLoader} for all deployments.
+     */
+    public static final String ZIP_RESOURCE_LOADER_PROPERTY = "jboss.deployment.zip-resource-loader";
+
+    /**
+     * Manifest header of a top level deployment selecting its resource loader, either {@code zip} or {@code vfs}.
+     * It takes precedence over {@link #ZIP_RESOURCE_LOADER_PROPERTY}.
+     */
+    public static final String RESOURCE_LOADER_HEADER = "JBoss-Resource-Loader";
+
+    private static final AttachmentKey<ZipArchive> ZIP_ARCHIVE = AttachmentKey.create(ZipArchive.class);
+
     @Override
     public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
 
@@ -90,6 +111,10 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
 
     @Override
     public void undeploy(final DeploymentUnit deploymentUnit) {
+        final ZipArchive archive = deploymentUnit.removeAttachment(ZIP_ARCHIVE);
+        if (archive != null) {
+            VFSUtils.safeClose(archive);
+        }
     }
 
     private void deployModuleSpec(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
@@ -101,6 +126,10 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         if (mainRoot == null)
             return;
 
+        if (deploymentUnit.getParent() == null) {
+            openZipArchive(deploymentUnit, mainRoot);
+        }
+
         // Add internal resource roots
         final ModuleSpecification moduleSpec = deploymentUnit.getAttachment(Attachments.MODULE_SPECIFICATION);
         final List<ResourceRoot> resourceRoots = new ArrayList<ResourceRoot>();
@@ -205,7 +234,7 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
 
         for (final ResourceRoot resourceRoot : resourceRoots) {
             logger.debug("Adding resource " + resourceRoot.getRoot() + " to module " + moduleIdentifier);
-            addResourceRoot(specBuilder, resourceRoot, permFactories);
+            addResourceRoot(specBuilder, deploymentUnit, resourceRoot, permFactories);
         }
 
         createDependencies(specBuilder, dependencies, false);
@@ -309,20 +338,22 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         }
     }
 
-    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource, final List<PermissionFactory> permFactories)
-            throws DeploymentUnitProcessingException {
+    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final DeploymentUnit deploymentUnit, final ResourceRoot resource,
+                                 final List<PermissionFactory> permFactories) throws DeploymentUnitProcessingException {
         try {
             final VirtualFile root = resource.getRoot();
+            ResourceLoader loader = createZipResourceLoader(deploymentUnit, resource);
+            if (loader == null) {
+                loader = new VFSResourceLoader(resource.getRootName(), root, resource.isUsePhysicalCodeSource());
+            }
             if (resource.getExportFilters().isEmpty()) {
-                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), root, resource.isUsePhysicalCodeSource())));
+                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(loader));
             } else {
                 final MultiplePathFilterBuilder filterBuilder = PathFilters.multiplePathFilterBuilder(true);
                 for (final FilterSpecification filter : resource.getExportFilters()) {
                     filterBuilder.addFilter(filter.getPathFilter(), filter.isInclude());
                 }
-                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), root, resource.isUsePhysicalCodeSource()), filterBuilder.create()));
+                specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(loader, filterBuilder.create()));
             }
             permFactories.add(new ImmediatePermissionFactory(
                     new VirtualFilePermission(root.getChild("-").getPathName(), VirtualFilePermission.FLAG_READ)));
@@ -331,4 +362,93 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         }
     }
 
+    /**
+     * Index the archive of a top level deployment if it is to be loaded with the {@link ZipResourceLoader}. Exploded
+     * deployments and deployments with overlays are always loaded through VFS, as their contents differ from the
+     * archive in the content repository.
+     */
+    private static void openZipArchive(final DeploymentUnit deploymentUnit, final ResourceRoot deploymentRoot) {
+        if (!isZipResourceLoaderEnabled(deploymentRoot)) {
+            return;
+        }
+        final VirtualFile contents = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_CONTENTS);
+        if (contents == null || contents.isDirectory() || deploymentRoot.getMountHandle() == null
+                || MountExplodedMarker.isMountExploded(deploymentUnit) || deploymentUnit.getName().endsWith(".xml")
+                || ContentOverrideDeploymentUnitProcessor.hasContentOverrides(deploymentUnit)) {
+            return;
+        }
+        TempDir tempDir = null;
+        try {
+            // large nested archives are inflated into a deployment temp dir, deleted when the archive is closed on undeploy
+            tempDir = TempFileProviderService.provider().createTempDir(deploymentUnit.getName());
+            deploymentUnit.putAttachment(ZIP_ARCHIVE, ZipArchive.open(contents.getPhysicalFile(), tempDir));
+        } catch (IOException e) {
+            VFSUtils.safeClose(tempDir);
+            logger.zipResourceLoaderUnavailable(deploymentUnit.getName(), e);
+        }
+    }
+
+    private static boolean isZipResourceLoaderEnabled(final ResourceRoot deploymentRoot) {
+        final Manifest manifest = deploymentRoot.getAttachment(Attachments.MANIFEST);
+        final String loader = manifest == null ? null : manifest.getMainAttributes().getValue(RESOURCE_LOADER_HEADER);
+        if ("zip".equalsIgnoreCase(loader)) {
+            return true;
+        } else if ("vfs".equalsIgnoreCase(loader)) {
+            return false;
+        }
+        return Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ZIP_RESOURCE_LOADER_PROPERTY, "false"));
+    }
+
+    /**
+     * Create a {@link ZipResourceLoader} for a resource root of a deployment, if the top level deployment archive was
+     * indexed. Each path segment leading to the resource root is either a directory or a nested archive, which is
+     * opened in place.
+     *
+     * @return the loader, or {@code null} if the resource root has to be loaded through VFS
+     */
+    private static ResourceLoader createZipResourceLoader(final DeploymentUnit deploymentUnit, final ResourceRoot resource) {
+        final DeploymentUnit topLevelDeployment = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        ZipArchive archive = topLevelDeployment.getAttachment(ZIP_ARCHIVE);
+        if (archive == null) {
+            return null;
+        }
+        final VirtualFile root = resource.getRoot();
+        final VirtualFile topLevelRoot = topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_ROOT).getRoot();
+        String path = "";
+        if (!root.equals(topLevelRoot)) {
+            final String relativePath;
+            try {
+                relativePath = root.getPathNameRelativeTo(topLevelRoot);
+            } catch (IllegalArgumentException e) {
+                // not part of the deployment archive, e.g. a Class-Path entry pointing outside of it
+                return null;
+            }
+            for (final String segment : relativePath.split("/")) {
+                final String candidate = path.isEmpty() ? segment : path + "/" + segment;
+                if (archive.getEntry(candidate) != null) {
+                    try {
+                        archive = archive.getNestedArchive(candidate);
+                    } catch (IOException e) {
+                        logger.zipResourceLoaderUnavailable(archive.getName() + "/" + candidate, e);
+                        return null;
+                    }
+                    path = "";
+                } else if (archive.isDirectory(candidate)) {
+                    path = candidate;
+                } else {
+                    return null;
+                }
+            }
+        }
+        if (archive.isSigned()) {
+            // code signers are only verified by VFS
+            return null;
+        }
+        try {
+            return new ZipResourceLoader(resource.getRootName(), archive, path, root, resource.isUsePhysicalCodeSource());
+        } catch (IOException e) {
+            logger.zipResourceLoaderUnavailable(archive.getName(), e);
+            return null;
+        }
+    }
 }
@@ -0,0 +1,718 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import org.jboss.as.server.ServerMessages;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.VFSUtils;
+
+/**
+ * A read only view of a zip archive, indexed by its central directory.
+ * <p>
+ * The central directory is read once when the archive is opened, after which entries are looked up in memory and
+ * read with positional {@link FileChannel} reads, which need no lock. Nested archives are opened in place: stored
+ * entries are read directly from the enclosing file, deflated entries are inflated once, into memory if they are small
+ * and into the temporary directory of the archive otherwise.
+ * <p>
+ * Zip64 archives are not supported; opening one fails with a {@link ZipException}.
+ */
+public final class ZipArchive implements Closeable {
+
+    private static final int LOCAL_HEADER_SIG = 0x04034b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_HEADER_SIG = 0x06054b50;
+    private static final int END_HEADER_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xffff;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * System property setting the largest deflated nested archive, in bytes, that is inflated into memory. Larger
+     * ones are inflated into the temporary directory of the archive, if it has one.
+     */
+    public static final String MAX_IN_MEMORY_NESTED_SIZE_PROPERTY = "jboss.deployment.zip-resource-loader.max-in-memory-nested-size";
+
+    private static final long DEFAULT_MAX_IN_MEMORY_NESTED_SIZE = 1024L * 1024L;
+
+    private final String name;
+    private final Source source;
+    private final TempDir tempDir;
+    private final boolean ownsTempDir;
+    private final long maxInMemoryNestedSize;
+    private final Map<String, Entry> entries;
+    private final Set<String> directories;
+    private final ConcurrentMap<String, ZipArchive> nested = new ConcurrentHashMap<String, ZipArchive>();
+
+    private ZipArchive(final String name, final Source source, final TempDir tempDir, final boolean ownsTempDir, final long maxInMemoryNestedSize) throws IOException {
+        this.name = name;
+        this.source = source;
+        this.tempDir = tempDir;
+        this.ownsTempDir = ownsTempDir;
+        this.maxInMemoryNestedSize = maxInMemoryNestedSize;
+        final Map<String, Entry> entries = new HashMap<String, Entry>();
+        final Set<String> directories = new HashSet<String>();
+        readCentralDirectory(source, entries, directories);
+        this.entries = entries;
+        this.directories = directories;
+    }
+
+    /**
+     * Open an archive file. All nested archives are kept in memory.
+     *
+     * @param file the archive file
+     * @return the archive, which must be closed once it is no longer used
+     * @throws IOException if the file cannot be read or is not a supported zip archive
+     */
+    public static ZipArchive open(final File file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * Open an archive file, inflating large nested archives into a temporary directory.
+     *
+     * @param file the archive file
+     * @param tempDir the temporary directory, which is closed along with the archive, or {@code null} to keep all
+     *                nested archives in memory
+     * @return the archive, which must be closed once it is no longer used
+     * @throws IOException if the file cannot be read or is not a supported zip archive
+     */
+    public static ZipArchive open(final File file, final TempDir tempDir) throws IOException {
+        return open(file, tempDir, Long.getLong(MAX_IN_MEMORY_NESTED_SIZE_PROPERTY, DEFAULT_MAX_IN_MEMORY_NESTED_SIZE));
+    }
+
+    static ZipArchive open(final File file, final TempDir tempDir, final long maxInMemoryNestedSize) throws IOException {
+        final Source source = FileSource.open(file, false);
+        boolean ok = false;
+        try {
+            final ZipArchive archive = new ZipArchive(file.getPath(), source, tempDir, true, maxInMemoryNestedSize);
+            ok = true;
+            return archive;
+        } finally {
+            if (!ok) {
+                VFSUtils.safeClose(source);
+            }
+        }
+    }
+
+    /**
+     * Get the name of this archive, for diagnostic purposes.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get a file entry.
+     *
+     * @param path the canonical entry path, without a leading or trailing slash
+     * @return the entry, or {@code null} if there is no such file
+     */
+    public Entry getEntry(final String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * Determine whether a directory exists. Directories are implied by the files they contain, so they do not need
+     * an explicit entry.
+     *
+     * @param path the canonical directory path, without a leading or trailing slash
+     * @return {@code true} if the directory exists, {@code false} otherwise
+     */
+    public boolean isDirectory(final String path) {
+        return directories.contains(path);
+    }
+
+    /**
+     * Get all directories of the archive. The root directory is included as the empty string.
+     *
+     * @return the directory paths
+     */
+    public Collection<String> getDirectories() {
+        return Collections.unmodifiableSet(directories);
+    }
+
+    /**
+     * Get all file entries of the archive.
+     *
+     * @return the file entries
+     */
+    public Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * Determine whether the archive carries a jar signature.
+     *
+     * @return {@code true} if a signature file is present under {@code META-INF}
+     */
+    public boolean isSigned() {
+        for (final String path : entries.keySet()) {
+            if (path.startsWith("META-INF/") && path.indexOf('/', 9) == -1) {
+                final String upper = path.toUpperCase(Locale.ENGLISH);
+                if (upper.endsWith(".SF") || upper.endsWith(".RSA") || upper.endsWith(".DSA") || upper.endsWith(".EC")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Open an archive nested in this archive. Nested archives are cached and closed along with this archive.
+     *
+     * @param path the path of the nested archive entry
+     * @return the nested archive, or {@code null} if there is no such entry
+     * @throws IOException if the entry is not a supported zip archive
+     */
+    public ZipArchive getNestedArchive(final String path) throws IOException {
+        ZipArchive archive = nested.get(path);
+        if (archive != null) {
+            return archive;
+        }
+        final Entry entry = entries.get(path);
+        if (entry == null) {
+            return null;
+        }
+        final Source nestedSource;
+        if (entry.method == STORED) {
+            nestedSource = source.slice(entry.getDataOffset(), entry.compressedSize);
+        } else if (tempDir == null || entry.size <= maxInMemoryNestedSize) {
+            nestedSource = new BufferSource(ByteBuffer.wrap(getBytes(entry)));
+        } else {
+            nestedSource = inflateToTempFile(entry);
+        }
+        boolean ok = false;
+        try {
+            // nested archives share the temporary directory of the outermost one
+            archive = new ZipArchive(name + "/" + path, nestedSource, tempDir, false, maxInMemoryNestedSize);
+            ok = true;
+        } finally {
+            if (!ok) {
+                VFSUtils.safeClose(nestedSource);
+            }
+        }
+        final ZipArchive existing = nested.putIfAbsent(path, archive);
+        if (existing != null) {
+            VFSUtils.safeClose(archive);
+            return existing;
+        }
+        return archive;
+    }
+
+    /**
+     * Read the uncompressed contents of an entry.
+     *
+     * @param entry the entry
+     * @return the contents
+     * @throws IOException if the entry cannot be read
+     */
+    public byte[] getBytes(final Entry entry) throws IOException {
+        if (entry.size > Integer.MAX_VALUE || entry.compressedSize >= Integer.MAX_VALUE) {
+            throw ServerMessages.MESSAGES.resourceTooLarge();
+        }
+        final int compressedSize = (int) entry.compressedSize;
+        if (entry.method == STORED) {
+            final byte[] bytes = new byte[compressedSize];
+            source.read(entry.getDataOffset(), bytes, 0, compressedSize);
+            return bytes;
+        }
+        // nowrap inflaters may need an extra dummy byte to detect the end of the stream
+        final byte[] input = new byte[compressedSize + 1];
+        source.read(entry.getDataOffset(), input, 0, compressedSize);
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            final byte[] bytes = new byte[(int) entry.size];
+            int offset = 0;
+            while (offset < bytes.length) {
+                final int read = inflater.inflate(bytes, offset, bytes.length - offset);
+                if (read == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new EOFException(entry.name);
+                }
+                offset += read;
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            throw zipException(entry, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Inflate a nested archive into a file of the temporary directory. The file is deleted when the returned source
+     * is closed, and along with the directory at the latest.
+     */
+    private Source inflateToTempFile(final Entry entry) throws IOException {
+        final File file = File.createTempFile("nested", ".jar", tempDir.getRoot());
+        boolean ok = false;
+        try {
+            final OutputStream out = new FileOutputStream(file);
+            try {
+                inflate(entry, out);
+            } finally {
+                VFSUtils.safeClose(out);
+            }
+            final Source fileSource = FileSource.open(file, true);
+            ok = true;
+            return fileSource;
+        } finally {
+            if (!ok) {
+                file.delete();
+            }
+        }
+    }
+
+    private void inflate(final Entry entry, final OutputStream out) throws IOException {
+        final byte[] input = new byte[8192];
+        final byte[] output = new byte[8192];
+        final long dataOffset = entry.getDataOffset();
+        long position = 0L;
+        long written = 0L;
+        final Inflater inflater = new Inflater(true);
+        try {
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    if (position < entry.compressedSize) {
+                        final int length = (int) Math.min(input.length, entry.compressedSize - position);
+                        source.read(dataOffset + position, input, 0, length);
+                        inflater.setInput(input, 0, length);
+                        position += length;
+                    } else if (position == entry.compressedSize) {
+                        // the dummy byte a nowrap inflater may need to detect the end of the stream
+                        input[0] = 0;
+                        inflater.setInput(input, 0, 1);
+                        position++;
+                    } else {
+                        throw new EOFException(entry.name);
+                    }
+                }
+                final int read = inflater.inflate(output);
+                if (read == 0 && inflater.needsDictionary()) {
+                    throw new ZipException(entry.name);
+                }
+                out.write(output, 0, read);
+                written += read;
+            }
+            if (written != entry.size) {
+                throw new ZipException(entry.name);
+            }
+        } catch (DataFormatException e) {
+            throw zipException(entry, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static ZipException zipException(final Entry entry, final DataFormatException cause) {
+        final ZipException ze = new ZipException(entry.name);
+        ze.initCause(cause);
+        return ze;
+    }
+
+    /**
+     * Open a stream over the uncompressed contents of an entry.
+     *
+     * @param entry the entry
+     * @return the stream
+     * @throws IOException if the entry cannot be read
+     */
+    public InputStream openStream(final Entry entry) throws IOException {
+        return new ByteArrayInputStream(getBytes(entry));
+    }
+
+    /**
+     * Close this archive and all nested archives opened from it, then its temporary directory.
+     */
+    public void close() throws IOException {
+        try {
+            for (final ZipArchive archive : nested.values()) {
+                VFSUtils.safeClose(archive);
+            }
+            nested.clear();
+            source.close();
+        } finally {
+            if (ownsTempDir && tempDir != null) {
+                tempDir.close();
+            }
+        }
+    }
+
+    public String toString() {
+        return "ZipArchive(" + name + ")";
+    }
+
+    private static void readCentralDirectory(final Source source, final Map<String, Entry> entries, final Set<String> directories) throws IOException {
+        final long length = source.size();
+        if (length < END_HEADER_SIZE) {
+            throw new ZipException("Not a zip archive");
+        }
+        // the end of central directory record is followed by a variable length comment, so search backwards
+        final int tailLength = (int) Math.min(length, END_HEADER_SIZE + MAX_COMMENT_SIZE);
+        final byte[] tail = new byte[tailLength];
+        source.read(length - tailLength, tail, 0, tailLength);
+        int end = -1;
+        for (int i = tailLength - END_HEADER_SIZE; i >= 0; i--) {
+            if (getInt(tail, i) == END_HEADER_SIG && i + END_HEADER_SIZE + getShort(tail, i + 20) <= tailLength) {
+                end = i;
+                break;
+            }
+        }
+        if (end == -1) {
+            throw new ZipException("Not a zip archive");
+        }
+        final int count = getShort(tail, end + 10);
+        final long directorySize = getInt(tail, end + 12) & 0xffffffffL;
+        final long directoryOffset = getInt(tail, end + 16) & 0xffffffffL;
+        if (count == 0xffff || directorySize == 0xffffffffL || directoryOffset == 0xffffffffL) {
+            throw new ZipException("Zip64 archives are not supported");
+        }
+        // archives with a prefix (e.g. self extracting ones) have all offsets shifted
+        final long shift = length - tailLength + end - directorySize - directoryOffset;
+        if (shift < 0) {
+            throw new ZipException("Invalid central directory");
+        }
+        final byte[] directory = new byte[(int) directorySize];
+        source.read(directoryOffset + shift, directory, 0, directory.length);
+        directories.add("");
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+            if (pos + CENTRAL_HEADER_SIZE > directory.length || getInt(directory, pos) != CENTRAL_HEADER_SIG) {
+                throw new ZipException("Invalid central directory");
+            }
+            final int method = getShort(directory, pos + 10);
+            final long compressedSize = getInt(directory, pos + 20) & 0xffffffffL;
+            final long size = getInt(directory, pos + 24) & 0xffffffffL;
+            final int nameLength = getShort(directory, pos + 28);
+            final int extraLength = getShort(directory, pos + 30);
+            final int commentLength = getShort(directory, pos + 32);
+            final long headerOffset = getInt(directory, pos + 42) & 0xffffffffL;
+            if (compressedSize == 0xffffffffL || size == 0xffffffffL || headerOffset == 0xffffffffL) {
+                throw new ZipException("Zip64 archives are not supported");
+            }
+            String path = new String(directory, pos + CENTRAL_HEADER_SIZE, nameLength, UTF_8);
+            pos += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+            final boolean directoryEntry = path.endsWith("/");
+            path = canonicalize(path);
+            if (path.isEmpty()) {
+                continue;
+            }
+            if (directoryEntry) {
+                directories.add(path);
+            } else {
+                if (method != STORED && method != DEFLATED) {
+                    throw new ZipException("Unsupported compression method " + method + " for " + path);
+                }
+                entries.put(path, new Entry(source, path, method, compressedSize, size, headerOffset + shift));
+            }
+            for (int idx = path.lastIndexOf('/'); idx > 0; idx = path.lastIndexOf('/', idx - 1)) {
+                if (!directories.add(path.substring(0, idx))) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static String canonicalize(final String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end);
+    }
+
+    private static int getShort(final byte[] bytes, final int offset) {
+        return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8;
+    }
+
+    private static int getInt(final byte[] bytes, final int offset) {
+        return getShort(bytes, offset) | getShort(bytes, offset + 2) << 16;
+    }
+
+    /**
+     * A file entry of an archive.
+     */
+    public static final class Entry {
+        private final Source source;
+        private final String name;
+        private final int method;
+        private final long compressedSize;
+        private final long size;
+        private final long headerOffset;
+        private volatile long dataOffset = -1L;
+
+        Entry(final Source source, final String name, final int method, final long compressedSize, final long size, final long headerOffset) {
+            this.source = source;
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.headerOffset = headerOffset;
+        }
+
+        /**
+         * Get the path of this entry.
+         *
+         * @return the path, without a leading slash
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the uncompressed size of this entry.
+         *
+         * @return the size in bytes
+         */
+        public long getSize() {
+            return size;
+        }
+
+        long getDataOffset() throws IOException {
+            long offset = dataOffset;
+            if (offset == -1L) {
+                // the local header may carry a different extra field than the central directory
+                final byte[] header = new byte[LOCAL_HEADER_SIZE];
+                source.read(headerOffset, header, 0, LOCAL_HEADER_SIZE);
+                if (getInt(header, 0) != LOCAL_HEADER_SIG) {
+                    throw new ZipException("Invalid local header for " + name);
+                }
+                offset = headerOffset + LOCAL_HEADER_SIZE + getShort(header, 26) + getShort(header, 28);
+                dataOffset = offset;
+            }
+            return offset;
+        }
+    }
+
+    /**
+     * The bytes of an archive.
+     */
+    abstract static class Source implements Closeable {
+
+        abstract long size();
+
+        abstract void read(long position, byte[] bytes, int offset, int length) throws IOException;
+
+        abstract Source slice(long position, long length) throws IOException;
+    }
+
+    static final class FileSource extends Source {
+        private final SharedFile file;
+        private final boolean owner;
+        private final long base;
+        private final long size;
+
+        private FileSource(final SharedFile file, final boolean owner, final long base, final long size) {
+            this.file = file;
+            this.owner = owner;
+            this.base = base;
+            this.size = size;
+        }
+
+        static FileSource open(final File file, final boolean deleteOnClose) throws IOException {
+            final SharedFile shared = new SharedFile(file, deleteOnClose);
+            boolean ok = false;
+            try {
+                final FileSource source = new FileSource(shared, true, 0L, shared.length());
+                ok = true;
+                return source;
+            } finally {
+                if (!ok) {
+                    shared.close();
+                }
+            }
+        }
+
+        long size() {
+            return size;
+        }
+
+        void read(final long position, final byte[] bytes, final int offset, final int length) throws IOException {
+            if (position < 0L || position + length > size) {
+                throw new EOFException();
+            }
+            file.read(base + position, bytes, offset, length);
+        }
+
+        Source slice(final long position, final long length) throws IOException {
+            if (position < 0L || position + length > size) {
+                throw new EOFException();
+            }
+            // slices share the file, which is closed along with the outermost archive
+            return new FileSource(file, false, base + position, length);
+        }
+
+        public void close() throws IOException {
+            if (owner) {
+                file.close();
+            }
+        }
+    }
+
+    /**
+     * A file shared by a source and its slices, read with positional reads so that concurrent readers do not block
+     * each other. An interrupted reader closes the channel for everybody, so a closed channel is reopened, and the
+     * read of the interrupted thread is retried with its interrupt status restored afterwards.
+     */
+    static final class SharedFile implements Closeable {
+        private final File path;
+        private final boolean deleteOnClose;
+        private final long length;
+        private volatile FileChannel channel;
+        private volatile boolean closed;
+
+        SharedFile(final File path, final boolean deleteOnClose) throws IOException {
+            this.path = path;
+            this.deleteOnClose = deleteOnClose;
+            this.channel = open(path);
+            this.length = channel.size();
+        }
+
+        private static FileChannel open(final File path) throws IOException {
+            return new RandomAccessFile(path, "r").getChannel();
+        }
+
+        long length() {
+            return length;
+        }
+
+        void read(final long position, final byte[] bytes, final int offset, final int length) throws IOException {
+            boolean interrupted = false;
+            try {
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+                while (buffer.hasRemaining()) {
+                    final FileChannel current = channel;
+                    try {
+                        if (current.read(buffer, position + buffer.position() - offset) == -1) {
+                            throw new EOFException();
+                        }
+                    } catch (ClosedByInterruptException e) {
+                        // retry without the interrupt, which would close the reopened channel again
+                        interrupted |= Thread.interrupted();
+                        reopen(current);
+                    } catch (ClosedChannelException e) {
+                        // closed by another reader being interrupted, or by close()
+                        reopen(current);
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private synchronized void reopen(final FileChannel failed) throws IOException {
+            if (closed) {
+                throw new ClosedChannelException();
+            }
+            if (channel == failed) {
+                channel = open(path);
+            }
+        }
+
+        public synchronized void close() throws IOException {
+            closed = true;
+            try {
+                channel.close();
+            } finally {
+                if (deleteOnClose) {
+                    path.delete();
+                }
+            }
+        }
+    }
+
+    static final class BufferSource extends Source {
+        private final ByteBuffer buffer;
+
+        BufferSource(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        long size() {
+            return buffer.remaining();
+        }
+
+        void read(final long position, final byte[] bytes, final int offset, final int length) throws IOException {
+            if (position < 0L || position + length > buffer.remaining()) {
+                throw new EOFException();
+            }
+            // duplicate to keep concurrent readers from seeing each others positions
+            final ByteBuffer duplicate = buffer.duplicate();
+            duplicate.position(duplicate.position() + (int) position);
+            duplicate.get(bytes, offset, length);
+        }
+
+        Source slice(final long position, final long length) throws IOException {
+            if (position < 0L || position + length > buffer.remaining()) {
+                throw new EOFException();
+            }
+            final ByteBuffer duplicate = buffer.duplicate();
+            duplicate.position(duplicate.position() + (int) position);
+            duplicate.limit(duplicate.position() + (int) length);
+            return new BufferSource(duplicate.slice());
+        }
+
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static java.security.AccessController.doPrivileged;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import org.jboss.modules.AbstractResourceLoader;
+import org.jboss.modules.ClassSpec;
+import org.jboss.modules.IterableResourceLoader;
+import org.jboss.modules.PackageSpec;
+import org.jboss.modules.PathUtils;
+import org.jboss.modules.Resource;
+import org.jboss.modules.filter.PathFilter;
+import org.jboss.modules.filter.PathFilters;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * Resource loader reading classes and resources straight from a {@link ZipArchive}, bypassing VFS.
+ * <p>
+ * The loader covers either a whole archive or a directory within it. Resource URLs still point to the VFS mount of
+ * the resource root, so they stay valid for code that opens them through VFS. Code sources carry no signers, so
+ * signed archives must be loaded with the {@link VFSResourceLoader} instead.
+ */
+public class ZipResourceLoader extends AbstractResourceLoader implements IterableResourceLoader {
+
+    private final String rootName;
+    private final ZipArchive archive;
+    private final String prefix;
+    private final VirtualFile root;
+    private final Manifest manifest;
+    private final URL rootUrl;
+
+    /**
+     * Construct new instance.
+     *
+     * @param rootName The module root name
+     * @param archive The archive holding the resources
+     * @param path The path of the resource root within the archive, or the empty string for the whole archive
+     * @param root The root virtual file, used to build resource URLs
+     * @param usePhysicalCodeSource {@code true} to use the physical root URL for code sources, {@code false} to use the VFS URL
+     * @throws IOException if the manifest could not be read or the root URL is invalid
+     */
+    public ZipResourceLoader(final String rootName, final ZipArchive archive, final String path, final VirtualFile root,
+                             final boolean usePhysicalCodeSource) throws IOException {
+        this.rootName = rootName;
+        this.archive = archive;
+        this.prefix = path.isEmpty() ? path : path + "/";
+        this.root = root;
+        final ZipArchive.Entry manifestEntry = archive.getEntry(prefix + JarFile.MANIFEST_NAME);
+        if (manifestEntry == null) {
+            manifest = null;
+        } else {
+            final InputStream in = archive.openStream(manifestEntry);
+            try {
+                manifest = new Manifest(in);
+            } finally {
+                VFSUtils.safeClose(in);
+            }
+        }
+        rootUrl = usePhysicalCodeSource ? VFSUtils.getRootURL(root) : root.asFileURL();
+    }
+
+    /** {@inheritDoc} */
+    public ClassSpec getClassSpec(final String name) throws IOException {
+        final ZipArchive.Entry entry = archive.getEntry(prefix + name);
+        if (entry == null) {
+            return null;
+        }
+        final ClassSpec spec = new ClassSpec();
+        spec.setBytes(archive.getBytes(entry));
+        spec.setCodeSource(new CodeSource(rootUrl, (CodeSigner[]) null));
+        return spec;
+    }
+
+    /** {@inheritDoc} */
+    public PackageSpec getPackageSpec(final String name) throws IOException {
+        return getPackageSpec(name, this.manifest, this.rootUrl);
+    }
+
+    /** {@inheritDoc} */
+    public String getLibrary(final String name) {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    public String getRootName() {
+        return rootName;
+    }
+
+    /** {@inheritDoc} */
+    public PathFilter getExportFilter() {
+        return PathFilters.acceptAll();
+    }
+
+    /** {@inheritDoc} */
+    public Resource getResource(final String name) {
+        final String path = relativePath(name);
+        final ZipArchive.Entry entry = archive.getEntry(prefix + path);
+        return entry == null ? null : new ZipEntryResource(path, entry);
+    }
+
+    /** {@inheritDoc} */
+    public Collection<String> getPaths() {
+        final List<String> index = new ArrayList<String>();
+        for (final String directory : archive.getDirectories()) {
+            if (prefix.isEmpty()) {
+                index.add(directory);
+            } else if (directory.length() == prefix.length() - 1 && prefix.startsWith(directory)) {
+                index.add("");
+            } else if (directory.startsWith(prefix)) {
+                index.add(directory.substring(prefix.length()));
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public Iterator<Resource> iterateResources(final String startPath, final boolean recursive) {
+        final String start = relativePath(startPath);
+        final String base = start.isEmpty() ? prefix : prefix + start + "/";
+        final List<Resource> resources = new ArrayList<Resource>();
+        for (final ZipArchive.Entry entry : archive.getEntries()) {
+            final String name = entry.getName();
+            if (name.startsWith(base) && (recursive || name.indexOf('/', base.length()) == -1)) {
+                resources.add(new ZipEntryResource(name.substring(prefix.length()), entry));
+            }
+        }
+        return resources.iterator();
+    }
+
+    private static String relativePath(final String name) {
+        String path = PathUtils.canonicalize(name);
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        while (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path;
+    }
+
+    class ZipEntryResource implements Resource {
+        private final String name;
+        private final ZipArchive.Entry entry;
+        private volatile URL resourceURL;
+
+        ZipEntryResource(final String name, final ZipArchive.Entry entry) {
+            this.name = name;
+            this.entry = entry;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public URL getURL() {
+            URL url = resourceURL;
+            if (url == null) {
+                // most resources are only ever read, so the VFS lookup is deferred until the URL is requested
+                url = doPrivileged(new PrivilegedAction<URL>() {
+                    public URL run() {
+                        try {
+                            return root.getChild(name).toURL();
+                        } catch (MalformedURLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+                resourceURL = url;
+            }
+            return url;
+        }
+
+        public InputStream openStream() throws IOException {
+            return archive.openStream(entry);
+        }
+
+        public long getSize() {
+            return entry.getSize();
+        }
+    }
+}
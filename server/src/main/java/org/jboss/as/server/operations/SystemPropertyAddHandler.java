@@ -24,6 +24,7 @@ import static org.jboss.as.server.controller.resources.SystemPropertyResourceDef
 import static org.jboss.as.server.controller.resources.SystemPropertyResourceDefinition.VALUE;
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ExpressionResolverImpl;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -97,6 +98,7 @@ public class SystemPropertyAddHandler implements OperationStepHandler{
             } else {
                 WildFlySecurityManager.clearPropertyPrivileged(name);
             }
+            ExpressionResolverImpl.invalidateCachedResolutions();
             if (systemPropertyUpdater != null) {
                 systemPropertyUpdater.systemPropertyUpdated(name, setValue);
             }
@@ -112,6 +114,7 @@ public class SystemPropertyAddHandler implements OperationStepHandler{
                 }
                 if (systemPropertyUpdater != null) {
                     WildFlySecurityManager.clearPropertyPrivileged(name);
+                    ExpressionResolverImpl.invalidateCachedResolutions();
                     if (systemPropertyUpdater != null) {
                         systemPropertyUpdater.systemPropertyUpdated(name, null);
                     }
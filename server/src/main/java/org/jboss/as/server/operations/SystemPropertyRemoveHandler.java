@@ -24,6 +24,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
 
+import org.jboss.as.controller.ExpressionResolverImpl;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -79,6 +80,7 @@ public class SystemPropertyRemoveHandler implements OperationStepHandler {
                 public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
 
                     WildFlySecurityManager.clearPropertyPrivileged(name);
+                    ExpressionResolverImpl.invalidateCachedResolutions();
                     if (systemPropertyUpdater != null) {
                         systemPropertyUpdater.systemPropertyUpdated(name, null);
                     }
@@ -86,6 +88,7 @@ public class SystemPropertyRemoveHandler implements OperationStepHandler {
                         @Override
                         public void handleRollback(OperationContext context, ModelNode operation) {
                             WildFlySecurityManager.setPropertyPrivileged(name, oldValue);
+                            ExpressionResolverImpl.invalidateCachedResolutions();
                             if (systemPropertyUpdater != null) {
                                 systemPropertyUpdater.systemPropertyUpdated(name, oldValue);
                             }
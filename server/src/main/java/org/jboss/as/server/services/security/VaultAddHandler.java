@@ -24,6 +24,7 @@ import java.util.Map;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ExpressionResolverImpl;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ServiceVerificationHandler;
@@ -77,6 +78,7 @@ public class VaultAddHandler extends AbstractAddStepHandler {
             }
             try {
                 vaultReader.createVault(vaultClass, vaultOptions);
+                ExpressionResolverImpl.invalidateCachedResolutions();
             } catch (VaultReaderException e) {
                 throw ServerMessages.MESSAGES.cannotCreateVault(e, e);
             }
@@ -86,5 +88,6 @@ public class VaultAddHandler extends AbstractAddStepHandler {
     @Override
     protected void rollbackRuntime(OperationContext context, ModelNode operation, ModelNode model, List<ServiceController<?>> controllers) {
         vaultReader.destroyVault();
+        ExpressionResolverImpl.invalidateCachedResolutions();
     }
 }
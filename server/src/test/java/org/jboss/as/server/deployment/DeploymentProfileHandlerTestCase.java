@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.server.deployment.DeploymentProfileTestCase.processor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * Tests {@link DeploymentProfileHandler}.
+ */
+public class DeploymentProfileHandlerTestCase {
+
+    @Test
+    public void testReadProfile() throws OperationFailedException {
+        final DeploymentUnit deploymentUnit = new DeploymentUnitImpl(null, "test.ear", null);
+        final DeploymentProfile profile = new DeploymentProfile();
+        profile.record(Phase.PARSE, processor(10, "foo"), 2000L, 100L);
+        profile.record(Phase.INSTALL, processor(20, null), 3000L, 200L);
+        deploymentUnit.putAttachment(Attachments.DEPLOYMENT_PROFILE, profile);
+
+        final DeploymentUnit subDeployment = new DeploymentUnitImpl(deploymentUnit, "test.war", null);
+        final DeploymentProfile subProfile = new DeploymentProfile();
+        subProfile.record(Phase.PARSE, processor(10, "foo"), 5000L, -1L);
+        subDeployment.putAttachment(Attachments.DEPLOYMENT_PROFILE, subProfile);
+        deploymentUnit.addToAttachmentList(Attachments.SUB_DEPLOYMENTS, subDeployment);
+
+        final ModelNode result = execute("test.ear", deploymentUnit);
+
+        assertEquals(5L, result.get("total-time").asLong());
+        assertEquals(300L, result.get("total-allocated-bytes").asLong());
+        final List<ModelNode> processors = result.get("processors").asList();
+        assertEquals(2, processors.size());
+        assertEquals(Phase.PARSE.name(), processors.get(0).get("phase").asString());
+        assertEquals(10, processors.get(0).get("priority").asInt());
+        assertEquals(DeploymentProfileTestCase.TestProcessor.class.getName(), processors.get(0).get("processor").asString());
+        assertEquals("foo", processors.get(0).get("subsystem").asString());
+        assertEquals(2L, processors.get(0).get("time").asLong());
+        assertEquals(100L, processors.get(0).get("allocated-bytes").asLong());
+        assertEquals(Phase.INSTALL.name(), processors.get(1).get("phase").asString());
+        assertFalse(processors.get(1).has("subsystem"));
+
+        final ModelNode sub = result.get("subdeployments", "test.war");
+        assertEquals(5L, sub.get("total-time").asLong());
+        assertEquals(-1L, sub.get("total-allocated-bytes").asLong());
+        assertEquals(1, sub.get("processors").asList().size());
+    }
+
+    @Test
+    public void testNoProfile() throws OperationFailedException {
+        final ModelNode result = execute("test.war", new DeploymentUnitImpl(null, "test.war", null));
+        assertFalse(result.isDefined());
+    }
+
+    @Test
+    public void testNotDeployed() throws OperationFailedException {
+        final ModelNode result = execute("test.war", null);
+        assertFalse(result.isDefined());
+    }
+
+    private static ModelNode execute(final String deploymentName, final DeploymentUnit deploymentUnit) throws OperationFailedException {
+        final ModelNode result = new ModelNode();
+        final ServiceRegistry registry = Mockito.mock(ServiceRegistry.class);
+        if (deploymentUnit != null) {
+            final AbstractDeploymentUnitService service = Mockito.mock(AbstractDeploymentUnitService.class);
+            Mockito.when(service.getValue()).thenReturn(deploymentUnit);
+            final ServiceController<?> controller = Mockito.mock(ServiceController.class);
+            Mockito.doReturn(service).when(controller).getService();
+            Mockito.doReturn(controller).when(registry).getService(Services.deploymentUnitName(deploymentName));
+        }
+        final OperationContext context = Mockito.mock(OperationContext.class);
+        Mockito.when(context.getResult()).thenReturn(result);
+        Mockito.when(context.getServiceRegistry(false)).thenReturn(registry);
+
+        final ModelNode operation = new ModelNode();
+        operation.get(OP_ADDR).add("deployment", deploymentName);
+        DeploymentProfileHandler.INSTANCE.execute(context, operation);
+
+        final ArgumentCaptor<OperationStepHandler> step = ArgumentCaptor.forClass(OperationStepHandler.class);
+        Mockito.verify(context).addStep(step.capture(), Mockito.eq(OperationContext.Stage.RUNTIME));
+        step.getValue().execute(context, operation);
+        Mockito.verify(context, Mockito.times(2)).stepCompleted();
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link DeploymentProfile}.
+ */
+public class DeploymentProfileTestCase {
+
+    @Test
+    public void testEntriesInExecutionOrder() {
+        final DeploymentProfile profile = new DeploymentProfile();
+        profile.record(Phase.PARSE, processor(10, "foo"), 100L, 1000L);
+        profile.record(Phase.PARSE, processor(20, null), 200L, 2000L);
+        profile.record(Phase.INSTALL, processor(5, "bar"), 300L, 3000L);
+
+        final List<DeploymentProfile.Entry> entries = profile.getEntries();
+        assertEquals(3, entries.size());
+        assertEquals(Phase.PARSE, entries.get(0).getPhase());
+        assertEquals(10, entries.get(0).getPriority());
+        assertEquals("foo", entries.get(0).getSubsystemName());
+        assertEquals(TestProcessor.class.getName(), entries.get(0).getProcessor());
+        assertEquals(100L, entries.get(0).getTime());
+        assertEquals(1000L, entries.get(0).getAllocatedBytes());
+        assertNull(entries.get(1).getSubsystemName());
+        assertEquals(Phase.INSTALL, entries.get(2).getPhase());
+
+        assertEquals(600L, profile.getTotalTime());
+        assertEquals(6000L, profile.getTotalAllocatedBytes());
+    }
+
+    @Test
+    public void testUnsupportedAllocationAccounting() {
+        final DeploymentProfile profile = new DeploymentProfile();
+        profile.record(Phase.PARSE, processor(10, "foo"), 100L, 1000L);
+        profile.record(Phase.PARSE, processor(20, "foo"), 100L, -1L);
+
+        assertEquals(200L, profile.getTotalTime());
+        assertEquals(-1L, profile.getTotalAllocatedBytes());
+    }
+
+    @Test
+    public void testClearPhase() {
+        final DeploymentProfile profile = new DeploymentProfile();
+        profile.record(Phase.PARSE, processor(10, "foo"), 100L, 0L);
+        profile.record(Phase.INSTALL, processor(10, "foo"), 200L, 0L);
+        profile.record(Phase.INSTALL, processor(20, "foo"), 300L, 0L);
+
+        profile.clear(Phase.INSTALL);
+        assertEquals(1, profile.getEntries().size());
+        assertEquals(100L, profile.getTotalTime());
+
+        // a restarted phase is recorded again, but only once
+        profile.record(Phase.INSTALL, processor(10, "foo"), 250L, 0L);
+        assertEquals(2, profile.getEntries().size());
+        assertEquals(350L, profile.getTotalTime());
+
+        profile.clear(Phase.CLEANUP);
+        assertEquals(2, profile.getEntries().size());
+    }
+
+    @Test
+    public void testCurrentThreadAllocatedBytes() {
+        final long allocated = DeploymentProfile.currentThreadAllocatedBytes();
+        if (allocated >= 0L) {
+            final byte[] bytes = new byte[1 << 20];
+            assertTrue(DeploymentProfile.currentThreadAllocatedBytes() - allocated >= bytes.length);
+        } else {
+            assertEquals(-1L, allocated);
+        }
+    }
+
+    static RegisteredDeploymentUnitProcessor processor(final int priority, final String subsystemName) {
+        return new RegisteredDeploymentUnitProcessor(priority, new TestProcessor(), subsystemName);
+    }
+
+    static class TestProcessor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        }
+
+        @Override
+        public void undeploy(DeploymentUnit context) {
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.modules.Resource;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests reading deployment archives with the {@link ZipArchive} and {@link ZipResourceLoader}.
+ */
+public class ZipResourceLoaderTestCase {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private File file;
+    private ZipArchive archive;
+
+    @Before
+    public void setUp() throws IOException {
+        final byte[] library = zip(false, "org/acme/Library.class", "library", "META-INF/services/org.acme.Service", "org.acme.ServiceImpl");
+        final byte[] storedLibrary = zip(false, "org/acme/Stored.class", "stored");
+        final byte[] war = zip(false,
+                "WEB-INF/classes/org/acme/Servlet.class", "servlet",
+                "WEB-INF/classes/org/acme/messages.properties", "greeting=hello",
+                "index.html", "<html/>");
+        file = File.createTempFile("deployment", ".ear");
+        final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+        try {
+            out.setComment("a comment to skip when searching for the central directory");
+            put(out, "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\r\nJBoss-Resource-Loader: zip\r\n\r\n".getBytes(UTF_8), false);
+            put(out, "lib/library.jar", library, false);
+            put(out, "lib/stored.jar", storedLibrary, true);
+            put(out, "web.war", war, true);
+        } finally {
+            out.close();
+        }
+        archive = ZipArchive.open(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        archive.close();
+        file.delete();
+    }
+
+    @Test
+    public void testIndex() throws Exception {
+        assertNotNull(archive.getEntry("lib/library.jar"));
+        assertNull(archive.getEntry("lib"));
+        assertTrue(archive.isDirectory(""));
+        assertTrue(archive.isDirectory("lib"));
+        assertTrue(archive.isDirectory("META-INF"));
+        assertFalse(archive.isDirectory("lib/library.jar"));
+        assertFalse(archive.isSigned());
+        assertEquals(4, archive.getEntries().size());
+    }
+
+    @Test
+    public void testNestedArchives() throws Exception {
+        final ZipArchive deflated = archive.getNestedArchive("lib/library.jar");
+        assertEquals("library", string(deflated.getBytes(deflated.getEntry("org/acme/Library.class"))));
+        final ZipArchive stored = archive.getNestedArchive("lib/stored.jar");
+        assertEquals("stored", string(stored.getBytes(stored.getEntry("org/acme/Stored.class"))));
+        assertSame(stored, archive.getNestedArchive("lib/stored.jar"));
+        assertNull(archive.getNestedArchive("lib/missing.jar"));
+    }
+
+    @Test
+    public void testNestedArchiveInflatedToTempDir() throws Exception {
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        final TempFileProvider provider = TempFileProvider.create("test", executor);
+        try {
+            final TempDir tempDir = provider.createTempDir("deployment.ear");
+            final File root = tempDir.getRoot();
+            final ZipArchive spilling = ZipArchive.open(file, tempDir, 0L);
+            try {
+                final ZipArchive deflated = spilling.getNestedArchive("lib/library.jar");
+                assertEquals("library", string(deflated.getBytes(deflated.getEntry("org/acme/Library.class"))));
+                assertEquals("org.acme.ServiceImpl", string(deflated.getBytes(deflated.getEntry("META-INF/services/org.acme.Service"))));
+                assertEquals(1, root.list().length);
+            } finally {
+                spilling.close();
+            }
+            // the temp dir goes away with the archive
+            assertFalse(root.exists());
+        } finally {
+            provider.close();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testReadAfterInterrupt() throws Exception {
+        final ZipArchive stored = archive.getNestedArchive("lib/stored.jar");
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals("stored", string(stored.getBytes(stored.getEntry("org/acme/Stored.class"))));
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        // an interrupted reader must not close the file for everybody else
+        assertEquals("stored", string(stored.getBytes(stored.getEntry("org/acme/Stored.class"))));
+        final ZipArchive deflated = archive.getNestedArchive("lib/library.jar");
+        assertEquals("library", string(deflated.getBytes(deflated.getEntry("org/acme/Library.class"))));
+    }
+
+    @Test
+    public void testArchiveLoader() throws Exception {
+        final ZipResourceLoader loader = new ZipResourceLoader("library.jar", archive.getNestedArchive("lib/library.jar"), "",
+                VFS.getChild("content/test.ear/lib/library.jar"), false);
+        assertArrayEquals("library".getBytes(UTF_8), loader.getClassSpec("org/acme/Library.class").getBytes());
+        assertNull(loader.getClassSpec("org/acme/Missing.class"));
+
+        final Resource resource = loader.getResource("/META-INF/services/org.acme.Service");
+        assertNotNull(resource);
+        assertEquals("META-INF/services/org.acme.Service", resource.getName());
+        assertEquals("org.acme.ServiceImpl".length(), resource.getSize());
+        assertTrue(resource.getURL().toString().endsWith("/lib/library.jar/META-INF/services/org.acme.Service"));
+
+        final Set<String> paths = new HashSet<String>(loader.getPaths());
+        assertTrue(paths.contains(""));
+        assertTrue(paths.contains("org/acme"));
+        assertTrue(paths.contains("META-INF/services"));
+    }
+
+    @Test
+    public void testDirectoryLoader() throws Exception {
+        final ZipResourceLoader loader = new ZipResourceLoader("classes", archive.getNestedArchive("web.war"), "WEB-INF/classes",
+                VFS.getChild("content/test.ear/web.war/WEB-INF/classes"), false);
+        assertArrayEquals("servlet".getBytes(UTF_8), loader.getClassSpec("org/acme/Servlet.class").getBytes());
+        assertNull(loader.getResource("index.html"));
+
+        final Set<String> paths = new HashSet<String>(loader.getPaths());
+        assertEquals(3, paths.size());
+        assertTrue(paths.contains(""));
+        assertTrue(paths.contains("org"));
+        assertTrue(paths.contains("org/acme"));
+
+        final Set<String> names = new HashSet<String>();
+        final Iterator<Resource> resources = loader.iterateResources("org", false);
+        while (resources.hasNext()) {
+            names.add(resources.next().getName());
+        }
+        assertTrue(names.isEmpty());
+        final Iterator<Resource> recursive = loader.iterateResources("org", true);
+        while (recursive.hasNext()) {
+            names.add(recursive.next().getName());
+        }
+        assertEquals(2, names.size());
+        assertTrue(names.contains("org/acme/Servlet.class"));
+        assertTrue(names.contains("org/acme/messages.properties"));
+    }
+
+    private static String string(final byte[] bytes) {
+        return new String(bytes, UTF_8);
+    }
+
+    private static byte[] zip(final boolean stored, final String... namesAndContents) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ZipOutputStream out = new ZipOutputStream(bytes);
+        try {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                put(out, namesAndContents[i], namesAndContents[i + 1].getBytes(UTF_8), stored);
+            }
+        } finally {
+            out.close();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void put(final ZipOutputStream out, final String name, final byte[] content, final boolean stored) throws IOException {
+        final ZipEntry entry = new ZipEntry(name);
+        if (stored) {
+            final CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCompressedSize(content.length);
+            entry.setCrc(crc.getValue());
+        }
+        out.putNextEntry(entry);
+        out.write(content);
+        out.closeEntry();
+    }
+}
@@ -53,6 +53,8 @@ import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourc
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_MAX_SIZE;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_NAME;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_REMOVE_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_WAIT_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.POOL_WAIT_TIME;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.RUN_AS_ROLE;
 import static org.jboss.as.ejb3.subsystem.deployment.AbstractEJBComponentResourceDefinition.SECURITY_DOMAIN;
 import static org.jboss.as.ejb3.subsystem.deployment.TimerAttributeDefinition.CALENDAR_TIMER;
@@ -82,6 +84,9 @@ public class EjbJarRuntimeResourceTestBase {
     private static final AttributeDefinition[] POOL_ATTRIBUTES =
             new AttributeDefinition[]{POOL_AVAILABLE_COUNT, POOL_CREATE_COUNT, POOL_CURRENT_SIZE, POOL_NAME, POOL_MAX_SIZE, POOL_REMOVE_COUNT};
 
+    // only tracked by lock-free pools, so undefined for the default pool
+    private static final AttributeDefinition[] POOL_WAIT_ATTRIBUTES = new AttributeDefinition[]{POOL_WAIT_COUNT, POOL_WAIT_TIME};
+
     private static final String[] TIMER_ATTRIBUTES = { TIME_REMAINING, NEXT_TIMEOUT, CALENDAR_TIMER};
     private static final String[] SCHEDULE_ATTRIBUTES = { DAY_OF_MONTH, DAY_OF_WEEK, HOUR, MINUTE, YEAR, TIMEZONE, TimerAttributeDefinition.START, END };
 
@@ -166,6 +171,9 @@ public class EjbJarRuntimeResourceTestBase {
                 assertFalse(resourceDescription.get(ModelDescriptionConstants.ATTRIBUTES).has(attr.getName()));
                 assertFalse(resource.has(attr.getName()));
             }
+            for (AttributeDefinition attr : POOL_WAIT_ATTRIBUTES) {
+                assertFalse(resourceDescription.get(ModelDescriptionConstants.ATTRIBUTES).has(attr.getName()));
+            }
         }
 
         if (type.hasTimer()) {
@@ -220,6 +228,13 @@ public class EjbJarRuntimeResourceTestBase {
             assertTrue(name + " is not defined", resource.get(name).isDefined());
             assertEquals(expectedType, resource.get(name).getType());
         }
+        for (AttributeDefinition attr : POOL_WAIT_ATTRIBUTES) {
+            final String name = attr.getName();
+            assertTrue(resourceDescription.get(ATTRIBUTES, name).isDefined());
+            assertEquals(ModelType.STRING, resourceDescription.get(ATTRIBUTES, name, DESCRIPTION).getType());
+            assertEquals(ModelType.LONG, resourceDescription.get(ATTRIBUTES, name, TYPE).asType());
+            assertTrue(resource.has(name));
+        }
     }
 
     private void validateTimer(ModelNode address, ModelNode resourceDescription, ModelNode resource, boolean expectTimer) {
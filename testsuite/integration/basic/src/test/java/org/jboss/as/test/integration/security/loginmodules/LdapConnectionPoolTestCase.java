@@ -0,0 +1,271 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.integration.security.loginmodules;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.AUTHENTICATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.AUTHENTICATION_CACHE_TTL;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BASE_DN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONNECTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.LDAP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.LDAP_CONNECTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ALLOW_RESOURCE_SERVICE_RESTART;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SEARCH_CREDENTIAL;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SEARCH_DN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SEARCH_POOL_SIZE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SECURITY_REALM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.USERNAME_ATTRIBUTE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.directory.server.annotations.CreateLdapServer;
+import org.apache.directory.server.annotations.CreateTransport;
+import org.apache.directory.server.core.annotations.AnnotationUtils;
+import org.apache.directory.server.core.annotations.ContextEntry;
+import org.apache.directory.server.core.annotations.CreateDS;
+import org.apache.directory.server.core.annotations.CreateIndex;
+import org.apache.directory.server.core.annotations.CreatePartition;
+import org.apache.directory.server.core.api.DirectoryService;
+import org.apache.directory.server.core.factory.DSAnnotationProcessor;
+import org.apache.directory.server.factory.ServerAnnotationProcessor;
+import org.apache.directory.server.ldap.LdapServer;
+import org.apache.directory.shared.ldap.model.entry.DefaultEntry;
+import org.apache.directory.shared.ldap.model.ldif.LdifEntry;
+import org.apache.directory.shared.ldap.model.ldif.LdifReader;
+import org.apache.directory.shared.ldap.model.schema.SchemaManager;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.test.api.ArquillianResource;
+import org.jboss.as.arquillian.api.ServerSetup;
+import org.jboss.as.arquillian.api.ServerSetupTask;
+import org.jboss.as.arquillian.container.ManagementClient;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.test.integration.security.common.AbstractSecurityDomainsServerSetupTask;
+import org.jboss.as.test.integration.security.common.ManagedCreateLdapServer;
+import org.jboss.as.test.integration.security.common.ManagedCreateTransport;
+import org.jboss.as.test.integration.security.common.Utils;
+import org.jboss.as.test.integration.security.common.config.SecurityDomain;
+import org.jboss.as.test.integration.security.common.config.SecurityModule;
+import org.jboss.as.test.integration.security.loginmodules.common.servlets.SimpleSecuredServlet;
+import org.jboss.as.test.integration.security.loginmodules.common.servlets.SimpleServlet;
+import org.jboss.dmr.ModelNode;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests the search connection pool and the authentication cache of an outbound LDAP connection against an embedded
+ * ApacheDS server. Users of the web application are authenticated by the RealmDirect login module with a security
+ * realm using LDAP authentication. The realm has no authorization, so authenticated users get a 403.
+ */
+@RunWith(Arquillian.class)
+@ServerSetup({ LdapConnectionPoolTestCase.LDAPServerSetupTask.class, LdapConnectionPoolTestCase.SecurityRealmSetup.class,
+        LdapConnectionPoolTestCase.SecurityDomainsSetup.class })
+@RunAsClient
+public class LdapConnectionPoolTestCase {
+
+    private static final String SECURITY_DOMAIN = "ldap-pool-domain";
+    private static final String SECURITY_REALM_NAME = "LdapPoolRealm";
+    private static final String CONNECTION_NAME = "ldap-pool-connection";
+    private static final int LDAP_PORT = 10391;
+
+    private static final String SEARCH_PRINCIPAL = "uid=admin,ou=system";
+    private static final String SEARCH_CREDENTIALS = "secret";
+
+    private static final PathAddress CONNECTION_ADDRESS = PathAddress.pathAddress().append(CORE_SERVICE, MANAGEMENT)
+            .append(LDAP_CONNECTION, CONNECTION_NAME);
+    private static final PathAddress REALM_ADDRESS = PathAddress.pathAddress().append(CORE_SERVICE, MANAGEMENT)
+            .append(SECURITY_REALM, SECURITY_REALM_NAME);
+
+    @ArquillianResource
+    ManagementClient managementClient;
+
+    @Deployment
+    public static WebArchive deployment() {
+        final WebArchive war = ShrinkWrap.create(WebArchive.class, SECURITY_DOMAIN + ".war");
+        war.addClasses(SimpleSecuredServlet.class, SimpleServlet.class);
+        war.addAsWebInfResource(LdapConnectionPoolTestCase.class.getPackage(), "web-basic-authn.xml", "web.xml");
+        war.addAsWebInfResource(new StringAsset("<jboss-web><security-domain>" + SECURITY_DOMAIN
+                + "</security-domain></jboss-web>"), "jboss-web.xml");
+        return war;
+    }
+
+    @Test
+    public void testPooledAndCachedAuthentication(@ArquillianResource URL webAppURL) throws Exception {
+        final URL servletURL = new URL(webAppURL.toExternalForm() + SimpleSecuredServlet.SERVLET_PATH.substring(1));
+
+        Utils.makeCallWithBasicAuthn(servletURL, "jduke", "theduke", 403);
+        assertEquals(1L, readMetric("authentication-cache-miss-count"));
+        // the search connection went back to the pool
+        assertTrue(readMetric("search-pool-idle-count") >= 1L);
+
+        Utils.makeCallWithBasicAuthn(servletURL, "jduke", "theduke", 403);
+        assertEquals(1L, readMetric("authentication-cache-miss-count"));
+        assertTrue(readMetric("authentication-cache-hit-count") >= 1L);
+        assertTrue(readMetric("search-pool-hit-count") >= 1L);
+
+        // a wrong password is verified by the server, never answered from the cache
+        Utils.makeCallWithBasicAuthn(servletURL, "jduke", "wrong", 401);
+        assertEquals(2L, readMetric("authentication-cache-miss-count"));
+    }
+
+    private long readMetric(final String name) throws Exception {
+        final ModelNode operation = Util.createEmptyOperation(READ_ATTRIBUTE_OPERATION, CONNECTION_ADDRESS);
+        operation.get(NAME).set(name);
+        final ModelNode result = managementClient.getControllerClient().execute(operation);
+        assertEquals(result.toString(), "success", result.get("outcome").asString());
+        return result.get("result").asLong();
+    }
+
+    /**
+     * Adds the pooled LDAP connection and a security realm authenticating with it.
+     */
+    static class SecurityRealmSetup implements ServerSetupTask {
+
+        @Override
+        public void setup(final ManagementClient managementClient, final String containerId) throws Exception {
+            final List<ModelNode> updates = new ArrayList<ModelNode>();
+            final ModelNode connection = Util.createAddOperation(CONNECTION_ADDRESS);
+            connection.get(ModelDescriptionConstants.URL).set("ldap://" + Utils.getSecondaryTestAddress(managementClient) + ":" + LDAP_PORT);
+            connection.get(SEARCH_DN).set(SEARCH_PRINCIPAL);
+            connection.get(SEARCH_CREDENTIAL).set(SEARCH_CREDENTIALS);
+            connection.get(SEARCH_POOL_SIZE).set(2);
+            connection.get(AUTHENTICATION_CACHE_TTL).set(60);
+            updates.add(connection);
+
+            updates.add(Util.createAddOperation(REALM_ADDRESS));
+            final ModelNode authentication = Util.createAddOperation(REALM_ADDRESS.append(AUTHENTICATION, LDAP));
+            authentication.get(CONNECTION).set(CONNECTION_NAME);
+            authentication.get(BASE_DN).set("ou=People,dc=jboss,dc=org");
+            authentication.get(USERNAME_ATTRIBUTE).set("uid");
+            authentication.get(OPERATION_HEADERS, ALLOW_RESOURCE_SERVICE_RESTART).set(true);
+            updates.add(authentication);
+            Utils.applyUpdates(updates, managementClient.getControllerClient());
+        }
+
+        @Override
+        public void tearDown(final ManagementClient managementClient, final String containerId) throws Exception {
+            final List<ModelNode> updates = new ArrayList<ModelNode>();
+            for (final PathAddress address : new PathAddress[] { REALM_ADDRESS, CONNECTION_ADDRESS }) {
+                final ModelNode remove = Util.createRemoveOperation(address);
+                remove.get(OPERATION_HEADERS, ROLLBACK_ON_RUNTIME_FAILURE).set(false);
+                remove.get(OPERATION_HEADERS, ALLOW_RESOURCE_SERVICE_RESTART).set(true);
+                updates.add(remove);
+            }
+            Utils.applyUpdates(updates, managementClient.getControllerClient());
+        }
+    }
+
+    /**
+     * Adds a security domain delegating to the security realm, without a cache of its own.
+     */
+    static class SecurityDomainsSetup extends AbstractSecurityDomainsServerSetupTask {
+
+        @Override
+        protected SecurityDomain[] getSecurityDomains() throws Exception {
+            final SecurityDomain securityDomain = new SecurityDomain.Builder()
+                    .name(SECURITY_DOMAIN)
+                    .loginModules(new SecurityModule.Builder().name("RealmDirect").putOption("realm", SECURITY_REALM_NAME).build())
+                    .build();
+            return new SecurityDomain[] { securityDomain };
+        }
+    }
+
+    /**
+     * A server setup task which configures and starts the LDAP server.
+     */
+    //@formatter:off
+    @CreateDS(
+        name = "JBossPoolDS",
+        partitions =
+        {
+            @CreatePartition(
+                name = "jboss",
+                suffix = "dc=jboss,dc=org",
+                contextEntry = @ContextEntry(
+                    entryLdif =
+                        "dn: dc=jboss,dc=org\n" +
+                        "dc: jboss\n" +
+                        "objectClass: top\n" +
+                        "objectClass: domain\n\n" ),
+                indexes =
+                {
+                    @CreateIndex( attribute = "objectClass" ),
+                    @CreateIndex( attribute = "uid" )
+                })
+        })
+    @CreateLdapServer (
+        transports =
+        {
+            @CreateTransport( protocol = "LDAP",  port = LDAP_PORT, address = "0.0.0.0" )
+        })
+    //@formatter:on
+    static class LDAPServerSetupTask implements ServerSetupTask {
+
+        private DirectoryService directoryService;
+        private LdapServer ldapServer;
+
+        @Override
+        public void setup(ManagementClient managementClient, String containerId) throws Exception {
+            directoryService = DSAnnotationProcessor.getDirectoryService();
+            final SchemaManager schemaManager = directoryService.getSchemaManager();
+            for (LdifEntry ldifEntry : new LdifReader(LdapConnectionPoolTestCase.class.getResourceAsStream(
+                    LdapConnectionPoolTestCase.class.getSimpleName() + ".ldif"))) {
+                directoryService.getAdminSession().add(new DefaultEntry(schemaManager, ldifEntry.getEntry()));
+            }
+            final ManagedCreateLdapServer createLdapServer = new ManagedCreateLdapServer(
+                    (CreateLdapServer) AnnotationUtils.getInstance(CreateLdapServer.class));
+            final String address = StringUtils.strip(Utils.getSecondaryTestAddress(managementClient), "[]");
+            final CreateTransport[] createTransports = createLdapServer.transports();
+            for (int i = 0; i < createTransports.length; i++) {
+                final ManagedCreateTransport mgCreateTransport = new ManagedCreateTransport(createTransports[i]);
+                mgCreateTransport.setAddress(address);
+                createTransports[i] = mgCreateTransport;
+            }
+            ldapServer = ServerAnnotationProcessor.instantiateLdapServer(createLdapServer, directoryService);
+            ldapServer.start();
+        }
+
+        @Override
+        public void tearDown(ManagementClient managementClient, String containerId) throws Exception {
+            ldapServer.stop();
+            directoryService.shutdown();
+            FileUtils.deleteDirectory(directoryService.getInstanceLayout().getInstanceDirectory());
+        }
+    }
+}
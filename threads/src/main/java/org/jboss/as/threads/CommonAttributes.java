@@ -39,6 +39,7 @@ public interface CommonAttributes {
     String HANDOFF_EXECUTOR = "handoff-executor";
     String LARGEST_THREAD_COUNT = "largest-thread-count";
     String NAME = "name";
+    String PARALLELISM = "parallelism";
     String GROUP_NAME = "group-name";
     String KEEPALIVE_TIME = "keepalive-time";
     String MAX_THREADS = "max-threads";
@@ -48,14 +49,23 @@ public interface CommonAttributes {
     String QUEUELESS_THREAD_POOL = "queueless-thread-pool";
     String QUEUE_LENGTH = "queue-length";
     String QUEUE_SIZE = "queue-size";
+    String QUEUE_TIME_MAX = "queue-time-max";
+    String QUEUE_TIME_P50 = "queue-time-p50";
+    String QUEUE_TIME_P99 = "queue-time-p99";
     String REJECTED_COUNT = "rejected-count";
+    String RUN_TIME_MAX = "run-time-max";
+    String RUN_TIME_P50 = "run-time-p50";
+    String RUN_TIME_P99 = "run-time-p99";
     String SCHEDULED_THREAD_POOL = "scheduled-thread-pool";
+    String STEAL_COUNT = "steal-count";
     String TASK_COUNT = "task-count";
     String THREADS = "threads";
     String TIME = "time";
     String THREAD_FACTORY = "thread-factory";
     String THREAD_NAME_PATTERN = "thread-name-pattern";
+    String THROUGHPUT = "throughput";
     String UNBOUNDED_QUEUE_THREAD_POOL = "unbounded-queue-thread-pool";
     String UNIT = "unit";
     String VALUE = "value";
+    String WORK_STEALING_THREAD_POOL = "work-stealing-thread-pool";
 }
@@ -48,6 +48,9 @@ public enum Element {
     SUBSYSTEM(org.jboss.as.controller.parsing.Element.SUBSYSTEM.getLocalName()),
     THREAD_FACTORY(CommonAttributes.THREAD_FACTORY),
     UNBOUNDED_QUEUE_THREAD_POOL(CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL),
+
+    // Threads 1.2 elements in alpha order
+    WORK_STEALING_THREAD_POOL(CommonAttributes.WORK_STEALING_THREAD_POOL),
     ;
 
     private final String name;
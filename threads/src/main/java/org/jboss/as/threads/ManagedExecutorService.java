@@ -28,6 +28,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -41,6 +42,7 @@ import org.jboss.threads.JBossExecutors;
 public abstract class ManagedExecutorService implements ExecutorService {
 
     private final ExecutorService executor;
+    private final TaskStatistics statistics = new TaskStatistics();
 
     public ManagedExecutorService(ExecutorService executor) {
         if(executor == null) {
@@ -55,13 +57,22 @@ public abstract class ManagedExecutorService implements ExecutorService {
 
     abstract void internalShutdown();
 
+    TaskStatistics getStatistics() {
+        return statistics;
+    }
+
     /**
      * {@inheritDoc}
      * @see java.util.concurrent.Executor#execute(java.lang.Runnable)
      */
     @Override
     public void execute(Runnable command) {
-        this.executor.execute(command);
+        try {
+            this.executor.execute(statistics.wrap(command));
+        } catch (RejectedExecutionException e) {
+            statistics.rejected();
+            throw e;
+        }
     }
 
     /**
@@ -116,7 +127,12 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> Future<T> submit(Callable<T> task) {
-        return this.executor.submit(task);
+        try {
+            return this.executor.submit(statistics.wrap(task));
+        } catch (RejectedExecutionException e) {
+            statistics.rejected();
+            throw e;
+        }
     }
 
     /**
@@ -125,7 +141,12 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> Future<T> submit(Runnable task, T result) {
-        return this.executor.submit(task, result);
+        try {
+            return this.executor.submit(statistics.wrap(task), result);
+        } catch (RejectedExecutionException e) {
+            statistics.rejected();
+            throw e;
+        }
     }
 
     /**
@@ -134,7 +155,12 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public Future<?> submit(Runnable task) {
-        return this.executor.submit(task);
+        try {
+            return this.executor.submit(statistics.wrap(task));
+        } catch (RejectedExecutionException e) {
+            statistics.rejected();
+            throw e;
+        }
     }
 
     /**
@@ -143,7 +169,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
-        return this.executor.invokeAll(tasks);
+        return this.executor.invokeAll(statistics.wrap(tasks));
     }
 
     /**
@@ -152,7 +178,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
-        return this.executor.invokeAll(tasks, timeout, unit);
+        return this.executor.invokeAll(statistics.wrap(tasks), timeout, unit);
     }
 
     /**
@@ -161,7 +187,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
-        return this.executor.invokeAny(tasks);
+        return this.executor.invokeAny(statistics.wrap(tasks));
     }
 
     /**
@@ -170,6 +196,6 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-        return this.executor.invokeAny(tasks, timeout, unit);
+        return this.executor.invokeAny(statistics.wrap(tasks), timeout, unit);
     }
 }
@@ -23,6 +23,7 @@ package org.jboss.as.threads;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -55,22 +56,42 @@ public class ManagedScheduledExecutorService extends ManagedExecutorService impl
 
     @Override
     public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-       return executor.schedule(command, delay, unit);
+        try {
+            return executor.schedule(getStatistics().wrap(command, delay, unit), delay, unit);
+        } catch (RejectedExecutionException e) {
+            getStatistics().rejected();
+            throw e;
+        }
     }
 
     @Override
     public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
-       return executor.schedule(callable, delay, unit);
+        try {
+            return executor.schedule(getStatistics().wrap(callable, delay, unit), delay, unit);
+        } catch (RejectedExecutionException e) {
+            getStatistics().rejected();
+            throw e;
+        }
     }
 
     @Override
     public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
-       return executor.scheduleAtFixedRate(command, initialDelay, period, unit);
+        try {
+            return executor.scheduleAtFixedRate(getStatistics().wrapPeriodic(command), initialDelay, period, unit);
+        } catch (RejectedExecutionException e) {
+            getStatistics().rejected();
+            throw e;
+        }
     }
 
     @Override
     public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
-       return executor.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+        try {
+            return executor.scheduleWithFixedDelay(getStatistics().wrapPeriodic(command), initialDelay, delay, unit);
+        } catch (RejectedExecutionException e) {
+            getStatistics().rejected();
+            throw e;
+        }
     }
 
    public int getActiveCount() {
@@ -96,4 +117,8 @@ public class ManagedScheduledExecutorService extends ManagedExecutorService impl
     public int getQueueSize() {
         return executor.getQueue().size();
     }
+
+    public long getRejectedCount() {
+        return getStatistics().getRejectedCount();
+    }
 }
@@ -84,4 +84,23 @@ public interface PoolAttributeDefinitions {
     AttributeDefinition COMPLETED_TASK_COUNT = new SimpleAttributeDefinition(CommonAttributes.COMPLETED_TASK_COUNT, ModelType.INT, false);
     AttributeDefinition TASK_COUNT = new SimpleAttributeDefinition(CommonAttributes.TASK_COUNT, ModelType.INT, false);
     AttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinition(CommonAttributes.QUEUE_SIZE, ModelType.INT, false);
+    AttributeDefinition STEAL_COUNT = new SimpleAttributeDefinition(CommonAttributes.STEAL_COUNT, ModelType.LONG, false);
+    AttributeDefinition PARALLELISM = new SimpleAttributeDefinition(CommonAttributes.PARALLELISM, ModelType.INT, false);
+
+    // Task timing metrics, available on every pool
+
+    AttributeDefinition QUEUE_TIME_P50 = new SimpleAttributeDefinitionBuilder(CommonAttributes.QUEUE_TIME_P50, ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS).build();
+    AttributeDefinition QUEUE_TIME_P99 = new SimpleAttributeDefinitionBuilder(CommonAttributes.QUEUE_TIME_P99, ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS).build();
+    AttributeDefinition QUEUE_TIME_MAX = new SimpleAttributeDefinitionBuilder(CommonAttributes.QUEUE_TIME_MAX, ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS).build();
+    AttributeDefinition RUN_TIME_P50 = new SimpleAttributeDefinitionBuilder(CommonAttributes.RUN_TIME_P50, ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS).build();
+    AttributeDefinition RUN_TIME_P99 = new SimpleAttributeDefinitionBuilder(CommonAttributes.RUN_TIME_P99, ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS).build();
+    AttributeDefinition RUN_TIME_MAX = new SimpleAttributeDefinitionBuilder(CommonAttributes.RUN_TIME_MAX, ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS).build();
+    AttributeDefinition THROUGHPUT = new SimpleAttributeDefinitionBuilder(CommonAttributes.THROUGHPUT, ModelType.DOUBLE, false)
+            .setMeasurementUnit(MeasurementUnit.PER_SECOND).build();
 }
@@ -40,8 +40,8 @@ public class ScheduledThreadPoolMetricsHandler extends ThreadPoolMetricsHandler
 
     public static final List<AttributeDefinition> METRICS = Arrays.asList(PoolAttributeDefinitions.ACTIVE_COUNT,
             PoolAttributeDefinitions.COMPLETED_TASK_COUNT, PoolAttributeDefinitions.CURRENT_THREAD_COUNT,
-            PoolAttributeDefinitions.LARGEST_THREAD_COUNT, PoolAttributeDefinitions.TASK_COUNT,
-            PoolAttributeDefinitions.QUEUE_SIZE);
+            PoolAttributeDefinitions.LARGEST_THREAD_COUNT, PoolAttributeDefinitions.REJECTED_COUNT,
+            PoolAttributeDefinitions.TASK_COUNT, PoolAttributeDefinitions.QUEUE_SIZE);
 
     public ScheduledThreadPoolMetricsHandler(final ServiceName serviceNameBase) {
         super(METRICS, serviceNameBase);
@@ -59,6 +59,8 @@ public class ScheduledThreadPoolMetricsHandler extends ThreadPoolMetricsHandler
             context.getResult().set(pool.getCurrentThreadCount());
         } else if (attributeName.equals(CommonAttributes.LARGEST_THREAD_COUNT)) {
             context.getResult().set(pool.getLargestThreadCount());
+        } else if (attributeName.equals(CommonAttributes.REJECTED_COUNT)) {
+            context.getResult().set(pool.getRejectedCount());
         } else if (attributeName.equals(CommonAttributes.TASK_COUNT)) {
             context.getResult().set(pool.getTaskCount());
         } else if (attributeName.equals(CommonAttributes.QUEUE_SIZE)) {
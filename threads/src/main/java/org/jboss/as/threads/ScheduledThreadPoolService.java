@@ -110,6 +110,11 @@ public final class ScheduledThreadPoolService implements Service<ManagedSchedule
         return executor.getQueueSize();
     }
 
+    public long getRejectedCount() {
+        final ManagedScheduledExecutorService executor = getValue();
+        return executor.getRejectedCount();
+    }
+
     private class ExecutorImpl extends ScheduledThreadPoolExecutor {
 
         ExecutorImpl(final int corePoolSize, final ThreadFactory threadFactory) {
@@ -0,0 +1,295 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Timing statistics of the tasks run by a managed executor.
+ * <p>
+ * Tasks are wrapped on submission, recording the time they spent in the queue (from submission, or from the scheduled
+ * time of delayed tasks, until a thread picks them up) and the time they ran. Both are kept in microseconds in
+ * lock free log-linear histograms with 8 sub buckets per power of two, so percentiles are accurate to 12.5%. The
+ * histograms are striped by thread, so pool threads finishing tasks at the same time do not update the same counters.
+ */
+final class TaskStatistics {
+
+    private final Histogram queueTime = new Histogram();
+    private final Histogram runTime = new Histogram();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final long startTime = System.nanoTime();
+
+    Runnable wrap(final Runnable task) {
+        return new TimedRunnable(task, System.nanoTime());
+    }
+
+    /**
+     * Wrap a task which will not run before the given delay.
+     */
+    Runnable wrap(final Runnable task, final long delay, final TimeUnit unit) {
+        return new TimedRunnable(task, System.nanoTime() + unit.toNanos(Math.max(0L, delay)));
+    }
+
+    <T> Callable<T> wrap(final Callable<T> task) {
+        return new TimedCallable<T>(task, System.nanoTime());
+    }
+
+    <T> Callable<T> wrap(final Callable<T> task, final long delay, final TimeUnit unit) {
+        return new TimedCallable<T>(task, System.nanoTime() + unit.toNanos(Math.max(0L, delay)));
+    }
+
+    <T> List<Callable<T>> wrap(final Collection<? extends Callable<T>> tasks) {
+        final long now = System.nanoTime();
+        final List<Callable<T>> wrapped = new ArrayList<Callable<T>>(tasks.size());
+        for (Callable<T> task : tasks) {
+            wrapped.add(new TimedCallable<T>(task, now));
+        }
+        return wrapped;
+    }
+
+    /**
+     * Wrap a periodic task. As the scheduled time of each run is not known, only the run time is recorded.
+     */
+    Runnable wrapPeriodic(final Runnable task) {
+        return new TimedRunnable(task, -1L);
+    }
+
+    void rejected() {
+        rejectedCount.incrementAndGet();
+    }
+
+    public long getQueueTimePercentile(final double percentile) {
+        return queueTime.getPercentile(percentile);
+    }
+
+    public long getQueueTimeMax() {
+        return queueTime.getMax();
+    }
+
+    public long getRunTimePercentile(final double percentile) {
+        return runTime.getPercentile(percentile);
+    }
+
+    public long getRunTimeMax() {
+        return runTime.getMax();
+    }
+
+    public long getExecutedCount() {
+        return runTime.getCount();
+    }
+
+    /**
+     * @return the number of tasks the executor refused to accept
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * @return the average number of tasks finished per second since the executor was created
+     */
+    public double getThroughput() {
+        final long elapsed = System.nanoTime() - startTime;
+        return elapsed <= 0L ? 0.0 : runTime.getCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    void started(final long queued, final long start) {
+        if (queued != -1L) {
+            queueTime.record(start - queued);
+        }
+    }
+
+    void finished(final long start) {
+        runTime.record(System.nanoTime() - start);
+    }
+
+    private final class TimedRunnable implements Runnable {
+        private final Runnable task;
+        private final long queued;
+
+        TimedRunnable(final Runnable task, final long queued) {
+            this.task = task;
+            this.queued = queued;
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            started(queued, start);
+            try {
+                task.run();
+            } finally {
+                finished(start);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+
+    private final class TimedCallable<T> implements Callable<T> {
+        private final Callable<T> task;
+        private final long queued;
+
+        TimedCallable(final Callable<T> task, final long queued) {
+            this.task = task;
+            this.queued = queued;
+        }
+
+        @Override
+        public T call() throws Exception {
+            final long start = System.nanoTime();
+            started(queued, start);
+            try {
+                return task.call();
+            } finally {
+                finished(start);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+
+    /**
+     * A histogram striped by recording thread. Pool threads have distinct ids and therefore mostly record into their
+     * own stripe, so they do not contend on the same counters. Reads sum up all stripes.
+     */
+    static final class Histogram {
+
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+        // each stripe takes about 4k, so the stripe count is capped
+        private static final int MAX_STRIPES = 8;
+
+        private final Stripe[] stripes;
+
+        Histogram() {
+            this(Runtime.getRuntime().availableProcessors());
+        }
+
+        Histogram(final int concurrency) {
+            int count = 1;
+            while (count < Math.min(concurrency, MAX_STRIPES)) {
+                count <<= 1;
+            }
+            stripes = new Stripe[count];
+            for (int i = 0; i < count; i++) {
+                stripes[i] = new Stripe();
+            }
+        }
+
+        void record(final long nanos) {
+            final long micros = Math.max(0L, nanos / 1000L);
+            final long id = Thread.currentThread().getId();
+            final Stripe stripe = stripes[(int) (id ^ (id >>> 32)) & (stripes.length - 1)];
+            stripe.buckets.incrementAndGet(bucket(micros));
+            final AtomicLong max = stripe.max;
+            long current;
+            while (micros > (current = max.get())) {
+                if (max.compareAndSet(current, micros)) {
+                    break;
+                }
+            }
+        }
+
+        long getCount() {
+            long count = 0L;
+            for (Stripe stripe : stripes) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    count += stripe.buckets.get(i);
+                }
+            }
+            return count;
+        }
+
+        long getMax() {
+            long max = 0L;
+            for (Stripe stripe : stripes) {
+                max = Math.max(max, stripe.max.get());
+            }
+            return max;
+        }
+
+        /**
+         * @return the upper bound of the bucket holding the percentile, in microseconds, capped at the maximum
+         */
+        long getPercentile(final double percentile) {
+            final long[] counts = new long[BUCKETS];
+            long total = 0L;
+            for (Stripe stripe : stripes) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    final long count = stripe.buckets.get(i);
+                    counts[i] += count;
+                    total += count;
+                }
+            }
+            if (total == 0L) {
+                return 0L;
+            }
+            final long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+            final long max = getMax();
+            long seen = 0L;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        static int bucket(final long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            return SUB_BUCKETS + shift * SUB_BUCKETS + ((int) (value >>> shift) & (SUB_BUCKETS - 1));
+        }
+
+        static long upperBound(final int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            final int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+            final int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + sub) << shift) + (1L << shift) - 1L;
+        }
+
+        private static final class Stripe {
+            final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+            final AtomicLong max = new AtomicLong();
+        }
+    }
+}
@@ -23,6 +23,7 @@ package org.jboss.as.threads;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
@@ -44,6 +45,11 @@ import org.jboss.msc.service.ServiceName;
  */
 public abstract class ThreadPoolMetricsHandler extends AbstractRuntimeOnlyHandler {
 
+    public static final List<AttributeDefinition> TASK_TIMING_METRICS = Arrays.asList(PoolAttributeDefinitions.QUEUE_TIME_P50,
+            PoolAttributeDefinitions.QUEUE_TIME_P99, PoolAttributeDefinitions.QUEUE_TIME_MAX,
+            PoolAttributeDefinitions.RUN_TIME_P50, PoolAttributeDefinitions.RUN_TIME_P99,
+            PoolAttributeDefinitions.RUN_TIME_MAX, PoolAttributeDefinitions.THROUGHPUT);
+
     private final List<AttributeDefinition> metrics;
     private final ServiceName serviceNameBase;
 
@@ -56,6 +62,9 @@ public abstract class ThreadPoolMetricsHandler extends AbstractRuntimeOnlyHandle
         for (AttributeDefinition metric : metrics) {
             registration.registerMetric(metric, this);
         }
+        for (AttributeDefinition metric : TASK_TIMING_METRICS) {
+            registration.registerMetric(metric, this);
+        }
     }
 
     @Override
@@ -64,11 +73,39 @@ public abstract class ThreadPoolMetricsHandler extends AbstractRuntimeOnlyHandle
         ServiceController<?> serviceController = getService(context, operation);
         final Service<?> service = serviceController.getService();
 
-        setResult(context, attributeName, service);
+        if (!setTaskTimingResult(context, attributeName, service)) {
+            setResult(context, attributeName, service);
+        }
 
         context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
     }
 
+    private static boolean setTaskTimingResult(OperationContext context, String attributeName, Service<?> service) {
+        final Object value = service.getValue();
+        if (!(value instanceof ManagedExecutorService)) {
+            return false;
+        }
+        final TaskStatistics statistics = ((ManagedExecutorService) value).getStatistics();
+        if (attributeName.equals(CommonAttributes.QUEUE_TIME_P50)) {
+            context.getResult().set(statistics.getQueueTimePercentile(50));
+        } else if (attributeName.equals(CommonAttributes.QUEUE_TIME_P99)) {
+            context.getResult().set(statistics.getQueueTimePercentile(99));
+        } else if (attributeName.equals(CommonAttributes.QUEUE_TIME_MAX)) {
+            context.getResult().set(statistics.getQueueTimeMax());
+        } else if (attributeName.equals(CommonAttributes.RUN_TIME_P50)) {
+            context.getResult().set(statistics.getRunTimePercentile(50));
+        } else if (attributeName.equals(CommonAttributes.RUN_TIME_P99)) {
+            context.getResult().set(statistics.getRunTimePercentile(99));
+        } else if (attributeName.equals(CommonAttributes.RUN_TIME_MAX)) {
+            context.getResult().set(statistics.getRunTimeMax());
+        } else if (attributeName.equals(CommonAttributes.THROUGHPUT)) {
+            context.getResult().set(statistics.getThroughput());
+        } else {
+            return false;
+        }
+        return true;
+    }
+
     protected abstract void setResult(OperationContext context, String attributeName, Service<?> service) throws OperationFailedException;
 
     protected ServiceController<?> getService(final OperationContext context, final ModelNode operation)
@@ -49,7 +49,10 @@ class ThreadPoolResourceDescriptionResolver extends StandardResourceDescriptionR
                 PoolAttributeDefinitions.THREAD_FACTORY.getName(), PoolAttributeDefinitions.ACTIVE_COUNT.getName(),
                 PoolAttributeDefinitions.COMPLETED_TASK_COUNT.getName(), PoolAttributeDefinitions.CURRENT_THREAD_COUNT.getName(),
                 PoolAttributeDefinitions.LARGEST_THREAD_COUNT.getName(), PoolAttributeDefinitions.TASK_COUNT.getName(),
-                PoolAttributeDefinitions.QUEUE_SIZE.getName()));
+                PoolAttributeDefinitions.QUEUE_SIZE.getName(), PoolAttributeDefinitions.QUEUE_TIME_P50.getName(),
+                PoolAttributeDefinitions.QUEUE_TIME_P99.getName(), PoolAttributeDefinitions.QUEUE_TIME_MAX.getName(),
+                PoolAttributeDefinitions.RUN_TIME_P50.getName(), PoolAttributeDefinitions.RUN_TIME_P99.getName(),
+                PoolAttributeDefinitions.RUN_TIME_MAX.getName(), PoolAttributeDefinitions.THROUGHPUT.getName()));
 
         // note we don't include REJECTED_COUNT as it has a different definition in different resources
     }
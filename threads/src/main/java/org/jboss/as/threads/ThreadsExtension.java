@@ -52,7 +52,7 @@ public class ThreadsExtension implements Extension {
     static final String RESOURCE_NAME = ThreadsExtension.class.getPackage().getName() + ".LocalDescriptions";
 
     private static final int MANAGEMENT_API_MAJOR_VERSION = 1;
-    private static final int MANAGEMENT_API_MINOR_VERSION = 1;
+    private static final int MANAGEMENT_API_MINOR_VERSION = 2;
     private static final int MANAGEMENT_API_MICRO_VERSION = 0;
 
     public static ResourceDescriptionResolver getResourceDescriptionResolver(final String keyPrefix, boolean useUnprefixedChildTypes) {
@@ -77,12 +77,14 @@ public class ThreadsExtension implements Extension {
 
         if (context.isRegisterTransformers()) {
             registerTransformers1_0(registration);
+            registerTransformers1_1(registration);
         }
     }
 
     @Override
     public void initializeParsers(final ExtensionParsingContext context) {
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.CURRENT.getUriString(), ThreadsParser.INSTANCE);
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.THREADS_1_1.getUriString(), ThreadsParser.INSTANCE);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.THREADS_1_0.getUriString(), ThreadsParser.INSTANCE);
     }
 
@@ -100,9 +102,21 @@ public class ThreadsExtension implements Extension {
         ScheduledThreadPoolResourceDefinition.registerTransformers1_0(builder);
         UnboundedQueueThreadPoolResourceDefinition.registerTransformers1_0(builder);
         ThreadFactoryResourceDefinition.registerTransformers1_0(builder);
+        WorkStealingThreadPoolResourceDefinition.registerTransformers(builder);
         TransformationDescription.Tools.register(builder.build(), subsystem, ModelVersion.create(1, 0, 0));
 
     }
 
+    /**
+     * Register the transformers for the 1.1.0 model version.
+     *
+     * @param subsystem the subsystems registration
+     */
+    private static void registerTransformers1_1(final SubsystemRegistration subsystem) {
+        ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        WorkStealingThreadPoolResourceDefinition.registerTransformers(builder);
+        TransformationDescription.Tools.register(builder.build(), subsystem, ModelVersion.create(1, 1, 0));
+    }
+
 
 }
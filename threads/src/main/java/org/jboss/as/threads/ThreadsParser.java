@@ -43,6 +43,7 @@ import static org.jboss.as.threads.CommonAttributes.THREAD_FACTORY;
 import static org.jboss.as.threads.CommonAttributes.TIME;
 import static org.jboss.as.threads.CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.UNIT;
+import static org.jboss.as.threads.CommonAttributes.WORK_STEALING_THREAD_POOL;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
@@ -177,6 +178,13 @@ public final class ThreadsParser implements XMLStreamConstants, XMLElementReader
                     parseUnboundedQueueThreadPool(reader, readerNS, threadsNamespace, subsystemAddress, list, UNBOUNDED_QUEUE_THREAD_POOL, null);
                     break;
                 }
+                case WORK_STEALING_THREAD_POOL: {
+                    if (threadsNamespace == Namespace.THREADS_1_1) {
+                        throw unexpectedElement(reader);
+                    }
+                    parseWorkStealingThreadPool(reader, readerNS, threadsNamespace, subsystemAddress, list, WORK_STEALING_THREAD_POOL, null);
+                    break;
+                }
                 default: {
                     throw unexpectedElement(reader);
                 }
@@ -537,6 +545,59 @@ public final class ThreadsParser implements XMLStreamConstants, XMLElementReader
         return name;
     }
 
+    public String parseWorkStealingThreadPool(final XMLExtendedStreamReader reader, String expectedNs, Namespace threadsNamespace, final ModelNode parentAddress,
+                                              final List<ModelNode> list, final String childType, final String providedName) throws XMLStreamException {
+        final ModelNode op = new ModelNode();
+        list.add(op);
+        op.get(OP).set(ADD);
+
+        String name = null;
+        int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            switch (attribute) {
+                case NAME: {
+                    name = value;
+                    break;
+                }
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        if (providedName != null) {
+            name = providedName;
+        } else if (name == null) {
+            throw missingRequired(reader, Collections.singleton(Attribute.NAME));
+        }
+
+        final ModelNode address = parentAddress.clone();
+        address.add(childType, name);
+        address.protect();
+        op.get(OP_ADDR).set(address);
+
+        boolean foundMaxThreads = false;
+        while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+            Element element = nextElement(reader, expectedNs);
+            switch (element) {
+                case MAX_THREADS: {
+                    String scaledCount = parseCount(reader, threadsNamespace);
+                    PoolAttributeDefinitions.MAX_THREADS.parseAndSetParameter(scaledCount, op, reader);
+                    foundMaxThreads = true;
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+        if (!foundMaxThreads) {
+            throw missingRequiredElement(reader, Collections.singleton(Element.MAX_THREADS));
+        }
+        return name;
+    }
+
     public String parseScheduledThreadPool(final XMLExtendedStreamReader reader, String expectedNs, Namespace threadsNamespace, final ModelNode parentAddress,
                                            final List<ModelNode> list, final String childType, final String providedName) throws XMLStreamException {
         final ModelNode op = new ModelNode();
@@ -954,6 +1015,11 @@ public final class ThreadsParser implements XMLStreamConstants, XMLElementReader
             }
 
         }
+        if (node.hasDefined(WORK_STEALING_THREAD_POOL)) {
+            for (Property property : node.get(WORK_STEALING_THREAD_POOL).asPropertyList()) {
+                writeWorkStealingThreadPool(writer, property);
+            }
+        }
     }
 
     public void writeThreadFactory(final XMLExtendedStreamWriter writer, final Property property) throws XMLStreamException {
@@ -1060,6 +1126,22 @@ public final class ThreadsParser implements XMLStreamConstants, XMLElementReader
         writer.writeEndElement();
     }
 
+    public void writeWorkStealingThreadPool(final XMLExtendedStreamWriter writer, final Property property) throws XMLStreamException {
+        writeWorkStealingThreadPool(writer, property, Element.WORK_STEALING_THREAD_POOL.getLocalName(), true);
+    }
+
+    public void writeWorkStealingThreadPool(final XMLExtendedStreamWriter writer, final Property property, final String elementName, final boolean includeName)
+            throws XMLStreamException {
+        writer.writeStartElement(elementName);
+        ModelNode node = property.getValue();
+        if (includeName) {
+            writer.writeAttribute(Attribute.NAME.getLocalName(), property.getName());
+        }
+        writeCountElement(PoolAttributeDefinitions.MAX_THREADS, node, writer);
+
+        writer.writeEndElement();
+    }
+
     public void writeUnboundedQueueThreadPool(final XMLExtendedStreamWriter writer, final Property property) throws XMLStreamException {
         writeUnboundedQueueThreadPool(writer, property, Element.UNBOUNDED_QUEUE_THREAD_POOL.getLocalName(), true);
     }
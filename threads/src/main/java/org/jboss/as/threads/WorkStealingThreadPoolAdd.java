@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.List;
+
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.threads.ThreadPoolManagementUtils.BaseThreadPoolParameters;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Adds a work stealing thread pool.
+ */
+public class WorkStealingThreadPoolAdd extends AbstractAddStepHandler {
+
+    static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] {PoolAttributeDefinitions.MAX_THREADS};
+
+    // the parallelism of a fork join pool cannot be changed once it is created
+    static final AttributeDefinition[] RW_ATTRIBUTES = new AttributeDefinition[0];
+
+    private final ServiceName serviceNameBase;
+
+    public WorkStealingThreadPoolAdd(ServiceName serviceNameBase) {
+        this.serviceNameBase = serviceNameBase;
+    }
+
+    @Override
+    protected void populateModel(final ModelNode operation, final ModelNode model) throws OperationFailedException {
+        for(final AttributeDefinition attribute : ATTRIBUTES) {
+            attribute.validateAndSet(operation, model);
+        }
+    }
+
+    @Override
+    protected void performRuntime(final OperationContext context, final ModelNode operation, final ModelNode model,
+            final ServiceVerificationHandler verificationHandler, final List<ServiceController<?>> newControllers) throws OperationFailedException {
+
+        final BaseThreadPoolParameters params = ThreadPoolManagementUtils.parseWorkStealingThreadPoolParameters(context, operation, model);
+
+        final WorkStealingThreadPoolService service = new WorkStealingThreadPoolService(params.getName(), params.getMaxThreads());
+
+        final ServiceBuilder<?> serviceBuilder = context.getServiceTarget().addService(serviceNameBase.append(params.getName()), service);
+        if (verificationHandler != null) {
+            serviceBuilder.addListener(verificationHandler);
+        }
+        final ServiceController<?> controller = serviceBuilder.install();
+        if (newControllers != null) {
+            newControllers.add(controller);
+        }
+    }
+
+    ServiceName getServiceNameBase() {
+        return serviceNameBase;
+    }
+}
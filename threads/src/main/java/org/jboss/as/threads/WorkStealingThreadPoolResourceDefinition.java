@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ReadResourceNameOperationStepHandler;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * {@link org.jboss.as.controller.ResourceDefinition} for a work stealing thread pool resource.
+ * <p>
+ * Subsystems that resolve their executors by name can register this definition with their own service name base,
+ * the installed service provides a {@link java.util.concurrent.ExecutorService} like the other pool types.
+ */
+public class WorkStealingThreadPoolResourceDefinition extends SimpleResourceDefinition {
+
+    private final boolean registerRuntimeOnly;
+    private final ServiceName serviceNameBase;
+
+    public static WorkStealingThreadPoolResourceDefinition create(boolean registerRuntimeOnly) {
+        return create(CommonAttributes.WORK_STEALING_THREAD_POOL, ThreadsServices.EXECUTOR, registerRuntimeOnly);
+    }
+
+    public static WorkStealingThreadPoolResourceDefinition create(String type, ServiceName serviceNameBase, boolean registerRuntimeOnly) {
+        WorkStealingThreadPoolAdd addHandler = new WorkStealingThreadPoolAdd(serviceNameBase);
+        return new WorkStealingThreadPoolResourceDefinition(type, addHandler, serviceNameBase, registerRuntimeOnly);
+    }
+
+    private WorkStealingThreadPoolResourceDefinition(String type, WorkStealingThreadPoolAdd addHandler,
+                                                     ServiceName serviceNameBase, boolean registerRuntimeOnly) {
+        super(PathElement.pathElement(type),
+                new ThreadPoolResourceDescriptionResolver(CommonAttributes.WORK_STEALING_THREAD_POOL, ThreadsExtension.RESOURCE_NAME,
+                ThreadsExtension.class.getClassLoader()),
+                addHandler, new WorkStealingThreadPoolRemove(addHandler));
+        this.registerRuntimeOnly = registerRuntimeOnly;
+        this.serviceNameBase = serviceNameBase;
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerReadOnlyAttribute(PoolAttributeDefinitions.NAME, ReadResourceNameOperationStepHandler.INSTANCE);
+        new WorkStealingThreadPoolWriteAttributeHandler(serviceNameBase).registerAttributes(resourceRegistration);
+        if (registerRuntimeOnly) {
+            new WorkStealingThreadPoolMetricsHandler(serviceNameBase).registerAttributes(resourceRegistration);
+        }
+    }
+
+    /**
+     * Older model versions know nothing about work stealing pools.
+     */
+    public static void registerTransformers(ResourceTransformationDescriptionBuilder parent) {
+        parent.rejectChildResource(PathElement.pathElement(CommonAttributes.WORK_STEALING_THREAD_POOL));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * Service responsible for creating, starting and stopping a work stealing thread pool executor.
+ * <p>
+ * The pool runs in async mode, so tasks which are never joined are processed in FIFO order. Each worker has its own
+ * deque and idle workers steal from the others, instead of all threads contending on a single queue.
+ */
+public class WorkStealingThreadPoolService implements Service<ManagedWorkStealingExecutorService> {
+
+    private final String name;
+    private final int maxThreads;
+
+    private ManagedWorkStealingExecutorService executor;
+
+    public WorkStealingThreadPoolService(final String name, final int maxThreads) {
+        this.name = name;
+        this.maxThreads = maxThreads;
+    }
+
+    public synchronized void start(final StartContext context) throws StartException {
+        final ForkJoinPool pool = new ForkJoinPool(maxThreads > 0 ? maxThreads : Runtime.getRuntime().availableProcessors(), new WorkerThreadFactory(name), null, true);
+        executor = new ManagedWorkStealingExecutorService(pool);
+    }
+
+    public synchronized void stop(final StopContext context) {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        context.asynchronous();
+        executor.internalShutdown();
+        context.execute(new Runnable() {
+            public void run() {
+                try {
+                    while (!executor.awaitInternalTermination(1, TimeUnit.SECONDS)) {
+                        // keep waiting for running tasks
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    context.complete();
+                }
+            }
+        });
+        this.executor = null;
+    }
+
+    public synchronized ManagedWorkStealingExecutorService getValue() throws IllegalStateException {
+        final ManagedWorkStealingExecutorService value = this.executor;
+        if (value == null) {
+            throw ThreadsMessages.MESSAGES.workStealingThreadPoolExecutorUninitialized();
+        }
+        return value;
+    }
+
+    public int getActiveCount() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getActiveCount();
+    }
+
+    public int getCurrentThreadCount() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getCurrentThreadCount();
+    }
+
+    public int getParallelism() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getParallelism();
+    }
+
+    public long getStealCount() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getStealCount();
+    }
+
+    public int getQueueSize() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getQueueSize();
+    }
+
+    private static final class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private final String poolName;
+        private final AtomicInteger threadIndex = new AtomicInteger();
+
+        WorkerThreadFactory(final String poolName) {
+            this.poolName = poolName;
+        }
+
+        public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(poolName + "-" + threadIndex.incrementAndGet());
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.threads.QueueExecutor;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ManagedWorkStealingExecutorService}, side by side with a {@link ManagedQueueExecutorService}
+ * under the same submission load.
+ */
+public class ManagedWorkStealingExecutorServiceTestCase {
+
+    private static final int SUBMITTERS = 64;
+    private static final int TASKS_PER_SUBMITTER = 1000;
+
+    @Test
+    public void testWorkStealingUnderContention() throws Exception {
+        final ManagedWorkStealingExecutorService executor = new ManagedWorkStealingExecutorService(new ForkJoinPool(4, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true));
+        try {
+            submitConcurrently(executor);
+            assertEquals(4, executor.getParallelism());
+            assertTrue(executor.getCurrentThreadCount() <= 4);
+        } finally {
+            executor.internalShutdown();
+        }
+    }
+
+    @Test
+    public void testQueueUnderContention() throws Exception {
+        final QueueExecutor queueExecutor = new QueueExecutor(4, 4, Long.MAX_VALUE, TimeUnit.NANOSECONDS, SUBMITTERS * TASKS_PER_SUBMITTER, Executors.defaultThreadFactory(), true, null);
+        final ManagedQueueExecutorService executor = new ManagedQueueExecutorService(queueExecutor);
+        try {
+            submitConcurrently(executor);
+        } finally {
+            executor.internalShutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownIsIgnored() throws Exception {
+        final ManagedWorkStealingExecutorService executor = new ManagedWorkStealingExecutorService(new ForkJoinPool(2));
+        try {
+            executor.shutdown();
+            final CountDownLatch done = new CountDownLatch(1);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    done.countDown();
+                }
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.internalShutdown();
+        }
+        assertTrue(executor.awaitInternalTermination(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Submits {@value #TASKS_PER_SUBMITTER} tasks from each of {@value #SUBMITTERS} threads at once and waits for all
+     * of them to finish.
+     */
+    private static void submitConcurrently(final ManagedExecutorService executor) throws InterruptedException {
+        final AtomicInteger executed = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(SUBMITTERS * TASKS_PER_SUBMITTER);
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                executed.incrementAndGet();
+                done.countDown();
+            }
+        };
+        final Thread[] submitters = new Thread[SUBMITTERS];
+        for (int i = 0; i < SUBMITTERS; i++) {
+            submitters[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int j = 0; j < TASKS_PER_SUBMITTER; j++) {
+                        executor.execute(task);
+                    }
+                }
+            });
+            submitters[i].start();
+        }
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+        assertEquals(SUBMITTERS * TASKS_PER_SUBMITTER, executed.get());
+        assertEquals(0, executor.getStatistics().getRejectedCount());
+    }
+}
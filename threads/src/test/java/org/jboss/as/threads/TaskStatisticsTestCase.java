@@ -0,0 +1,182 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.threads.QueueExecutor;
+import org.junit.Test;
+
+/**
+ * Tests the task timing statistics of the managed executors.
+ */
+public class TaskStatisticsTestCase {
+
+    @Test
+    public void testHistogramPercentiles() {
+        final TaskStatistics.Histogram histogram = new TaskStatistics.Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(100, histogram.getMax());
+        // buckets are at most 12.5% wide
+        final long p50 = histogram.getPercentile(50);
+        assertTrue(String.valueOf(p50), p50 >= 50 && p50 <= 57);
+        final long p99 = histogram.getPercentile(99);
+        assertTrue(String.valueOf(p99), p99 >= 99 && p99 <= 100);
+        assertEquals(0, new TaskStatistics.Histogram().getPercentile(99));
+    }
+
+    @Test
+    public void testStripedHistogram() throws Exception {
+        final TaskStatistics.Histogram histogram = new TaskStatistics.Histogram(4);
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 1; i <= 1000; i++) {
+                            histogram.record(TimeUnit.MICROSECONDS.toNanos(i + offset));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        // the stripes add up to every recorded value
+        assertEquals(threads * 1000, histogram.getCount());
+        assertEquals(1000 + threads - 1, histogram.getMax());
+        final long p50 = histogram.getPercentile(50);
+        assertTrue(String.valueOf(p50), p50 >= 500 && p50 <= 570);
+    }
+
+    @Test
+    public void testBucketBounds() {
+        for (long value = 0; value < 1 << 20; value = value * 3 / 2 + 1) {
+            final int bucket = TaskStatistics.Histogram.bucket(value);
+            assertTrue(value <= TaskStatistics.Histogram.upperBound(bucket));
+            if (bucket > 0) {
+                assertTrue(value > TaskStatistics.Histogram.upperBound(bucket - 1));
+            }
+        }
+        assertTrue(TaskStatistics.Histogram.upperBound(TaskStatistics.Histogram.bucket(Long.MAX_VALUE)) == Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testQueueAndRunTime() throws Exception {
+        final QueueExecutor queueExecutor = new QueueExecutor(1, 1, Long.MAX_VALUE, TimeUnit.NANOSECONDS, 10, Executors.defaultThreadFactory(), false, null);
+        final ManagedQueueExecutorService executor = new ManagedQueueExecutorService(queueExecutor);
+        try {
+            final CountDownLatch blocker = new CountDownLatch(1);
+            final CountDownLatch done = new CountDownLatch(2);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        blocker.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.countDown();
+                }
+            });
+            // the single thread is busy, so this one waits in the queue
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    done.countDown();
+                }
+            });
+            Thread.sleep(50);
+            blocker.countDown();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            // the histograms are updated after the task itself ran
+            Thread.sleep(50);
+
+            final TaskStatistics statistics = executor.getStatistics();
+            assertEquals(2, statistics.getExecutedCount());
+            assertTrue(statistics.getQueueTimeMax() >= TimeUnit.MILLISECONDS.toMicros(40));
+            assertTrue(statistics.getRunTimeMax() >= TimeUnit.MILLISECONDS.toMicros(40));
+            assertTrue(statistics.getThroughput() > 0);
+        } finally {
+            executor.internalShutdown();
+        }
+    }
+
+    @Test
+    public void testScheduledDelayIsNotQueueTime() throws Exception {
+        final ManagedScheduledExecutorService executor = new ManagedScheduledExecutorService(new ScheduledThreadPoolExecutor(1));
+        try {
+            final CountDownLatch done = new CountDownLatch(1);
+            executor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    done.countDown();
+                }
+            }, 100, TimeUnit.MILLISECONDS);
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            Thread.sleep(50);
+
+            assertEquals(1, executor.getStatistics().getExecutedCount());
+            assertTrue(executor.getStatistics().getQueueTimeMax() < TimeUnit.MILLISECONDS.toMicros(100));
+        } finally {
+            executor.internalShutdown();
+        }
+    }
+
+    @Test
+    public void testRejectedCount() throws Exception {
+        final ScheduledThreadPoolExecutor delegate = new ScheduledThreadPoolExecutor(1);
+        final ManagedScheduledExecutorService executor = new ManagedScheduledExecutorService(delegate);
+        delegate.shutdown();
+        try {
+            executor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }, 1, TimeUnit.SECONDS);
+            fail("Task should have been rejected");
+        } catch (RejectedExecutionException expected) {
+        }
+        assertEquals(1, executor.getRejectedCount());
+    }
+}
@@ -53,7 +53,7 @@ public class ThreadsSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXml() throws IOException {
-        return readResource("threads-subsystem-1_1.xml");
+        return readResource("threads-subsystem-1_2.xml");
     }
 
     @Test
@@ -112,4 +112,9 @@ public interface Constants {
     String HTTP_ONLY = "http-only";
     String SECURE = "secure";
     String MAX_AGE = "max-age";
+
+    //static content cache
+    String STATIC_CONTENT_CACHE = "static-content-cache";
+    String METADATA_CACHE_SIZE = "metadata-cache-size";
+    String MAX_FILE_SIZE = "max-file-size";
 }
@@ -43,6 +43,12 @@ import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
+import org.wildfly.clustering.web.session.OffHeapStatistics;
+import org.wildfly.clustering.web.undertow.session.UndertowSessionManager;
+import org.wildfly.extension.undertow.deployment.UndertowDeploymentService;
+
+import io.undertow.server.session.SessionManager;
+import io.undertow.servlet.api.Deployment;
 
 /**
  * @author Tomaz Cerar
@@ -54,6 +60,11 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
 
     public static final AttributeDefinition CONTEXT_ROOT = new SimpleAttributeDefinitionBuilder("context-root", ModelType.STRING).setStorageRuntime().build();
     public static final AttributeDefinition VIRTUAL_HOST = new SimpleAttributeDefinitionBuilder("virtual-host", ModelType.STRING).setStorageRuntime().build();
+    public static final AttributeDefinition INSTANCE_COUNTS = new SimpleAttributeDefinitionBuilder("instance-counts", ModelType.OBJECT, true).setStorageRuntime().build();
+    public static final AttributeDefinition OFF_HEAP_BYTES = new SimpleAttributeDefinitionBuilder("off-heap-bytes", ModelType.LONG, true).setStorageRuntime().build();
+    public static final AttributeDefinition OFFLOAD_COUNT = new SimpleAttributeDefinitionBuilder("offload-count", ModelType.LONG, true).setStorageRuntime().build();
+    public static final AttributeDefinition REJECTED_OFFLOAD_COUNT = new SimpleAttributeDefinitionBuilder("rejected-offload-count", ModelType.LONG, true).setStorageRuntime().build();
+    public static final AttributeDefinition REHYDRATION_COUNT = new SimpleAttributeDefinitionBuilder("rehydration-count", ModelType.LONG, true).setStorageRuntime().build();
 
     private DeploymentDefinition() {
         super(PathElement.pathElement(SUBSYSTEM, UndertowExtension.SUBSYSTEM_NAME),
@@ -68,6 +79,83 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         for (SessionStat stat : SessionStat.values()) {
             resourceRegistration.registerMetric(stat.definition, SessionManagerStatsHandler.getInstance());
         }
+        resourceRegistration.registerMetric(INSTANCE_COUNTS, InstanceCountsHandler.INSTANCE);
+        for (AttributeDefinition metric : new AttributeDefinition[] { OFF_HEAP_BYTES, OFFLOAD_COUNT, REJECTED_OFFLOAD_COUNT, REHYDRATION_COUNT }) {
+            resourceRegistration.registerMetric(metric, OffHeapStatisticsHandler.INSTANCE);
+        }
+    }
+
+    /**
+     * Reads the number of instances of each class created or injected by the web injection container of the deployment.
+     */
+    static class InstanceCountsHandler extends AbstractRuntimeOnlyHandler {
+
+        static final InstanceCountsHandler INSTANCE = new InstanceCountsHandler();
+
+        private InstanceCountsHandler() {
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
+            final ModelNode subModel = context.readResourceFromRoot(address, false).getModel();
+
+            final String host = VIRTUAL_HOST.resolveModelAttribute(context, subModel).asString();
+            final String path = CONTEXT_ROOT.resolveModelAttribute(context, subModel).asString();
+
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.deploymentServiceName(host, path));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                final UndertowDeploymentService service = UndertowDeploymentService.class.cast(controller.getValue());
+                final ModelNode result = context.getResult().setEmptyObject();
+                for (Map.Entry<String, Long> count : service.getInjectionContainer().getInstanceCounts().entrySet()) {
+                    result.get(count.getKey()).set(count.getValue());
+                }
+            }
+            context.stepCompleted();
+        }
+    }
+
+    /**
+     * Reads the statistics of the session attributes moved off the heap by the distributable session manager of the deployment.
+     * Undefined if the deployment is not distributable, or if its session attributes are kept on the heap.
+     */
+    static class OffHeapStatisticsHandler extends AbstractRuntimeOnlyHandler {
+
+        static final OffHeapStatisticsHandler INSTANCE = new OffHeapStatisticsHandler();
+
+        private OffHeapStatisticsHandler() {
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
+            final ModelNode subModel = context.readResourceFromRoot(address, false).getModel();
+
+            final String host = VIRTUAL_HOST.resolveModelAttribute(context, subModel).asString();
+            final String path = CONTEXT_ROOT.resolveModelAttribute(context, subModel).asString();
+
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.deploymentServiceName(host, path));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                final Deployment deployment = UndertowDeploymentService.class.cast(controller.getValue()).getDeployment();
+                final SessionManager manager = deployment != null ? deployment.getSessionManager() : null;
+                final OffHeapStatistics statistics = manager instanceof UndertowSessionManager ? ((UndertowSessionManager) manager).getSessionManager().getOffHeapStatistics() : null;
+                if (statistics != null) {
+                    final String name = operation.require(ModelDescriptionConstants.NAME).asString();
+                    if (name.equals(OFF_HEAP_BYTES.getName())) {
+                        context.getResult().set(statistics.getOffHeapBytes());
+                    } else if (name.equals(OFFLOAD_COUNT.getName())) {
+                        context.getResult().set(statistics.getOffloadCount());
+                    } else if (name.equals(REJECTED_OFFLOAD_COUNT.getName())) {
+                        context.getResult().set(statistics.getRejectedOffloadCount());
+                    } else if (name.equals(REHYDRATION_COUNT.getName())) {
+                        context.getResult().set(statistics.getRehydrationCount());
+                    } else {
+                        context.getFailureDescription().set(UndertowMessages.MESSAGES.unknownMetric(name));
+                    }
+                }
+            }
+            context.stepCompleted();
+        }
     }
 
     static class SessionManagerStatsHandler extends AbstractRuntimeOnlyHandler {
@@ -43,6 +43,7 @@ public class ServletContainerDefinition extends PersistentResourceDefinition {
         List<PersistentResourceDefinition>  children = new ArrayList<>();
         children.add(JspDefinition.INSTANCE);
         children.add(SessionCookieDefinition.INSTANCE);
+        children.add(StaticContentCacheDefinition.INSTANCE);
         CHILDREN = Collections.unmodifiableList(children);
     }
 
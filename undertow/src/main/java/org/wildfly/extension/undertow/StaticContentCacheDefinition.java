@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.ServiceRemoveStepHandler;
+import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Static content cache used by the deployments of a servlet container
+ */
+class StaticContentCacheDefinition extends PersistentResourceDefinition {
+
+    private static final StaticContentCacheAdd ADD_OPERATION = new StaticContentCacheAdd();
+
+    static final StaticContentCacheDefinition INSTANCE = new StaticContentCacheDefinition();
+
+    protected static final SimpleAttributeDefinition METADATA_CACHE_SIZE =
+            new SimpleAttributeDefinitionBuilder(Constants.METADATA_CACHE_SIZE, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(StaticContentCacheService.DEFAULT_METADATA_CACHE_SIZE))
+                    .build();
+    protected static final SimpleAttributeDefinition MAX_FILE_SIZE =
+            new SimpleAttributeDefinitionBuilder(Constants.MAX_FILE_SIZE, ModelType.LONG, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(StaticContentCacheService.DEFAULT_MAX_FILE_SIZE))
+                    .build();
+    protected static final SimpleAttributeDefinition BUFFER_CACHE =
+            new SimpleAttributeDefinitionBuilder(Constants.BUFFER_CACHE, ModelType.STRING, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode("default"))
+                    .build();
+
+    protected static final SimpleAttributeDefinition[] ATTRIBUTES = {
+            METADATA_CACHE_SIZE,
+            MAX_FILE_SIZE,
+            BUFFER_CACHE
+    };
+
+    private StaticContentCacheDefinition() {
+        super(UndertowExtension.PATH_STATIC_CONTENT_CACHE,
+                UndertowExtension.getResolver(UndertowExtension.PATH_STATIC_CONTENT_CACHE.getKeyValuePair()),
+                ADD_OPERATION,
+                new ServiceRemoveStepHandler(StaticContentCacheService.SERVICE_NAME, ADD_OPERATION));
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.<AttributeDefinition>asList(ATTRIBUTES);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        for (CacheStat stat : CacheStat.values()) {
+            resourceRegistration.registerMetric(stat.definition, CacheStatsHandler.INSTANCE);
+        }
+    }
+
+    private static class StaticContentCacheAdd extends AbstractAddStepHandler {
+        @Override
+        protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
+            for (AttributeDefinition def : ATTRIBUTES) {
+                def.validateAndSet(operation, model);
+            }
+        }
+
+        @Override
+        protected void performRuntime(final OperationContext context, final ModelNode operation, final ModelNode model, final ServiceVerificationHandler verificationHandler, final List<ServiceController<?>> newControllers) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+            final String servletContainerName = address.getElement(address.size() - 2).getValue();
+
+            final int metadataCacheSize = METADATA_CACHE_SIZE.resolveModelAttribute(context, model).asInt();
+            final long maxFileSize = MAX_FILE_SIZE.resolveModelAttribute(context, model).asLong();
+            final String bufferCache = BUFFER_CACHE.resolveModelAttribute(context, model).asString();
+            final StaticContentCacheService service = new StaticContentCacheService(metadataCacheSize, maxFileSize);
+            ServiceBuilder<StaticContentCacheService> builder = context.getServiceTarget().addService(StaticContentCacheService.SERVICE_NAME.append(servletContainerName), service)
+                    .addDependency(ServiceBuilder.DependencyType.OPTIONAL, BufferCacheService.SERVICE_NAME.append(bufferCache), DirectBufferCache.class, service.getBufferCache());
+            if (verificationHandler != null) {
+                builder.addListener(verificationHandler);
+            }
+            ServiceController<StaticContentCacheService> controller = builder.install();
+            if (newControllers != null) {
+                newControllers.add(controller);
+            }
+        }
+    }
+
+    static class CacheStatsHandler extends AbstractRuntimeOnlyHandler {
+
+        static final CacheStatsHandler INSTANCE = new CacheStatsHandler();
+
+        private CacheStatsHandler() {
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+            final String servletContainerName = address.getElement(address.size() - 2).getValue();
+            final String name = operation.require(ModelDescriptionConstants.NAME).asString();
+
+            CacheStat stat = CacheStat.getStat(name);
+            if (stat == null) {
+                context.getFailureDescription().set(UndertowMessages.MESSAGES.unknownMetric(name));
+            } else {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(StaticContentCacheService.SERVICE_NAME.append(servletContainerName));
+                if (controller != null && controller.getState() == ServiceController.State.UP) {
+                    final StaticContentCacheService service = (StaticContentCacheService) controller.getValue();
+                    switch (stat) {
+                        case HIT_COUNT:
+                            context.getResult().set(service.getHitCount());
+                            break;
+                        case MISS_COUNT:
+                            context.getResult().set(service.getMissCount());
+                            break;
+                        case RELOAD_COUNT:
+                            context.getResult().set(service.getReloadCount());
+                            break;
+                    }
+                }
+            }
+            context.stepCompleted();
+        }
+    }
+
+    enum CacheStat {
+        HIT_COUNT(new SimpleAttributeDefinition("hit-count", ModelType.LONG, false)),
+        MISS_COUNT(new SimpleAttributeDefinition("miss-count", ModelType.LONG, false)),
+        RELOAD_COUNT(new SimpleAttributeDefinition("reload-count", ModelType.LONG, false));
+
+        private static final Map<String, CacheStat> MAP = new HashMap<String, CacheStat>();
+
+        static {
+            for (CacheStat stat : EnumSet.allOf(CacheStat.class)) {
+                MAP.put(stat.toString(), stat);
+            }
+        }
+
+        final AttributeDefinition definition;
+
+        private CacheStat(final AttributeDefinition definition) {
+            this.definition = definition;
+        }
+
+        @Override
+        public final String toString() {
+            return definition.getName();
+        }
+
+        static CacheStat getStat(final String stringForm) {
+            return MAP.get(stringForm);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import io.undertow.server.handlers.resource.CachingResourceManager;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceManager;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Static content cache settings of a servlet container, and the statistics of all deployments using them.
+ * <p>
+ * Each deployment gets its own {@link CachingResourceManager}, the resource lookups are counted before and behind it
+ * to tell cache hits from misses.
+ */
+public class StaticContentCacheService implements Service<StaticContentCacheService> {
+
+    public static final ServiceName SERVICE_NAME = UndertowService.SERVLET_CONTAINER.append("static-content-cache");
+
+    public static final int DEFAULT_METADATA_CACHE_SIZE = 100;
+    public static final long DEFAULT_MAX_FILE_SIZE = 10 * 1024 * 1024;
+
+    private final int metadataCacheSize;
+    private final long maxFileSize;
+    private final InjectedValue<DirectBufferCache> bufferCache = new InjectedValue<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong reloadCount = new AtomicLong();
+
+    public StaticContentCacheService(final int metadataCacheSize, final long maxFileSize) {
+        this.metadataCacheSize = metadataCacheSize;
+        this.maxFileSize = maxFileSize;
+    }
+
+    @Override
+    public void start(final StartContext context) throws StartException {
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+    }
+
+    @Override
+    public StaticContentCacheService getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    public InjectedValue<DirectBufferCache> getBufferCache() {
+        return bufferCache;
+    }
+
+    /**
+     * Wrap the resource manager of a deployment in a cache using these settings.
+     *
+     * @param resourceManager the resource manager of the deployment
+     * @return the caching resource manager
+     */
+    public ResourceManager createResourceManager(final ResourceManager resourceManager) {
+        final ResourceManager caching = new CachingResourceManager(metadataCacheSize, maxFileSize, bufferCache.getOptionalValue(), new MissCountingResourceManager(resourceManager), -1);
+        return new RequestCountingResourceManager(caching);
+    }
+
+    public int getMetadataCacheSize() {
+        return metadataCacheSize;
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public long getHitCount() {
+        return Math.max(0, requestCount.get() - missCount.get());
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * The caching resource manager does not report evictions, so this counts their effect instead: the resources that
+     * had to be loaded again after they were dropped from the cache, either evicted or invalidated.
+     */
+    public long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    private class RequestCountingResourceManager implements ResourceManager {
+
+        private final ResourceManager delegate;
+
+        RequestCountingResourceManager(final ResourceManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Resource getResource(final String path) throws IOException {
+            requestCount.incrementAndGet();
+            return delegate.getResource(path);
+        }
+    }
+
+    private class MissCountingResourceManager implements ResourceManager {
+
+        private final ResourceManager delegate;
+        // per deployment, as is the cache, and bounded by the number of resources of the deployment
+        private final Set<String> loaded = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+        MissCountingResourceManager(final ResourceManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Resource getResource(final String path) throws IOException {
+            missCount.incrementAndGet();
+            final Resource resource = delegate.getResource(path);
+            if (resource != null && !loaded.add(path)) {
+                reloadCount.incrementAndGet();
+            }
+            return resource;
+        }
+    }
+}
@@ -48,6 +48,7 @@ public class UndertowExtension implements Extension {
     public static final PathElement PATH_FILTERS = PathElement.pathElement(Constants.CONFIGURATION, Constants.FILTER);
     protected static final PathElement PATH_JSP = PathElement.pathElement(Constants.SETTING, Constants.JSP);
     protected static final PathElement PATH_SESSION_COOKIE = PathElement.pathElement(Constants.SETTING, Constants.SESSION_COOKIE);
+    protected static final PathElement PATH_STATIC_CONTENT_CACHE = PathElement.pathElement(Constants.SETTING, Constants.STATIC_CONTENT_CACHE);
     protected static final PathElement SUBSYSTEM_PATH = PathElement.pathElement(SUBSYSTEM, SUBSYSTEM_NAME);
     protected static final PathElement AJP_LISTENER_PATH = PathElement.pathElement(Constants.AJP_LISTENER);
     protected static final PathElement HOST_PATH = PathElement.pathElement(Constants.HOST);
@@ -73,6 +74,7 @@ public class UndertowExtension implements Extension {
     @Override
     public void initializeParsers(ExtensionParsingContext context) {
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.UNDERTOW_1_0.getUriString(), UndertowSubsystemParser_1_0.INSTANCE);
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.UNDERTOW_1_1.getUriString(), UndertowSubsystemParser_1_1.INSTANCE);
     }
 
     @Override
@@ -89,7 +91,7 @@ public class UndertowExtension implements Extension {
         final ManagementResourceRegistration deployments = subsystem.registerDeploymentModel(DeploymentDefinition.INSTANCE);
         deployments.registerSubModel(DeploymentServletDefinition.INSTANCE);
 
-        subsystem.registerXMLElementWriter(UndertowSubsystemParser_1_0.INSTANCE);
+        subsystem.registerXMLElementWriter(UndertowSubsystemParser_1_1.INSTANCE);
     }
 
 
@@ -194,7 +194,7 @@ public class UndertowSubsystemParser_1_0 implements XMLStreamConstants, XMLEleme
     public void writeContent(XMLExtendedStreamWriter writer, SubsystemMarshallingContext context) throws XMLStreamException {
         ModelNode model = new ModelNode();
         model.get(UndertowRootDefinition.INSTANCE.getPathElement().getKeyValuePair()).set(context.getModelNode());//this is bit of workaround for SPRD to work properly
-        xmlDescription.persist(writer, model, Namespace.CURRENT.getUriString());
+        xmlDescription.persist(writer, model, Namespace.UNDERTOW_1_0.getUriString());
     }
 
     /**
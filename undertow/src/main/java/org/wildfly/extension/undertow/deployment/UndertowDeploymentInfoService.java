@@ -131,6 +131,7 @@ import org.wildfly.clustering.web.session.SessionManagerFactory;
 import org.wildfly.clustering.web.undertow.session.SessionManagerFacadeFactory;
 import org.wildfly.extension.undertow.ServletContainerService;
 import org.wildfly.extension.undertow.SessionCookieConfigService;
+import org.wildfly.extension.undertow.StaticContentCacheService;
 import org.wildfly.extension.undertow.UndertowService;
 import org.wildfly.extension.undertow.security.AuditNotificationReceiver;
 import org.wildfly.extension.undertow.security.JAASIdentityManagerImpl;
@@ -172,6 +173,7 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
     private final InjectedValue<ServletContainerService> container = new InjectedValue<>();
     private final InjectedValue<DirectBufferCache> bufferCacheInjectedValue = new InjectedValue<>();
     private final InjectedValue<SessionCookieConfigService> defaultSessionCookieConfig = new InjectedValue<>();
+    private final InjectedValue<StaticContentCacheService> staticContentCache = new InjectedValue<>();
 
     private UndertowDeploymentInfoService(final JBossWebMetaData mergedMetaData, final String deploymentName, final TldsMetaData tldsMetaData, final List<TldMetaData> sharedTlds, final Module module, final WebInjectionContainer injectionContainer, final ComponentRegistry componentRegistry, final ScisMetaData scisMetaData, final VirtualFile deploymentRoot, final String securityContextId, final String securityDomain, final List<ServletContextAttribute> attributes, final String contextPath, final List<SetupAction> setupActions, final Set<VirtualFile> overlays, final List<ExpressionFactoryWrapper> expressionFactoryWrappers) {
         this.mergedMetaData = mergedMetaData;
@@ -335,9 +337,13 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
             }
             d.setDeploymentName(deploymentName);
             try {
-                //TODO: make the caching limits configurable
                 ResourceManager resourceManager = new ServletResourceManager(deploymentRoot, overlays);
-                d.setResourceManager(new CachingResourceManager(100, 10 * 1024 * 1024, bufferCacheInjectedValue.getOptionalValue(), resourceManager, -1));
+                final StaticContentCacheService cache = staticContentCache.getOptionalValue();
+                if (cache != null) {
+                    d.setResourceManager(cache.createResourceManager(resourceManager));
+                } else {
+                    d.setResourceManager(new CachingResourceManager(StaticContentCacheService.DEFAULT_METADATA_CACHE_SIZE, StaticContentCacheService.DEFAULT_MAX_FILE_SIZE, bufferCacheInjectedValue.getOptionalValue(), resourceManager, -1));
+                }
             } catch (IOException e) {
                 throw new StartException(e);
             }
@@ -962,6 +968,10 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
         return defaultSessionCookieConfig;
     }
 
+    public InjectedValue<StaticContentCacheService> getStaticContentCache() {
+        return staticContentCache;
+    }
+
     private static class ComponentClassIntrospector implements ClassIntrospecter {
         private final ComponentRegistry componentRegistry;
 
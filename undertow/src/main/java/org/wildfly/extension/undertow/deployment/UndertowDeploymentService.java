@@ -41,6 +41,7 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.undertow.Host;
 import org.wildfly.extension.undertow.ServletContainerService;
+import org.wildfly.extension.undertow.UndertowLogger;
 import org.wildfly.extension.undertow.UndertowMessages;
 
 /**
@@ -101,6 +102,9 @@ public class UndertowDeploymentService implements Service<UndertowDeploymentServ
             }
             deploymentManager.undeploy();
             host.getValue().unregisterDeployment(deployment);
+            if (UndertowLogger.ROOT_LOGGER.isDebugEnabled()) {
+                UndertowLogger.ROOT_LOGGER.debugf("Instances created for deployment %s: %s", deployment.getDeploymentInfo().getDeploymentName(), webInjectionContainer.getInstanceCounts());
+            }
         }
     }
 
@@ -109,6 +113,18 @@ public class UndertowDeploymentService implements Service<UndertowDeploymentServ
         return this;
     }
 
+    public WebInjectionContainer getInjectionContainer() {
+        return webInjectionContainer;
+    }
+
+    /**
+     * @return the deployment, or null if not yet deployed
+     */
+    public Deployment getDeployment() {
+        DeploymentManager manager = deploymentManager;
+        return manager != null ? manager.getDeployment() : null;
+    }
+
     public InjectedValue<ServletContainerService> getContainer() {
         return container;
     }
@@ -0,0 +1,129 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import io.undertow.server.handlers.resource.FileResourceManager;
+import io.undertow.server.handlers.resource.ResourceManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the statistics of the {@link StaticContentCacheService}.
+ */
+public class StaticContentCacheServiceTestCase {
+
+    private File root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = File.createTempFile("static-content", "");
+        root.delete();
+        root.mkdirs();
+        createFile("small.txt", 100);
+        createFile("medium.txt", 4096);
+        createFile("large.bin", 64 * 1024);
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : root.listFiles()) {
+            file.delete();
+        }
+        root.delete();
+    }
+
+    @Test
+    public void testHitsAndMisses() throws IOException {
+        final StaticContentCacheService service = new StaticContentCacheService(10, 8192);
+        final ResourceManager resourceManager = service.createResourceManager(new FileResourceManager(root));
+
+        assertNotNull(resourceManager.getResource("small.txt"));
+        assertEquals(0, service.getHitCount());
+        assertEquals(1, service.getMissCount());
+
+        assertNotNull(resourceManager.getResource("small.txt"));
+        assertNotNull(resourceManager.getResource("small.txt"));
+        assertEquals(2, service.getHitCount());
+        assertEquals(1, service.getMissCount());
+
+        // files above the max file size are still served and their metadata cached
+        assertNotNull(resourceManager.getResource("large.bin"));
+        assertNotNull(resourceManager.getResource("large.bin"));
+        assertEquals(3, service.getHitCount());
+        assertEquals(2, service.getMissCount());
+        assertEquals(0, service.getReloadCount());
+    }
+
+    @Test
+    public void testReloads() throws IOException {
+        final StaticContentCacheService service = new StaticContentCacheService(2, 8192);
+        final ResourceManager resourceManager = service.createResourceManager(new FileResourceManager(root));
+
+        resourceManager.getResource("small.txt");
+        resourceManager.getResource("medium.txt");
+        resourceManager.getResource("large.bin");
+        // a full cache alone is no reload
+        assertEquals(0, service.getReloadCount());
+        assertEquals(3, service.getMissCount());
+
+        // the least recently used entry was evicted, so it is loaded again
+        resourceManager.getResource("small.txt");
+        assertEquals(1, service.getReloadCount());
+        assertEquals(4, service.getMissCount());
+
+        // missing resources are not cached and never count as reloads
+        resourceManager.getResource("missing.txt");
+        resourceManager.getResource("missing.txt");
+        assertEquals(1, service.getReloadCount());
+    }
+
+    @Test
+    public void testStatisticsSharedByDeployments() throws IOException {
+        final StaticContentCacheService service = new StaticContentCacheService(10, 8192);
+        final ResourceManager first = service.createResourceManager(new FileResourceManager(root));
+        final ResourceManager second = service.createResourceManager(new FileResourceManager(root));
+
+        first.getResource("small.txt");
+        second.getResource("small.txt");
+        first.getResource("small.txt");
+        assertEquals(1, service.getHitCount());
+        assertEquals(2, service.getMissCount());
+    }
+
+    private void createFile(final String name, final int size) throws IOException {
+        final FileOutputStream out = new FileOutputStream(new File(root, name));
+        try {
+            out.write(new byte[size]);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -52,7 +52,7 @@ public class UndertowSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXml() throws IOException {
-        return readResource("undertow-1.0.xml");
+        return readResource("undertow-1.1.xml");
     }
 
     @Test
@@ -82,6 +82,16 @@ public class UndertowSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     }
 
+    @Test
+    public void testParse_1_0() throws Exception {
+        KernelServices services = createKernelServicesBuilder(createAdditionalInitialization())
+                .setSubsystemXml(readResource("undertow-1.0.xml"))
+                .build();
+        if (!services.isSuccessfulBoot()) {
+            Assert.fail(services.getBootError().toString());
+        }
+    }
+
     @Override
     protected AdditionalInitialization createAdditionalInitialization() {
         return AdditionalInitialization.MANAGEMENT;
@@ -22,16 +22,30 @@
 package org.jboss.as.web.common;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.naming.NamingException;
 
+import org.jboss.as.ee.component.ComponentDescription;
 import org.jboss.as.ee.component.ComponentRegistry;
+import org.jboss.as.ee.component.EEModuleDescription;
 import org.jboss.as.naming.ManagedReference;
 
 /**
  * The web injection container.
+ * <p/>
+ * Only instances of component classes require injection and lifecycle callbacks. The names of the component classes
+ * of the module are known when the deployment is processed, although the components themselves are only registered
+ * when they are installed. Instances of any other class bypass the component registry. Only instances obtained from the
+ * registry are tracked, so instances of any other class are destroyed without probing the instance map.
  *
  * @author Emanuel Muckenhuber
  */
@@ -39,11 +53,17 @@ public class WebInjectionContainer {
 
     private final ClassLoader classloader;
     private final ComponentRegistry componentRegistry;
+    // Names of the component classes of the module, the only classes which may need injection
+    private final Set<String> componentClassNames;
     private final Map<Object, ManagedReference> instanceMap;
+    // Classes of the instances tracked in the instance map
+    private final Set<Class<?>> managedClasses = Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+    private final ConcurrentMap<Class<?>, AtomicLong> instanceCounts = new ConcurrentHashMap<Class<?>, AtomicLong>();
 
-    public WebInjectionContainer(ClassLoader classloader, final ComponentRegistry componentRegistry) {
+    public WebInjectionContainer(ClassLoader classloader, final ComponentRegistry componentRegistry, final Set<String> componentClassNames) {
         this.classloader = classloader;
         this.componentRegistry = componentRegistry;
+        this.componentClassNames = componentClassNames;
         this.instanceMap = new ConcurrentReferenceHashMap<Object, ManagedReference>
                 (256, ConcurrentReferenceHashMap.DEFAULT_LOAD_FACTOR,
                         Runtime.getRuntime().availableProcessors(), ConcurrentReferenceHashMap.ReferenceType.STRONG,
@@ -52,6 +72,9 @@ public class WebInjectionContainer {
 
 
     public void destroyInstance(Object instance) {
+        if (!managedClasses.contains(instance.getClass())) {
+            return;
+        }
         final ManagedReference reference = instanceMap.remove(instance);
         if (reference != null) {
             reference.release();
@@ -63,25 +86,80 @@ public class WebInjectionContainer {
     }
 
     public Object newInstance(Class<?> clazz) throws IllegalAccessException, InvocationTargetException, NamingException, InstantiationException {
-        final ManagedReference reference = componentRegistry.createInstance(clazz);
-        if (reference != null) {
-            instanceMap.put(reference.getInstance(), reference);
-            return reference.getInstance();
+        countInstance(clazz);
+        if (componentClassNames.contains(clazz.getName())) {
+            final ManagedReference reference = componentRegistry.createInstance(clazz);
+            if (reference != null) {
+                final Object instance = reference.getInstance();
+                // the component instance is not necessarily of the component class
+                managedClasses.add(instance.getClass());
+                instanceMap.put(instance, reference);
+                return instance;
+            }
         }
         return clazz.newInstance();
     }
 
     public void newInstance(Object arg0) throws IllegalAccessException, InvocationTargetException, NamingException {
-        final ManagedReference reference = componentRegistry.createInstance(arg0);
-        if (reference != null) {
-            instanceMap.put(arg0, reference);
+        final Class<?> clazz = arg0.getClass();
+        countInstance(clazz);
+        if (componentClassNames.contains(clazz.getName())) {
+            final ManagedReference reference = componentRegistry.createInstance(arg0);
+            if (reference != null) {
+                managedClasses.add(clazz);
+                instanceMap.put(arg0, reference);
+            }
         }
     }
 
+    private void countInstance(Class<?> clazz) {
+        AtomicLong count = instanceCounts.get(clazz);
+        if (count == null) {
+            final AtomicLong existing = instanceCounts.putIfAbsent(clazz, count = new AtomicLong());
+            if (existing != null) {
+                count = existing;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of instances created or injected by this container, per class name.
+     *
+     * @return the instance counts, sorted by class name
+     */
+    public Map<String, Long> getInstanceCounts() {
+        final Map<String, Long> counts = new TreeMap<String, Long>();
+        for (Map.Entry<Class<?>, AtomicLong> entry : instanceCounts.entrySet()) {
+            final String name = entry.getKey().getName();
+            final Long count = counts.get(name);
+            // classes of the same name may be loaded by different class loaders
+            counts.put(name, (count != null) ? count + entry.getValue().get() : entry.getValue().get());
+        }
+        return counts;
+    }
+
     public Object newInstance(String className, ClassLoader cl) throws IllegalAccessException, InvocationTargetException, NamingException, InstantiationException, ClassNotFoundException {
         return newInstance(cl.loadClass(className));
     }
 
+    /**
+     * Returns the names of the component classes of a module, i.e. of the classes which may need injection.
+     *
+     * @param moduleDescription the description of the module, may be {@code null} if it is not an EE module
+     * @return the component class names
+     */
+    public static Set<String> getComponentClassNames(final EEModuleDescription moduleDescription) {
+        if (moduleDescription == null) {
+            return Collections.emptySet();
+        }
+        final Set<String> names = new HashSet<String>();
+        for (ComponentDescription description : moduleDescription.getComponentDescriptions()) {
+            names.add(description.getComponentClassName());
+        }
+        return names;
+    }
+
     public ComponentRegistry getComponentRegistry() {
         return componentRegistry;
     }
@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2013, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.jboss.as.ee.component.ComponentRegistry;
+import org.jboss.as.naming.ManagedReference;
+import org.junit.Test;
+
+/**
+ * Tests that only instances of component classes are obtained from the component registry.
+ */
+public class WebInjectionContainerTestCase {
+
+    @Test
+    public void testNonComponentClassBypassesRegistry() throws Exception {
+        final RecordingComponentRegistry registry = new RecordingComponentRegistry();
+        final WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader(), registry,
+                Collections.singleton(Component.class.getName()));
+
+        final Object plain = container.newInstance(Plain.class);
+        assertTrue(plain instanceof Plain);
+        container.newInstance(new Plain());
+        container.newInstance(Plain.class.getName());
+        assertEquals(0, registry.created);
+        container.destroyInstance(plain);
+    }
+
+    @Test
+    public void testComponentClassIsInjected() throws Exception {
+        final RecordingComponentRegistry registry = new RecordingComponentRegistry();
+        final WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader(), registry,
+                Collections.singleton(Component.class.getName()));
+
+        final Object instance = container.newInstance(Component.class);
+        assertSame(registry.component, instance);
+        assertEquals(1, registry.created);
+        assertFalse(registry.reference.released);
+
+        container.destroyInstance(instance);
+        assertTrue(registry.reference.released);
+    }
+
+    @Test
+    public void testInstanceCounts() throws Exception {
+        final WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader(),
+                new RecordingComponentRegistry(), Collections.singleton(Component.class.getName()));
+
+        container.newInstance(Plain.class);
+        container.newInstance(new Plain());
+        container.newInstance(Component.class);
+
+        final Map<String, Long> counts = container.getInstanceCounts();
+        assertEquals(2, counts.size());
+        assertEquals(Long.valueOf(2), counts.get(Plain.class.getName()));
+        assertEquals(Long.valueOf(1), counts.get(Component.class.getName()));
+    }
+
+    public static class Plain {
+    }
+
+    public static class Component {
+    }
+
+    private static class RecordingComponentRegistry extends ComponentRegistry {
+        final Component component = new Component();
+        volatile RecordingReference reference;
+        volatile int created;
+
+        RecordingComponentRegistry() {
+            super(null);
+        }
+
+        @Override
+        public ManagedReference createInstance(final Class<?> componentClass) {
+            created++;
+            if (componentClass != Component.class) {
+                return null;
+            }
+            return reference = new RecordingReference(component);
+        }
+
+        @Override
+        public ManagedReference createInstance(final Object instance) {
+            created++;
+            return null;
+        }
+    }
+
+    private static class RecordingReference implements ManagedReference {
+        private final Object instance;
+        volatile boolean released;
+
+        RecordingReference(final Object instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public void release() {
+            released = true;
+        }
+
+        @Override
+        public Object getInstance() {
+            return instance;
+        }
+    }
+}
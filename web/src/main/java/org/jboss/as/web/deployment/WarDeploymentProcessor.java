@@ -307,7 +307,8 @@ public class WarDeploymentProcessor implements DeploymentUnitProcessor {
             }
 
 
-            final WebDeploymentService webappService = new WebDeploymentService(webContext, new WebInjectionContainer(module.getClassLoader(), componentRegistry), setupActions, attributes);
+            final WebDeploymentService webappService = new WebDeploymentService(webContext, new WebInjectionContainer(module.getClassLoader(), componentRegistry,
+                    WebInjectionContainer.getComponentClassNames(deploymentUnit.getAttachment(org.jboss.as.ee.component.Attachments.EE_MODULE_DESCRIPTION))), setupActions, attributes);
             ServiceBuilder<StandardContext> webappBuilder = serviceTarget.addService(webappServiceName, webappService)
                     .addDependency(WebSubsystemServices.JBOSS_WEB_HOST.append(hostName), VirtualHost.class, new WebContextInjector(webContext))
                     .addDependencies(dependentComponents).addDependency(realmServiceName, Realm.class, webappService.getRealm())
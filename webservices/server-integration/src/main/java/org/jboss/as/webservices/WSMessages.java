@@ -23,6 +23,7 @@
 package org.jboss.as.webservices;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 
 import javax.xml.ws.WebServiceException;
 
@@ -161,4 +162,7 @@ public interface WSMessages {
             + "The former approach is recommended, as the latter approach causes most of the webservices Java EE and any JBossWS specific functionality to be disabled.")
     DeploymentUnitProcessingException invalidLibraryInDeployment(String libraryName, String jar);
 
+    @Message(id = 15602, value = "Component view %s has no method matching %s")
+    IllegalStateException cannotFindViewMethod(ServiceName componentViewName, Method seiMethod);
+
 }
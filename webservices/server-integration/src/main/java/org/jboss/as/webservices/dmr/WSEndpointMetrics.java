@@ -27,6 +27,7 @@ import static org.jboss.as.webservices.WSMessages.MESSAGES;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.util.Map;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
@@ -34,6 +35,8 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.webservices.invocation.EndpointInvocationMetrics;
+import org.jboss.as.webservices.invocation.OperationStatistics;
 import org.jboss.as.webservices.util.WSServices;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -54,31 +57,43 @@ final class WSEndpointMetrics implements OperationStepHandler {
     static final WSEndpointMetrics INSTANCE = new WSEndpointMetrics();
 
 
-    static final AttributeDefinition MIN_PROCESSING_TIME = new SimpleAttributeDefinitionBuilder("min-processing-time", ModelType.INT, true)
+    static final AttributeDefinition MIN_PROCESSING_TIME = new SimpleAttributeDefinitionBuilder("min-processing-time", ModelType.LONG, true)
             .setStorageRuntime()
             .build();
-    static final AttributeDefinition MAX_PROCESSING_TIME = new SimpleAttributeDefinitionBuilder("max-processing-time", ModelType.INT, true)
+    static final AttributeDefinition MAX_PROCESSING_TIME = new SimpleAttributeDefinitionBuilder("max-processing-time", ModelType.LONG, true)
             .setStorageRuntime()
             .build();
-    static final AttributeDefinition AVERAGE_PROCESSING_TIME = new SimpleAttributeDefinitionBuilder("average-processing-time", ModelType.INT, true)
+    static final AttributeDefinition AVERAGE_PROCESSING_TIME = new SimpleAttributeDefinitionBuilder("average-processing-time", ModelType.LONG, true)
             .setStorageRuntime()
             .build();
-    static final AttributeDefinition TOTAL_PROCESSING_TIME = new SimpleAttributeDefinitionBuilder("total-processing-time", ModelType.INT, true)
+    static final AttributeDefinition TOTAL_PROCESSING_TIME = new SimpleAttributeDefinitionBuilder("total-processing-time", ModelType.LONG, true)
             .setStorageRuntime()
             .build();
-    static final AttributeDefinition REQUEST_COUNT = new SimpleAttributeDefinitionBuilder("request-count", ModelType.INT, true)
+    static final AttributeDefinition REQUEST_COUNT = new SimpleAttributeDefinitionBuilder("request-count", ModelType.LONG, true)
             .setStorageRuntime()
             .build();
-    static final AttributeDefinition RESPONSE_COUNT = new SimpleAttributeDefinitionBuilder("response-count", ModelType.INT, true)
+    static final AttributeDefinition RESPONSE_COUNT = new SimpleAttributeDefinitionBuilder("response-count", ModelType.LONG, true)
             .setStorageRuntime()
             .build();
-    static final AttributeDefinition FAULT_COUNT = new SimpleAttributeDefinitionBuilder("fault-count", ModelType.INT, true)
+    static final AttributeDefinition FAULT_COUNT = new SimpleAttributeDefinitionBuilder("fault-count", ModelType.LONG, true)
             .setStorageRuntime()
             .build();
 
 
+    static final AttributeDefinition OPERATION_STATISTICS = new SimpleAttributeDefinitionBuilder("operation-statistics", ModelType.OBJECT, true)
+            .setStorageRuntime()
+            .build();
+
     static final AttributeDefinition[] ATTRIBUTES = {MIN_PROCESSING_TIME, MAX_PROCESSING_TIME, AVERAGE_PROCESSING_TIME,
-            TOTAL_PROCESSING_TIME, REQUEST_COUNT, RESPONSE_COUNT, FAULT_COUNT};
+            TOTAL_PROCESSING_TIME, REQUEST_COUNT, RESPONSE_COUNT, FAULT_COUNT, OPERATION_STATISTICS};
+
+    private static final String INVOCATION_COUNT = "invocation-count";
+    private static final String FAULT_COUNT_FIELD = "fault-count";
+    private static final String AVERAGE_TIME = "average-time";
+    private static final String MAX_TIME = "max-time";
+    private static final String P50_TIME = "p50-time";
+    private static final String P90_TIME = "p90-time";
+    private static final String P99_TIME = "p99-time";
 
 
     private WSEndpointMetrics() {
@@ -124,24 +139,40 @@ final class WSEndpointMetrics implements OperationStepHandler {
         final String endpointName = endpointId.substring(endpointId.indexOf(":") + 1);
         ServiceName endpointServiceName = WSServices.ENDPOINT_SERVICE.append("context="+webContext).append(endpointName);
         ServiceController<Endpoint> service = (ServiceController<Endpoint>)WSServices.getContainerRegistry().getService(endpointServiceName);
-        Endpoint endpoint= service.getValue();
+        Endpoint endpoint = service != null ? service.getValue() : null;
         final ModelNode result = new ModelNode();
-        if (endpoint != null && endpoint.getEndpointMetrics() != null) {
+        if (endpoint != null && OPERATION_STATISTICS.getName().equals(metricName)) {
+            final EndpointInvocationMetrics invocationMetrics = endpoint.getAttachment(EndpointInvocationMetrics.class);
+            result.setEmptyObject();
+            if (invocationMetrics != null) {
+                for (final Map.Entry<String, OperationStatistics> entry : invocationMetrics.getOperations().entrySet()) {
+                    final OperationStatistics statistics = entry.getValue();
+                    final ModelNode operationNode = result.get(entry.getKey());
+                    operationNode.get(INVOCATION_COUNT).set(statistics.getInvocationCount());
+                    operationNode.get(FAULT_COUNT_FIELD).set(statistics.getFaultCount());
+                    operationNode.get(AVERAGE_TIME).set(statistics.getAverageTime());
+                    operationNode.get(MAX_TIME).set(statistics.getMaxTime());
+                    operationNode.get(P50_TIME).set(statistics.getPercentile(50));
+                    operationNode.get(P90_TIME).set(statistics.getPercentile(90));
+                    operationNode.get(P99_TIME).set(statistics.getPercentile(99));
+                }
+            }
+        } else if (endpoint != null && endpoint.getEndpointMetrics() != null) {
             final EndpointMetrics endpointMetrics = endpoint.getEndpointMetrics();
             if (MIN_PROCESSING_TIME.getName().equals(metricName)) {
-                result.set(String.valueOf(endpointMetrics.getMinProcessingTime()));
+                result.set(endpointMetrics.getMinProcessingTime());
             } else if (MAX_PROCESSING_TIME.getName().equals(metricName)) {
-                result.set(String.valueOf(endpointMetrics.getMaxProcessingTime()));
+                result.set(endpointMetrics.getMaxProcessingTime());
             } else if (AVERAGE_PROCESSING_TIME.getName().equals(metricName)) {
-                result.set(String.valueOf(endpointMetrics.getAverageProcessingTime()));
+                result.set(endpointMetrics.getAverageProcessingTime());
             } else if (TOTAL_PROCESSING_TIME.getName().equals(metricName)) {
-                result.set(String.valueOf(endpointMetrics.getTotalProcessingTime()));
+                result.set(endpointMetrics.getTotalProcessingTime());
             } else if (REQUEST_COUNT.getName().equals(metricName)) {
-                result.set(String.valueOf(endpointMetrics.getRequestCount()));
+                result.set(endpointMetrics.getRequestCount());
             } else if (RESPONSE_COUNT.getName().equals(metricName)) {
-                result.set(String.valueOf(endpointMetrics.getResponseCount()));
+                result.set(endpointMetrics.getResponseCount());
             } else if (FAULT_COUNT.getName().equals(metricName)) {
-                result.set(String.valueOf(endpointMetrics.getFaultCount()));
+                result.set(endpointMetrics.getFaultCount());
             }
         } else {
             result.set(getFallbackMessage());
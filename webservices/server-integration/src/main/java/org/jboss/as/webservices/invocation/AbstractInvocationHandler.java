@@ -28,7 +28,8 @@ import static org.jboss.as.webservices.util.ASHelper.getMSCService;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
-import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.management.MBeanException;
 
@@ -50,18 +51,23 @@ abstract class AbstractInvocationHandler extends org.jboss.ws.common.invocation.
    private ServiceName componentViewName;
    private volatile ComponentView componentView;
    protected volatile ManagedReference reference;
+   // the view methods of the component view and their operation names, by SEI method
+   private final ConcurrentMap<Method, ViewMethod> viewMethods = new ConcurrentHashMap<Method, ViewMethod>();
+   private final EndpointInvocationMetrics metrics = new EndpointInvocationMetrics();
 
    /**
-    * Initializes component view name.
+    * Initializes component view name and registers the invocation metrics with the endpoint.
     *
     * @param endpoint web service endpoint
     */
    public void init(final Endpoint endpoint) {
        componentViewName = (ServiceName) endpoint.getProperty(COMPONENT_VIEW_NAME);
+       endpoint.addAttachment(EndpointInvocationMetrics.class, metrics);
    }
 
    /**
-    * Gets endpoint container lazily.
+    * Gets endpoint container lazily. The component view depends on the endpoint service, so it can only be
+    * resolved once the endpoint is started.
     *
     * @return endpoint container
     */
@@ -71,7 +77,7 @@ abstract class AbstractInvocationHandler extends org.jboss.ws.common.invocation.
       if (componentView == null || reference == null) {
          synchronized(this) {
             if (componentView == null) {
-               componentView = getMSCService(componentViewName, ComponentView.class);
+               final ComponentView componentView = getMSCService(componentViewName, ComponentView.class);
                if (componentView == null) {
                   throw MESSAGES.cannotFindComponentView(componentViewName);
                }
@@ -80,6 +86,7 @@ abstract class AbstractInvocationHandler extends org.jboss.ws.common.invocation.
                 } catch (Exception e) {
                     throw new RuntimeException(e);
                 }
+                this.componentView = componentView;
             }
          }
       }
@@ -94,12 +101,18 @@ abstract class AbstractInvocationHandler extends org.jboss.ws.common.invocation.
     * @throws Exception if any error occurs
     */
    public void invoke(final Endpoint endpoint, final Invocation wsInvocation) throws Exception {
+      final Method seiMethod = wsInvocation.getJavaMethod();
+      final long start = System.nanoTime();
+      boolean fault = true;
+      String operationName = null;
       try {
          // prepare for invocation
          onBeforeInvocation(wsInvocation);
          // prepare invocation data
          final ComponentView componentView = getComponentView();
-         final Method method = getComponentViewMethod(wsInvocation.getJavaMethod(), componentView.getViewMethods());
+         final ViewMethod viewMethod = getViewMethod(componentView, seiMethod);
+         operationName = viewMethod.operationName;
+         final Method method = viewMethod.method;
          final InterceptorContext context = new InterceptorContext();
          prepareForInvocation(context, wsInvocation);
          context.setMethod(method);
@@ -111,12 +124,16 @@ abstract class AbstractInvocationHandler extends org.jboss.ws.common.invocation.
          final Object retObj = componentView.invoke(context);
          // set return value
          wsInvocation.setReturnValue(retObj);
+         fault = false;
       }
       catch (Throwable t) {
          log.error(MESSAGES.methodInvocationFailed(t.getLocalizedMessage()), t);
          handleInvocationException(t);
       }
       finally {
+         // overloaded methods are distinct operations
+         metrics.getOperation(operationName != null ? operationName : EndpointInvocationMetrics.getOperationName(seiMethod))
+                 .record(System.nanoTime() - start, fault);
          onAfterInvocation(wsInvocation);
       }
    }
@@ -126,19 +143,25 @@ abstract class AbstractInvocationHandler extends org.jboss.ws.common.invocation.
    }
 
    /**
-    * Translates SEI method to component view method.
+    * Translates SEI method to component view method. Each SEI method is only matched against the view methods once.
     *
+    * @param componentView the component view
     * @param seiMethod SEI method
-    * @param viewMethods component view methods
-    * @return matching component view method
+    * @return matching component view method and its operation name
     */
-   protected Method getComponentViewMethod(final Method seiMethod, final Collection<Method> viewMethods) {
-       for (final Method viewMethod : viewMethods) {
-           if (matches(seiMethod, viewMethod)) {
-               return viewMethod;
+   private ViewMethod getViewMethod(final ComponentView componentView, final Method seiMethod) {
+       ViewMethod viewMethod = viewMethods.get(seiMethod);
+       if (viewMethod == null) {
+           for (final Method method : componentView.getViewMethods()) {
+               if (matches(seiMethod, method)) {
+                   viewMethod = new ViewMethod(method, EndpointInvocationMetrics.getOperationName(method));
+                   final ViewMethod existing = viewMethods.putIfAbsent(seiMethod, viewMethod);
+                   return existing != null ? existing : viewMethod;
+               }
            }
+           throw MESSAGES.cannotFindViewMethod(componentViewName, seiMethod);
        }
-       throw new IllegalStateException();
+       return viewMethod;
    }
 
    protected void handleInvocationException(final Throwable t) throws Exception {
@@ -176,4 +199,14 @@ abstract class AbstractInvocationHandler extends org.jboss.ws.common.invocation.
        return true;
    }
 
+   private static final class ViewMethod {
+       private final Method method;
+       private final String operationName;
+
+       private ViewMethod(final Method method, final String operationName) {
+           this.method = method;
+           this.operationName = operationName;
+       }
+   }
+
 }
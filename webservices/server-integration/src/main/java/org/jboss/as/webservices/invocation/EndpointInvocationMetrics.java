@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.webservices.invocation;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per operation invocation statistics of a WS endpoint, attached to the
+ * {@link org.jboss.wsf.spi.deployment.Endpoint} by its invocation handler.
+ */
+public final class EndpointInvocationMetrics {
+
+    private final ConcurrentMap<String, OperationStatistics> operations = new ConcurrentHashMap<String, OperationStatistics>();
+
+    OperationStatistics getOperation(final String operationName) {
+        OperationStatistics statistics = operations.get(operationName);
+        if (statistics == null) {
+            final OperationStatistics newStatistics = new OperationStatistics();
+            statistics = operations.putIfAbsent(operationName, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns the name the statistics of a method are kept under, i.e. its signature, so that overloaded
+     * methods are told apart.
+     *
+     * @param method the SEI or component view method
+     * @return the method name followed by its parameter types, e.g. {@code echo(java.lang.String)}
+     */
+    static String getOperationName(final Method method) {
+        final StringBuilder name = new StringBuilder(method.getName()).append('(');
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                name.append(',');
+            }
+            name.append(parameterTypes[i].getName());
+        }
+        return name.append(')').toString();
+    }
+
+    /**
+     * @return the statistics of all operations invoked so far, keyed by method signature
+     */
+    public Map<String, OperationStatistics> getOperations() {
+        return Collections.unmodifiableMap(operations);
+    }
+}
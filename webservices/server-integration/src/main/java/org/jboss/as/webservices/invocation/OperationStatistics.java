@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.webservices.invocation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free invocation statistics of a single endpoint operation.
+ * <p>
+ * Latencies are recorded in microseconds into a log-linear histogram: values below 8 have their own bucket, larger
+ * values are split into 8 buckets per power of two, which bounds the relative error of the percentiles to 12.5%.
+ */
+public final class OperationStatistics {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    private final AtomicLong invocationCount = new AtomicLong();
+    private final AtomicLong faultCount = new AtomicLong();
+    private final AtomicLong totalTime = new AtomicLong();
+    private final AtomicLong maxTime = new AtomicLong();
+
+    OperationStatistics() {
+    }
+
+    /**
+     * Records a finished invocation.
+     *
+     * @param nanos the invocation time in nanoseconds
+     * @param fault whether the invocation failed
+     */
+    void record(final long nanos, final boolean fault) {
+        final long micros = Math.max(0L, nanos / 1000L);
+        histogram.incrementAndGet(bucket(micros));
+        invocationCount.incrementAndGet();
+        totalTime.addAndGet(micros);
+        if (fault) {
+            faultCount.incrementAndGet();
+        }
+        long max;
+        while (micros > (max = maxTime.get())) {
+            if (maxTime.compareAndSet(max, micros)) {
+                break;
+            }
+        }
+    }
+
+    public long getInvocationCount() {
+        return invocationCount.get();
+    }
+
+    public long getFaultCount() {
+        return faultCount.get();
+    }
+
+    /**
+     * @return the total invocation time in microseconds
+     */
+    public long getTotalTime() {
+        return totalTime.get();
+    }
+
+    /**
+     * @return the maximum invocation time in microseconds
+     */
+    public long getMaxTime() {
+        return maxTime.get();
+    }
+
+    /**
+     * @return the average invocation time in microseconds
+     */
+    public long getAverageTime() {
+        final long count = invocationCount.get();
+        return count == 0L ? 0L : totalTime.get() / count;
+    }
+
+    /**
+     * Estimates a percentile of the invocation time.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound of the histogram bucket holding the percentile, in microseconds
+     */
+    public long getPercentile(final double percentile) {
+        final long[] counts = new long[BUCKETS];
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts[i] = histogram.get(i);
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxTime.get());
+            }
+        }
+        return maxTime.get();
+    }
+
+    static int bucket(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        final int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        final long lower = (long) (SUB_BUCKETS + sub) << shift;
+        return lower + (1L << shift) - 1L;
+    }
+}
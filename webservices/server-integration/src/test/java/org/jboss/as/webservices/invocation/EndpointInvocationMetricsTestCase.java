@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.webservices.invocation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link EndpointInvocationMetrics}.
+ */
+public class EndpointInvocationMetricsTestCase {
+
+    @Test
+    public void testOverloadedOperations() throws Exception {
+        final String echo = EndpointInvocationMetrics.getOperationName(Endpoint.class.getMethod("echo", String.class));
+        final String echoTwice = EndpointInvocationMetrics.getOperationName(Endpoint.class.getMethod("echo", String.class, int.class));
+        assertEquals("echo(java.lang.String)", echo);
+        assertEquals("echo(java.lang.String,int)", echoTwice);
+        assertEquals("ping()", EndpointInvocationMetrics.getOperationName(Endpoint.class.getMethod("ping")));
+
+        final EndpointInvocationMetrics metrics = new EndpointInvocationMetrics();
+        assertSame(metrics.getOperation(echo), metrics.getOperation(echo));
+        assertNotSame(metrics.getOperation(echo), metrics.getOperation(echoTwice));
+        assertEquals(2, metrics.getOperations().size());
+    }
+
+    public interface Endpoint {
+        String echo(String message);
+
+        String echo(String message, int times);
+
+        void ping();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.webservices.invocation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link OperationStatistics}.
+ */
+public class OperationStatisticsTestCase {
+
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < 100000; value++) {
+            final int bucket = OperationStatistics.bucket(value);
+            assertTrue(value <= OperationStatistics.upperBound(bucket));
+            if (bucket > 0) {
+                assertTrue(value > OperationStatistics.upperBound(bucket - 1));
+            }
+        }
+        assertEquals(OperationStatistics.upperBound(OperationStatistics.bucket(Long.MAX_VALUE)), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testStatistics() {
+        final OperationStatistics statistics = new OperationStatistics();
+        assertEquals(0L, statistics.getPercentile(50));
+        for (int i = 1; i <= 100; i++) {
+            statistics.record(i * 1000L, i % 10 == 0);
+        }
+        assertEquals(100L, statistics.getInvocationCount());
+        assertEquals(10L, statistics.getFaultCount());
+        assertEquals(100L, statistics.getMaxTime());
+        assertEquals(50L, statistics.getAverageTime());
+        assertEquals(5050L, statistics.getTotalTime());
+        final long p50 = statistics.getPercentile(50);
+        assertTrue(p50 >= 50L && p50 <= 50L * 9 / 8);
+        assertEquals(100L, statistics.getPercentile(100));
+    }
+}
@@ -27,6 +27,8 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import javax.enterprise.inject.Vetoed;
+
 import org.jboss.as.ee.component.ComponentDescription;
 import org.jboss.as.ee.component.EEModuleDescription;
 import org.jboss.as.ejb3.component.EJBComponentDescription;
@@ -48,6 +50,9 @@ import org.jboss.as.weld.deployment.WeldDeploymentMetadata;
 import org.jboss.as.weld.ejb.EjbDescriptorImpl;
 import org.jboss.as.weld.services.bootstrap.WeldJaxwsInjectionServices;
 import org.jboss.as.weld.services.bootstrap.WeldJpaInjectionServices;
+import org.jboss.as.weld.util.Indices;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
 import org.jboss.jandex.ClassInfo;
 import org.jboss.jandex.DotName;
 import org.jboss.jandex.Index;
@@ -66,6 +71,9 @@ import org.jboss.weld.injection.spi.JpaInjectionServices;
  */
 public class BeanArchiveProcessor implements DeploymentUnitProcessor {
 
+    private static final DotName VETOED_NAME = DotName.createSimple(Vetoed.class.getName());
+    private static final String PACKAGE_INFO = "package-info";
+
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -166,9 +174,31 @@ public class BeanArchiveProcessor implements DeploymentUnitProcessor {
         Set<String> classNames = new HashSet<String>();
         // index may be null if a war has a beans.xml but no WEB-INF/classes
         if (index != null) {
+            final Set<String> vetoedClasses = new HashSet<String>();
+            final Set<String> vetoedPackages = new HashSet<String>();
+            for (AnnotationInstance instance : index.getAnnotations(VETOED_NAME)) {
+                final AnnotationTarget target = instance.target();
+                if (target instanceof ClassInfo) {
+                    final String className = ((ClassInfo) target).name().toString();
+                    if (className.endsWith(PACKAGE_INFO)) {
+                        vetoedPackages.add(getPackageName(className));
+                    } else {
+                        vetoedClasses.add(className);
+                    }
+                }
+            }
+            int skipped = 0;
             for (ClassInfo classInfo : index.getKnownClasses()) {
-                classNames.add(classInfo.name().toString());
+                final String className = classInfo.name().toString();
+                // Weld loads every bean class only to discard annotation types and vetoed types afterwards,
+                // so leave them out up front to avoid loading classes that never become beans
+                if (Indices.isAnnotation(classInfo) || vetoedClasses.contains(className) || vetoedPackages.contains(getPackageName(className))) {
+                    skipped++;
+                } else {
+                    classNames.add(className);
+                }
             }
+            WeldLogger.DEPLOYMENT_LOGGER.debugf("Skipped %d annotation or vetoed types of %d indexed classes in %s", skipped, skipped + classNames.size(), beanArchiveMetadata.getResourceRoot());
         }
 
         String beanArchiveId = beanArchivePrefix;
@@ -178,6 +208,11 @@ public class BeanArchiveProcessor implements DeploymentUnitProcessor {
         return new BeanDeploymentArchiveImpl(classNames, beanArchiveMetadata.getBeansXml(), module, beanArchiveId, root);
     }
 
+    private static String getPackageName(String className) {
+        final int index = className.lastIndexOf('.');
+        return (index < 0) ? "" : className.substring(0, index);
+    }
+
     @Override
     public void undeploy(DeploymentUnit context) {
 